@@ -2,6 +2,7 @@ plugins {
     java
     alias(libs.plugins.spring.boot)
     alias(libs.plugins.spring.dependency.management)
+    alias(libs.plugins.jmh)
     id("jacoco")
 }
 
@@ -23,19 +24,24 @@ dependencyManagement {
 
 dependencies {
     implementation(libs.spring.boot.starter.web)
+    implementation(libs.spring.boot.starter.actuator)
+    runtimeOnly(libs.micrometer.registry.prometheus)
     compileOnly(libs.lombok)
     annotationProcessor(libs.lombok)
     annotationProcessor(libs.spring.boot.configuration.processor)
     testImplementation(libs.spring.boot.starter.test)
+    testImplementation(libs.hdrhistogram)
 }
 
 // about source and compilation
 java {
-    sourceCompatibility = JavaVersion.VERSION_17
+    toolchain {
+        languageVersion = JavaLanguageVersion.of(21)
+    }
 }
 
 with(extensions.getByType(JacocoPluginExtension::class.java)) {
-    toolVersion = "0.8.7"
+    toolVersion = "0.8.11"
 }
 
 // bundling tasks
@@ -48,5 +54,44 @@ tasks.getByName("jar") {
 // test tasks
 tasks.test {
     ignoreFailures = true
-    useJUnitPlatform()
+    useJUnitPlatform {
+        excludeTags("load")
+    }
+}
+
+// @Tag("load") 가 붙은 부하 테스트는 ./gradlew loadTest 로 실행한다.
+// -Pload.<이름>=값 은 부하 설정으로, -Pload.app.<속성>=값 은 애플리케이션 속성으로 전달된다. (PointLoadTest 참고)
+tasks.register<Test>("loadTest") {
+    group = "verification"
+    description = "Runs the point API load test."
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("load")
+    }
+    maxHeapSize = "4g"
+    systemProperty("load.report-directory", layout.buildDirectory.dir("reports/load").get().asFile.path)
+    project.properties
+        .filterKeys { it.startsWith("load.") }
+        .forEach { (key, value) -> systemProperty(key, value.toString()) }
+    testLogging {
+        showStandardStreams = true
+    }
+    outputs.upToDateWhen { false }
+}
+
+// src/jmh 의 JMH 벤치마크는 ./gradlew jmh 로 실행하고, 결과는 회귀 비교를 위해 JSON 으로 기록한다.
+// -PjmhThrottle=true 인 경우 Table 과 같은 임의 지연을 포함해 측정한다.
+jmh {
+    jmhVersion = libs.versions.jmh.get()
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("results/jmh/results.json")
+    jvmArgs = listOf("-Xmx4g")
+    // 벤치마크도 테스트와 같은 PointServiceFixture 로 PointService 를 조립한다.
+    includeTests = true
+    benchmarkParameters.put(
+        "throttle",
+        objects.listProperty<String>().value(listOf(findProperty("jmhThrottle")?.toString() ?: "false"))
+    )
+    findProperty("jmhIncludes")?.let { includes = listOf(it.toString()) }
 }
@@ -0,0 +1,70 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 벤치마크용 포인트 내역 저장소입니다.
+ * 조회는 IndexedPointHistoryRepository 와 같은 회원별 색인을 사용하고,
+ * throttle 이 true 인 경우 저장 시 PointHistoryTable 과 같은 분포(0~300ms)의 지연을 재현합니다.
+ * 준비 단계의 데이터는 seed 로 지연 없이 적재합니다.
+ */
+public class BenchmarkPointHistoryRepository implements PointHistoryRepository {
+
+    private final PointHistoryIndex pointHistoryIndex = new PointHistoryIndex();
+    private final AtomicLong cursor = new AtomicLong();
+    private final boolean throttle;
+
+    public BenchmarkPointHistoryRepository(boolean throttle) {
+        this.throttle = throttle;
+    }
+
+    public void seed(long userId, long amount, TransactionType type, long updateMillis) {
+        pointHistoryIndex.add(new PointHistory(cursor.incrementAndGet(), userId, amount, type, updateMillis));
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        throttle(300);
+        PointHistory pointHistory = new PointHistory(cursor.incrementAndGet(), userId, amount, type, updateMillis);
+        pointHistoryIndex.add(pointHistory);
+        return pointHistory;
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        return pointHistoryIndex.findAllByUserId(userId);
+    }
+
+    @Override
+    public List<PointHistory> selectByUserId(long userId, long afterId, long fromMillis, long toMillis, int limit) {
+        return pointHistoryIndex.findByUserId(userId, afterId, fromMillis, toMillis, limit);
+    }
+
+    @Override
+    public void forEachByUserId(long userId, long afterId, Consumer<PointHistory> action) {
+        pointHistoryIndex.forEachByUserId(userId, afterId, action);
+    }
+
+    @Override
+    public void forEach(long afterId, Consumer<PointHistory> action) {
+        pointHistoryIndex.forEach(afterId, action);
+    }
+
+    private void throttle(long millis) {
+        if (!throttle) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(ThreadLocalRandom.current().nextLong(millis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 벤치마크용 회원 포인트 저장소입니다.
+ * throttle 이 true 인 경우 UserPointTable 과 같은 분포(조회 0~200ms, 저장 0~300ms)의 지연을 재현하고,
+ * false 인 경우 지연 없이 PointService 자체의 오버헤드만 측정할 수 있도록 합니다.
+ * 준비 단계의 데이터는 seed 로 지연 없이 적재합니다.
+ */
+public class BenchmarkUserPointRepository implements UserPointRepository {
+
+    private final ConcurrentHashMap<Long, UserPoint> table = new ConcurrentHashMap<>();
+    private final boolean throttle;
+
+    public BenchmarkUserPointRepository(boolean throttle) {
+        this.throttle = throttle;
+    }
+
+    public void seed(long id, long amount) {
+        table.put(id, new UserPoint(id, amount, System.currentTimeMillis()));
+    }
+
+    @Override
+    public UserPoint selectById(long id) {
+        throttle(200);
+        return table.getOrDefault(id, UserPoint.empty(id));
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        throttle(300);
+        UserPoint userPoint = new UserPoint(id, amount, System.currentTimeMillis());
+        table.put(id, userPoint);
+        return userPoint;
+    }
+
+    private void throttle(long millis) {
+        if (!throttle) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(ThreadLocalRandom.current().nextLong(millis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
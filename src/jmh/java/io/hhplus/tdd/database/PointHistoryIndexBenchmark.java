@@ -0,0 +1,56 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 전체 내역 수가 늘어날 때 특정 회원 내역 조회 시간을 비교합니다.
+ * - index : 회원별 색인(PointHistoryIndex)
+ * - scan : PointHistoryTable.selectAllByUserId 와 같은 전체 탐색
+ * 회원마다 HISTORIES_PER_USER 건의 내역을 가지므로, index 는 전체 내역 수와 관계없이 일정해야 합니다.
+ * ./gradlew jmh -PjmhIncludes=PointHistoryIndexBenchmark 로 실행합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PointHistoryIndexBenchmark {
+
+    private static final long TARGET_USER_ID = 1L;
+    private static final int HISTORIES_PER_USER = 100;
+
+    @Param({"10000", "100000", "1000000", "10000000"})
+    public int totalRows;
+
+    private PointHistoryIndex index;
+    private List<PointHistory> table;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new PointHistoryIndex();
+        table = new ArrayList<>(totalRows);
+        long users = totalRows / HISTORIES_PER_USER;
+        for (long id = 1; id <= totalRows; id++) {
+            PointHistory pointHistory = new PointHistory(id, (id - 1) % users + 1, 1000L, TransactionType.CHARGE, id);
+            index.add(pointHistory);
+            table.add(pointHistory);
+        }
+    }
+
+    @Benchmark
+    public List<PointHistory> index() {
+        return index.findAllByUserId(TARGET_USER_ID);
+    }
+
+    @Benchmark
+    public List<PointHistory> scan() {
+        return table.stream().filter(pointHistory -> pointHistory.userId() == TARGET_USER_ID).toList();
+    }
+}
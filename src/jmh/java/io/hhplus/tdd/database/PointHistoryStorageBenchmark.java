@@ -0,0 +1,184 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 1억 건의 내역을 저장했을 때 저장 방식별 힙 사용량과 GC 비용을 비교합니다.
+ * - ARRAY_LIST : PointHistoryTable 과 같이 PointHistory 객체를 ArrayList 에 보관
+ * - OFF_HEAP : OffHeapPointHistoryRepository
+ * 측정 항목
+ * - fill : 빈 저장소에 내역을 모두 저장하는 시간
+ * - fullGc : 내역이 저장된 상태에서 full GC 1회의 시간
+ * - churn : 내역이 저장된 상태에서 짧게 사는 객체를 할당하는 처리량. 보조 지표로 저장 후 힙/direct 사용량(MB)을 함께 기록하며,
+ *   GC 횟수와 누적 시간은 -prof gc 로 확인합니다.
+ * - indexFootprint : TABLE 모드(IndexedPointHistoryRepository)가 같은 내역을 PointHistoryTable 과 회원별 색인에 한 번씩 보관할 때,
+ *   INDEX_ROWS 건 기준 행당 힙 사용량을 보조 지표(tableBytesPerRow, indexBytesPerRow)로 기록합니다. 회원당 내역 수가 적을수록 색인의 회원별 고정 비용이 커진다.
+ * ./gradlew jmh -PjmhIncludes=PointHistoryStorageBenchmark 로 실행합니다.
+ */
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "-XX:MaxDirectMemorySize=8g"})
+public class PointHistoryStorageBenchmark {
+
+    private static final int ROWS = 100_000_000;
+    private static final long USERS = 1_000_000;
+    private static final int INDEX_ROWS = 1_000_000;
+
+    public enum Storage {
+        ARRAY_LIST, OFF_HEAP
+    }
+
+    /**
+     * 측정마다 비어 있는 저장소. fill 에서 사용한다.
+     */
+    @State(Scope.Benchmark)
+    public static class EmptyStorage {
+
+        @Param({"ARRAY_LIST", "OFF_HEAP"})
+        public Storage storage;
+
+        private ArrayList<PointHistory> table;
+        private OffHeapPointHistoryRepository repository;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            table = null;
+            repository = null;
+            System.gc();
+            if (storage == Storage.ARRAY_LIST) {
+                table = new ArrayList<>();
+            } else {
+                repository = new OffHeapPointHistoryRepository();
+            }
+        }
+    }
+
+    /**
+     * ROWS 건의 내역이 저장된 저장소. fullGc 와 churn 에서 사용한다.
+     */
+    @State(Scope.Benchmark)
+    public static class FilledStorage {
+
+        @Param({"ARRAY_LIST", "OFF_HEAP"})
+        public Storage storage;
+
+        private Object rows;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            EmptyStorage empty = new EmptyStorage();
+            empty.storage = storage;
+            empty.setUp();
+            insertAll(empty);
+            rows = storage == Storage.ARRAY_LIST ? empty.table : empty.repository;
+        }
+    }
+
+    /**
+     * 저장 후 full GC 를 마친 시점의 메모리 사용량. churn 의 보조 지표로 기록한다.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        public long heapMegabytes;
+        public long directMegabytes;
+
+        @Setup(Level.Iteration)
+        public void setUp(FilledStorage filledStorage) {
+            System.gc();
+            heapMegabytes = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / 1024 / 1024;
+            directMegabytes = ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                    .filter(pool -> pool.getName().equals("direct"))
+                    .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                    .sum() / 1024 / 1024;
+        }
+    }
+
+    /**
+     * 색인의 행당 힙 사용량. full GC 후 힙 사용량의 차이로 계산한다.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class IndexFootprint {
+
+        @Param({"1", "10", "100"})
+        public int historiesPerUser;
+
+        public long tableBytesPerRow;
+        public long indexBytesPerRow;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public Object fill(EmptyStorage emptyStorage) {
+        return insertAll(emptyStorage);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 5)
+    public Object fullGc(FilledStorage filledStorage) {
+        System.gc();
+        return filledStorage.rows;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public long[] churn(FilledStorage filledStorage, Footprint footprint) {
+        return new long[4];
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public Object indexFootprint(IndexFootprint indexFootprint) {
+        long users = INDEX_ROWS / indexFootprint.historiesPerUser;
+        long before = usedHeapAfterGc();
+        ArrayList<PointHistory> table = new ArrayList<>();
+        for (long id = 1; id <= INDEX_ROWS; id++) {
+            table.add(new PointHistory(id, (id - 1) % users + 1, 1000L, TransactionType.CHARGE, id));
+        }
+        long afterTable = usedHeapAfterGc();
+        PointHistoryIndex index = new PointHistoryIndex();
+        table.forEach(index::add);
+        long afterIndex = usedHeapAfterGc();
+
+        indexFootprint.tableBytesPerRow = (afterTable - before) / INDEX_ROWS;
+        indexFootprint.indexBytesPerRow = (afterIndex - afterTable) / INDEX_ROWS;
+        return new Object[]{table, index};
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static Object insertAll(EmptyStorage emptyStorage) {
+        if (emptyStorage.storage == Storage.ARRAY_LIST) {
+            for (long id = 1; id <= ROWS; id++) {
+                emptyStorage.table.add(new PointHistory(id, (id - 1) % USERS + 1, 1000L, TransactionType.CHARGE, id));
+            }
+            return emptyStorage.table;
+        }
+        for (long id = 1; id <= ROWS; id++) {
+            emptyStorage.repository.insert((id - 1) % USERS + 1, 1000L, TransactionType.CHARGE, id);
+        }
+        return emptyStorage.repository;
+    }
+}
@@ -0,0 +1,145 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * PointWriteAheadLog 의 기록 처리량과 재시작 시 복구 시간을 측정합니다.
+ * - appendHistory : 스레드 수별로 충전 한 건(내역과 변경 후 잔고를 담은 레코드 하나)을 기록하고 디스크 반영(awaitDurable)까지 기다리는 처리량.
+ *   스레드가 늘수록 한 번의 force 로 함께 반영되는 기록이 늘어난다.
+ * - recovery : histories 건의 내역이 기록된 로그를 다시 열어 IndexedPointHistoryRepository 색인으로 복구하는 시간
+ * ./gradlew jmh -PjmhIncludes=PointWriteAheadLogBenchmark 로 실행합니다.
+ */
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "-XX:MaxDirectMemorySize=8g"})
+public class PointWriteAheadLogBenchmark {
+
+    private static final long SEGMENT_SIZE = 64L * 1024 * 1024;
+    private static final long USERS = 1_000_000;
+
+    @State(Scope.Benchmark)
+    public static class AppendState {
+
+        private final AtomicLong nextUserId = new AtomicLong();
+        private final AtomicLong nextHistoryId = new AtomicLong();
+        private Path directory;
+        private PointWriteAheadLog wal;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("point-wal-append-");
+            wal = new PointWriteAheadLog(directory, SEGMENT_SIZE, 0L);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            wal.close();
+            delete(directory);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class AppendThreadState {
+
+        private long userId;
+
+        @Setup(Level.Trial)
+        public void setUp(AppendState appendState) {
+            userId = appendState.nextUserId.incrementAndGet();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class RecoveryState {
+
+        @Param({"50000000"})
+        public int histories;
+
+        private Path directory;
+
+        // 내역을 한 번만 기록해 두고, 측정마다 같은 로그를 다시 연다.
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("point-wal-recovery-");
+            try (PointWriteAheadLog wal = new PointWriteAheadLog(directory, SEGMENT_SIZE, 0L)) {
+                long last = 0;
+                for (long id = 1; id <= histories; id++) {
+                    last = wal.appendHistory(new PointHistory(id, (id - 1) % USERS + 1, 1000L, TransactionType.CHARGE, id));
+                }
+                wal.awaitDurable(last);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            delete(directory);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Threads(1)
+    public long appendHistory_1thread(AppendState appendState, AppendThreadState threadState) {
+        return appendDurable(appendState, threadState);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Threads(8)
+    public long appendHistory_8threads(AppendState appendState, AppendThreadState threadState) {
+        return appendDurable(appendState, threadState);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Threads(64)
+    public long appendHistory_64threads(AppendState appendState, AppendThreadState threadState) {
+        return appendDurable(appendState, threadState);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public IndexedPointHistoryRepository recovery(RecoveryState recoveryState) throws IOException {
+        IndexedPointHistoryRepository repository = new IndexedPointHistoryRepository(new PointHistoryTable());
+        try (PointWriteAheadLog reopened = new PointWriteAheadLog(recoveryState.directory, SEGMENT_SIZE, 0L)) {
+            reopened.forEachHistory(repository::restore);
+        }
+        return repository;
+    }
+
+    private static long appendDurable(AppendState appendState, AppendThreadState threadState) {
+        PointHistory pointHistory = new PointHistory(appendState.nextHistoryId.incrementAndGet(), threadState.userId, 1000L,
+                TransactionType.CHARGE, System.currentTimeMillis());
+        long sequence = appendState.wal.appendHistory(pointHistory);
+        appendState.wal.awaitDurable(sequence);
+        return sequence;
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.BenchmarkPointHistoryRepository;
+import io.hhplus.tdd.database.BenchmarkUserPointRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 외부 결제를 포함한 결제(checkout) 처리량을 소수의 회원에게 요청이 몰리는 경우에 측정합니다.
+ * - LOCKED : 회원별 락을 잡은 채로 잔고를 확인하고 외부 결제를 기다린 뒤 포인트를 사용한다. 같은 회원의 결제는 결제 시간만큼 직렬화된다.
+ * - HOLD : 포인트를 예약(hold)하고 락 없이 외부 결제를 기다린 뒤 확정(capture)한다. 락은 예약과 확정 때만 짧게 잡는다.
+ * 외부 결제는 paymentMicros 만큼 parkNanos 로 대기하며, 스레드 수(8/64)가 결제를 동시에 기다릴 수 있는 요청 수가 된다.
+ * ./gradlew jmh 로 실행합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PointCheckoutBenchmark {
+
+    private static final long INITIAL_POINT = Long.MAX_VALUE / 2;
+
+    public enum CheckoutFlow {
+        LOCKED, HOLD
+    }
+
+    @Param({"LOCKED", "HOLD"})
+    public CheckoutFlow flow;
+
+    @Param({"1", "8"})
+    public int users;
+
+    @Param({"100", "1000"})
+    public long paymentMicros;
+
+    private PointService pointService;
+    private UserLockProvider userLockProvider;
+
+    // 사용 내역이 계속 쌓이므로 iteration 마다 저장소를 새로 만든다.
+    @Setup(Level.Iteration)
+    public void setUp() {
+        BenchmarkUserPointRepository userPointRepository = new BenchmarkUserPointRepository(false);
+        BenchmarkPointHistoryRepository pointHistoryRepository = new BenchmarkPointHistoryRepository(false);
+        for (long userId = 1; userId <= users; userId++) {
+            userPointRepository.seed(userId, INITIAL_POINT);
+        }
+
+        userLockProvider = new RefCountedUserLockProvider();
+        PointHoldStore pointHoldStore = new PointHoldStore(userLockProvider, TimeUnit.MINUTES.toMillis(10), 1_000L, false);
+        pointService = new PointServiceFixture()
+                .userPointRepository(userPointRepository)
+                .pointHistoryRepository(pointHistoryRepository)
+                .userLockProvider(userLockProvider)
+                .pointHoldStore(pointHoldStore)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UserPoint checkout_8threads() {
+        return checkout();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public UserPoint checkout_64threads() {
+        return checkout();
+    }
+
+    private UserPoint checkout() {
+        long userId = ThreadLocalRandom.current().nextLong(1, users + 1);
+        if (flow == CheckoutFlow.LOCKED) {
+            return userLockProvider.withLock(userId, () -> {
+                PointService.validateUse(pointService.getUserPoint(userId), 1L);
+                pay();
+                return pointService.usePoint(userId, 1L);
+            });
+        }
+
+        PointHold hold = pointService.holdPoint(userId, 1L);
+        pay();
+        return pointService.capturePoint(hold.holdId());
+    }
+
+    private void pay() {
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(paymentMicros));
+    }
+}
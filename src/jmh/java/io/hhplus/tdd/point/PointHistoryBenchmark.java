@@ -0,0 +1,52 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.BenchmarkPointHistoryRepository;
+import io.hhplus.tdd.database.BenchmarkUserPointRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원의 내역 수에 따른 포인트 내역 조회 시간을 측정합니다.
+ * 측정 대상 회원 외에 OTHER_USERS 명의 회원이 같은 수의 내역을 가지고 있습니다.
+ * ./gradlew jmh 로 실행합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PointHistoryBenchmark {
+
+    private static final long TARGET_USER_ID = 1L;
+    private static final int OTHER_USERS = 9;
+
+    @Param({"10", "1000", "100000"})
+    public int historySize;
+
+    private PointService pointService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkUserPointRepository userPointRepository = new BenchmarkUserPointRepository(false);
+        BenchmarkPointHistoryRepository pointHistoryRepository = new BenchmarkPointHistoryRepository(false);
+        for (int i = 0; i < historySize; i++) {
+            for (long userId = TARGET_USER_ID; userId <= TARGET_USER_ID + OTHER_USERS; userId++) {
+                pointHistoryRepository.seed(userId, PointService.MIN_CHARGE_AMOUNT, TransactionType.CHARGE, System.currentTimeMillis());
+            }
+        }
+
+        pointService = new PointServiceFixture()
+                .userPointRepository(userPointRepository)
+                .pointHistoryRepository(pointHistoryRepository)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    @Benchmark
+    public List<PointHistory> getPointHistories() {
+        return pointService.getPointHistories(TARGET_USER_ID);
+    }
+}
@@ -0,0 +1,81 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.BenchmarkUserPointRepository;
+import io.hhplus.tdd.database.OffHeapPointHistoryRepository;
+import io.hhplus.tdd.database.PointRankingIndex;
+import io.hhplus.tdd.database.RankingUserPointRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 순위 색인(PointRankingIndex)을 갱신할 때와 갱신하지 않을 때의 충전/사용 처리량을 비교합니다.
+ * 지연 없는 저장소를 사용하므로, 잔고 저장마다 추가되는 색인 반영 비용이 그대로 드러난다.
+ * 회원 수가 적으면(8명) 같은 회원의 색인 항목 갱신이, 많으면(10만 명) 색인 크기에 따른 비용이 드러난다.
+ * ./gradlew jmh -PjmhIncludes=PointRankingBenchmark 로 실행합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PointRankingBenchmark {
+
+    private static final long INITIAL_POINT = Long.MAX_VALUE / 2;
+
+    @Param({"8", "100000"})
+    public int users;
+
+    @Param({"false", "true"})
+    public boolean ranking;
+
+    private PointService pointService;
+    private PointServiceFixture fixture;
+
+    // 충전/사용 내역이 계속 쌓이므로 iteration 마다 저장소를 새로 만든다.
+    @Setup(Level.Iteration)
+    public void setUp() {
+        BenchmarkUserPointRepository userPointRepository = new BenchmarkUserPointRepository(false);
+        PointRankingIndex pointRankingIndex = new PointRankingIndex(ranking);
+        for (long userId = 1; userId <= users; userId++) {
+            userPointRepository.seed(userId, INITIAL_POINT);
+            if (ranking) {
+                pointRankingIndex.update(new UserPoint(userId, INITIAL_POINT, 0L));
+            }
+        }
+
+        fixture = new PointServiceFixture()
+                .userPointRepository(ranking ? new RankingUserPointRepository(userPointRepository, pointRankingIndex) : userPointRepository)
+                .pointHistoryRepository(new OffHeapPointHistoryRepository())
+                .pointRankingIndex(pointRankingIndex)
+                .executor(Runnable::run);
+        pointService = fixture.build();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UserPoint chargeAndUse_1thread() {
+        return chargeAndUse();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public UserPoint chargeAndUse_16threads() {
+        return chargeAndUse();
+    }
+
+    private UserPoint chargeAndUse() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long userId = random.nextLong(1, users + 1);
+        return random.nextBoolean()
+                ? pointService.chargePoint(userId, PointService.MIN_CHARGE_AMOUNT)
+                : pointService.usePoint(userId, 1L);
+    }
+}
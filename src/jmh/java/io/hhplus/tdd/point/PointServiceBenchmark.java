@@ -0,0 +1,140 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.BenchmarkPointHistoryRepository;
+import io.hhplus.tdd.database.BenchmarkUserPointRepository;
+import io.hhplus.tdd.database.PointRankingIndex;
+import io.hhplus.tdd.database.RankingUserPointRepository;
+import io.hhplus.tdd.database.UserPointRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 포인트 충전/사용 처리량을 스레드 수(1/8/64)와 회원 분포별로 측정합니다.
+ * - SINGLE : 모든 요청이 한 회원에게 몰리는 경우로, 경합이 가장 심한 경우를 측정한다.
+ * - HOT : 소수(8명)의 회원에게 요청이 몰리는 경우로, 회원별 락 경합을 측정한다.
+ * - UNIFORM : 100만 명의 회원에게 고르게 분포하는 경우로, 락 관리 자체의 비용을 측정한다.
+ * writeMode 가 SHARDED 인 경우 회원별 락 대신 CPU 코어 수만큼의 샤드 스레드(ShardedPointEngine)가 처리하며, 호출 스레드는 결과를 기다린다.
+ * writeMode 가 OPTIMISTIC 인 경우 호출 스레드가 버전 비교로 처리하므로(OptimisticPointEngine), 분포별로 LOCK 과 비교하면 경합 수준에 따른 차이를 볼 수 있다.
+ * ranking 이 true 인 경우 잔고 저장마다 순위 색인(PointRankingIndex)을 갱신하므로, false 와 비교하면 색인 유지 비용을 볼 수 있다.
+ * throttle 이 false(기본값)인 경우 Table 의 임의 지연 없이 PointService 의 오버헤드만 측정한다.
+ * ./gradlew jmh 로 실행합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PointServiceBenchmark {
+
+    private static final long INITIAL_POINT = Long.MAX_VALUE / 2;
+
+    public enum UserDistribution {
+        SINGLE(1), HOT(8), UNIFORM(1_000_000);
+
+        private final int users;
+
+        UserDistribution(int users) {
+            this.users = users;
+        }
+    }
+
+    @Param({"false"})
+    public boolean throttle;
+
+    @Param({"SINGLE", "HOT", "UNIFORM"})
+    public UserDistribution distribution;
+
+    @Param({"REF_COUNTED"})
+    public PointLockType lockType;
+
+    @Param({"LOCK", "SHARDED", "OPTIMISTIC"})
+    public PointWriteMode writeMode;
+
+    @Param({"false", "true"})
+    public boolean ranking;
+
+    private PointService pointService;
+    private PointServiceFixture fixture;
+
+    // 충전/사용 내역이 계속 쌓이므로 iteration 마다 저장소를 새로 만든다.
+    @Setup(Level.Iteration)
+    public void setUp() {
+        BenchmarkUserPointRepository benchmarkUserPointRepository = new BenchmarkUserPointRepository(throttle);
+        BenchmarkPointHistoryRepository pointHistoryRepository = new BenchmarkPointHistoryRepository(throttle);
+        PointRankingIndex pointRankingIndex = new PointRankingIndex(ranking);
+        for (long userId = 1; userId <= distribution.users; userId++) {
+            benchmarkUserPointRepository.seed(userId, INITIAL_POINT);
+            if (ranking) {
+                pointRankingIndex.update(new UserPoint(userId, INITIAL_POINT, 0L));
+            }
+        }
+        UserPointRepository userPointRepository = ranking
+                ? new RankingUserPointRepository(benchmarkUserPointRepository, pointRankingIndex)
+                : benchmarkUserPointRepository;
+
+        fixture = new PointServiceFixture()
+                .userPointRepository(userPointRepository)
+                .pointHistoryRepository(pointHistoryRepository)
+                .userLockProvider(new UserLockProviderConfig().userLockProvider(lockType, 4096, 0, 0L))
+                .writeMode(writeMode)
+                .pointRankingIndex(pointRankingIndex)
+                .executor(Runnable::run);
+        pointService = fixture.build();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UserPoint chargePoint_1thread() {
+        return chargePoint();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UserPoint chargePoint_8threads() {
+        return chargePoint();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public UserPoint chargePoint_64threads() {
+        return chargePoint();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UserPoint usePoint_1thread() {
+        return usePoint();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UserPoint usePoint_8threads() {
+        return usePoint();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public UserPoint usePoint_64threads() {
+        return usePoint();
+    }
+
+    private UserPoint chargePoint() {
+        return pointService.chargePoint(nextUserId(), PointService.MIN_CHARGE_AMOUNT);
+    }
+
+    private UserPoint usePoint() {
+        return pointService.usePoint(nextUserId(), 1L);
+    }
+
+    private long nextUserId() {
+        return ThreadLocalRandom.current().nextLong(1, distribution.users + 1);
+    }
+}
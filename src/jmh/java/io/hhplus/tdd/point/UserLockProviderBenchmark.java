@@ -0,0 +1,100 @@
+package io.hhplus.tdd.point;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원별 락 관리 방식(PointLockType)의 메모리 사용량과 경합 시 처리량을 비교합니다.
+ * - MAP : 회원마다 락을 만들고 유지
+ * - STRIPED : 4,096 개의 락을 회원 id 해시로 공유
+ * - REF_COUNTED : 사용 중인 회원의 락만 유지
+ * 측정 항목
+ * - withLock : 16 개 스레드가 activeUsers 명 중 임의의 회원 락을 획득/해제하는 처리량
+ * - withLock_distinctUsers : 회원 1 ~ 10,000,000 의 락을 한 번씩 획득/해제하는 데 걸리는 시간 (single shot)
+ *   끝난 뒤 남아 있는 락 수(locks)와 full GC 후 힙 사용량(heapMegabytes)을 보조 지표로 기록합니다. (MAP 은 회원 수만큼 락이 힙에 남는다)
+ * ./gradlew jmh -PjmhIncludes=UserLockProviderBenchmark 로 실행합니다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class UserLockProviderBenchmark {
+
+    private static final int STRIPES = 4096;
+    private static final long DISTINCT_USERS = 10_000_000L;
+
+    @State(Scope.Benchmark)
+    public static class ContendedLocks {
+
+        @Param({"MAP", "STRIPED", "REF_COUNTED"})
+        public PointLockType lockType;
+
+        @Param({"16", "1024", "1000000"})
+        public int activeUsers;
+
+        private UserLockProvider userLockProvider;
+        private long[] counters;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            userLockProvider = create(lockType);
+            counters = new long[activeUsers];
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class DistinctLocks {
+
+        @Param({"MAP", "STRIPED", "REF_COUNTED"})
+        public PointLockType lockType;
+
+        // 보조 지표. 모든 회원의 락을 획득/해제한 뒤 남아 있는 락의 수와 full GC 후 힙 사용량
+        public long locks;
+        public long heapMegabytes;
+
+        private UserLockProvider userLockProvider;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            userLockProvider = create(lockType);
+        }
+    }
+
+    @Benchmark
+    @Threads(16)
+    public long withLock(ContendedLocks contendedLocks) {
+        int user = ThreadLocalRandom.current().nextInt(contendedLocks.activeUsers);
+        return contendedLocks.userLockProvider.withLock(user + 1L, () -> ++contendedLocks.counters[user]);
+    }
+
+    @Benchmark
+    @Threads(1)
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public UserLockProvider withLock_distinctUsers(DistinctLocks distinctLocks) {
+        UserLockProvider userLockProvider = distinctLocks.userLockProvider;
+        for (long userId = 1; userId <= DISTINCT_USERS; userId++) {
+            userLockProvider.withLock(userId, () -> null);
+        }
+
+        distinctLocks.locks = userLockProvider.lockCount();
+        System.gc();
+        distinctLocks.heapMegabytes = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / 1024 / 1024;
+        return userLockProvider;
+    }
+
+    private static UserLockProvider create(PointLockType lockType) {
+        return switch (lockType) {
+            case MAP -> new ConcurrentMapUserLockProvider();
+            case STRIPED -> new StripedUserLockProvider(STRIPES);
+            case REF_COUNTED -> new RefCountedUserLockProvider();
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.TddApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 플랫폼 스레드 모드와 가상 스레드 모드(spring.threads.virtual.enabled)의 처리량과 지연 시간 분포(p50/p99)를 비교합니다.
+ * 모드마다 애플리케이션을 임의 포트로 띄운 뒤, 1,000 개의 벤치마크 스레드가 동시에 포인트 조회(80%)/충전(20%) 요청을 보냅니다.
+ * 200 이 아닌 응답은 예외로 처리되어 측정이 실패합니다.
+ * ./gradlew jmh -PjmhIncludes=VirtualThreadLoadBenchmark 로 실행합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+// 가상 스레드가 캐리어 스레드를 점유하는 경우 스택을 출력한다.
+@Fork(value = 1, jvmArgsAppend = "-Djdk.tracePinnedThreads=short")
+@Threads(1_000)
+public class VirtualThreadLoadBenchmark {
+
+    private static final int USERS = 100_000;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(TddApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.main.banner-mode=off",
+                        "spring.threads.virtual.enabled=" + virtualThreads
+                )
+                .run();
+        baseUrl = "http://localhost:" + context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int request() throws IOException, InterruptedException {
+        long userId = ThreadLocalRandom.current().nextLong(1, USERS + 1);
+        HttpRequest request = ThreadLocalRandom.current().nextInt(10) < 8
+                ? HttpRequest.newBuilder(URI.create(baseUrl + "/point/" + userId)).GET().build()
+                : HttpRequest.newBuilder(URI.create(baseUrl + "/point/" + userId + "/charge"))
+                        .header("Content-Type", "application/json")
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString("1000"))
+                        .build();
+
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) {
+            throw new IllegalStateException("포인트 요청 실패. status=" + status);
+        }
+        return status;
+    }
+}
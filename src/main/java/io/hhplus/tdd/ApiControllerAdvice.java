@@ -1,5 +1,6 @@
 package io.hhplus.tdd;
 
+import io.hhplus.tdd.point.PointMetrics;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -7,6 +8,13 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 
 @RestControllerAdvice
 class ApiControllerAdvice extends ResponseEntityExceptionHandler {
+
+    private final PointMetrics pointMetrics;
+
+    ApiControllerAdvice(PointMetrics pointMetrics) {
+        this.pointMetrics = pointMetrics;
+    }
+
     @ExceptionHandler(value = Exception.class)
     public ResponseEntity<ErrorResponse> handleException(Exception e) {
         return ResponseEntity.status(500).body(new ErrorResponse("500", "에러가 발생했습니다."));
@@ -14,6 +22,8 @@ class ApiControllerAdvice extends ResponseEntityExceptionHandler {
 
     @ExceptionHandler(value = UserPointException.class)
     public ResponseEntity<ErrorResponse> handlePointException(UserPointException e) {
-        return ResponseEntity.status(400).body(new ErrorResponse("400", e.getMessage()));
+        pointMetrics.rejected(e);
+        int status = e.getReason().status();
+        return ResponseEntity.status(status).body(new ErrorResponse(String.valueOf(status), e.getMessage()));
     }
 }
@@ -1,7 +1,50 @@
 package io.hhplus.tdd;
 
 public class UserPointException extends RuntimeException {
+
+    /**
+     * 요청이 거절된 사유와 응답 상태 코드. 거절 건수를 사유별로 집계하는 데 사용한다.
+     * - RATE_LIMITED, TOO_MANY_WAITERS : 요청 수 제한에 걸려 처리하지 않은 요청 (429)
+     * - LOCK_TIMEOUT : 회원별 락을 제한 시간 안에 얻지 못한 요청 (503)
+     * - OVERLOADED : 비동기 작업 executor 의 허용량(point.async.max-in-flight)을 넘어 등록하지 못한 요청 (503)
+     * - HOLD_NOT_FOUND : 없거나 이미 확정/해제/만료된 포인트 예약을 요청한 경우 (404)
+     * - UNSUPPORTED : 현재 설정(point.ranking.enabled 등)에서 제공하지 않는 기능을 요청한 경우 (501)
+     */
+    public enum Reason {
+        VALIDATION(400),
+        MIN_CHARGE(400),
+        INSUFFICIENT_BALANCE(400),
+        IDEMPOTENCY_KEY_REUSED(400),
+        HOLD_NOT_FOUND(404),
+        RATE_LIMITED(429),
+        TOO_MANY_WAITERS(429),
+        LOCK_TIMEOUT(503),
+        OVERLOADED(503),
+        UNSUPPORTED(501);
+
+        private final int status;
+
+        Reason(int status) {
+            this.status = status;
+        }
+
+        public int status() {
+            return status;
+        }
+    }
+
+    private final Reason reason;
+
     public UserPointException(String message) {
+        this(Reason.VALIDATION, message);
+    }
+
+    public UserPointException(Reason reason, String message) {
         super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
     }
 }
@@ -0,0 +1,349 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.VersionedUserPoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 회원 잔고를 버전과 함께 메모리에 보관하고, compare-and-set 으로만 변경하는 저장소입니다. (point.write-mode=OPTIMISTIC)
+ * - 처음 접근하는 회원은 저장소(UserPointTable 등)에서 읽어 버전 0 으로 채운다.
+ * - 변경은 읽은 버전이 그대로인 경우에만 성공하고, 그 사이 다른 스레드가 변경했다면 실패한다. 락을 사용하지 않는다.
+ * - 성공한 변경은 confirm 을 호출할 때까지 확정 대기 상태로 남는다. 그동안 다른 변경은 실패하고, read 는 이전 값을 반환한다.
+ *   confirm 은 변경의 내역을 회원별 대기열에 넣고 바로 확정하므로, 확정 대기 상태는 메모리 작업 동안에만 유지되고 대기열은 버전 순서와 같다.
+ * - 대기열의 내역과 변경된 잔고는 회원별 기록 락을 잡은 스레드가 버전 순서대로 이어서 기록한다. (내역 먼저, 잔고 나중)
+ *   기록 중에 confirm/persist 를 호출한 스레드는 락을 기다렸다가, 자기 변경까지 기록된 것을 확인한 뒤 돌아간다.
+ * - 내역 저장에 실패하면 잔고를 그 변경 전 값으로 되돌리고, 뒤이어 대기열에 있던 변경도 함께 버린다. 버린 변경의 confirm 은 같은 예외를 던진다.
+ * - fence 로 막아 둔 회원은 compareAndSet 이 모두 실패하므로, 막은 스레드만 set 으로 잔고를 바꿀 수 있다. (이체/예약/만료)
+ * 보관 중인 회원 수가 maxSlots 를 넘으면, 저장소에 모두 기록되었고 변경 중이 아닌 회원을 상한 이하가 될 때까지 제거합니다.
+ * 제거된 회원은 다음 접근 때 저장소에서 다시 읽으며, 버전도 0 부터 다시 시작합니다.
+ */
+public class CasUserPointStore {
+
+    private static final Logger log = LoggerFactory.getLogger(CasUserPointStore.class);
+    private static final int MAX_PERSIST_ATTEMPTS = 3;
+
+    private final UserPointRepository delegate;
+    private final PointHistoryRepository pointHistoryRepository;
+    private final int maxSlots;
+    private final ConcurrentHashMap<Long, Slot> slots = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean(false);
+
+    public CasUserPointStore(UserPointRepository delegate, PointHistoryRepository pointHistoryRepository, int maxSlots) {
+        this.delegate = delegate;
+        this.pointHistoryRepository = pointHistoryRepository;
+        this.maxSlots = maxSlots;
+    }
+
+    /**
+     * 회원의 확정된 잔고를 반환한다. 확정 대기 중인 변경은 보이지 않는다.
+     */
+    public VersionedUserPoint read(long id) {
+        return slot(id).state.get().committed();
+    }
+
+    /**
+     * expected 가 회원의 현재 값이고 확정 대기 중인 변경이 없으면, 잔고를 point 로 바꾼 다음 버전을 확정 대기 상태로 만들어 반환한다.
+     * 그 사이 변경되었거나 다른 변경이 확정 대기 중이면 null 을 반환한다. 반환된 값은 반드시 바로 confirm 으로 끝내야 한다.
+     */
+    public VersionedUserPoint compareAndSet(VersionedUserPoint expected, long point) {
+        long id = expected.userPoint().id();
+        Slot slot = slot(id);
+        State current = slot.state.get();
+        if (slot.fenced || current.retired() || current.pending() != null || current.committed() != expected) {
+            return null;
+        }
+
+        VersionedUserPoint next = new VersionedUserPoint(new UserPoint(id, point, System.currentTimeMillis()), expected.version() + 1);
+        return slot.state.compareAndSet(current, new State(expected, next, false)) ? next : null;
+    }
+
+    /**
+     * compareAndSet 으로 만든 변경의 내역을 대기열에 넣고 변경을 확정한다. 이후 read 와 compareAndSet 은 이 값을 기준으로 한다.
+     * 확정한 뒤 내역과 잔고가 기록될 때까지 기다리며, 내역 저장에 실패해 변경이 버려졌으면 그 예외를 던진다.
+     */
+    public void confirm(VersionedUserPoint pending, TransactionType type, long amount) {
+        Slot slot = slot(pending.userPoint().id());
+        State current = slot.state.get();
+        Staged staged = new Staged(pending, current.committed(), type, amount, System.currentTimeMillis());
+        // 다음 변경은 확정 뒤에만 성공하므로, 확정 전에 넣으면 대기열은 버전 순서를 따른다.
+        slot.journal.add(staged);
+        slot.state.set(new State(pending, null, false));
+
+        persist(slot, pending.version());
+        if (staged.failure != null) {
+            throw staged.failure;
+        }
+    }
+
+    /**
+     * 회원의 compareAndSet 을 막는다. 막기 전에 읽은 값으로도 변경할 수 없도록 현재 값을 같은 내용의 새 객체로 바꾸며,
+     * 확정 대기 중인 변경이 있으면 끝날 때까지 기다리고, 대기열의 내역을 모두 기록한 뒤 돌아간다.
+     * 호출자는 회원별 락 등으로 fence 끼리 겹치지 않게 하고, 끝나면 unfence 를 호출해야 한다.
+     */
+    public void fence(long id) {
+        while (true) {
+            Slot slot = slot(id);
+            slot.fenced = true;
+            if (renew(slot)) {
+                // 막힌 동안 저장하는 내역(이체 등)이 대기열의 내역보다 먼저 저장되지 않게 한다.
+                persist(slot, slot.state.get().committed().version());
+                return;
+            }
+            // 막기 직전에 제거된 회원이면 저장소에서 다시 읽은 값을 막는다.
+            slot.fenced = false;
+        }
+    }
+
+    /**
+     * fence 를 푼다. 막힌 동안 읽은 값으로 변경할 수 없도록, 풀기 전에 현재 값을 다시 새 객체로 바꾼다.
+     */
+    public void unfence(long id) {
+        Slot slot = slot(id);
+        renew(slot);
+        slot.fenced = false;
+    }
+
+    /**
+     * fence 로 막아 둔 회원의 잔고를 버전 비교 없이 point 로 바꾸고 다음 버전을 반환한다. fence 를 호출한 스레드만 호출한다.
+     */
+    public VersionedUserPoint set(long id, long point) {
+        Slot slot = slot(id);
+        if (!slot.fenced) {
+            throw new IllegalStateException("fence 로 막지 않은 회원의 잔고는 set 으로 바꿀 수 없습니다. id=" + id);
+        }
+
+        VersionedUserPoint next = new VersionedUserPoint(new UserPoint(id, point, System.currentTimeMillis()), slot.state.get().committed().version() + 1);
+        slot.state.set(new State(next, null, false));
+        return next;
+    }
+
+    /**
+     * 메모리의 최신 잔고를 저장소에 기록하고, 기록될 때까지 기다린다. 기록에 실패하면 다음 persist 호출에서 최신 값으로 다시 기록한다.
+     */
+    public void persist(long id) {
+        Slot slot = slot(id);
+        persist(slot, slot.state.get().committed().version());
+    }
+
+    int slotCount() {
+        return slots.size();
+    }
+
+    /**
+     * version 까지의 내역과 잔고가 기록될 때까지 기다린다. 기록 락을 먼저 잡은 스레드가 그때까지 쌓인 변경을 모두 기록하므로,
+     * 락을 이어서 잡은 스레드는 대부분 기록할 것 없이 돌아간다.
+     */
+    private void persist(Slot slot, long version) {
+        if (slot.journal.isEmpty() && version <= slot.persistedVersion) {
+            return;
+        }
+
+        slot.persistLock.lock();
+        try {
+            flush(slot);
+        } finally {
+            slot.persistLock.unlock();
+        }
+    }
+
+    /**
+     * 대기열의 내역을 버전 순서대로 저장하고, 저장한 내역까지 반영된 잔고를 기록한다. persistLock 을 잡은 스레드만 호출한다.
+     */
+    private void flush(Slot slot) {
+        while (true) {
+            VersionedUserPoint target = slot.state.get().committed();
+            if (!record(slot, target.version())) {
+                // 잔고를 되돌렸으므로 되돌린 값을 다시 읽어 기록한다.
+                continue;
+            }
+            if (target.version() <= slot.persistedVersion || !write(target)) {
+                return;
+            }
+            slot.persistedVersion = target.version();
+        }
+    }
+
+    /**
+     * version 까지 확정된 변경의 내역을 저장한다. 저장에 실패하면 잔고를 되돌리고 false 를 반환한다.
+     */
+    private boolean record(Slot slot, long version) {
+        Staged staged;
+        while ((staged = slot.journal.peek()) != null && staged.confirmed.version() <= version) {
+            UserPoint userPoint = staged.confirmed.userPoint();
+            try {
+                pointHistoryRepository.insert(userPoint.id(), staged.amount, staged.type, staged.updateMillis);
+            } catch (RuntimeException e) {
+                discard(slot, staged, e);
+                return false;
+            }
+            slot.journal.poll();
+        }
+        return true;
+    }
+
+    /**
+     * 내역 저장에 실패한 변경(failed) 전 값으로 잔고를 되돌리고, 그 뒤에 확정된 변경도 함께 버린다.
+     * 되돌린 값은 새 버전으로 확정해, 버려진 값을 읽은 스레드의 compareAndSet 이 실패하게 한다.
+     */
+    private static void discard(Slot slot, Staged failed, RuntimeException cause) {
+        long discardedVersion;
+        while (true) {
+            State current = slot.state.get();
+            if (current.pending() != null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            VersionedUserPoint restored = new VersionedUserPoint(failed.previous.userPoint(), current.committed().version() + 1);
+            if (slot.state.compareAndSet(current, new State(restored, null, false))) {
+                discardedVersion = current.committed().version();
+                break;
+            }
+        }
+
+        Staged staged;
+        while ((staged = slot.journal.peek()) != null && staged.confirmed.version() <= discardedVersion) {
+            staged.failure = cause;
+            slot.journal.poll();
+        }
+        log.warn("포인트 내역 저장에 실패해 잔고를 되돌립니다. id={}, version={}", failed.confirmed.userPoint().id(), failed.confirmed.version(), cause);
+    }
+
+    private boolean write(VersionedUserPoint latest) {
+        UserPoint userPoint = latest.userPoint();
+        for (int attempt = 1; attempt <= MAX_PERSIST_ATTEMPTS; attempt++) {
+            try {
+                delegate.insertOrUpdate(userPoint.id(), userPoint.point());
+                return true;
+            } catch (RuntimeException e) {
+                log.warn("포인트 잔고 기록 실패. id={}, version={}, attempt={}", userPoint.id(), latest.version(), attempt, e);
+            }
+        }
+        log.error("포인트 잔고 기록을 다음 변경으로 미룹니다. id={}, version={}", userPoint.id(), latest.version());
+        return false;
+    }
+
+    /**
+     * 확정 대기 중인 변경이 끝나기를 기다린 뒤 현재 값을 같은 내용의 새 객체로 바꾼다. 이미 제거된 회원이면 false 를 반환한다.
+     */
+    private static boolean renew(Slot slot) {
+        while (true) {
+            State current = slot.state.get();
+            if (current.retired()) {
+                return false;
+            }
+            if (current.pending() != null) {
+                // 확정 대기는 confirm 의 메모리 작업 동안에만 유지되므로 잠깐만 기다린다.
+                Thread.onSpinWait();
+                continue;
+            }
+            VersionedUserPoint committed = current.committed();
+            if (slot.state.compareAndSet(current, new State(new VersionedUserPoint(committed.userPoint(), committed.version()), null, false))) {
+                return true;
+            }
+        }
+    }
+
+    private Slot slot(long id) {
+        Slot slot = slots.get(id);
+        if (slot != null && !slot.state.get().retired()) {
+            return slot;
+        }
+        if (slot != null) {
+            slots.remove(id, slot);
+        }
+
+        // 회원을 제거한 뒤 다른 스레드가 먼저 읽어 둔 오래된 잔고를 적재하지 않도록, 맵의 compute 안에서 저장소를 읽는다.
+        // 제거는 저장소에 모두 기록된 회원만 하므로, compute 안에서 읽은 값은 항상 최신이다.
+        boolean[] created = new boolean[1];
+        Slot current = slots.computeIfAbsent(id, key -> {
+            created[0] = true;
+            return new Slot(new VersionedUserPoint(delegate.selectById(key), 0L));
+        });
+        if (created[0]) {
+            sweepIfNecessary(current);
+        }
+        return current;
+    }
+
+    /**
+     * 저장소에 모두 기록되었고 변경 중이거나 막혀 있지 않은 회원을 제거 상태로 바꾼 뒤 맵에서 뺀다. 방금 적재한 회원(loaded)은 남겨 둔다.
+     * 보관 중인 회원 수가 maxSlots 이하가 되면 멈추므로, 상한을 넘긴 만큼만 제거한다.
+     * 제거 상태로 바뀐 뒤에는 compareAndSet 과 fence 가 실패하므로, 제거 전에 회원을 읽은 스레드도 다시 읽어 새로 적재된 값으로 변경한다.
+     */
+    private void sweepIfNecessary(Slot loaded) {
+        if (slots.size() <= maxSlots || !sweeping.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            Iterator<Slot> iterator = slots.values().iterator();
+            while (slots.size() > maxSlots && iterator.hasNext()) {
+                Slot slot = iterator.next();
+                State current = slot.state.get();
+                if (slot != loaded
+                        && !slot.fenced
+                        && current.pending() == null
+                        && slot.journal.isEmpty()
+                        && current.committed().version() <= slot.persistedVersion
+                        && slot.state.compareAndSet(current, new State(current.committed(), null, true))) {
+                    iterator.remove();
+                }
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    /**
+     * @param committed 확정된 값
+     * @param pending   확정 대기 중인 다음 값. 없으면 null
+     * @param retired   맵에서 제거된 회원인지 여부
+     */
+    private record State(VersionedUserPoint committed, VersionedUserPoint pending, boolean retired) {
+    }
+
+    /**
+     * 확정되었지만 아직 저장되지 않은 변경의 내역. previous 는 변경 전 값으로, 내역 저장에 실패하면 이 값으로 되돌린다.
+     */
+    private static final class Staged {
+        private final VersionedUserPoint confirmed;
+        private final VersionedUserPoint previous;
+        private final TransactionType type;
+        private final long amount;
+        private final long updateMillis;
+        // 내역 저장에 실패해 변경이 버려진 경우의 원인. 대기열에서 빼기 전에 기록한다.
+        private volatile RuntimeException failure;
+
+        private Staged(VersionedUserPoint confirmed, VersionedUserPoint previous, TransactionType type, long amount, long updateMillis) {
+            this.confirmed = confirmed;
+            this.previous = previous;
+            this.type = type;
+            this.amount = amount;
+            this.updateMillis = updateMillis;
+        }
+    }
+
+    private static final class Slot {
+        private final AtomicReference<State> state;
+        // 확정 순서(버전 순서)대로 쌓인, 저장 전 내역
+        private final ConcurrentLinkedQueue<Staged> journal = new ConcurrentLinkedQueue<>();
+        private final ReentrantLock persistLock = new ReentrantLock();
+        // persistLock 을 잡은 스레드만 변경한다.
+        private volatile long persistedVersion;
+        private volatile boolean fenced;
+
+        private Slot(VersionedUserPoint loaded) {
+            this.state = new AtomicReference<>(new State(loaded, null, false));
+            this.persistedVersion = loaded.version();
+        }
+    }
+}
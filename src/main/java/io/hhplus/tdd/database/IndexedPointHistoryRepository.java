@@ -0,0 +1,79 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 내역 저장은 PointHistoryTable 에 위임하고, 저장된 내역을 회원별 색인에도 추가합니다.
+ * 조회는 전체 내역을 훑는 PointHistoryTable.selectAllByUserId 대신 회원별 색인에서만 응답하며, PointHistoryTable 은 읽지 않습니다.
+ * 그런데도 PointHistoryTable 에 저장하는 이유
+ * - PointHistoryTable 은 변경할 수 없는 저장소(DB 역할)로, 내역 id 를 발급하고 저장 지연을 재현한다. 색인은 재시작하면 사라지는 메모리 사본이다.
+ * - 따라서 같은 내역이 힙에 두 번 보관된다. (PointHistoryStorageBenchmark.indexFootprint, 내역 100만 건 기준)
+ *   PointHistoryTable 은 행당 약 53 바이트, 색인은 회원당 내역이 100건이면 행당 약 36 바이트, 10건이면 약 95 바이트이고,
+ *   1건이면 회원별 고정 비용(map 항목과 첫 chunk) 때문에 약 420 바이트다. 내역이 많아 부담되면 OFF_HEAP 저장소를 사용한다.
+ * PointHistoryTable.insert 호출 시간은 point.table.latency 로 기록합니다.
+ */
+public class IndexedPointHistoryRepository implements PointHistoryRepository {
+
+    private final PointHistoryTable pointHistoryTable;
+    private final PointHistoryIndex pointHistoryIndex = new PointHistoryIndex();
+    private final Timer insertTimer;
+    // 복구된 내역이 있는 경우, 재시작 후 PointHistoryTable 이 다시 1부터 발급하는 id 를 복구된 마지막 id 뒤로 이어 붙인다.
+    private volatile long idOffset;
+
+    public IndexedPointHistoryRepository(PointHistoryTable pointHistoryTable) {
+        this(pointHistoryTable, new SimpleMeterRegistry());
+    }
+
+    public IndexedPointHistoryRepository(PointHistoryTable pointHistoryTable, MeterRegistry meterRegistry) {
+        this.pointHistoryTable = pointHistoryTable;
+        this.insertTimer = MeteredUserPointRepository.tableLatency(meterRegistry, "point_history", "insert");
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        long start = System.nanoTime();
+        PointHistory inserted = pointHistoryTable.insert(userId, amount, type, updateMillis);
+        insertTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        PointHistory pointHistory = idOffset == 0 ? inserted
+                : new PointHistory(inserted.id() + idOffset, inserted.userId(), inserted.amount(), inserted.type(), inserted.updateMillis());
+        pointHistoryIndex.add(pointHistory);
+        return pointHistory;
+    }
+
+    /**
+     * 로그 등 외부 저장소에서 읽은 내역을 색인에 다시 추가한다. 내역 저장을 시작하기 전에 id 순서대로 호출한다.
+     */
+    public void restore(PointHistory pointHistory) {
+        pointHistoryIndex.add(pointHistory);
+        idOffset = Math.max(idOffset, pointHistory.id());
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        return pointHistoryIndex.findAllByUserId(userId);
+    }
+
+    @Override
+    public List<PointHistory> selectByUserId(long userId, long afterId, long fromMillis, long toMillis, int limit) {
+        return pointHistoryIndex.findByUserId(userId, afterId, fromMillis, toMillis, limit);
+    }
+
+    @Override
+    public void forEachByUserId(long userId, long afterId, Consumer<PointHistory> action) {
+        pointHistoryIndex.forEachByUserId(userId, afterId, action);
+    }
+
+    @Override
+    public void forEach(long afterId, Consumer<PointHistory> action) {
+        pointHistoryIndex.forEach(afterId, action);
+    }
+}
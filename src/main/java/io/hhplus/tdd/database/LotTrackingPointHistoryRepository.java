@@ -0,0 +1,49 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 저장된 내역을 회원별 만료 lot(PointLotIndex)에 반영합니다.
+ * 내역 저장은 회원별 락(또는 mailbox drainer) 안에서 실행되므로, lot 도 저장된 순서대로 같은 구간 안에서 갱신됩니다.
+ */
+public class LotTrackingPointHistoryRepository implements PointHistoryRepository {
+
+    private final PointHistoryRepository delegate;
+    private final PointLotIndex pointLotIndex;
+
+    public LotTrackingPointHistoryRepository(PointHistoryRepository delegate, PointLotIndex pointLotIndex) {
+        this.delegate = delegate;
+        this.pointLotIndex = pointLotIndex;
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        PointHistory pointHistory = delegate.insert(userId, amount, type, updateMillis);
+        pointLotIndex.add(pointHistory);
+        return pointHistory;
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        return delegate.selectAllByUserId(userId);
+    }
+
+    @Override
+    public List<PointHistory> selectByUserId(long userId, long afterId, long fromMillis, long toMillis, int limit) {
+        return delegate.selectByUserId(userId, afterId, fromMillis, toMillis, limit);
+    }
+
+    @Override
+    public void forEachByUserId(long userId, long afterId, Consumer<PointHistory> action) {
+        delegate.forEachByUserId(userId, afterId, action);
+    }
+
+    @Override
+    public void forEach(long afterId, Consumer<PointHistory> action) {
+        delegate.forEach(afterId, action);
+    }
+}
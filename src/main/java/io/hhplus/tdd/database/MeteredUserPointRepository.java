@@ -0,0 +1,52 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserPointTable 호출 시간을 point.table.latency 로 기록합니다.
+ * 캐시 등 다른 계층보다 안쪽(Table 바로 앞)에 두어 Table 자체의 지연만 측정합니다.
+ */
+public class MeteredUserPointRepository implements UserPointRepository {
+
+    private final UserPointRepository delegate;
+    private final Timer selectTimer;
+    private final Timer updateTimer;
+
+    public MeteredUserPointRepository(UserPointRepository delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.selectTimer = tableLatency(meterRegistry, "user_point", "select_by_id");
+        this.updateTimer = tableLatency(meterRegistry, "user_point", "insert_or_update");
+    }
+
+    static Timer tableLatency(MeterRegistry meterRegistry, String table, String method) {
+        return Timer.builder("point.table.latency")
+                .description("Table 호출 시간")
+                .tag("table", table)
+                .tag("method", method)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public UserPoint selectById(long id) {
+        long start = System.nanoTime();
+        try {
+            return delegate.selectById(id);
+        } finally {
+            selectTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        long start = System.nanoTime();
+        try {
+            return delegate.insertOrUpdate(id, amount);
+        } finally {
+            updateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
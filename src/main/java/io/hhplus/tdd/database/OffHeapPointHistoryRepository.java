@@ -0,0 +1,233 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 포인트 내역을 힙 밖(direct ByteBuffer)에 컬럼 단위로 저장하는 저장소입니다.
+ * - PointHistoryTable 은 내역마다 PointHistory 객체를 ArrayList 에 보관하므로, 내역이 수억 건이 되면 힙 사용량과 GC 부담이 커진다.
+ * - 내역은 블록(BLOCK_ROWS 건) 단위의 direct buffer 에 id, userId, amount, updateMillis(long) 와 type(byte) 컬럼으로 기록한다. (내역당 33 바이트)
+ * - 회원별로는 내역의 위치(int)만 힙의 primitive 청크에 보관하고, PointHistory 는 조회 결과로 반환할 때만 만든다.
+ * - 추가는 순차적으로 실행되고, 조회는 락 없이 이미 추가된 내역까지만 읽는다.
+ * PointHistoryTable 을 거치지 않고 id 를 직접 발급하므로, point.history.storage=OFF_HEAP 인 경우에만 사용합니다.
+ */
+public class OffHeapPointHistoryRepository implements PointHistoryRepository {
+
+    static final int BLOCK_ROWS = 1 << 20;
+    private static final int ID_OFFSET = 0;
+    private static final int USER_ID_OFFSET = Long.BYTES * BLOCK_ROWS;
+    private static final int AMOUNT_OFFSET = USER_ID_OFFSET * 2;
+    private static final int UPDATE_MILLIS_OFFSET = USER_ID_OFFSET * 3;
+    private static final int TYPE_OFFSET = USER_ID_OFFSET * 4;
+    private static final int BLOCK_BYTES = TYPE_OFFSET + BLOCK_ROWS;
+    private static final int FIRST_CHUNK_SIZE = 8;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final ConcurrentHashMap<Long, UserPositions> positions = new ConcurrentHashMap<>();
+    private volatile ByteBuffer[] blocks = new ByteBuffer[0];
+    // blocks 와 블록 내용은 size(회원별 위치 목록의 size 포함)보다 먼저 기록된다.
+    // 조회는 size 를 먼저 읽고 blocks 를 읽어야, 읽은 위치가 새로 할당된 블록에 있어도 그 블록이 포함된 배열을 본다.
+    private volatile int size;
+    private long lastId;
+
+    @Override
+    public synchronized PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        PointHistory pointHistory = new PointHistory(lastId + 1, userId, amount, type, updateMillis);
+        append(pointHistory);
+        return pointHistory;
+    }
+
+    /**
+     * 로그 등 외부 저장소에서 읽은 내역을 다시 추가한다. 이후 발급하는 id 는 복구된 마지막 id 뒤로 이어진다.
+     */
+    public synchronized void restore(PointHistory pointHistory) {
+        append(pointHistory);
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        UserPositions userPositions = positions.get(userId);
+        if (userPositions == null) {
+            return List.of();
+        }
+
+        int count = userPositions.size;
+        ByteBuffer[] current = blocks;
+        List<PointHistory> result = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) {
+            result.add(read(current, userPositions.get(index)));
+        }
+        return result;
+    }
+
+    @Override
+    public List<PointHistory> selectByUserId(long userId, long afterId, long fromMillis, long toMillis, int limit) {
+        UserPositions userPositions = positions.get(userId);
+        if (userPositions == null) {
+            return List.of();
+        }
+
+        int count = userPositions.size;
+        ByteBuffer[] current = blocks;
+        List<PointHistory> result = new ArrayList<>(Math.min(limit, count));
+        for (int index = firstIndexAfter(current, userPositions, count, afterId); index < count && result.size() < limit; index++) {
+            int position = userPositions.get(index);
+            long updateMillis = block(current, position).getLong(UPDATE_MILLIS_OFFSET + Long.BYTES * row(position));
+            if (fromMillis <= updateMillis && updateMillis <= toMillis) {
+                result.add(read(current, position));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void forEachByUserId(long userId, long afterId, Consumer<PointHistory> action) {
+        UserPositions userPositions = positions.get(userId);
+        if (userPositions == null) {
+            return;
+        }
+
+        int count = userPositions.size;
+        ByteBuffer[] current = blocks;
+        for (int index = firstIndexAfter(current, userPositions, count, afterId); index < count; index++) {
+            action.accept(read(current, userPositions.get(index)));
+        }
+    }
+
+    /**
+     * 내역은 id 순서대로 기록되므로, 전체 내역은 저장된 순서대로 읽는다.
+     */
+    @Override
+    public void forEach(long afterId, Consumer<PointHistory> action) {
+        int count = size;
+        ByteBuffer[] current = blocks;
+
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (id(current, mid) <= afterId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        for (int position = low; position < count; position++) {
+            action.accept(read(current, position));
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void append(PointHistory pointHistory) {
+        int position = size;
+        if (position == Integer.MAX_VALUE) {
+            throw new IllegalStateException("저장할 수 있는 내역 수를 초과했습니다.");
+        }
+
+        ByteBuffer[] current = blocks;
+        int blockIndex = position / BLOCK_ROWS;
+        if (blockIndex == current.length) {
+            current = Arrays.copyOf(current, blockIndex + 1);
+            current[blockIndex] = ByteBuffer.allocateDirect(BLOCK_BYTES).order(ByteOrder.nativeOrder());
+            blocks = current;
+        }
+
+        ByteBuffer block = current[blockIndex];
+        int row = row(position);
+        block.putLong(ID_OFFSET + Long.BYTES * row, pointHistory.id());
+        block.putLong(USER_ID_OFFSET + Long.BYTES * row, pointHistory.userId());
+        block.putLong(AMOUNT_OFFSET + Long.BYTES * row, pointHistory.amount());
+        block.putLong(UPDATE_MILLIS_OFFSET + Long.BYTES * row, pointHistory.updateMillis());
+        block.put(TYPE_OFFSET + row, (byte) pointHistory.type().ordinal());
+
+        positions.computeIfAbsent(pointHistory.userId(), userId -> new UserPositions()).append(position);
+        lastId = Math.max(lastId, pointHistory.id());
+        size = position + 1;
+    }
+
+    private int firstIndexAfter(ByteBuffer[] current, UserPositions userPositions, int count, long afterId) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (id(current, userPositions.get(mid)) <= afterId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static PointHistory read(ByteBuffer[] current, int position) {
+        ByteBuffer block = block(current, position);
+        int row = row(position);
+        return new PointHistory(
+                block.getLong(ID_OFFSET + Long.BYTES * row),
+                block.getLong(USER_ID_OFFSET + Long.BYTES * row),
+                block.getLong(AMOUNT_OFFSET + Long.BYTES * row),
+                TYPES[block.get(TYPE_OFFSET + row)],
+                block.getLong(UPDATE_MILLIS_OFFSET + Long.BYTES * row)
+        );
+    }
+
+    private static long id(ByteBuffer[] current, int position) {
+        return block(current, position).getLong(ID_OFFSET + Long.BYTES * row(position));
+    }
+
+    private static ByteBuffer block(ByteBuffer[] current, int position) {
+        return current[position / BLOCK_ROWS];
+    }
+
+    private static int row(int position) {
+        return position % BLOCK_ROWS;
+    }
+
+    /**
+     * 회원의 내역 위치 목록. PointHistoryIndex 와 같이 8, 16, 32... 크기의 청크를 이어 붙여 기존 청크를 복사하지 않는다.
+     */
+    private static final class UserPositions {
+        private volatile int[][] chunks = new int[0][];
+        private volatile int size;
+
+        private void append(int position) {
+            int index = size;
+            int chunkIndex = chunkIndex(index);
+
+            int[][] current = chunks;
+            if (chunkIndex == current.length) {
+                current = Arrays.copyOf(current, chunkIndex + 1);
+                current[chunkIndex] = new int[FIRST_CHUNK_SIZE << chunkIndex];
+                chunks = current;
+            }
+
+            current[chunkIndex][chunkOffset(index, chunkIndex)] = position;
+            size = index + 1;
+        }
+
+        private int get(int index) {
+            int chunkIndex = chunkIndex(index);
+            return chunks[chunkIndex][chunkOffset(index, chunkIndex)];
+        }
+
+        private static int chunkIndex(int index) {
+            return 31 - Integer.numberOfLeadingZeros(index / FIRST_CHUNK_SIZE + 1);
+        }
+
+        private static int chunkOffset(int index, int chunkIndex) {
+            return index - FIRST_CHUNK_SIZE * ((1 << chunkIndex) - 1);
+        }
+    }
+}
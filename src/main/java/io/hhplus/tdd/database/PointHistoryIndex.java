@@ -0,0 +1,230 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 회원별 포인트 내역 색인입니다.
+ * - 회원마다 append-only 청크(primitive 배열)에 내역을 저장하므로, 조회 비용은 해당 회원의 내역 수에만 비례한다.
+ * - 청크 크기는 8, 16, 32... 로 두 배씩 늘어나 내역이 적은 회원의 메모리 낭비를 줄이고, 기존 청크는 복사하지 않는다.
+ * - 같은 회원에 대한 추가는 순차적으로 실행되고, 조회는 락 없이 이미 추가된 내역까지만 읽는다.
+ */
+public class PointHistoryIndex {
+
+    private static final int FIRST_CHUNK_SIZE = 8;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final ConcurrentHashMap<Long, UserHistory> histories = new ConcurrentHashMap<>();
+
+    public void add(PointHistory pointHistory) {
+        histories.computeIfAbsent(pointHistory.userId(), UserHistory::new).append(pointHistory);
+    }
+
+    public List<PointHistory> findAllByUserId(long userId) {
+        UserHistory userHistory = histories.get(userId);
+        if (userHistory == null) {
+            return List.of();
+        }
+        return userHistory.toList();
+    }
+
+    /**
+     * afterId 보다 큰 id 중 updateMillis 가 [fromMillis, toMillis] 범위인 내역을 최대 limit 건 조회한다.
+     * 회원별 내역은 id 오름차순으로 저장되므로 시작 위치는 이진 탐색으로 찾는다.
+     */
+    public List<PointHistory> findByUserId(long userId, long afterId, long fromMillis, long toMillis, int limit) {
+        UserHistory userHistory = histories.get(userId);
+        if (userHistory == null) {
+            return List.of();
+        }
+        return userHistory.slice(afterId, fromMillis, toMillis, limit);
+    }
+
+    /**
+     * afterId 이후의 회원 내역을 id 순서대로 하나씩 전달한다. 전체 목록을 만들지 않는다.
+     */
+    public void forEachByUserId(long userId, long afterId, Consumer<PointHistory> action) {
+        UserHistory userHistory = histories.get(userId);
+        if (userHistory == null) {
+            return;
+        }
+
+        UserHistoryCursor cursor = userHistory.cursor(afterId);
+        while (cursor.hasNext()) {
+            action.accept(cursor.next());
+        }
+    }
+
+    /**
+     * afterId 이후의 전체 회원 내역을 id 순서대로 하나씩 전달한다.
+     * 회원별 커서를 id 기준으로 병합하므로, 사용하는 메모리는 내역 수가 아닌 회원 수에 비례한다.
+     */
+    public void forEach(long afterId, Consumer<PointHistory> action) {
+        PriorityQueue<UserHistoryCursor> cursors = new PriorityQueue<>(Comparator.comparingLong(UserHistoryCursor::peekId));
+        for (UserHistory userHistory : histories.values()) {
+            UserHistoryCursor cursor = userHistory.cursor(afterId);
+            if (cursor.hasNext()) {
+                cursors.add(cursor);
+            }
+        }
+
+        while (!cursors.isEmpty()) {
+            UserHistoryCursor cursor = cursors.poll();
+            action.accept(cursor.next());
+            if (cursor.hasNext()) {
+                cursors.add(cursor);
+            }
+        }
+    }
+
+    public int countByUserId(long userId) {
+        UserHistory userHistory = histories.get(userId);
+        return userHistory == null ? 0 : userHistory.size;
+    }
+
+    private static int chunkIndex(int position) {
+        return 31 - Integer.numberOfLeadingZeros(position / FIRST_CHUNK_SIZE + 1);
+    }
+
+    private static int chunkOffset(int position, int chunkIndex) {
+        return position - FIRST_CHUNK_SIZE * ((1 << chunkIndex) - 1);
+    }
+
+    private static final class UserHistory {
+        private final long userId;
+        private volatile Chunk[] chunks = new Chunk[0];
+        // chunks 와 청크 내용은 size 보다 먼저 기록되므로, size 를 읽은 뒤에는 그 위치까지 안전하게 읽을 수 있다.
+        private volatile int size;
+
+        private UserHistory(long userId) {
+            this.userId = userId;
+        }
+
+        private synchronized void append(PointHistory pointHistory) {
+            int position = size;
+            int chunkIndex = chunkIndex(position);
+
+            Chunk[] current = chunks;
+            if (chunkIndex == current.length) {
+                current = Arrays.copyOf(current, chunkIndex + 1);
+                current[chunkIndex] = new Chunk(FIRST_CHUNK_SIZE << chunkIndex);
+                chunks = current;
+            }
+
+            current[chunkIndex].set(chunkOffset(position, chunkIndex), pointHistory);
+            size = position + 1;
+        }
+
+        private List<PointHistory> toList() {
+            int count = size;
+            Chunk[] current = chunks;
+
+            List<PointHistory> result = new ArrayList<>(count);
+            for (int position = 0; position < count; position++) {
+                int chunkIndex = chunkIndex(position);
+                result.add(current[chunkIndex].get(userId, chunkOffset(position, chunkIndex)));
+            }
+            return result;
+        }
+
+        private List<PointHistory> slice(long afterId, long fromMillis, long toMillis, int limit) {
+            int count = size;
+            Chunk[] current = chunks;
+
+            List<PointHistory> result = new ArrayList<>(Math.min(limit, count));
+            for (int position = firstPositionAfter(current, count, afterId); position < count && result.size() < limit; position++) {
+                int chunkIndex = chunkIndex(position);
+                int offset = chunkOffset(position, chunkIndex);
+                long updateMillis = current[chunkIndex].updateMillis[offset];
+                if (fromMillis <= updateMillis && updateMillis <= toMillis) {
+                    result.add(current[chunkIndex].get(userId, offset));
+                }
+            }
+            return result;
+        }
+
+        private UserHistoryCursor cursor(long afterId) {
+            int count = size;
+            Chunk[] current = chunks;
+            return new UserHistoryCursor(userId, current, count, firstPositionAfter(current, count, afterId));
+        }
+
+        private int firstPositionAfter(Chunk[] current, int count, long afterId) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int chunkIndex = chunkIndex(mid);
+                if (current[chunkIndex].ids[chunkOffset(mid, chunkIndex)] <= afterId) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private static final class UserHistoryCursor {
+        private final long userId;
+        private final Chunk[] chunks;
+        private final int count;
+        private int position;
+
+        private UserHistoryCursor(long userId, Chunk[] chunks, int count, int position) {
+            this.userId = userId;
+            this.chunks = chunks;
+            this.count = count;
+            this.position = position;
+        }
+
+        private boolean hasNext() {
+            return position < count;
+        }
+
+        private long peekId() {
+            int chunkIndex = chunkIndex(position);
+            return chunks[chunkIndex].ids[chunkOffset(position, chunkIndex)];
+        }
+
+        private PointHistory next() {
+            int chunkIndex = chunkIndex(position);
+            PointHistory pointHistory = chunks[chunkIndex].get(userId, chunkOffset(position, chunkIndex));
+            position++;
+            return pointHistory;
+        }
+    }
+
+    private static final class Chunk {
+        private final long[] ids;
+        private final long[] amounts;
+        private final long[] updateMillis;
+        private final byte[] types;
+
+        private Chunk(int capacity) {
+            this.ids = new long[capacity];
+            this.amounts = new long[capacity];
+            this.updateMillis = new long[capacity];
+            this.types = new byte[capacity];
+        }
+
+        private void set(int offset, PointHistory pointHistory) {
+            ids[offset] = pointHistory.id();
+            amounts[offset] = pointHistory.amount();
+            updateMillis[offset] = pointHistory.updateMillis();
+            types[offset] = (byte) pointHistory.type().ordinal();
+        }
+
+        private PointHistory get(long userId, int offset) {
+            return new PointHistory(ids[offset], userId, amounts[offset], TYPES[types[offset]], updateMillis[offset]);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * PointService 가 포인트 내역을 저장하고 조회하는 저장소입니다.
+ */
+public interface PointHistoryRepository {
+
+    PointHistory insert(long userId, long amount, TransactionType type, long updateMillis);
+
+    List<PointHistory> selectAllByUserId(long userId);
+
+    /**
+     * afterId 이후(id 기준) 내역 중 updateMillis 가 [fromMillis, toMillis] 범위인 내역을 id 오름차순으로 최대 limit 건 조회합니다.
+     */
+    List<PointHistory> selectByUserId(long userId, long afterId, long fromMillis, long toMillis, int limit);
+
+    /**
+     * afterId 이후 회원의 내역을 id 오름차순으로 하나씩 전달합니다.
+     */
+    void forEachByUserId(long userId, long afterId, Consumer<PointHistory> action);
+
+    /**
+     * afterId 이후 전체 회원의 내역을 id 오름차순으로 하나씩 전달합니다.
+     */
+    void forEach(long afterId, Consumer<PointHistory> action);
+}
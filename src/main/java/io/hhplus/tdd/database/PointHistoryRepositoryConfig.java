@@ -0,0 +1,71 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+@Configuration
+public class PointHistoryRepositoryConfig {
+
+    @Bean
+    public PointSummaryIndex pointSummaryIndex() {
+        return new PointSummaryIndex();
+    }
+
+    /**
+     * 충전 포인트의 만료 lot. point.expiry.ttl-days 가 0 이면 lot 을 만들지 않는다.
+     */
+    @Bean
+    public PointLotIndex pointLotIndex(
+            @Value("${point.expiry.ttl-days:0}") long ttlDays,
+            @Value("${point.expiry.resolution-millis:3600000}") long resolutionMillis
+    ) {
+        return new PointLotIndex(TimeUnit.DAYS.toMillis(ttlDays), resolutionMillis, System.currentTimeMillis());
+    }
+
+    /**
+     * point.history.storage 에 따라 내역 저장소를 만든다.
+     * 포인트 로그가 활성화된 경우, 로그에 기록된 내역으로 저장소를 복구한 뒤 이후 내역을 로그에 함께 기록한다.
+     * 가장 바깥에서 저장된 내역을 회원별 요약(과 만료가 활성화된 경우 만료 lot)에 반영하며, 복구된 내역의 요약은 시작 시 한 번 계산한다.
+     */
+    @Bean
+    public PointHistoryRepository pointHistoryRepository(
+            PointHistoryTable pointHistoryTable,
+            MeterRegistry meterRegistry,
+            Optional<PointWriteAheadLog> pointWriteAheadLog,
+            PointSummaryIndex pointSummaryIndex,
+            PointLotIndex pointLotIndex,
+            @Value("${point.history.storage:TABLE}") PointHistoryStorage storage
+    ) throws IOException {
+        PointHistoryRepository repository;
+        Consumer<PointHistory> restore;
+        if (storage == PointHistoryStorage.OFF_HEAP) {
+            OffHeapPointHistoryRepository offHeapRepository = new OffHeapPointHistoryRepository();
+            repository = offHeapRepository;
+            restore = offHeapRepository::restore;
+        } else {
+            IndexedPointHistoryRepository indexedRepository = new IndexedPointHistoryRepository(pointHistoryTable, meterRegistry);
+            repository = indexedRepository;
+            restore = indexedRepository::restore;
+        }
+
+        if (pointLotIndex.isEnabled()) {
+            restore = restore.andThen(pointLotIndex::add);
+        }
+        if (pointWriteAheadLog.isPresent()) {
+            pointWriteAheadLog.get().forEachHistory(restore.andThen(pointSummaryIndex::add));
+            repository = new WalPointHistoryRepository(repository, pointWriteAheadLog.get());
+        }
+        if (pointLotIndex.isEnabled()) {
+            repository = new LotTrackingPointHistoryRepository(repository, pointLotIndex);
+        }
+        return new SummarizingPointHistoryRepository(repository, pointSummaryIndex);
+    }
+}
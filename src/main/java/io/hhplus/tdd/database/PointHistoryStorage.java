@@ -0,0 +1,11 @@
+package io.hhplus.tdd.database;
+
+
+/**
+ * 포인트 내역 저장 방식
+ * - TABLE : PointHistoryTable 에 저장하고, 회원별 색인(PointHistoryIndex)에서 조회
+ * - OFF_HEAP : PointHistoryTable 을 거치지 않고 힙 밖의 컬럼 저장소(OffHeapPointHistoryRepository)에 저장하고 조회
+ */
+public enum PointHistoryStorage {
+    TABLE, OFF_HEAP
+}
@@ -0,0 +1,373 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.util.HierarchicalTimingWheel;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 충전된 포인트를 만료 시각별 묶음(lot)으로 회원마다 보관하고, 만료 시각이 된 회원을 타이밍 휠로 찾습니다. (point.expiry.ttl-days > 0)
+ * - 충전 내역은 충전 시각 + ttl 을 resolution 단위로 올린 시각에 만료되는 lot 이 된다. 만료 시각이 같은 충전은 하나의 lot 으로 합친다.
+ * - 사용/만료 내역은 먼저 만료되는 lot 부터 차감한다. lot 보다 많이 사용하면 나머지는 만료되지 않는 잔고(만료 기능 이전의 잔고 등)에서 차감된 것으로 본다.
+ * - 이체로 받은 포인트는 보낸 회원에게서 차감된 lot 의 만료 시각을 그대로 가진다. (carryOver)
+ * - 회원은 가장 먼저 만료되는 lot 의 시각으로 휠에 등록된다. 더 이른 lot 이 생겨 다시 등록하면 이전 항목은 휠에 남지만, 꺼낼 때 등록 시각과 비교해 건너뛴다.
+ * - lot 은 회원별 long 배열에 (만료 시각, 남은 금액) 쌍으로 담으며, 회원당 lot 수는 ttl / resolution 을 넘지 않는다.
+ * 내역이 저장된 순서대로 반영되어야 하므로, 내역 저장과 같은 회원별 락 안에서 호출됩니다.
+ */
+public class PointLotIndex {
+
+    private final long ttlMillis;
+    private final long resolutionMillis;
+    private final ConcurrentHashMap<Long, Lots> lots = new ConcurrentHashMap<>();
+    private final AtomicLong lotCount = new AtomicLong();
+    private final HierarchicalTimingWheel timingWheel;
+
+    /**
+     * @param ttlMillis 충전 포인트의 유효 기간. 0 이면 만료를 사용하지 않는다.
+     * @param resolutionMillis 만료 시각의 단위이자 타이밍 휠의 tick
+     */
+    public PointLotIndex(long ttlMillis, long resolutionMillis, long startMillis) {
+        this.ttlMillis = ttlMillis;
+        this.resolutionMillis = resolutionMillis;
+        this.timingWheel = new HierarchicalTimingWheel(resolutionMillis, ttlMillis + resolutionMillis, startMillis);
+    }
+
+    public boolean isEnabled() {
+        return ttlMillis > 0;
+    }
+
+    public long resolutionMillis() {
+        return resolutionMillis;
+    }
+
+    /**
+     * 저장된 내역을 회원의 lot 에 반영한다. 처음 lot 이 생긴 회원은 타이밍 휠에 등록한다.
+     */
+    public void add(PointHistory pointHistory) {
+        while (true) {
+            Lots userLots = lots.computeIfAbsent(pointHistory.userId(), userId -> new Lots());
+            synchronized (userLots) {
+                // 비어서 제거된 lot 이면 새로 만든다.
+                if (userLots.removed) {
+                    continue;
+                }
+
+                if (pointHistory.type() == TransactionType.CHARGE) {
+                    long expiresAt = Math.ceilDiv(pointHistory.updateMillis() + ttlMillis, resolutionMillis) * resolutionMillis;
+                    lotCount.addAndGet(userLots.add(expiresAt, pointHistory.amount()));
+                    if (userLots.scheduledAt == 0) {
+                        schedule(pointHistory.userId(), userLots);
+                    }
+                } else {
+                    lotCount.addAndGet(-userLots.consume(pointHistory.amount()));
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * nowMillis 까지 타이밍 휠을 진행하고, 만료 시각이 된 lot 이 있을 수 있는 회원을 반환한다.
+     * 반환된 회원은 만료를 처리한 뒤 reschedule 을 호출해야 다음 lot 의 만료 시각에 다시 반환된다.
+     */
+    public long[] advance(long nowMillis) {
+        long[] due = timingWheel.advance(nowMillis);
+        int count = 0;
+        for (long userId : due) {
+            Lots userLots = lots.get(userId);
+            if (userLots == null) {
+                continue;
+            }
+            synchronized (userLots) {
+                // 더 이른 시각으로 다시 등록되었거나 이미 꺼낸 회원의 항목은 건너뛴다.
+                if (userLots.scheduledAt == 0 || userLots.scheduledAt > nowMillis) {
+                    continue;
+                }
+                userLots.scheduledAt = 0;
+            }
+            due[count++] = userId;
+        }
+        return Arrays.copyOf(due, count);
+    }
+
+    /**
+     * nowMillis 까지 만료된 lot 의 남은 금액 합계
+     */
+    public long expirable(long userId, long nowMillis) {
+        Lots userLots = lots.get(userId);
+        if (userLots == null) {
+            return 0L;
+        }
+        synchronized (userLots) {
+            return userLots.expirable(nowMillis);
+        }
+    }
+
+    /**
+     * nowMillis 까지 만료된 lot 을 버리되, keepAmount 만큼은 가장 늦게 만료된 lot 의 시각으로 남긴다.
+     * 잔고가 lot 보다 적어 전부 만료시키지 못한 lot 은 버리고, 예약되어 만료시키지 못한 금액은 남겨 예약이 끝난 뒤 다시 만료시킨다.
+     */
+    public void discardExpired(long userId, long nowMillis, long keepAmount) {
+        Lots userLots = lots.get(userId);
+        if (userLots == null) {
+            return;
+        }
+        synchronized (userLots) {
+            lotCount.addAndGet(-userLots.discardExpired(nowMillis, keepAmount));
+        }
+    }
+
+    /**
+     * 먼저 만료되는 lot 부터 amount 만큼을 (만료 시각, 금액) 쌍으로 반환한다. 사용 내역이 저장되면 이 lot 들이 차감된다.
+     * lot 이 amount 보다 적으면 모자란 금액은 만료되지 않는 잔고에서 차감된 것이므로 반환하지 않는다.
+     */
+    public long[] oldestLots(long userId, long amount) {
+        Lots userLots = lots.get(userId);
+        if (userLots == null) {
+            return new long[0];
+        }
+        synchronized (userLots) {
+            return userLots.oldest(amount);
+        }
+    }
+
+    /**
+     * 방금 충전 내역으로 추가된 chargedAmount 만큼의 lot 을 carriedLots(oldestLots 의 반환값)로 바꾼다.
+     * 이체로 받은 포인트가 충전 시각 기준으로 유효 기간이 다시 시작되지 않도록, 보낸 회원의 만료 시각을 그대로 옮긴다.
+     */
+    public void carryOver(long userId, long chargedAmount, long[] carriedLots) {
+        while (true) {
+            Lots userLots = lots.computeIfAbsent(userId, id -> new Lots());
+            synchronized (userLots) {
+                if (userLots.removed) {
+                    continue;
+                }
+
+                long delta = -userLots.removeNewest(chargedAmount);
+                for (int i = 0; i < carriedLots.length; i += 2) {
+                    delta += userLots.insert(carriedLots[i], carriedLots[i + 1]);
+                }
+                lotCount.addAndGet(delta);
+                if (userLots.size > 0 && (userLots.scheduledAt == 0 || userLots.headExpiresAt() < userLots.scheduledAt)) {
+                    schedule(userId, userLots);
+                } else if (userLots.size == 0 && userLots.scheduledAt == 0) {
+                    userLots.removed = true;
+                    lots.remove(userId, userLots);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * 남은 lot 이 있으면 가장 먼저 만료되는 시각으로 다시 등록하고, 없으면 회원의 lot 을 제거한다.
+     * 처리하는 동안 충전되어 이미 등록된 경우에는 더 이른 lot 이 있을 때만 다시 등록한다.
+     */
+    public void reschedule(long userId) {
+        Lots userLots = lots.get(userId);
+        if (userLots == null) {
+            return;
+        }
+        synchronized (userLots) {
+            if (userLots.size == 0) {
+                userLots.removed = true;
+                lots.remove(userId, userLots);
+            } else if (userLots.scheduledAt == 0 || userLots.headExpiresAt() < userLots.scheduledAt) {
+                schedule(userId, userLots);
+            }
+        }
+    }
+
+    /**
+     * 회원에게 남은, 만료될 수 있는 포인트 합계
+     */
+    public long remaining(long userId) {
+        Lots userLots = lots.get(userId);
+        if (userLots == null) {
+            return 0L;
+        }
+        synchronized (userLots) {
+            return userLots.expirable(Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * 전체 회원에게 남은 lot 수
+     */
+    public long lotCount() {
+        return lotCount.get();
+    }
+
+    private void schedule(long userId, Lots userLots) {
+        userLots.scheduledAt = userLots.headExpiresAt();
+        timingWheel.schedule(userId, userLots.scheduledAt);
+    }
+
+    /**
+     * (만료 시각, 남은 금액) 쌍을 만료 시각 순서로 담는 원형 배열
+     */
+    private static final class Lots {
+        private long[] entries = new long[2];
+        private int head;
+        private int size;
+        // 타이밍 휠에 등록한 만료 시각. 0 이면 등록되지 않은 상태이다.
+        private long scheduledAt;
+        private boolean removed;
+
+        /**
+         * 새 lot 을 추가하고, 늘어난 lot 수(0 또는 1)를 반환한다.
+         */
+        private int add(long expiresAt, long amount) {
+            if (size > 0) {
+                int tail = index(size - 1);
+                // 시계가 되돌아간 경우에도 순서가 유지되도록, 마지막 lot 보다 이른 만료 시각은 마지막 lot 에 합친다.
+                if (entries[tail] >= expiresAt) {
+                    entries[tail + 1] += amount;
+                    return 0;
+                }
+            }
+
+            if (size * 2 == entries.length) {
+                grow();
+            }
+            int tail = index(size);
+            entries[tail] = expiresAt;
+            entries[tail + 1] = amount;
+            size++;
+            return 1;
+        }
+
+        /**
+         * 먼저 만료되는 lot 부터 amount 만큼 차감하고, 모두 차감되어 사라진 lot 수를 반환한다.
+         */
+        private int consume(long amount) {
+            int removedLots = 0;
+            while (amount > 0 && size > 0) {
+                int first = index(0);
+                long used = Math.min(amount, entries[first + 1]);
+                entries[first + 1] -= used;
+                amount -= used;
+                if (entries[first + 1] == 0) {
+                    poll();
+                    removedLots++;
+                }
+            }
+            return removedLots;
+        }
+
+        private long expirable(long nowMillis) {
+            long amount = 0;
+            for (int i = 0; i < size && entries[index(i)] <= nowMillis; i++) {
+                amount += entries[index(i) + 1];
+            }
+            return amount;
+        }
+
+        private int discardExpired(long nowMillis, long keepAmount) {
+            int removedLots = 0;
+            long lastExpiresAt = 0;
+            while (size > 0 && entries[index(0)] <= nowMillis) {
+                lastExpiresAt = entries[index(0)];
+                poll();
+                removedLots++;
+            }
+            if (removedLots > 0 && keepAmount > 0) {
+                // 방금 꺼낸 자리에 다시 넣으므로 배열을 늘리지 않아도 된다.
+                head = (head - 1 + entries.length / 2) % (entries.length / 2);
+                size++;
+                entries[index(0)] = lastExpiresAt;
+                entries[index(0) + 1] = keepAmount;
+                removedLots--;
+            }
+            return removedLots;
+        }
+
+        /**
+         * consume(amount) 가 차감할 (만료 시각, 금액) 쌍
+         */
+        private long[] oldest(long amount) {
+            int count = 0;
+            for (long remaining = amount; count < size && remaining > 0; count++) {
+                remaining -= Math.min(remaining, entries[index(count) + 1]);
+            }
+
+            long[] taken = new long[count * 2];
+            long remaining = amount;
+            for (int i = 0; i < count; i++) {
+                long used = Math.min(remaining, entries[index(i) + 1]);
+                taken[i * 2] = entries[index(i)];
+                taken[i * 2 + 1] = used;
+                remaining -= used;
+            }
+            return taken;
+        }
+
+        /**
+         * 나중에 만료되는 lot 부터 amount 만큼 차감하고, 모두 차감되어 사라진 lot 수를 반환한다.
+         */
+        private int removeNewest(long amount) {
+            int removedLots = 0;
+            while (amount > 0 && size > 0) {
+                int last = index(size - 1);
+                long removed = Math.min(amount, entries[last + 1]);
+                entries[last + 1] -= removed;
+                amount -= removed;
+                if (entries[last + 1] == 0) {
+                    size--;
+                    removedLots++;
+                }
+            }
+            return removedLots;
+        }
+
+        /**
+         * 만료 시각 순서가 유지되도록 lot 을 끼워 넣고, 늘어난 lot 수(0 또는 1)를 반환한다. 만료 시각이 같은 lot 이 있으면 합친다.
+         */
+        private int insert(long expiresAt, long amount) {
+            int position = 0;
+            while (position < size && entries[index(position)] < expiresAt) {
+                position++;
+            }
+            if (position < size && entries[index(position)] == expiresAt) {
+                entries[index(position) + 1] += amount;
+                return 0;
+            }
+
+            if (size * 2 == entries.length) {
+                grow();
+            }
+            for (int i = size; i > position; i--) {
+                System.arraycopy(entries, index(i - 1), entries, index(i), 2);
+            }
+            entries[index(position)] = expiresAt;
+            entries[index(position) + 1] = amount;
+            size++;
+            return 1;
+        }
+
+        private long headExpiresAt() {
+            return entries[index(0)];
+        }
+
+        private void poll() {
+            head = (head + 1) % (entries.length / 2);
+            size--;
+        }
+
+        private int index(int offset) {
+            return ((head + offset) % (entries.length / 2)) * 2;
+        }
+
+        private void grow() {
+            long[] grown = new long[entries.length * 2];
+            for (int i = 0; i < size; i++) {
+                System.arraycopy(entries, index(i), grown, i * 2, 2);
+            }
+            entries = grown;
+            head = 0;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointRank;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.util.RankedSkipList;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 회원별 최신 잔고를 잔고 순서로 정렬해 보관하는 순위 색인입니다. (point.ranking.enabled)
+ * - 순위는 RankedSkipList 에 (잔고, 회원 id) 로 보관하므로, 갱신과 순위 조회는 O(log n), 상위 N명 조회는 O(log n + N) 이다.
+ * - 잔고를 저장한 쪽은 pending 에 회원의 최신 잔고만 남기고, 아직 반영되지 않은 회원이면 dirty 에 id 를 넣는다.
+ *   반영 전에 같은 회원이 다시 저장되면 마지막 잔고 하나로 합쳐지므로, 쌓이는 변경은 회원 수를 넘지 않는다.
+ * - 색인 락이 비어 있으면 저장한 스레드가 쌓인 변경을 최대 MAX_APPLY_PER_UPDATE 건까지 반영하고, 락을 얻지 못하면 기다리지 않고 반환한다.
+ * - 조회는 락을 얻은 뒤 쌓인 변경을 모두 반영하므로, 잔고 저장 응답 이후의 조회에는 그 잔고가 반영되어 있다.
+ */
+public class PointRankingIndex {
+
+    // 저장한 스레드가 다른 회원의 변경까지 반영하느라 오래 붙잡히지 않도록 한 번에 반영하는 건수를 제한한다.
+    private static final int MAX_APPLY_PER_UPDATE = 64;
+
+    private final boolean enabled;
+    private final ConcurrentHashMap<Long, Long> pending = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Long> dirty = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    // 아래 필드는 lock 안에서만 접근한다.
+    private final Map<Long, Long> points = new HashMap<>();
+    private final RankedSkipList ranking = new RankedSkipList();
+
+    public PointRankingIndex(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 저장된 잔고를 순위에 반영한다. 다른 스레드가 반영 중이면 기다리지 않고, 다음 반영이나 조회에 맡긴다.
+     */
+    public void update(UserPoint userPoint) {
+        if (pending.put(userPoint.id(), userPoint.point()) == null) {
+            dirty.offer(userPoint.id());
+        }
+        if (lock.tryLock()) {
+            try {
+                drain(MAX_APPLY_PER_UPDATE);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 잔고가 많은 순서로 최대 limit 명의 순위를 반환한다.
+     */
+    public List<PointRank> top(int limit) {
+        List<PointRank> ranks = new ArrayList<>(Math.min(limit, 1024));
+        lock.lock();
+        try {
+            drain(Integer.MAX_VALUE);
+            ranking.forEach(limit, (point, userId) -> ranks.add(new PointRank(ranks.size() + 1, userId, point)));
+        } finally {
+            lock.unlock();
+        }
+        return ranks;
+    }
+
+    /**
+     * 회원의 순위를 반환한다. 잔고가 저장된 적 없는 회원이면 null 을 반환한다.
+     */
+    public PointRank findByUserId(long userId) {
+        lock.lock();
+        try {
+            drain(Integer.MAX_VALUE);
+            Long point = points.get(userId);
+            return point == null ? null : new PointRank(ranking.rank(point, userId), userId, point);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 순위에 포함된 회원 수
+     */
+    public int size() {
+        lock.lock();
+        try {
+            drain(Integer.MAX_VALUE);
+            return ranking.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void drain(int limit) {
+        Long userId;
+        for (int i = 0; i < limit && (userId = dirty.poll()) != null; i++) {
+            // id 를 꺼낸 뒤에 저장된 잔고는 pending 이 비어 있으므로 dirty 에 다시 들어간다.
+            Long point = pending.remove(userId);
+            if (point != null) {
+                apply(userId, point);
+            }
+        }
+    }
+
+    private void apply(long userId, long point) {
+        Long previous = points.put(userId, point);
+        if (previous == null) {
+            ranking.add(point, userId);
+        } else if (previous != point) {
+            ranking.update(previous, userId, point);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointSummary;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 회원별 포인트 거래 요약입니다. 내역이 저장될 때마다 해당 회원의 요약만 갱신하므로, 조회 비용은 내역 수와 관계없다.
+ */
+public class PointSummaryIndex {
+
+    private final ConcurrentHashMap<Long, PointSummary> summaries = new ConcurrentHashMap<>();
+
+    public void add(PointHistory pointHistory) {
+        summaries.compute(pointHistory.userId(), (userId, summary) ->
+                (summary == null ? PointSummary.empty(userId) : summary).apply(pointHistory));
+    }
+
+    public PointSummary findByUserId(long userId) {
+        return summaries.getOrDefault(userId, PointSummary.empty(userId));
+    }
+
+    /**
+     * 저장소의 전체 내역으로 요약을 다시 계산한다. 유지 중인 요약은 변경하지 않는다.
+     */
+    public static Map<Long, PointSummary> rebuild(PointHistoryRepository pointHistoryRepository) {
+        Map<Long, PointSummary> rebuilt = new HashMap<>();
+        pointHistoryRepository.forEach(0L, pointHistory -> rebuilt.merge(
+                pointHistory.userId(),
+                PointSummary.empty(pointHistory.userId()).apply(pointHistory),
+                (summary, ignored) -> summary.apply(pointHistory)
+        ));
+        return rebuilt;
+    }
+
+    /**
+     * 회원의 내역으로 요약을 다시 계산한다.
+     */
+    public static PointSummary rebuild(PointHistoryRepository pointHistoryRepository, long userId) {
+        PointSummary[] summary = {PointSummary.empty(userId)};
+        pointHistoryRepository.forEachByUserId(userId, 0L, pointHistory -> summary[0] = summary[0].apply(pointHistory));
+        return summary[0];
+    }
+
+    public Set<Long> userIds() {
+        return Collections.unmodifiableSet(summaries.keySet());
+    }
+}
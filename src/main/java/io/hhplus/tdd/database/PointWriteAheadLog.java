@@ -0,0 +1,665 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.util.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * 포인트 내역과 잔고 변경을 기록하는 append-only 로그입니다.
+ * - 충전/사용 한 건은 내역과 변경 후 잔고를 담은 레코드 하나로 기록한다. 잔고와 내역이 함께 복구되거나 함께 버려지므로, 내역 없는 잔고 변경이 복구되지 않는다.
+ *   변경 후 잔고는 이 로그가 회원별로 유지하는 잔고에 내역 금액을 적용해 계산한다.
+ * - 레코드는 56 바이트 고정 길이로, 고정 크기의 세그먼트 파일(wal-{첫 sequence}.log)을 메모리 매핑해 순서대로 기록한다.
+ * - 디스크 반영(fsync)은 sync 스레드가 모아서 처리한다. awaitDurable 을 호출한 여러 요청이 한 번의 force 로 함께 반영된다. (group commit)
+ * - 잔고는 주기적으로 스냅샷(snapshot-{sequence}.bin)으로 저장하고, 시작 시 스냅샷 이후의 로그만 다시 읽어 복구한다.
+ * - 스냅샷 이전의 기록만 담긴 세그먼트는 스냅샷 저장 후 정리한다. 레코드는 보관 파일(history.archive)로 옮긴 뒤 세그먼트를 삭제한다.
+ * - 내역은 시작 시 보관 파일과 남은 세그먼트를 순차적으로 읽어 복구한다.
+ * - 기록 중 중단된 레코드는 CRC 로 검출하며, 복구는 마지막으로 온전한 레코드까지만 진행한다.
+ *
+ * 레코드 구조 (little endian)
+ * | crc32c(4) | kind(1) | type(1) | padding(2) | historyId(8) | userId(8) | amount(8) | updateMillis(8) | sequence(8) | balance(8) |
+ */
+public class PointWriteAheadLog implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PointWriteAheadLog.class);
+
+    static final int RECORD_SIZE = 56;
+    private static final byte HISTORY = 1;
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final String HISTORY_ARCHIVE = "history.archive";
+    private static final int ARCHIVE_READ_RECORDS = 16 * 1024;
+    private static final long SNAPSHOT_MAGIC = 0x504F494E54534E50L;
+    private static final long SNAPSHOT_END = Long.MIN_VALUE;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final ConcurrentHashMap<Long, UserPoint> balances = new ConcurrentHashMap<>();
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final CRC32C appendCrc = new CRC32C();
+    private Segment current;
+    private long nextSequence;
+
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition syncRequested = syncLock.newCondition();
+    private final Condition synced = syncLock.newCondition();
+    private long requestedSequence;
+    private long durableSequence;
+    private boolean closed;
+    private boolean stopped;
+
+    // 세그먼트 정리와 내역 복구가 같은 파일을 동시에 다루지 않도록 한다.
+    private final ReentrantLock compactLock = new ReentrantLock();
+    // 보관 파일로 옮긴 마지막 내역의 sequence. 이 sequence 까지의 내역은 세그먼트에 남아 있어도 다시 옮기거나 읽지 않는다.
+    private long archivedSequence;
+
+    private final Thread syncThread;
+    private final ScheduledExecutorService snapshotExecutor;
+
+    /**
+     * @param segmentSizeBytes 세그먼트 파일 크기. 레코드 크기의 배수로 내림한다.
+     * @param snapshotIntervalMillis 잔고 스냅샷 주기. 0 이하인 경우 종료 시에만 저장한다.
+     */
+    public PointWriteAheadLog(Path directory, long segmentSizeBytes, long snapshotIntervalMillis) throws IOException {
+        this.directory = directory;
+        this.recordsPerSegment = (int) Math.min(Integer.MAX_VALUE / RECORD_SIZE, segmentSizeBytes / RECORD_SIZE);
+        if (recordsPerSegment <= 0) {
+            throw new IllegalArgumentException("세그먼트 크기는 레코드 크기(" + RECORD_SIZE + " bytes) 이상이어야 합니다.");
+        }
+
+        Files.createDirectories(directory);
+        recover();
+
+        this.syncThread = new NamedThreadFactory("point-wal-sync-").newThread(this::syncLoop);
+        this.syncThread.start();
+
+        this.snapshotExecutor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("point-wal-snapshot-"));
+        if (snapshotIntervalMillis > 0) {
+            snapshotExecutor.scheduleWithFixedDelay(this::snapshotQuietly, snapshotIntervalMillis, snapshotIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 회원별 최신 잔고. 기록을 시작하기 전에는 복구된 잔고와 같다.
+     */
+    public Map<Long, UserPoint> balances() {
+        return Collections.unmodifiableMap(balances);
+    }
+
+    /**
+     * 보관 파일과 로그에 기록된 모든 내역을 기록 순서대로 전달한다. 시작 시 내역 저장소를 복구하는 데 사용한다.
+     */
+    public void forEachHistory(Consumer<PointHistory> action) throws IOException {
+        compactLock.lock();
+        try {
+            Path archive = directory.resolve(HISTORY_ARCHIVE);
+            if (Files.exists(archive)) {
+                try (FileChannel channel = FileChannel.open(archive, StandardOpenOption.READ)) {
+                    scanArchive(channel, (view, offset) -> action.accept(history(view, offset)));
+                }
+            }
+
+            List<Path> segments = segmentPaths();
+            long expectedSequence = segments.isEmpty() ? 1 : firstSequence(segments.get(0));
+            for (Path path : segments) {
+                if (firstSequence(path) != expectedSequence) {
+                    break;
+                }
+
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+                    int count = scan(buffer, expectedSequence, (view, offset) -> {
+                        if (view.get(offset + 4) == HISTORY && view.getLong(offset + 40) > archivedSequence) {
+                            action.accept(history(view, offset));
+                        }
+                    });
+                    expectedSequence += count;
+                    if (count < recordsPerSegment) {
+                        break;
+                    }
+                }
+            }
+        } finally {
+            compactLock.unlock();
+        }
+    }
+
+    /**
+     * 내역과 내역을 적용한 회원의 잔고를 레코드 하나로 기록하고, 레코드의 sequence 를 반환한다.
+     */
+    public long appendHistory(PointHistory pointHistory) {
+        appendLock.lock();
+        try {
+            UserPoint before = balances.get(pointHistory.userId());
+            long balance = balanceAfter(before == null ? 0L : before.point(), pointHistory);
+            long sequence = append(pointHistory, balance);
+            // 스냅샷이 sequence 이전의 잔고를 빠뜨리지 않도록 같은 락 안에서 반영한다.
+            balances.put(pointHistory.userId(), new UserPoint(pointHistory.userId(), balance, pointHistory.updateMillis()));
+            return sequence;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * sequence 까지의 레코드가 디스크에 반영될 때까지 기다린다.
+     * 기다리는 동안 기록된 다른 요청들과 함께 한 번의 force 로 반영된다.
+     */
+    public void awaitDurable(long sequence) {
+        syncLock.lock();
+        try {
+            if (sequence > requestedSequence) {
+                requestedSequence = sequence;
+                syncRequested.signal();
+            }
+            while (durableSequence < sequence && !stopped) {
+                synced.awaitUninterruptibly();
+            }
+            if (durableSequence < sequence) {
+                throw new IllegalStateException("포인트 로그가 종료되어 기록을 반영하지 못했습니다.");
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * 디스크에 반영된 마지막 레코드의 sequence.
+     */
+    long durableSequence() {
+        syncLock.lock();
+        try {
+            return durableSequence;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * 현재 잔고를 스냅샷으로 저장하고, 이전 스냅샷과 스냅샷 sequence 이전의 기록만 담긴 세그먼트를 정리한다.
+     * 스냅샷에는 sequence 이전의 모든 잔고 변경이 반영되어 있고, 이후 변경이 일부 섞여 있을 수 있다.
+     * 레코드는 변경 후 잔고(절대값)를 기록하므로, 복구 시 sequence 부터 다시 적용하면 최신 잔고가 된다.
+     */
+    public void snapshot() throws IOException {
+        long sequence;
+        appendLock.lock();
+        try {
+            sequence = nextSequence;
+        } finally {
+            appendLock.unlock();
+        }
+
+        Path temporary = directory.resolve(SNAPSHOT_PREFIX + "tmp");
+        CRC32C crc = new CRC32C();
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(Channels.newOutputStream(channel), crc), 1 << 16));
+            out.writeLong(SNAPSHOT_MAGIC);
+            out.writeLong(sequence);
+            long count = 0;
+            for (UserPoint userPoint : balances.values()) {
+                out.writeLong(userPoint.id());
+                out.writeLong(userPoint.point());
+                out.writeLong(userPoint.updateMillis());
+                count++;
+            }
+            out.writeLong(SNAPSHOT_END);
+            out.writeLong(count);
+            out.flush();
+
+            new DataOutputStream(Channels.newOutputStream(channel)).writeLong(crc.getValue());
+            channel.force(true);
+        }
+
+        Path snapshot = directory.resolve(SNAPSHOT_PREFIX + String.format("%020d", sequence) + SNAPSHOT_SUFFIX);
+        Files.move(temporary, snapshot, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        for (Path path : snapshotPaths()) {
+            if (!path.equals(snapshot)) {
+                Files.deleteIfExists(path);
+            }
+        }
+        compact(sequence);
+    }
+
+    /**
+     * 남은 기록을 디스크에 반영하고, 잔고 스냅샷을 저장한 뒤 종료한다.
+     */
+    @Override
+    public void close() throws IOException {
+        snapshotExecutor.shutdown();
+        syncLock.lock();
+        try {
+            closed = true;
+            syncRequested.signal();
+        } finally {
+            syncLock.unlock();
+        }
+
+        try {
+            syncThread.join();
+            snapshotExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        appendLock.lock();
+        try {
+            current.buffer.force();
+            current.channel.close();
+        } finally {
+            appendLock.unlock();
+        }
+        snapshot();
+    }
+
+    private long append(PointHistory pointHistory, long balance) {
+        if (current.count == recordsPerSegment) {
+            roll();
+        }
+
+        long sequence = nextSequence++;
+        int offset = current.count * RECORD_SIZE;
+        ByteBuffer buffer = current.buffer;
+        buffer.put(offset + 4, HISTORY);
+        buffer.put(offset + 5, (byte) pointHistory.type().ordinal());
+        buffer.putLong(offset + 8, pointHistory.id());
+        buffer.putLong(offset + 16, pointHistory.userId());
+        buffer.putLong(offset + 24, pointHistory.amount());
+        buffer.putLong(offset + 32, pointHistory.updateMillis());
+        buffer.putLong(offset + 40, sequence);
+        buffer.putLong(offset + 48, balance);
+        buffer.putInt(offset, checksum(appendCrc, current.view, offset));
+        current.count++;
+        return sequence;
+    }
+
+    /**
+     * 가득 찬 세그먼트를 디스크에 반영하고 다음 세그먼트를 연다. appendLock 을 보유한 상태에서 호출한다.
+     */
+    private void roll() {
+        try {
+            current.buffer.force();
+            current.channel.close();
+            current = openSegment(nextSequence, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void syncLoop() {
+        boolean closing = false;
+        while (!closing) {
+            syncLock.lock();
+            try {
+                while (requestedSequence <= durableSequence && !closed) {
+                    syncRequested.awaitUninterruptibly();
+                }
+                // 종료 시에도 한 번 더 반영해, 기다리던 요청이 모두 완료되도록 한다.
+                closing = closed;
+            } finally {
+                syncLock.unlock();
+            }
+
+            // 이전 세그먼트는 roll 에서 반영되었으므로, 현재 세그먼트만 반영하면 appended 까지 디스크에 기록된다.
+            long appended;
+            Segment segment;
+            appendLock.lock();
+            try {
+                appended = nextSequence - 1;
+                segment = current;
+            } finally {
+                appendLock.unlock();
+            }
+            segment.buffer.force();
+
+            syncLock.lock();
+            try {
+                durableSequence = Math.max(durableSequence, appended);
+                stopped = closing;
+                synced.signalAll();
+            } finally {
+                syncLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 스냅샷 sequence 이전의 기록만 담긴 세그먼트를 삭제한다.
+     * 레코드의 잔고는 스냅샷에 반영되어 있으므로, 내역을 복구할 수 있도록 레코드를 보관 파일 뒤에 옮겨 디스크에 반영한 뒤 세그먼트를 삭제한다.
+     * 옮긴 뒤 삭제하기 전에 중단되더라도, archivedSequence 까지의 내역은 다시 옮기거나 복구 시 중복해 읽지 않는다.
+     */
+    private void compact(long snapshotSequence) throws IOException {
+        compactLock.lock();
+        try {
+            // 마지막 세그먼트는 기록 중일 수 있으므로, 다음 세그먼트가 스냅샷 sequence 이하에서 시작하는 세그먼트만 정리한다.
+            List<Path> segments = segmentPaths();
+            int covered = 0;
+            while (covered + 1 < segments.size() && firstSequence(segments.get(covered + 1)) <= snapshotSequence) {
+                covered++;
+            }
+            if (covered == 0) {
+                return;
+            }
+
+            long[] archived = {archivedSequence};
+            byte[] record = new byte[RECORD_SIZE];
+            try (FileChannel archive = FileChannel.open(directory.resolve(HISTORY_ARCHIVE), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(archive), 1 << 16);
+                for (Path path : segments.subList(0, covered)) {
+                    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+                        scan(buffer, firstSequence(path), (view, offset) -> {
+                            long sequence = view.getLong(offset + 40);
+                            if (view.get(offset + 4) == HISTORY && sequence > archived[0]) {
+                                view.get(offset, record);
+                                try {
+                                    out.write(record);
+                                } catch (IOException e) {
+                                    throw new UncheckedIOException(e);
+                                }
+                                archived[0] = sequence;
+                            }
+                        });
+                    }
+                }
+                out.flush();
+                archive.force(true);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            archivedSequence = archived[0];
+
+            for (Path path : segments.subList(0, covered)) {
+                Files.deleteIfExists(path);
+            }
+        } finally {
+            compactLock.unlock();
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException e) {
+            log.warn("포인트 잔고 스냅샷 저장 실패", e);
+        }
+    }
+
+    /**
+     * 스냅샷을 읽은 뒤, 스냅샷 sequence 가 포함된 세그먼트부터 레코드의 변경 후 잔고를 다시 적용하고 기록을 이어갈 위치를 찾는다.
+     */
+    private void recover() throws IOException {
+        archivedSequence = recoverArchive();
+        long snapshotSequence = loadSnapshot();
+
+        List<Path> segments = segmentPaths();
+        int start = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            if (firstSequence(segments.get(i)) <= snapshotSequence) {
+                start = i;
+            }
+        }
+
+        long expectedSequence = segments.isEmpty() ? 1 : firstSequence(segments.get(start));
+        for (int i = start; i < segments.size(); i++) {
+            Path path = segments.get(i);
+            if (firstSequence(path) != expectedSequence) {
+                discard(segments.subList(i, segments.size()));
+                break;
+            }
+
+            Segment segment = openSegment(expectedSequence, 0);
+            segment.count = scan(segment.buffer, expectedSequence, (view, offset) -> {
+                long sequence = view.getLong(offset + 40);
+                if (sequence >= snapshotSequence) {
+                    long userId = view.getLong(offset + 16);
+                    balances.put(userId, new UserPoint(userId, view.getLong(offset + 48), view.getLong(offset + 32)));
+                }
+            });
+            expectedSequence += segment.count;
+
+            boolean last = i == segments.size() - 1 || segment.count < recordsPerSegment;
+            if (last) {
+                current = segment;
+                discard(segments.subList(i + 1, segments.size()));
+                break;
+            }
+            segment.channel.close();
+        }
+
+        if (current == null) {
+            current = openSegment(expectedSequence, 0);
+        }
+        nextSequence = expectedSequence;
+        requestedSequence = expectedSequence - 1;
+        durableSequence = expectedSequence - 1;
+    }
+
+    /**
+     * 가장 최근의 온전한 스냅샷을 읽어 잔고를 채우고, 스냅샷의 sequence 를 반환한다. 스냅샷이 없으면 1 을 반환한다.
+     */
+    private long loadSnapshot() throws IOException {
+        List<Path> snapshots = snapshotPaths();
+        Collections.reverse(snapshots);
+
+        for (Path path : snapshots) {
+            Map<Long, UserPoint> loaded = new HashMap<>();
+            CRC32C crc = new CRC32C();
+            try (InputStream file = new BufferedInputStream(Files.newInputStream(path), 1 << 16)) {
+                DataInputStream in = new DataInputStream(new CheckedInputStream(file, crc));
+                if (in.readLong() != SNAPSHOT_MAGIC) {
+                    continue;
+                }
+                long sequence = in.readLong();
+                long userId;
+                while ((userId = in.readLong()) != SNAPSHOT_END) {
+                    loaded.put(userId, new UserPoint(userId, in.readLong(), in.readLong()));
+                }
+                long count = in.readLong();
+                long expectedCrc = crc.getValue();
+                if (count != loaded.size() || new DataInputStream(file).readLong() != expectedCrc) {
+                    log.warn("손상된 포인트 잔고 스냅샷을 건너뜁니다. {}", path);
+                    continue;
+                }
+
+                balances.putAll(loaded);
+                return sequence;
+            } catch (EOFException e) {
+                log.warn("손상된 포인트 잔고 스냅샷을 건너뜁니다. {}", path);
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * 보관 파일을 마지막으로 온전한 레코드까지 남기고 잘라낸 뒤, 그 레코드의 sequence 를 반환한다. 보관 파일이 없으면 0 을 반환한다.
+     */
+    private long recoverArchive() throws IOException {
+        Path path = directory.resolve(HISTORY_ARCHIVE);
+        if (!Files.exists(path)) {
+            return 0;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long[] last = {0};
+            long valid = scanArchive(channel, (view, offset) -> last[0] = view.getLong(offset + 40));
+            if (valid < channel.size()) {
+                log.warn("포인트 내역 보관 파일의 손상된 끝부분을 잘라냅니다. {} ({} -> {} bytes)", path, channel.size(), valid);
+                channel.truncate(valid);
+                channel.force(true);
+            }
+            return last[0];
+        }
+    }
+
+    /**
+     * 보관 파일의 온전한 레코드를 앞에서부터 visitor 에 전달하고, 온전한 영역의 길이를 반환한다.
+     * 보관 파일은 2GB 를 넘을 수 있으므로 매핑하지 않고 나누어 읽는다.
+     */
+    private static long scanArchive(FileChannel channel, RecordVisitor visitor) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(ARCHIVE_READ_RECORDS * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer view = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        CRC32C crc = new CRC32C();
+
+        long position = 0;
+        while (true) {
+            buffer.clear();
+            while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) >= 0) {
+                // 버퍼가 차거나 파일 끝에 닿을 때까지 읽는다.
+            }
+
+            int records = buffer.position() / RECORD_SIZE;
+            for (int i = 0; i < records; i++) {
+                int offset = i * RECORD_SIZE;
+                if (buffer.get(offset + 4) != HISTORY || buffer.getInt(offset) != checksum(crc, view, offset)) {
+                    return position + offset;
+                }
+                visitor.visit(buffer, offset);
+            }
+            position += (long) records * RECORD_SIZE;
+            if (records < ARCHIVE_READ_RECORDS) {
+                return position;
+            }
+        }
+    }
+
+    private static long balanceAfter(long point, PointHistory pointHistory) {
+        return switch (pointHistory.type()) {
+            case CHARGE -> point + pointHistory.amount();
+            case USE, EXPIRE -> point - pointHistory.amount();
+        };
+    }
+
+    private static PointHistory history(ByteBuffer buffer, int offset) {
+        return new PointHistory(
+                buffer.getLong(offset + 8),
+                buffer.getLong(offset + 16),
+                buffer.getLong(offset + 24),
+                TYPES[buffer.get(offset + 5)],
+                buffer.getLong(offset + 32)
+        );
+    }
+
+    /**
+     * expectedSequence 부터 연속된 온전한 레코드를 visitor 에 전달하고, 그 수를 반환한다.
+     * 기록되지 않은 영역(kind 0), CRC 불일치, sequence 불연속 중 하나를 만나면 멈춘다.
+     */
+    private int scan(ByteBuffer buffer, long expectedSequence, RecordVisitor visitor) {
+        ByteBuffer view = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        CRC32C crc = new CRC32C();
+        int records = Math.min(recordsPerSegment, buffer.capacity() / RECORD_SIZE);
+
+        int count = 0;
+        while (count < records) {
+            int offset = count * RECORD_SIZE;
+            if (buffer.get(offset + 4) == 0
+                    || buffer.getInt(offset) != checksum(crc, view, offset)
+                    || buffer.getLong(offset + 40) != expectedSequence + count) {
+                break;
+            }
+            visitor.visit(buffer, offset);
+            count++;
+        }
+        return count;
+    }
+
+    private static int checksum(CRC32C crc, ByteBuffer view, int offset) {
+        crc.reset();
+        view.limit(offset + RECORD_SIZE);
+        view.position(offset + 4);
+        crc.update(view);
+        view.limit(view.capacity());
+        return (int) crc.getValue();
+    }
+
+    private Segment openSegment(long firstSequence, int count) throws IOException {
+        Path path = directory.resolve(SEGMENT_PREFIX + String.format("%020d", firstSequence) + SEGMENT_SUFFIX);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) recordsPerSegment * RECORD_SIZE);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return new Segment(channel, buffer, count);
+    }
+
+    /**
+     * 중간에 끊긴 로그 뒤에 남은 세그먼트는 복구에 사용하지 않고, 확인할 수 있도록 이름을 바꿔 둔다.
+     */
+    private void discard(List<Path> segments) throws IOException {
+        for (Path path : segments) {
+            log.warn("이어지지 않는 포인트 로그 세그먼트를 제외합니다. {}", path);
+            Files.move(path, path.resolveSibling(path.getFileName() + ".corrupt"), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private List<Path> segmentPaths() throws IOException {
+        return list(SEGMENT_PREFIX, SEGMENT_SUFFIX);
+    }
+
+    private List<Path> snapshotPaths() throws IOException {
+        return list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+    }
+
+    private List<Path> list(String prefix, String suffix) throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(prefix) && name.endsWith(suffix);
+                    })
+                    .sorted()
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    private static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    @FunctionalInterface
+    private interface RecordVisitor {
+        void visit(ByteBuffer buffer, int offset);
+    }
+
+    private static final class Segment {
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        // 같은 버퍼를 가리키는 CRC 계산용 view. appendLock 안에서만 사용한다.
+        private final ByteBuffer view;
+        private int count;
+
+        private Segment(FileChannel channel, MappedByteBuffer buffer, int count) {
+            this.channel = channel;
+            this.buffer = buffer;
+            this.view = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package io.hhplus.tdd.database;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+public class PointWriteAheadLogConfig {
+
+    /**
+     * point.wal.enabled 가 true 인 경우에만 포인트 로그를 연다.
+     * 컨텍스트 종료 시 close() 가 호출되어 남은 기록을 반영하고 잔고 스냅샷을 저장한다.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "point.wal.enabled", havingValue = "true")
+    public PointWriteAheadLog pointWriteAheadLog(
+            @Value("${point.wal.directory:data/wal}") String directory,
+            @Value("${point.wal.segment-size-mb:64}") long segmentSizeMb,
+            @Value("${point.wal.snapshot-interval-millis:60000}") long snapshotIntervalMillis
+    ) throws IOException {
+        return new PointWriteAheadLog(Path.of(directory), segmentSizeMb * 1024 * 1024, snapshotIntervalMillis);
+    }
+}
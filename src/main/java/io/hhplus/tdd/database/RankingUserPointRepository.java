@@ -0,0 +1,37 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+
+/**
+ * 저장된 잔고를 순위 색인(PointRankingIndex)에 반영합니다.
+ * 안쪽 저장소(로그, 캐시 등)에 반영이 끝난 뒤에 갱신하므로, 순위에는 저장에 성공한 잔고만 보인다.
+ */
+public class RankingUserPointRepository implements UserPointRepository, AutoCloseable {
+
+    private final UserPointRepository delegate;
+    private final PointRankingIndex pointRankingIndex;
+
+    public RankingUserPointRepository(UserPointRepository delegate, PointRankingIndex pointRankingIndex) {
+        this.delegate = delegate;
+        this.pointRankingIndex = pointRankingIndex;
+    }
+
+    @Override
+    public UserPoint selectById(long id) {
+        return delegate.selectById(id);
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        UserPoint userPoint = delegate.insertOrUpdate(id, amount);
+        pointRankingIndex.update(userPoint);
+        return userPoint;
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
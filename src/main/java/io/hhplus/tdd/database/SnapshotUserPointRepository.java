@@ -0,0 +1,37 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+
+/**
+ * 잔고 조회는 UserPointSnapshot 에서 응답하고, 잔고를 저장하면 저장된 값을 스냅샷에 새 버전으로 게시합니다.
+ * 안쪽 저장소(로그, 캐시 등)에 반영이 끝난 뒤에 게시하므로, 스냅샷에는 저장에 성공한 값만 보인다.
+ */
+public class SnapshotUserPointRepository implements UserPointRepository, AutoCloseable {
+
+    private final UserPointRepository delegate;
+    private final UserPointSnapshot userPointSnapshot;
+
+    public SnapshotUserPointRepository(UserPointRepository delegate, UserPointSnapshot userPointSnapshot) {
+        this.delegate = delegate;
+        this.userPointSnapshot = userPointSnapshot;
+    }
+
+    @Override
+    public UserPoint selectById(long id) {
+        return userPointSnapshot.read(id, delegate::selectById).userPoint();
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        UserPoint userPoint = delegate.insertOrUpdate(id, amount);
+        userPointSnapshot.publish(userPoint);
+        return userPoint;
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+
+/**
+ * PointService 가 회원 포인트를 읽고 쓰는 저장소입니다.
+ * 기본 구현은 UserPointTable 을 그대로 호출하고, 설정에 따라 캐시 등의 계층을 앞에 둘 수 있습니다.
+ */
+public interface UserPointRepository {
+
+    UserPoint selectById(long id);
+
+    UserPoint insertOrUpdate(long id, long amount);
+}
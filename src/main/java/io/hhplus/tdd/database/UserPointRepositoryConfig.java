@@ -0,0 +1,72 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointReadMode;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Optional;
+
+@Configuration
+public class UserPointRepositoryConfig {
+
+    @Bean
+    public UserPointSnapshot userPointSnapshot(@Value("${point.read-mode:TABLE}") PointReadMode readMode) {
+        return new UserPointSnapshot(readMode == PointReadMode.SNAPSHOT);
+    }
+
+    /**
+     * 포인트 로그가 활성화된 경우, 로그에서 복구한 잔고로 순위를 채운 뒤 시작한다.
+     */
+    @Bean
+    public PointRankingIndex pointRankingIndex(
+            Optional<PointWriteAheadLog> pointWriteAheadLog,
+            @Value("${point.ranking.enabled:false}") boolean enabled
+    ) {
+        PointRankingIndex pointRankingIndex = new PointRankingIndex(enabled);
+        if (enabled && pointWriteAheadLog.isPresent()) {
+            pointWriteAheadLog.get().balances().values().forEach(pointRankingIndex::update);
+        }
+        return pointRankingIndex;
+    }
+
+    /**
+     * point.cache.enabled 가 true 인 경우 write-behind 캐시를 UserPointTable 앞에 둔다.
+     * 캐시 구현은 AutoCloseable 이므로 컨텍스트 종료 시 close() 가 호출되어 남은 변경분을 flush 한다.
+     * 캐시 적중률과 flush 지연은 point.cache.* gauge 로 노출한다.
+     * Table 호출 시간 측정은 캐시 안쪽에 두어, 캐시 적중 시에는 기록되지 않는다.
+     * 포인트 로그가 활성화된 경우 캐시 바깥에 두어, 재시작 후 로그에서 복구한 잔고로 응답한다. 잔고는 로그의 내역 레코드에 함께 기록된다.
+     * point.ranking.enabled 가 true 인 경우 로그/캐시 바깥에 두어, 저장이 끝난 잔고만 순위에 반영한다.
+     * point.read-mode 가 SNAPSHOT 인 경우 가장 바깥에 두어, 로그/캐시 반영이 끝난 잔고만 스냅샷에 게시한다.
+     */
+    @Bean
+    public UserPointRepository userPointRepository(
+            UserPointTable userPointTable,
+            MeterRegistry meterRegistry,
+            Optional<PointWriteAheadLog> pointWriteAheadLog,
+            UserPointSnapshot userPointSnapshot,
+            PointRankingIndex pointRankingIndex,
+            @Value("${point.cache.enabled:false}") boolean cacheEnabled,
+            @Value("${point.cache.max-size:100000}") int maxSize,
+            @Value("${point.cache.flush-interval-millis:100}") long flushIntervalMillis,
+            @Value("${point.cache.flush-threads:4}") int flushThreads
+    ) {
+        UserPointRepository repository = new MeteredUserPointRepository(new UserPointTableRepository(userPointTable), meterRegistry);
+        if (cacheEnabled) {
+            WriteBehindUserPointRepository writeBehind = new WriteBehindUserPointRepository(repository, maxSize, flushIntervalMillis, flushThreads);
+            writeBehind.bindTo(meterRegistry);
+            repository = writeBehind;
+        }
+        if (pointWriteAheadLog.isPresent()) {
+            repository = new WalUserPointRepository(repository, pointWriteAheadLog.get());
+        }
+        if (pointRankingIndex.isEnabled()) {
+            repository = new RankingUserPointRepository(repository, pointRankingIndex);
+        }
+        if (userPointSnapshot.isEnabled()) {
+            repository = new SnapshotUserPointRepository(repository, userPointSnapshot);
+        }
+        return repository;
+    }
+}
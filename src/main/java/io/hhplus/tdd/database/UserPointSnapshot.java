@@ -0,0 +1,47 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.VersionedUserPoint;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongFunction;
+
+/**
+ * 회원별로 마지막에 저장된 잔고를 불변 객체로 게시하는 읽기 전용 스냅샷입니다.
+ * - 조회는 ConcurrentHashMap.get 한 번으로, 락을 잡거나 쓰기 작업을 기다리지 않는다.
+ * - 잔고를 저장한 쪽이 저장 후 새 버전의 항목으로 교체한다. 항목 자체는 변경하지 않는다. (copy-on-write)
+ * - 아직 게시되지 않은 회원은 저장소에서 읽어 버전 0 으로 채우되, 그 사이 게시된 값이 있으면 게시된 값을 우선한다.
+ */
+public class UserPointSnapshot {
+
+    private final boolean enabled;
+    private final ConcurrentHashMap<Long, VersionedUserPoint> entries = new ConcurrentHashMap<>();
+
+    public UserPointSnapshot(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isPublished(long id) {
+        return entries.containsKey(id);
+    }
+
+    public VersionedUserPoint read(long id, LongFunction<UserPoint> loader) {
+        VersionedUserPoint entry = entries.get(id);
+        if (entry != null) {
+            return entry;
+        }
+
+        VersionedUserPoint loaded = new VersionedUserPoint(loader.apply(id), 0L);
+        VersionedUserPoint current = entries.putIfAbsent(id, loaded);
+        return current == null ? loaded : current;
+    }
+
+    public VersionedUserPoint publish(UserPoint userPoint) {
+        return entries.compute(userPoint.id(), (id, current) ->
+                new VersionedUserPoint(userPoint, current == null ? 1L : current.version() + 1));
+    }
+}
@@ -0,0 +1,25 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+
+/**
+ * UserPointTable 의 공개 API 를 그대로 위임하는 기본 저장소입니다.
+ */
+public class UserPointTableRepository implements UserPointRepository {
+
+    private final UserPointTable userPointTable;
+
+    public UserPointTableRepository(UserPointTable userPointTable) {
+        this.userPointTable = userPointTable;
+    }
+
+    @Override
+    public UserPoint selectById(long id) {
+        return userPointTable.selectById(id);
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        return userPointTable.insertOrUpdate(id, amount);
+    }
+}
@@ -0,0 +1,50 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 저장된 내역을 변경 후 잔고와 함께 PointWriteAheadLog 에 레코드 하나로 기록하고, 디스크에 반영될 때까지 기다립니다.
+ * PointUnitOfWork 는 잔고를 먼저 쓰고 내역을 나중에 쓰므로, 충전/사용 한 건은 이 레코드가 반영될 때 잔고와 내역이 함께 디스크에 기록됩니다.
+ * 동시에 기록된 다른 요청과 함께 한 번의 force 로 반영됩니다. (group commit)
+ */
+public class WalPointHistoryRepository implements PointHistoryRepository {
+
+    private final PointHistoryRepository delegate;
+    private final PointWriteAheadLog pointWriteAheadLog;
+
+    public WalPointHistoryRepository(PointHistoryRepository delegate, PointWriteAheadLog pointWriteAheadLog) {
+        this.delegate = delegate;
+        this.pointWriteAheadLog = pointWriteAheadLog;
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        PointHistory pointHistory = delegate.insert(userId, amount, type, updateMillis);
+        pointWriteAheadLog.awaitDurable(pointWriteAheadLog.appendHistory(pointHistory));
+        return pointHistory;
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        return delegate.selectAllByUserId(userId);
+    }
+
+    @Override
+    public List<PointHistory> selectByUserId(long userId, long afterId, long fromMillis, long toMillis, int limit) {
+        return delegate.selectByUserId(userId, afterId, fromMillis, toMillis, limit);
+    }
+
+    @Override
+    public void forEachByUserId(long userId, long afterId, Consumer<PointHistory> action) {
+        delegate.forEachByUserId(userId, afterId, action);
+    }
+
+    @Override
+    public void forEach(long afterId, Consumer<PointHistory> action) {
+        delegate.forEach(afterId, action);
+    }
+}
@@ -0,0 +1,42 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PointWriteAheadLog 에서 복구한 잔고로 응답합니다. 해당 회원의 잔고가 다시 변경되면 저장소의 값으로 응답합니다.
+ * 잔고 변경은 따로 기록하지 않습니다. 로그는 내역 레코드에 변경 후 잔고를 함께 기록하므로(WalPointHistoryRepository),
+ * 내역이 디스크에 반영되지 않은 잔고 변경은 재시작 후 복구되지 않고, 작업 단위마다 디스크 반영을 한 번만 기다립니다.
+ * 종료 시에는 안쪽 저장소(write-behind 캐시 등)도 함께 종료합니다.
+ */
+public class WalUserPointRepository implements UserPointRepository, AutoCloseable {
+
+    private final UserPointRepository delegate;
+    private final ConcurrentHashMap<Long, UserPoint> recovered;
+
+    public WalUserPointRepository(UserPointRepository delegate, PointWriteAheadLog pointWriteAheadLog) {
+        this.delegate = delegate;
+        this.recovered = new ConcurrentHashMap<>(pointWriteAheadLog.balances());
+    }
+
+    @Override
+    public UserPoint selectById(long id) {
+        UserPoint userPoint = recovered.get(id);
+        return userPoint != null ? userPoint : delegate.selectById(id);
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        UserPoint userPoint = delegate.insertOrUpdate(id, amount);
+        recovered.remove(id);
+        return userPoint;
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
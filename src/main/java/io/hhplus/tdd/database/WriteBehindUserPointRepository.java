@@ -0,0 +1,307 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.util.NamedThreadFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * UserPointTable 앞에 두는 write-behind 캐시입니다.
+ * - 조회는 메모리에서 응답하고, 없는 경우에만 저장소에서 읽어 채운다. (read-through)
+ * - 변경은 메모리에만 반영하고 dirty 로 표시한 뒤, flusher 가 비동기로 저장소에 기록한다.
+ * - 같은 id 에 대한 여러 번의 변경은 마지막 값 한 번의 쓰기로 합쳐진다.
+ * - 같은 id 는 항상 같은 flusher 가 기록하므로, 오래된 값이 최신 값을 덮어쓰지 않는다.
+ * - 최대 크기를 넘으면 저장소에 반영이 끝난(clean) 항목만 제거한다. clean 이 된 순서대로 쌓인 대기열에서 꺼내 제거하므로,
+ *   모든 항목이 dirty 인 동안에는 맵을 훑지 않고 바로 돌아간다.
+ * - 저장소에서 읽는 사이 같은 구간(stripe)의 항목이 제거되었다면, 읽은 값이 제거된 최신 값보다 오래되었을 수 있으므로 다시 읽는다.
+ * - flush 에 실패한 id 는 다음 flush 주기에 다시 기록한다.
+ */
+public class WriteBehindUserPointRepository implements UserPointRepository, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindUserPointRepository.class);
+    private static final int EVICTION_STRIPES = 1024;
+
+    private final UserPointRepository delegate;
+    private final int maxSize;
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    // 제거 후보. clean 이 된 순서대로 쌓이며, 항목마다 한 번만 들어간다. (Entry.queued)
+    // 꺼냈을 때 다시 dirty 가 된 항목은 대기열에서만 빠지고, 다음에 clean 이 될 때 다시 들어간다.
+    private final ConcurrentLinkedQueue<Long> cleanIds = new ConcurrentLinkedQueue<>();
+    private final Set<Long>[] dirtyIds;
+    private final Set<Long>[] retryIds;
+    // 구간별 제거 횟수. 조회 중 같은 구간에서 제거가 있었는지 확인하는 데 사용한다.
+    private final AtomicLongArray evictionCounts = new AtomicLongArray(EVICTION_STRIPES);
+    private final ScheduledExecutorService flusher;
+    private final AtomicBoolean evicting = new AtomicBoolean(false);
+    private final AtomicLong versionSequence = new AtomicLong();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder flushCount = new LongAdder();
+    private final AtomicLong lastFlushLagMillis = new AtomicLong();
+    private final AtomicLong maxFlushLagMillis = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    public WriteBehindUserPointRepository(UserPointRepository delegate, int maxSize, long flushIntervalMillis, int flushThreads) {
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.dirtyIds = new Set[flushThreads];
+        this.retryIds = new Set[flushThreads];
+        this.flusher = Executors.newScheduledThreadPool(flushThreads, new NamedThreadFactory("point-cache-flusher-"));
+
+        for (int partition = 0; partition < flushThreads; partition++) {
+            dirtyIds[partition] = ConcurrentHashMap.newKeySet();
+            retryIds[partition] = ConcurrentHashMap.newKeySet();
+            int target = partition;
+            flusher.scheduleWithFixedDelay(() -> flush(target), flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public UserPoint selectById(long id) {
+        Entry entry = entries.get(id);
+        if (entry != null) {
+            hitCount.increment();
+            return entry.userPoint();
+        }
+
+        missCount.increment();
+        int stripe = stripe(id);
+        while (true) {
+            long evictions = evictionCounts.get(stripe);
+            UserPoint loaded = delegate.selectById(id);
+            // 조회하는 사이 다른 스레드가 변경한 값이 있다면 그 값을 우선하고,
+            // 변경이 flush 후 제거되었을 수 있다면 읽은 값을 버리고 다시 읽는다.
+            Entry current = entries.compute(id, (key, existing) -> {
+                if (existing != null) {
+                    return existing;
+                }
+                if (evictionCounts.get(stripe) != evictions) {
+                    return null;
+                }
+                cleanIds.add(key);
+                return Entry.clean(loaded);
+            });
+            if (current != null) {
+                evictIfNecessary();
+                return current.userPoint();
+            }
+        }
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        long now = System.currentTimeMillis();
+        UserPoint userPoint = new UserPoint(id, amount, now);
+
+        entries.compute(id, (key, entry) -> {
+            long version = versionSequence.incrementAndGet();
+            return entry == null ? Entry.dirty(userPoint, version, now) : entry.update(userPoint, version, now);
+        });
+        dirtyIds[partition(id)].add(id);
+        evictIfNecessary();
+        return userPoint;
+    }
+
+    /**
+     * 남은 변경분을 모두 저장소에 기록한 뒤 flusher 를 종료한다.
+     */
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(10, TimeUnit.SECONDS)) {
+                flusher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            flusher.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        for (int partition = 0; partition < dirtyIds.length; partition++) {
+            flush(partition);
+        }
+    }
+
+    /**
+     * 적중률, 크기, 반영 대기 건수, flush 지연을 gauge 로 등록한다.
+     */
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("point.cache.hit.ratio", this, repository -> repository.stats().hitRate())
+                .description("포인트 캐시 조회 적중률")
+                .register(meterRegistry);
+        Gauge.builder("point.cache.size", entries, ConcurrentHashMap::size)
+                .description("포인트 캐시에 보관 중인 회원 수")
+                .register(meterRegistry);
+        Gauge.builder("point.cache.dirty", this, WriteBehindUserPointRepository::dirtyCount)
+                .description("저장소에 반영을 기다리는 회원 수")
+                .register(meterRegistry);
+        Gauge.builder("point.cache.flush.lag", lastFlushLagMillis, AtomicLong::get)
+                .description("마지막으로 flush 한 변경이 반영되기까지 걸린 시간 (ms)")
+                .register(meterRegistry);
+        Gauge.builder("point.cache.flush.lag.max", maxFlushLagMillis, AtomicLong::get)
+                .description("flush 한 변경이 반영되기까지 걸린 최대 시간 (ms)")
+                .register(meterRegistry);
+    }
+
+    public Stats stats() {
+        long hits = hitCount.sum();
+        long misses = missCount.sum();
+        long requests = hits + misses;
+
+        return new Stats(
+                hits,
+                misses,
+                requests == 0 ? 0.0 : (double) hits / requests,
+                entries.size(),
+                dirtyCount(),
+                flushCount.sum(),
+                lastFlushLagMillis.get(),
+                maxFlushLagMillis.get()
+        );
+    }
+
+    void flush(int partition) {
+        // 지난 주기에 실패한 id 를 먼저 되돌려 놓고, 이번 주기에 실패한 id 는 다음 주기로 미룬다.
+        Set<Long> retries = retryIds[partition];
+        Set<Long> ids = dirtyIds[partition];
+        for (Long id : retries) {
+            if (retries.remove(id)) {
+                ids.add(id);
+            }
+        }
+
+        for (Long id : ids) {
+            if (!ids.remove(id)) {
+                continue;
+            }
+
+            Entry entry = entries.get(id);
+            if (entry == null || entry.isClean()) {
+                continue;
+            }
+
+            try {
+                delegate.insertOrUpdate(id, entry.userPoint().point());
+            } catch (RuntimeException e) {
+                log.warn("포인트 캐시 flush 실패. id={}", id, e);
+                retries.add(id);
+                continue;
+            }
+
+            entries.computeIfPresent(id, (key, current) -> {
+                Entry flushed = current.flushed(entry.version());
+                if (!flushed.isClean() || flushed.queued()) {
+                    return flushed;
+                }
+                cleanIds.add(key);
+                return flushed.enqueued(true);
+            });
+
+            long lag = System.currentTimeMillis() - entry.dirtySinceMillis();
+            lastFlushLagMillis.set(lag);
+            maxFlushLagMillis.accumulateAndGet(lag, Math::max);
+            flushCount.increment();
+        }
+    }
+
+    private int partition(long id) {
+        return (int) Math.floorMod(id, (long) dirtyIds.length);
+    }
+
+    private static int stripe(long id) {
+        return (int) Math.floorMod(id, (long) EVICTION_STRIPES);
+    }
+
+    private int dirtyCount() {
+        int dirtyCount = 0;
+        for (int partition = 0; partition < dirtyIds.length; partition++) {
+            dirtyCount += dirtyIds[partition].size() + retryIds[partition].size();
+        }
+        return dirtyCount;
+    }
+
+    private void evictIfNecessary() {
+        if (entries.size() <= maxSize || cleanIds.isEmpty() || !evicting.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            Long id;
+            while (entries.size() > maxSize && (id = cleanIds.poll()) != null) {
+                // 꺼낸 뒤 다시 dirty 가 된 항목은 flush 전까지 제거하지 않는다. 제거 횟수는 같은 compute 안에서 올려, 진행 중인 조회가 알 수 있게 한다.
+                entries.computeIfPresent(id, (key, entry) -> {
+                    if (!entry.isClean()) {
+                        return entry.enqueued(false);
+                    }
+                    evictionCounts.incrementAndGet(stripe(key));
+                    return null;
+                });
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    public record Stats(
+            long hitCount,
+            long missCount,
+            double hitRate,
+            int size,
+            int dirtyCount,
+            long flushCount,
+            long lastFlushLagMillis,
+            long maxFlushLagMillis
+    ) {
+    }
+
+    /**
+     * @param queued 제거 후보 대기열(cleanIds)에 들어 있는지 여부
+     */
+    private record Entry(
+            UserPoint userPoint,
+            long version,
+            long flushedVersion,
+            long dirtySinceMillis,
+            boolean queued
+    ) {
+
+        static Entry clean(UserPoint userPoint) {
+            return new Entry(userPoint, 0, 0, 0, true);
+        }
+
+        static Entry dirty(UserPoint userPoint, long version, long now) {
+            return new Entry(userPoint, version, 0, now, false);
+        }
+
+        boolean isClean() {
+            return flushedVersion >= version;
+        }
+
+        Entry update(UserPoint userPoint, long version, long now) {
+            return new Entry(userPoint, version, flushedVersion, isClean() ? now : dirtySinceMillis, queued);
+        }
+
+        Entry flushed(long flushedVersion) {
+            long flushed = Math.max(this.flushedVersion, flushedVersion);
+            return new Entry(userPoint, version, flushed, flushed >= version ? 0 : dirtySinceMillis, queued);
+        }
+
+        Entry enqueued(boolean queued) {
+            return new Entry(userPoint, version, flushedVersion, dirtySinceMillis, queued);
+        }
+    }
+}
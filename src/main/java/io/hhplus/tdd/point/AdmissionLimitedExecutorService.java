@@ -0,0 +1,79 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.UserPointException;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 실행 중이거나 실행을 기다리는 작업 수를 maxInFlight 로 제한하는 executor 입니다.
+ * - 가상 스레드 executor 는 작업마다 스레드를 만들고, 고정 스레드 풀은 대기 큐에 제한이 없으므로, 과부하 시 작업이 끝없이 쌓인다.
+ * - 허용량을 넘은 작업은 기다리지 않고 바로 거절(503)하므로, 호출자(비동기 API)는 작업을 등록하는 시점에 실패를 응답한다.
+ */
+class AdmissionLimitedExecutorService extends AbstractExecutorService {
+
+    private final ExecutorService delegate;
+    private final int maxInFlight;
+    private final Semaphore permits;
+
+    AdmissionLimitedExecutorService(ExecutorService delegate, int maxInFlight) {
+        this.delegate = delegate;
+        this.maxInFlight = maxInFlight;
+        this.permits = new Semaphore(maxInFlight);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (!permits.tryAcquire()) {
+            throw new UserPointException(UserPointException.Reason.OVERLOADED, "처리 중인 요청이 많습니다. 잠시 후 다시 시도해주세요.");
+        }
+
+        try {
+            delegate.execute(() -> {
+                try {
+                    command.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 실행 중이거나 실행을 기다리는 작업 수
+     */
+    int inFlight() {
+        return maxInFlight - permits.availablePermits();
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
@@ -0,0 +1,44 @@
+package io.hhplus.tdd.point;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 회원마다 공정락을 하나씩 만들어 계속 유지합니다.
+ * 한 번이라도 요청한 회원의 락은 제거되지 않으므로, 회원 수가 많은 경우 메모리가 계속 증가합니다.
+ */
+public class ConcurrentMapUserLockProvider implements UserLockProvider {
+
+    private final ConcurrentHashMap<Long, ReentrantLock> locks = new ConcurrentHashMap<>();
+    private final UserLockLimits limits;
+
+    public ConcurrentMapUserLockProvider() {
+        this(UserLockLimits.UNBOUNDED);
+    }
+
+    public ConcurrentMapUserLockProvider(UserLockLimits limits) {
+        this.limits = limits;
+    }
+
+    @Override
+    public <T> T withLock(long userId, Supplier<T> action) {
+        ReentrantLock lock = locks.computeIfAbsent(userId, id -> new ReentrantLock(true));
+        limits.acquire(lock);
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public UserLockLimits limits() {
+        return limits;
+    }
+
+    @Override
+    public int lockCount() {
+        return locks.size();
+    }
+}
@@ -0,0 +1,104 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.UserPointRepository;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 회원별 락을 획득한 호출 스레드가 직접 포인트 충전/사용을 처리합니다. (point.write-mode=LOCK)
+ * - 잔고와 내역은 락 안에서 하나의 PointUnitOfWork 로 반영한다.
+ * - 비동기 요청은 UserTaskChain 으로 같은 회원의 요청을 등록 순서대로 하나씩 실행한다.
+ * 이체, 예약, 만료도 같은 회원별 락으로 충전/사용과 배제됩니다.
+ */
+class LockPointWriteEngine implements PointWriteEngine {
+
+    private final UserPointRepository userPointRepository;
+    private final PointHistoryRepository pointHistoryRepository;
+    private final UserLockProvider userLockProvider;
+    private final PointMetrics pointMetrics;
+    private final PointHoldStore pointHoldStore;
+    private final UserTaskChain userTaskChain;
+
+    LockPointWriteEngine(
+            UserPointRepository userPointRepository,
+            PointHistoryRepository pointHistoryRepository,
+            UserLockProvider userLockProvider,
+            PointMetrics pointMetrics,
+            PointHoldStore pointHoldStore,
+            Executor pointAsyncExecutor
+    ) {
+        this.userPointRepository = userPointRepository;
+        this.pointHistoryRepository = pointHistoryRepository;
+        this.userLockProvider = userLockProvider;
+        this.pointMetrics = pointMetrics;
+        this.pointHoldStore = pointHoldStore;
+        this.userTaskChain = new UserTaskChain(pointAsyncExecutor, userLockProvider.limits());
+    }
+
+    @Override
+    public UserPoint charge(long id, long amount) {
+        return withUserLock(id, TransactionType.CHARGE, () -> {
+            PointService.validateCharge(amount);
+
+            PointUnitOfWork unitOfWork = new PointUnitOfWork(userPointRepository, pointHistoryRepository);
+            unitOfWork.stage(id, TransactionType.CHARGE, amount);
+            unitOfWork.commit();
+
+            return unitOfWork.committed(id);
+        });
+    }
+
+    @Override
+    public UserPoint use(long id, long amount) {
+        return withUserLock(id, TransactionType.USE, () -> {
+            PointUnitOfWork unitOfWork = new PointUnitOfWork(userPointRepository, pointHistoryRepository);
+
+            PointService.validateUse(pointHoldStore.available(unitOfWork.current(id)), amount);
+
+            unitOfWork.stage(id, TransactionType.USE, amount);
+            unitOfWork.commit();
+
+            return unitOfWork.committed(id);
+        });
+    }
+
+    @Override
+    public CompletableFuture<UserPoint> chargeAsync(long id, long amount) {
+        return userTaskChain.enqueue(id, () -> charge(id, amount));
+    }
+
+    @Override
+    public CompletableFuture<UserPoint> useAsync(long id, long amount) {
+        return userTaskChain.enqueue(id, () -> use(id, amount));
+    }
+
+    @Override
+    public <T> T withUserExclusive(long userId, Function<UserPointRepository, T> action) {
+        return userLockProvider.withLock(userId, () -> action.apply(userPointRepository));
+    }
+
+    @Override
+    public <T> T withUsersExclusive(long firstUserId, long secondUserId, Function<UserPointRepository, T> action) {
+        return userLockProvider.withLocks(firstUserId, secondUserId, () -> action.apply(userPointRepository));
+    }
+
+    /**
+     * 회원별 락을 획득해 action 을 실행하고, 락 대기 시간과 보유 시간을 기록한다.
+     */
+    private UserPoint withUserLock(long id, TransactionType type, Supplier<UserPoint> action) {
+        long requestedAt = System.nanoTime();
+        return userLockProvider.withLock(id, () -> {
+            long acquiredAt = System.nanoTime();
+            pointMetrics.recordLockWait(type, acquiredAt - requestedAt);
+            try {
+                return action.get();
+            } finally {
+                pointMetrics.recordLockHold(type, System.nanoTime() - acquiredAt);
+            }
+        });
+    }
+}
@@ -0,0 +1,174 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.CasUserPointStore;
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.UserPointRepository;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * 회원별 락 없이, 버전을 비교해 잔고를 바꾸는 방식으로 포인트 충전/사용을 처리합니다. (point.write-mode=OPTIMISTIC)
+ * - 잔고는 CasUserPointStore 에서 버전과 함께 읽고, 읽은 버전이 그대로인 경우에만 바꾼다. 경합이 없으면 락 조회나 대기가 없다.
+ * - 다른 요청이 먼저 바꿔 실패하면 다시 읽어 시도하며, 두 번째 시도부터는 점점 늘어나는 임의의 시간만큼 쉰다.
+ * - maxAttempts 번 실패하면 회원별 락을 잡고 시도해, 경합이 심한 회원에서 재시도가 몰리지 않게 한다. 락을 잡은 뒤에도 충돌하면 같은 방식으로 쉬며 다시 시도한다.
+ * - 잔고를 바꾸면 바로 내역과 함께 확정하고, 내역과 잔고는 CasUserPointStore 가 버전 순서대로 저장한다. 내역을 저장하는 동안에도 다른 변경은 충돌하지 않는다.
+ *   응답은 자기 변경의 내역과 잔고가 저장된 뒤에 하며, 내역 저장에 실패하면 잔고를 변경 전 값으로 되돌리고 실패를 응답한다.
+ * - 이체/예약/만료(withUserExclusive)는 회원별 락을 잡고 CasUserPointStore 를 fence 로 막은 채 실행하므로, 그동안 락 없이 시도한 변경은 충돌로 실패한다.
+ * 잔고 조회도 CasUserPointStore 에서 응답하며, 저장소(UserPointTable)에는 변경된 잔고가 버전 순서대로 기록됩니다.
+ */
+class OptimisticPointEngine implements PointWriteEngine {
+
+    private static final long MIN_BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(1);
+
+    private final CasUserPointStore casUserPointStore;
+    private final UserLockProvider userLockProvider;
+    private final PointMetrics pointMetrics;
+    private final PointHoldStore pointHoldStore;
+    private final UserTaskChain userTaskChain;
+    private final int maxAttempts;
+    private final long maxBackoffNanos;
+    // fence 로 막아 둔 회원의 잔고를 읽고 쓰는 저장소. withUserExclusive 의 action 에 전달한다.
+    private final UserPointRepository fencedRepository = new UserPointRepository() {
+        @Override
+        public UserPoint selectById(long id) {
+            return casUserPointStore.read(id).userPoint();
+        }
+
+        @Override
+        public UserPoint insertOrUpdate(long id, long amount) {
+            return casUserPointStore.set(id, amount).userPoint();
+        }
+    };
+
+    OptimisticPointEngine(
+            UserPointRepository userPointRepository,
+            PointHistoryRepository pointHistoryRepository,
+            UserLockProvider userLockProvider,
+            PointMetrics pointMetrics,
+            PointHoldStore pointHoldStore,
+            int maxAttempts,
+            long maxBackoffMicros,
+            int maxCachedUsers,
+            Executor pointAsyncExecutor
+    ) {
+        this.casUserPointStore = new CasUserPointStore(userPointRepository, pointHistoryRepository, maxCachedUsers);
+        this.userLockProvider = userLockProvider;
+        this.pointMetrics = pointMetrics;
+        this.pointHoldStore = pointHoldStore;
+        this.userTaskChain = new UserTaskChain(pointAsyncExecutor, userLockProvider.limits());
+        this.maxAttempts = maxAttempts;
+        this.maxBackoffNanos = Math.max(MIN_BACKOFF_NANOS, TimeUnit.MICROSECONDS.toNanos(maxBackoffMicros));
+    }
+
+    @Override
+    public VersionedUserPoint read(long id) {
+        return casUserPointStore.read(id);
+    }
+
+    @Override
+    public UserPoint charge(long id, long amount) {
+        PointService.validateCharge(amount);
+
+        return apply(id, TransactionType.CHARGE, amount, current -> current.point() + amount);
+    }
+
+    @Override
+    public UserPoint use(long id, long amount) {
+        return apply(id, TransactionType.USE, amount, current -> {
+            PointService.validateUse(pointHoldStore.available(current), amount);
+            return current.point() - amount;
+        });
+    }
+
+    @Override
+    public CompletableFuture<UserPoint> chargeAsync(long id, long amount) {
+        return userTaskChain.enqueue(id, () -> charge(id, amount));
+    }
+
+    @Override
+    public CompletableFuture<UserPoint> useAsync(long id, long amount) {
+        return userTaskChain.enqueue(id, () -> use(id, amount));
+    }
+
+    @Override
+    public <T> T withUserExclusive(long userId, Function<UserPointRepository, T> action) {
+        return userLockProvider.withLock(userId, () -> withFenced(new long[]{userId}, action));
+    }
+
+    @Override
+    public <T> T withUsersExclusive(long firstUserId, long secondUserId, Function<UserPointRepository, T> action) {
+        return userLockProvider.withLocks(firstUserId, secondUserId, () -> withFenced(new long[]{firstUserId, secondUserId}, action));
+    }
+
+    /**
+     * 회원별 락을 잡은 상태에서 회원들의 잔고를 fence 로 막고 action 을 실행한다. action 이 바꾼 잔고는 fence 를 푼 뒤 저장소에 기록한다.
+     */
+    private <T> T withFenced(long[] userIds, Function<UserPointRepository, T> action) {
+        for (long userId : userIds) {
+            casUserPointStore.fence(userId);
+        }
+        try {
+            return action.apply(fencedRepository);
+        } finally {
+            for (long userId : userIds) {
+                casUserPointStore.unfence(userId);
+                casUserPointStore.persist(userId);
+            }
+        }
+    }
+
+    /**
+     * 잔고를 바꾸고 내역과 함께 확정한 뒤, 내역과 잔고가 저장될 때까지 기다린다. 내역 저장에 실패하면 잔고는 변경 전 값으로 되돌아간다.
+     */
+    private UserPoint apply(long id, TransactionType type, long amount, ToLongFunction<UserPoint> change) {
+        VersionedUserPoint pending = update(id, type, change);
+        casUserPointStore.confirm(pending, type, amount);
+        return pending.userPoint();
+    }
+
+    /**
+     * 현재 잔고로 계산한 새 잔고를 버전 비교로 반영하고, 확정 대기 중인 값을 반환한다. change 에서 던진 예외는 재시도하지 않고 그대로 전달된다.
+     */
+    private VersionedUserPoint update(long id, TransactionType type, ToLongFunction<UserPoint> change) {
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            VersionedUserPoint updated = tryUpdate(id, change);
+            if (updated != null) {
+                return updated;
+            }
+            pointMetrics.optimisticConflict(type);
+            // 첫 충돌은 다른 요청이 막 반영을 마친 경우가 대부분이므로 바로 다시 시도한다.
+            if (attempt > 1) {
+                backoff(attempt - 1);
+            }
+        }
+
+        // 락을 잡은 요청끼리는 순서대로 시도하지만, 락 밖의 요청과는 여전히 경합하므로 성공할 때까지 다시 읽어 시도한다.
+        pointMetrics.optimisticFallback(type);
+        return userLockProvider.withLock(id, () -> {
+            VersionedUserPoint updated;
+            for (int retry = maxAttempts; (updated = tryUpdate(id, change)) == null; retry++) {
+                backoff(retry);
+            }
+            return updated;
+        });
+    }
+
+    private VersionedUserPoint tryUpdate(long id, ToLongFunction<UserPoint> change) {
+        VersionedUserPoint current = casUserPointStore.read(id);
+        return casUserPointStore.compareAndSet(current, change.applyAsLong(current.userPoint()));
+    }
+
+    /**
+     * 충돌한 요청들이 같은 시점에 다시 시도하지 않도록, 시도마다 두 배로 늘어나는 구간에서 임의의 시간만큼 쉰다.
+     */
+    private void backoff(int retry) {
+        long bound = Math.min(maxBackoffNanos, MIN_BACKOFF_NANOS << Math.min(retry, 30));
+        LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(bound) + 1);
+    }
+}
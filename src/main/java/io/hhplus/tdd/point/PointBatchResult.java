@@ -0,0 +1,23 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 일괄 처리 항목별 결과
+ * - 성공한 경우 point 에 처리 후 잔고가, 실패한 경우 message 에 실패 사유가 담긴다.
+ */
+public record PointBatchResult(
+        long userId,
+        TransactionType type,
+        long amount,
+        boolean success,
+        Long point,
+        String message
+) {
+
+    public static PointBatchResult success(PointBatchItem item, UserPoint userPoint) {
+        return new PointBatchResult(item.userId(), item.type(), item.amount(), true, userPoint.point(), null);
+    }
+
+    public static PointBatchResult failure(PointBatchItem item, String message) {
+        return new PointBatchResult(item.userId(), item.type(), item.amount(), false, null, message);
+    }
+}
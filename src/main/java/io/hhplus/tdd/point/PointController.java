@@ -1,69 +1,298 @@
 package io.hhplus.tdd.point;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.hhplus.tdd.util.UserPointValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
+/**
+ * 포인트 조회/충전/사용 API 는 CompletableFuture 를 반환하는 비동기 핸들러로, 작업이 끝날 때까지 요청 스레드를 점유하지 않는다.
+ * 서비스 작업 중 발생한 예외는 async dispatch 후 ApiControllerAdvice 에서 처리된다.
+ */
 @RestController
 @RequestMapping("/point")
 public class PointController {
 
     private static final Logger log = LoggerFactory.getLogger(PointController.class);
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String POINT_VERSION_HEADER = "X-Point-Version";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final int DEFAULT_PAGE_LIMIT = 100;
 
     private final PointService pointService;
+    private final ObjectMapper objectMapper;
+    private final PointIdempotencyStore pointIdempotencyStore;
+    private final PointRateLimiter pointRateLimiter;
 
     @Autowired
-    public PointController(PointService pointService) {
+    public PointController(
+            PointService pointService,
+            ObjectMapper objectMapper,
+            PointIdempotencyStore pointIdempotencyStore,
+            PointRateLimiter pointRateLimiter
+    ) {
         this.pointService = pointService;
+        this.objectMapper = objectMapper;
+        this.pointIdempotencyStore = pointIdempotencyStore;
+        this.pointRateLimiter = pointRateLimiter;
     }
 
     /**
      * TODO - 특정 유저의 포인트를 조회하는 기능을 작성해주세요.
+     * 스냅샷 조회(point.read-mode=SNAPSHOT)인 경우 X-Point-Version 헤더에 응답한 잔고의 게시 버전을 담는다.
+     * 버전은 회원별로 잔고가 변경될 때마다 증가하므로, 클라이언트는 updateMillis 와 함께 변경 반영 여부를 확인할 수 있다.
      */
     @GetMapping("/{id}")
-    public UserPoint point(
+    public CompletableFuture<ResponseEntity<UserPoint>> point(
             @PathVariable("id") long id
     ) {
         UserPointValidator.withId(id);
-        return pointService.getUserPoint(id);
+        return pointService.getVersionedUserPointAsync(id).thenApply(versioned -> {
+            if (!versioned.isVersioned()) {
+                return ResponseEntity.ok(versioned.userPoint());
+            }
+            return ResponseEntity.ok()
+                    .header(POINT_VERSION_HEADER, String.valueOf(versioned.version()))
+                    .body(versioned.userPoint());
+        });
     }
 
     /**
      * TODO - 특정 유저의 포인트 충전/이용 내역을 조회하는 기능을 작성해주세요.
+     * after, limit, from, to 중 하나라도 전달되면 커서 기반으로 조회하며,
+     * 다음 페이지가 있는 경우 X-Next-Cursor 헤더에 다음 요청의 after 값을 담는다.
      */
     @GetMapping("/{id}/histories")
-    public List<PointHistory> history(
+    public CompletableFuture<ResponseEntity<List<PointHistory>>> history(
+            @PathVariable("id") long id,
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "from", required = false) Long from,
+            @RequestParam(value = "to", required = false) Long to
+    ) {
+        UserPointValidator.withId(id);
+        if (after == null && limit == null && from == null && to == null) {
+            return pointService.getPointHistoriesAsync(id).thenApply(ResponseEntity::ok);
+        }
+
+        long cursor = after == null ? 0L : after;
+        int size = limit == null ? DEFAULT_PAGE_LIMIT : limit;
+        long fromMillis = from == null ? 0L : from;
+        long toMillis = to == null ? Long.MAX_VALUE : to;
+        UserPointValidator.withPage(cursor, size, fromMillis, toMillis);
+
+        return pointService.getPointHistoriesAsync(id, cursor, fromMillis, toMillis, size).thenApply(page -> {
+            if (page.nextCursor() == null) {
+                return ResponseEntity.ok(page.histories());
+            }
+            return ResponseEntity.ok()
+                    .header(NEXT_CURSOR_HEADER, String.valueOf(page.nextCursor()))
+                    .body(page.histories());
+        });
+    }
+
+    /**
+     * 특정 유저의 누적 충전/사용 금액, 거래 건수, 마지막 거래 시각을 조회한다. 내역을 읽지 않고 유지 중인 요약으로 응답한다.
+     */
+    @GetMapping("/{id}/summary")
+    public PointSummary summary(
+            @PathVariable("id") long id
+    ) {
+        UserPointValidator.withId(id);
+        return pointService.getPointSummary(id);
+    }
+
+    /**
+     * 저장된 내역으로 다시 계산한 요약과 유지 중인 요약이 다른 회원 목록을 조회한다.
+     */
+    @GetMapping("/summary/drift")
+    public List<PointSummaryDrift> summaryDrift() {
+        return pointService.verifyPointSummaries();
+    }
+
+    /**
+     * 잔고가 많은 순서로 상위 limit 명의 순위를 조회한다. 잔고가 같으면 id 가 작은 회원이 앞선다.
+     */
+    @GetMapping("/ranking")
+    public List<PointRank> ranking(
+            @RequestParam(value = "limit", defaultValue = "100") int limit
+    ) {
+        UserPointValidator.withLimit(limit);
+        return pointService.getPointRanking(limit);
+    }
+
+    /**
+     * 특정 유저의 잔고 순위를 조회한다.
+     */
+    @GetMapping("/{id}/rank")
+    public PointRank rank(
             @PathVariable("id") long id
     ) {
         UserPointValidator.withId(id);
-        return pointService.getPointHistories(id);
+        return pointService.getPointRank(id);
+    }
+
+    /**
+     * 특정 유저의 포인트 내역을 NDJSON(한 줄에 내역 하나)으로 응답 스트림에 바로 기록한다.
+     * after 를 전달하면 해당 내역 id 이후부터 이어서 내보낸다.
+     */
+    @GetMapping(value = "/{id}/histories/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody exportHistory(
+            @PathVariable("id") long id,
+            @RequestParam(value = "after", defaultValue = "0") long after
+    ) {
+        UserPointValidator.withId(id);
+        UserPointValidator.withCursor(after);
+        return ndjson(action -> pointService.exportPointHistories(id, after, action));
+    }
+
+    /**
+     * 전체 유저의 포인트 내역을 id 순서대로 NDJSON 으로 내보낸다.
+     */
+    @GetMapping(value = "/histories/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody exportAllHistories(
+            @RequestParam(value = "after", defaultValue = "0") long after
+    ) {
+        UserPointValidator.withCursor(after);
+        return ndjson(action -> pointService.exportAllPointHistories(after, action));
     }
 
     /**
      * TODO - 특정 유저의 포인트를 충전하는 기능을 작성해주세요.
+     * Idempotency-Key 헤더가 있으면 같은 키로 재시도된 요청은 다시 충전하지 않고 처음 요청의 결과를 응답한다.
      */
     @PatchMapping("/{id}/charge")
-    public UserPoint charge(
+    public CompletableFuture<UserPoint> charge(
             @PathVariable("id") long id,
-            @RequestBody long amount
+            @RequestBody long amount,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
     ) {
         UserPointValidator.withIdAndAmount(id, amount);
-        return pointService.chargePoint(id, amount);
+        return idempotent(idempotencyKey, id, TransactionType.CHARGE, amount, () -> pointService.chargePointAsync(id, amount));
     }
 
     /**
      * TODO - 특정 유저의 포인트를 사용하는 기능을 작성해주세요.
+     * Idempotency-Key 헤더가 있으면 같은 키로 재시도된 요청은 다시 사용하지 않고 처음 요청의 결과를 응답한다.
      */
     @PatchMapping("/{id}/use")
-    public UserPoint use(
+    public CompletableFuture<UserPoint> use(
+            @PathVariable("id") long id,
+            @RequestBody long amount,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
+    ) {
+        UserPointValidator.withIdAndAmount(id, amount);
+        return idempotent(idempotencyKey, id, TransactionType.USE, amount, () -> pointService.usePointAsync(id, amount));
+    }
+
+    /**
+     * 여러 회원의 포인트 충전/사용 요청을 한 번에 처리하고, 항목별 성공/실패 결과를 요청 순서대로 응답한다.
+     */
+    @PostMapping("/batch")
+    public List<PointBatchResult> batch(
+            @RequestBody List<PointBatchItem> items
+    ) {
+        UserPointValidator.withBatch(items);
+        return pointService.applyBatch(items);
+    }
+
+    /**
+     * 한 회원의 포인트를 다른 회원에게 이체한다. 보내는 회원의 사용 내역과 받는 회원의 충전 내역이 두 잔고와 함께 저장된다.
+     * 요청 수 제한은 보내는 회원 기준으로 적용한다.
+     */
+    @PostMapping("/transfer")
+    public CompletableFuture<PointTransferResult> transfer(
+            @RequestBody PointTransferRequest request
+    ) {
+        UserPointValidator.withTransfer(request.fromUserId(), request.toUserId(), request.amount());
+        pointRateLimiter.acquire(request.fromUserId());
+        return pointService.transferPointAsync(request.fromUserId(), request.toUserId(), request.amount());
+    }
+
+    /**
+     * 사용 가능 잔고 안에서 포인트를 예약한다. 예약은 capture 로 확정하거나 release 로 해제하며, 유효 기간이 지나면 자동으로 해제된다.
+     */
+    @PostMapping("/{id}/hold")
+    public CompletableFuture<PointHold> hold(
             @PathVariable("id") long id,
             @RequestBody long amount
     ) {
         UserPointValidator.withIdAndAmount(id, amount);
-        return pointService.usePoint(id, amount);
+        pointRateLimiter.acquire(id);
+        return pointService.holdPointAsync(id, amount);
+    }
+
+    /**
+     * 예약한 금액만큼 포인트를 사용하고, 사용 후 잔고를 응답한다.
+     */
+    @PatchMapping("/hold/{holdId}/capture")
+    public CompletableFuture<UserPoint> capture(
+            @PathVariable("holdId") long holdId
+    ) {
+        UserPointValidator.withId(holdId);
+        return pointService.capturePointAsync(holdId);
+    }
+
+    /**
+     * 예약을 해제하고, 해제한 예약을 응답한다.
+     */
+    @PatchMapping("/hold/{holdId}/release")
+    public CompletableFuture<PointHold> release(
+            @PathVariable("holdId") long holdId
+    ) {
+        UserPointValidator.withId(holdId);
+        return pointService.releasePointAsync(holdId);
+    }
+
+    /**
+     * 요청 수 제한을 통과한 요청만 실행한다. 같은 Idempotency-Key 로 재시도된 요청은 새로 실행하지 않으므로 토큰을 쓰지 않는다.
+     */
+    private CompletableFuture<UserPoint> idempotent(
+            String idempotencyKey,
+            long id,
+            TransactionType type,
+            long amount,
+            Supplier<CompletableFuture<UserPoint>> action
+    ) {
+        Supplier<CompletableFuture<UserPoint>> admitted = () -> {
+            pointRateLimiter.acquire(id);
+            return action.get();
+        };
+        if (idempotencyKey == null) {
+            return admitted.get();
+        }
+        UserPointValidator.withIdempotencyKey(idempotencyKey);
+        return pointIdempotencyStore.execute(idempotencyKey, id, type, amount, admitted);
+    }
+
+    private StreamingResponseBody ndjson(Consumer<Consumer<PointHistory>> export) {
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+                export.accept(pointHistory -> writeLine(generator, pointHistory));
+            }
+        };
+    }
+
+    private void writeLine(JsonGenerator generator, PointHistory pointHistory) {
+        try {
+            generator.writeObject(pointHistory);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
@@ -0,0 +1,60 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.util.NamedThreadFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 포인트 작업에 사용하는 executor 설정
+ * spring.threads.virtual.enabled 가 true 인 경우, 요청 처리(Tomcat)와 함께 포인트 작업도 가상 스레드에서 실행한다.
+ * 회원별 락은 ReentrantLock 이므로 대기 중에도 캐리어 스레드를 점유(pinning)하지 않는다.
+ * 비동기 API 의 작업은 요청마다 등록되므로, 실행 중이거나 기다리는 작업 수를 point.async.max-in-flight 로 제한하고 넘으면 503 으로 거절한다.
+ * batch 와 mailbox 작업은 호출자가 수를 제한한다. (batch 는 요청 하나의 회원 수만큼 등록하고 끝날 때까지 기다리며, mailbox 는 회원별 drainer 가 하나뿐이다)
+ */
+@Configuration
+public class PointExecutorConfig {
+
+    private final boolean virtualThreads;
+
+    public PointExecutorConfig(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * 일괄 충전/사용 요청을 회원 단위로 병렬 처리하는 executor
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService pointBatchExecutor(@Value("${point.batch.parallelism:16}") int parallelism) {
+        return newExecutor("point-batch-", parallelism);
+    }
+
+    /**
+     * QUEUE 모드에서 회원별 mailbox 를 비우는 drainer 를 실행하는 executor
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService pointMailboxExecutor(@Value("${point.mailbox.drain-threads:16}") int drainThreads) {
+        return newExecutor("point-mailbox-", drainThreads);
+    }
+
+    /**
+     * 비동기 API(chargePointAsync 등)의 작업을 실행하는 executor
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService pointAsyncExecutor(
+            @Value("${point.async.parallelism:16}") int parallelism,
+            @Value("${point.async.max-in-flight:10000}") int maxInFlight
+    ) {
+        return new AdmissionLimitedExecutorService(newExecutor("point-async-", parallelism), maxInFlight);
+    }
+
+    private ExecutorService newExecutor(String prefix, int platformThreads) {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix, 1).factory());
+        }
+        return Executors.newFixedThreadPool(platformThreads, new NamedThreadFactory(prefix));
+    }
+}
@@ -0,0 +1,126 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.PointLotIndex;
+import io.hhplus.tdd.util.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 유효 기간이 지난 충전 포인트를 만료시킵니다. (point.expiry.ttl-days > 0)
+ * - 주기적으로 PointLotIndex 의 타이밍 휠을 진행해, 만료 시각이 된 lot 이 있는 회원만 처리한다.
+ * - 처리 방식(PointWriteEngine)의 회원 배제 안에서 만료된 lot 의 남은 금액(예약되지 않은 잔고를 넘지 않는 만큼)을 차감하고 EXPIRE 내역을 남긴 뒤,
+ *   다음 lot 의 만료 시각으로 다시 등록한다. 따라서 모든 point.write-mode 에서 같은 회원의 충전/사용과 겹치지 않는다.
+ * - 예약 때문에 만료시키지 못한 금액은 만료된 lot 으로 남아 다음 tick 에 다시 처리되므로, 예약이 해제되면 만료되고 확정되면 사용 내역으로 차감된다.
+ * - 처리에 실패한 회원은 다음 tick 에 다시 처리한다.
+ */
+@Component
+public class PointExpiryScheduler implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PointExpiryScheduler.class);
+    private static final long MAX_INTERVAL_MILLIS = 1000L;
+
+    private final PointWriteEngine pointWriteEngine;
+    private final PointHistoryRepository pointHistoryRepository;
+    private final PointLotIndex pointLotIndex;
+    private final PointHoldStore pointHoldStore;
+    private final ScheduledExecutorService executor;
+
+    @Autowired
+    public PointExpiryScheduler(
+            PointWriteEngine pointWriteEngine,
+            PointHistoryRepository pointHistoryRepository,
+            PointLotIndex pointLotIndex,
+            PointHoldStore pointHoldStore
+    ) {
+        this(pointWriteEngine, pointHistoryRepository, pointLotIndex, pointHoldStore,
+                pointLotIndex.isEnabled() ? Math.min(pointLotIndex.resolutionMillis(), MAX_INTERVAL_MILLIS) : 0L);
+    }
+
+    /**
+     * @param intervalMillis 만료 처리 주기. 0 이면 주기적으로 실행하지 않는다.
+     */
+    PointExpiryScheduler(
+            PointWriteEngine pointWriteEngine,
+            PointHistoryRepository pointHistoryRepository,
+            PointLotIndex pointLotIndex,
+            PointHoldStore pointHoldStore,
+            long intervalMillis
+    ) {
+        this.pointWriteEngine = pointWriteEngine;
+        this.pointHistoryRepository = pointHistoryRepository;
+        this.pointLotIndex = pointLotIndex;
+        this.pointHoldStore = pointHoldStore;
+        this.executor = intervalMillis > 0 ? Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("point-expiry-")) : null;
+
+        if (executor != null) {
+            executor.scheduleWithFixedDelay(() -> expire(System.currentTimeMillis()), intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * nowMillis 까지 만료된 lot 을 처리하고, 포인트가 만료된 회원 수를 반환한다.
+     */
+    int expire(long nowMillis) {
+        int expiredUsers = 0;
+        for (long userId : pointLotIndex.advance(nowMillis)) {
+            try {
+                if (expire(userId, nowMillis)) {
+                    expiredUsers++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("포인트 만료 처리에 실패했습니다. 다음 주기에 다시 처리합니다. userId={}", userId, e);
+            }
+        }
+        return expiredUsers;
+    }
+
+    private boolean expire(long userId, long nowMillis) {
+        return pointWriteEngine.withUserExclusive(userId, repository -> {
+            try {
+                long expirable = pointLotIndex.expirable(userId, nowMillis);
+                if (expirable == 0) {
+                    return false;
+                }
+
+                PointUnitOfWork unitOfWork = new PointUnitOfWork(repository, pointHistoryRepository);
+                // 예약된 포인트는 확정될 수 있도록 만료시키지 않는다.
+                long held = pointHoldStore.heldAmount(userId);
+                long amount = Math.max(0L, Math.min(expirable, unitOfWork.current(userId).point() - held));
+                if (amount > 0) {
+                    // EXPIRE 내역이 저장되면 먼저 만료되는 lot 부터 차감된다.
+                    unitOfWork.stage(userId, TransactionType.EXPIRE, amount);
+                    unitOfWork.commit();
+                }
+                // 예약되어 만료시키지 못한 금액은 만료 lot 으로 남겨, 예약이 해제되면 다음 tick 에 만료시킨다. 잔고가 lot 보다 적어 남은 금액은 버린다.
+                pointLotIndex.discardExpired(userId, nowMillis, Math.min(expirable - amount, held));
+                return amount > 0;
+            } finally {
+                pointLotIndex.reschedule(userId);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        if (executor == null) {
+            return;
+        }
+
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package io.hhplus.tdd.point;
+
+import java.util.List;
+
+/**
+ * 커서 기반으로 조회한 포인트 내역
+ * - nextCursor : 다음 페이지 조회 시 after 로 전달할 내역 id, 더 조회할 내역이 없으면 null
+ */
+public record PointHistoryPage(
+        List<PointHistory> histories,
+        Long nextCursor
+) {
+}
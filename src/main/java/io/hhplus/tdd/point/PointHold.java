@@ -0,0 +1,13 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 확정(capture) 또는 해제(release)를 기다리는 포인트 예약
+ * - expiresAtMillis : 이 시각까지 확정되지 않으면 자동으로 해제된다.
+ */
+public record PointHold(
+        long holdId,
+        long userId,
+        long amount,
+        long expiresAtMillis
+) {
+}
@@ -0,0 +1,163 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.util.HierarchicalTimingWheel;
+import io.hhplus.tdd.util.NamedThreadFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 확정을 기다리는 포인트 예약(hold)과 회원별 예약 금액 합계를 메모리에 보관합니다.
+ * - 예약은 잔고와 내역을 바꾸지 않으며, 회원의 사용 가능 잔고는 잔고에서 예약 금액 합계를 뺀 값이다.
+ * - 예약은 만료 시각으로 타이밍 휠(HierarchicalTimingWheel)에 등록되고, sweeper 는 만료 시각이 된 예약만 꺼내 회원별 락 안에서 해제한다.
+ *   휠의 항목은 취소할 수 없으므로, 확정/해제로 이미 제거된 예약은 꺼낼 때 건너뛴다. 따라서 sweep 비용은 남은 예약 수가 아니라 만료된 항목 수에 비례한다.
+ * add/remove 는 호출자가 처리 방식(PointWriteEngine)의 회원 배제 안에서 호출해야 합니다.
+ */
+@Component
+public class PointHoldStore implements AutoCloseable {
+
+    private final UserLockProvider userLockProvider;
+    private final long ttlMillis;
+    private final AtomicLong holdIdSequence = new AtomicLong();
+    private final ConcurrentHashMap<Long, PointHold> holds = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> heldAmounts = new ConcurrentHashMap<>();
+    private final HierarchicalTimingWheel expiries;
+    private final ScheduledExecutorService sweeper;
+
+    @Autowired
+    public PointHoldStore(
+            UserLockProvider userLockProvider,
+            @Value("${point.hold.ttl-seconds:600}") long ttlSeconds,
+            @Value("${point.hold.sweep-interval-millis:1000}") long sweepIntervalMillis
+    ) {
+        this(userLockProvider, TimeUnit.SECONDS.toMillis(ttlSeconds), sweepIntervalMillis, true);
+    }
+
+    /**
+     * @param sweep false 이면 만료된 예약을 주기적으로 해제하지 않는다. sweep 을 직접 호출해 해제한다.
+     */
+    PointHoldStore(UserLockProvider userLockProvider, long ttlMillis, long sweepIntervalMillis, boolean sweep) {
+        this.userLockProvider = userLockProvider;
+        this.ttlMillis = ttlMillis;
+        this.expiries = new HierarchicalTimingWheel(sweepIntervalMillis, ttlMillis, System.currentTimeMillis());
+        this.sweeper = sweep ? Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("point-hold-sweeper-")) : null;
+
+        if (sweeper != null) {
+            sweeper.scheduleWithFixedDelay(() -> sweep(System.currentTimeMillis()), sweepIntervalMillis, sweepIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 새 예약을 만들고 회원의 예약 금액 합계에 더한다. 사용 가능 잔고 검증은 호출자가 먼저 수행한다.
+     */
+    PointHold add(long userId, long amount, long nowMillis) {
+        PointHold hold = new PointHold(holdIdSequence.incrementAndGet(), userId, amount, nowMillis + ttlMillis);
+        put(hold);
+        return hold;
+    }
+
+    /**
+     * 확정에 실패한 예약을 만료 시각은 그대로 두고 되돌린다.
+     */
+    void restore(PointHold hold) {
+        put(hold);
+    }
+
+    /**
+     * 예약을 제거하고 반환한다. 없거나 nowMillis 에 이미 만료된 예약이면 null 을 반환하며, 만료된 예약도 제거된다.
+     */
+    PointHold remove(long holdId, long nowMillis) {
+        PointHold hold = holds.remove(holdId);
+        if (hold == null) {
+            return null;
+        }
+
+        heldAmounts.computeIfPresent(hold.userId(), (userId, held) -> held == hold.amount() ? null : held - hold.amount());
+        return hold.expiresAtMillis() > nowMillis ? hold : null;
+    }
+
+    /**
+     * 회원 락을 잡기 전에 예약한 회원을 찾는 데 사용한다. 반환된 예약은 락을 잡은 뒤 remove 로 다시 확인해야 한다.
+     */
+    PointHold find(long holdId) {
+        return holds.get(holdId);
+    }
+
+    /**
+     * 회원의 확정되지 않은 예약 금액 합계
+     */
+    long heldAmount(long userId) {
+        return heldAmounts.getOrDefault(userId, 0L);
+    }
+
+    /**
+     * 잔고에서 확정되지 않은 예약 금액을 뺀 사용 가능 잔고
+     */
+    UserPoint available(UserPoint userPoint) {
+        return new UserPoint(userPoint.id(), userPoint.point() - heldAmount(userPoint.id()), userPoint.updateMillis());
+    }
+
+    /**
+     * nowMillis 까지 만료된 예약을 해제하고, 해제한 예약 수를 반환한다.
+     */
+    int sweep(long nowMillis) {
+        int released = 0;
+        for (long holdId : expiries.advance(nowMillis)) {
+            PointHold hold = holds.get(holdId);
+            // 이미 확정/해제된 예약의 항목은 건너뛴다.
+            if (hold == null) {
+                continue;
+            }
+
+            // 락을 기다리는 사이 확정/해제되었을 수 있으므로 다시 확인한다.
+            boolean expired = userLockProvider.withLock(hold.userId(), () -> {
+                PointHold current = holds.get(holdId);
+                if (current == null || current.expiresAtMillis() > nowMillis) {
+                    return false;
+                }
+                remove(holdId, nowMillis);
+                return true;
+            });
+            if (expired) {
+                released++;
+            }
+        }
+        return released;
+    }
+
+    /**
+     * 확정을 기다리는 예약 수
+     */
+    public int holdCount() {
+        return holds.size();
+    }
+
+    private void put(PointHold hold) {
+        holds.put(hold.holdId(), hold);
+        heldAmounts.merge(hold.userId(), hold.amount(), Long::sum);
+        expiries.schedule(hold.holdId(), hold.expiresAtMillis());
+    }
+
+    @Override
+    public void close() {
+        if (sweeper == null) {
+            return;
+        }
+
+        sweeper.shutdown();
+        try {
+            if (!sweeper.awaitTermination(10, TimeUnit.SECONDS)) {
+                sweeper.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            sweeper.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
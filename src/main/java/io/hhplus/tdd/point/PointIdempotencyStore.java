@@ -0,0 +1,135 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.UserPointException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key 로 전달된 충전/사용 요청의 결과를 보관해, 같은 키로 재시도된 요청을 다시 실행하지 않습니다.
+ * - 같은 키의 요청이 처리 중이면 새로 실행하지 않고 처리 중인 요청의 결과를 기다린다.
+ * - 성공한 결과만 보관한다. 실패한 요청은 결과를 지워 같은 키로 다시 시도할 수 있다.
+ * - 같은 키를 다른 회원/거래 유형/금액의 요청에 사용하면 거절한다.
+ * - 결과는 ttl 동안 보관하며, 보관 건수가 maxSize 를 넘으면 오래된 완료 건부터 제거한다.
+ */
+@Component
+public class PointIdempotencyStore {
+
+    private final long ttlNanos;
+    private final int maxSize;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // 등록 순서. ttl 이 모두 같으므로 앞에 있는 항목이 먼저 만료된다.
+    private final Queue<Entry> order = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean evicting = new AtomicBoolean(false);
+
+    @Autowired
+    public PointIdempotencyStore(
+            @Value("${point.idempotency.ttl-seconds:86400}") long ttlSeconds,
+            @Value("${point.idempotency.max-size:100000}") int maxSize
+    ) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 처음 보는 키이면 action 을 실행하고, 이미 등록된 키이면 action 을 실행하지 않고 등록된 결과를 반환한다.
+     */
+    public CompletableFuture<UserPoint> execute(
+            String key,
+            long userId,
+            TransactionType type,
+            long amount,
+            Supplier<CompletableFuture<UserPoint>> action
+    ) {
+        long now = System.nanoTime();
+        Entry created = new Entry(key, new Request(userId, type, amount), now);
+        Entry entry = entries.compute(key, (k, current) -> current == null || current.isExpired(now, ttlNanos) ? created : current);
+
+        if (entry != created) {
+            if (!entry.request.equals(created.request)) {
+                throw new UserPointException(UserPointException.Reason.IDEMPOTENCY_KEY_REUSED, "이미 다른 요청에 사용된 Idempotency-Key 입니다.");
+            }
+            // 호출자가 future 를 직접 완료시켜 보관된 결과를 덮어쓰지 않도록 복사본을 반환한다.
+            return entry.result.copy();
+        }
+
+        order.offer(created);
+        evictIfNecessary(now);
+
+        CompletableFuture<UserPoint> result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((userPoint, e) -> {
+            if (e != null) {
+                entries.remove(key, created);
+                created.result.completeExceptionally(e);
+            } else {
+                created.result.complete(userPoint);
+            }
+        });
+        return created.result.copy();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evictIfNecessary(long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            Entry head;
+            while ((head = order.peek()) != null) {
+                if (entries.get(head.key) != head) {
+                    // 실패로 제거되었거나 만료 후 다시 등록된 항목
+                    order.poll();
+                    continue;
+                }
+                if (!head.isExpired(now, ttlNanos) && entries.size() <= maxSize) {
+                    break;
+                }
+                if (!head.result.isDone()) {
+                    // 처리 중인 요청은 결과를 기다리는 중복 요청이 있을 수 있으므로 제거하지 않는다.
+                    break;
+                }
+                order.poll();
+                entries.remove(head.key, head);
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private record Request(long userId, TransactionType type, long amount) {
+    }
+
+    private static class Entry {
+        private final String key;
+        private final Request request;
+        private final long createdAtNanos;
+        private final CompletableFuture<UserPoint> result = new CompletableFuture<>();
+
+        private Entry(String key, Request request, long createdAtNanos) {
+            this.key = key;
+            this.request = request;
+            this.createdAtNanos = createdAtNanos;
+        }
+
+        private boolean isExpired(long now, long ttlNanos) {
+            return result.isDone() && now - createdAtNanos >= ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package io.hhplus.tdd.point;
+
+
+/**
+ * LOCK 모드에서 사용하는 회원별 락 관리 방식
+ * - MAP : 회원마다 락을 만들고 제거하지 않음 (회원 수에 비례해 메모리 증가)
+ * - STRIPED : 고정된 개수의 락을 회원 id 해시로 나눠 사용 (서로 다른 회원이 같은 락을 공유할 수 있음)
+ * - REF_COUNTED : 회원마다 락을 만들고, 락을 보유하거나 대기하는 스레드가 없으면 제거
+ */
+public enum PointLockType {
+    MAP, STRIPED, REF_COUNTED
+}
@@ -0,0 +1,113 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.UserPointException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 포인트 충전/사용 처리 지표입니다.
+ * - point.lock.wait / point.lock.hold : 회원별 락 대기 시간과 보유 시간 (operation 별)
+ * - point.rejected : 거절된 요청 수 (reason 별)
+ * - point.lock.count : 메모리에 유지 중인 회원별 락 수
+ * - point.mailbox.depth / point.mailbox.drain.size : QUEUE 모드의 회원별 대기 요청 수 분포와 drain 1회당 처리 건수
+ *   대기 요청 수는 전체 합이 아니라 요청을 넣거나 꺼낼 때 그 회원의 대기열 길이를 기록하므로, max 와 상위 백분위로 한 회원에 몰린 대기열을 볼 수 있다.
+ * - point.optimistic.conflict / point.optimistic.fallback : OPTIMISTIC 모드의 버전 충돌 수와 회원별 락으로 전환한 수 (operation 별)
+ * 모든 meter 는 생성 시점에 등록해 두므로, 기록 시에는 태그 조회나 객체 생성이 없다.
+ */
+@Component
+public class PointMetrics {
+
+    private final Map<TransactionType, Timer> lockWaitTimers = new EnumMap<>(TransactionType.class);
+    private final Map<TransactionType, Timer> lockHoldTimers = new EnumMap<>(TransactionType.class);
+    private final Map<TransactionType, Counter> optimisticConflictCounters = new EnumMap<>(TransactionType.class);
+    private final Map<TransactionType, Counter> optimisticFallbackCounters = new EnumMap<>(TransactionType.class);
+    private final Map<UserPointException.Reason, Counter> rejectedCounters = new EnumMap<>(UserPointException.Reason.class);
+    private final DistributionSummary mailboxDepth;
+    private final DistributionSummary mailboxDrainSize;
+
+    @Autowired
+    public PointMetrics(MeterRegistry meterRegistry, UserLockProvider userLockProvider) {
+        for (TransactionType type : TransactionType.values()) {
+            String operation = type.name().toLowerCase(Locale.ROOT);
+            lockWaitTimers.put(type, Timer.builder("point.lock.wait")
+                    .description("회원별 락 획득까지 대기한 시간")
+                    .tag("operation", operation)
+                    .register(meterRegistry));
+            lockHoldTimers.put(type, Timer.builder("point.lock.hold")
+                    .description("회원별 락을 보유한 시간")
+                    .tag("operation", operation)
+                    .register(meterRegistry));
+            optimisticConflictCounters.put(type, Counter.builder("point.optimistic.conflict")
+                    .description("다른 요청이 먼저 잔고를 바꿔 다시 시도한 수")
+                    .tag("operation", operation)
+                    .register(meterRegistry));
+            optimisticFallbackCounters.put(type, Counter.builder("point.optimistic.fallback")
+                    .description("충돌이 반복되어 회원별 락을 잡고 처리한 수")
+                    .tag("operation", operation)
+                    .register(meterRegistry));
+        }
+
+        for (UserPointException.Reason reason : UserPointException.Reason.values()) {
+            rejectedCounters.put(reason, Counter.builder("point.rejected")
+                    .description("거절된 포인트 요청 수")
+                    .tag("reason", reason.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+
+        Gauge.builder("point.lock.count", userLockProvider, UserLockProvider::lockCount)
+                .description("메모리에 유지 중인 회원별 락 수")
+                .register(meterRegistry);
+        mailboxDepth = DistributionSummary.builder("point.mailbox.depth")
+                .description("요청을 넣거나 꺼낸 시점에 회원의 mailbox 에서 처리를 기다리는 요청 수")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        mailboxDrainSize = DistributionSummary.builder("point.mailbox.drain.size")
+                .description("drain 1회에 처리한 요청 수")
+                .register(meterRegistry);
+    }
+
+    public void recordLockWait(TransactionType type, long nanos) {
+        lockWaitTimers.get(type).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLockHold(TransactionType type, long nanos) {
+        lockHoldTimers.get(type).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void rejected(UserPointException e) {
+        rejectedCounters.get(e.getReason()).increment();
+    }
+
+    public void optimisticConflict(TransactionType type) {
+        optimisticConflictCounters.get(type).increment();
+    }
+
+    public void optimisticFallback(TransactionType type) {
+        optimisticFallbackCounters.get(type).increment();
+    }
+
+    /**
+     * @param depth 요청을 넣은 뒤 회원의 대기 요청 수
+     */
+    public void mailboxEnqueued(int depth) {
+        mailboxDepth.record(depth);
+    }
+
+    /**
+     * @param remaining batch 를 꺼낸 뒤 회원의 대기 요청 수
+     */
+    public void mailboxDrained(int batchSize, int remaining) {
+        mailboxDepth.record(remaining);
+        mailboxDrainSize.record(batchSize);
+    }
+}
@@ -0,0 +1,12 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 잔고 순위
+ * - rank : 잔고가 많은 순서로 1부터 매긴 순위. 잔고가 같으면 id 가 작은 회원이 앞선다.
+ */
+public record PointRank(
+        long rank,
+        long userId,
+        long point
+) {
+}
@@ -0,0 +1,129 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.UserPointException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 충전/사용 요청을 회원별, 전체 단위의 토큰 버킷으로 제한합니다.
+ * - 버킷은 초당 rate 개의 토큰이 채워지고 최대 burst 개까지 쌓인다. rate 가 0 이면 해당 단위는 제한하지 않는다.
+ * - 버킷 상태는 "토큰이 가득 차는 시각" long 하나로, 락 없이 CAS 로 갱신한다. (GCRA)
+ * - 토큰이 가득 찬 회원 버킷은 없는 것과 같으므로, 회원 수가 maxUsers 를 넘으면 주기적으로 제거한다.
+ * 회원 버킷을 먼저 확인하므로, 한 회원의 과도한 요청이 전체 토큰을 소모하지 않는다.
+ */
+@Component
+public class PointRateLimiter {
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final TokenBucketSpec userSpec;
+    private final TokenBucketSpec globalSpec;
+    private final int maxUsers;
+    private final LongSupplier nanoClock;
+    private final ConcurrentHashMap<Long, AtomicLong> userBuckets = new ConcurrentHashMap<>();
+    private final AtomicLong globalBucket = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicBoolean sweeping = new AtomicBoolean(false);
+    private volatile long lastSweepNanos;
+
+    @Autowired
+    public PointRateLimiter(
+            @Value("${point.admission.user-rate:0}") double userRate,
+            @Value("${point.admission.user-burst:10}") int userBurst,
+            @Value("${point.admission.global-rate:0}") double globalRate,
+            @Value("${point.admission.global-burst:1000}") int globalBurst,
+            @Value("${point.admission.max-users:100000}") int maxUsers
+    ) {
+        this(userRate, userBurst, globalRate, globalBurst, maxUsers, System::nanoTime);
+    }
+
+    PointRateLimiter(double userRate, int userBurst, double globalRate, int globalBurst, int maxUsers, LongSupplier nanoClock) {
+        this.userSpec = TokenBucketSpec.of(userRate, userBurst);
+        this.globalSpec = TokenBucketSpec.of(globalRate, globalBurst);
+        this.maxUsers = maxUsers;
+        this.nanoClock = nanoClock;
+        this.lastSweepNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * 회원과 전체 버킷에서 토큰을 하나씩 꺼낸다. 토큰이 없으면 RATE_LIMITED 로 거절한다.
+     */
+    public void acquire(long userId) {
+        long now = nanoClock.getAsLong();
+        if (userSpec != null) {
+            AtomicLong bucket = userBuckets.get(userId);
+            if (bucket == null) {
+                bucket = userBuckets.computeIfAbsent(userId, id -> new AtomicLong(Long.MIN_VALUE));
+                sweepIfNecessary(now);
+            }
+            if (!userSpec.tryAcquire(bucket, now)) {
+                throw new UserPointException(UserPointException.Reason.RATE_LIMITED, "요청이 너무 많습니다. 잠시 후 다시 시도해주세요.");
+            }
+        }
+        if (globalSpec != null && !globalSpec.tryAcquire(globalBucket, now)) {
+            throw new UserPointException(UserPointException.Reason.RATE_LIMITED, "요청이 너무 많습니다. 잠시 후 다시 시도해주세요.");
+        }
+    }
+
+    int userBucketCount() {
+        return userBuckets.size();
+    }
+
+    /**
+     * 제거와 동시에 토큰을 꺼낸 요청은 새 버킷에서 다시 시작하므로, 드물게 토큰 하나를 더 허용할 수 있다.
+     */
+    private void sweepIfNecessary(long now) {
+        if (userBuckets.size() <= maxUsers || now - lastSweepNanos < SWEEP_INTERVAL_NANOS || !sweeping.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            lastSweepNanos = now;
+            // 방금 만들어져 아직 토큰을 꺼내지 않은 버킷(MIN_VALUE)은 남겨 둔다.
+            userBuckets.values().removeIf(bucket -> {
+                long fullAt = bucket.get();
+                return fullAt != Long.MIN_VALUE && fullAt - now <= 0;
+            });
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    /**
+     * @param intervalNanos 토큰 하나가 채워지는 시간
+     * @param capacityNanos 비어 있는 버킷이 가득 차는 시간 (intervalNanos * burst)
+     */
+    private record TokenBucketSpec(long intervalNanos, long capacityNanos) {
+
+        private static TokenBucketSpec of(double rate, int burst) {
+            if (rate <= 0) {
+                return null;
+            }
+            long intervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / rate));
+            return new TokenBucketSpec(intervalNanos, intervalNanos * Math.max(1, burst));
+        }
+
+        /**
+         * 버킷 값은 토큰이 모두 채워지는 시각이다. 토큰 하나를 꺼내면 interval 만큼 뒤로 밀리고,
+         * 그 시각이 지금부터 capacity 이상 멀어지면 남은 토큰이 없는 것이다.
+         */
+        private boolean tryAcquire(AtomicLong bucket, long now) {
+            while (true) {
+                long fullAt = bucket.get();
+                long next = (fullAt == Long.MIN_VALUE || fullAt - now < 0 ? now : fullAt) + intervalNanos;
+                if (next - now > capacityNanos) {
+                    return false;
+                }
+                if (bucket.compareAndSet(fullAt, next)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package io.hhplus.tdd.point;
+
+
+/**
+ * 잔고 조회 방식
+ * - TABLE : 저장소(UserPointTable, 캐시 등)에서 조회
+ * - SNAPSHOT : 잔고 저장 시 게시되는 버전별 스냅샷에서 락 없이 조회
+ */
+public enum PointReadMode {
+    TABLE, SNAPSHOT
+}
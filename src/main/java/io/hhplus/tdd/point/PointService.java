@@ -1,76 +1,399 @@
 package io.hhplus.tdd.point;
 
 import io.hhplus.tdd.UserPointException;
-import io.hhplus.tdd.database.PointHistoryTable;
-import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.PointLotIndex;
+import io.hhplus.tdd.database.PointRankingIndex;
+import io.hhplus.tdd.database.PointSummaryIndex;
+import io.hhplus.tdd.database.UserPointRepository;
+import io.hhplus.tdd.database.UserPointSnapshot;
+import io.hhplus.tdd.util.UserPointValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 @Service
 public class PointService {
 
-    private static final long MIN_CHARGE_AMOUNT = 1000L;
+    static final long MIN_CHARGE_AMOUNT = 1000L;
+    private static final Logger log = LoggerFactory.getLogger(PointService.class);
+    private static final int MAX_REFUND_ATTEMPTS = 10;
 
-    private final UserPointTable userPointTable;
-    private final PointHistoryTable pointHistoryTable;
-    private final ConcurrentHashMap<Long, Lock> locks = new ConcurrentHashMap<>();
-
-    private Lock getLock(long userId) {
-        return locks.computeIfAbsent(userId, id -> new ReentrantLock(true));
-    }
+    private final UserPointRepository userPointRepository;
+    private final PointHistoryRepository pointHistoryRepository;
+    private final PointWriteEngine pointWriteEngine;
+    private final Executor pointBatchExecutor;
+    private final Executor pointAsyncExecutor;
+    private final PointMetrics pointMetrics;
+    private final PointSummaryIndex pointSummaryIndex;
+    private final UserPointSnapshot userPointSnapshot;
+    private final PointHoldStore pointHoldStore;
+    private final PointLotIndex pointLotIndex;
+    private final PointRankingIndex pointRankingIndex;
 
     @Autowired
-    public PointService(UserPointTable userPointTable, PointHistoryTable pointHistoryTable) {
-        this.userPointTable = userPointTable;
-        this.pointHistoryTable = pointHistoryTable;
+    public PointService(
+            UserPointRepository userPointRepository,
+            PointHistoryRepository pointHistoryRepository,
+            PointWriteEngine pointWriteEngine,
+            PointMetrics pointMetrics,
+            PointSummaryIndex pointSummaryIndex,
+            UserPointSnapshot userPointSnapshot,
+            PointHoldStore pointHoldStore,
+            PointLotIndex pointLotIndex,
+            PointRankingIndex pointRankingIndex,
+            @Qualifier("pointBatchExecutor") Executor pointBatchExecutor,
+            @Qualifier("pointAsyncExecutor") Executor pointAsyncExecutor
+    ) {
+        this.userPointRepository = userPointRepository;
+        this.pointHistoryRepository = pointHistoryRepository;
+        this.pointWriteEngine = pointWriteEngine;
+        this.pointMetrics = pointMetrics;
+        this.pointSummaryIndex = pointSummaryIndex;
+        this.userPointSnapshot = userPointSnapshot;
+        this.pointHoldStore = pointHoldStore;
+        this.pointLotIndex = pointLotIndex;
+        this.pointRankingIndex = pointRankingIndex;
+        this.pointBatchExecutor = pointBatchExecutor;
+        this.pointAsyncExecutor = pointAsyncExecutor;
     }
 
     public UserPoint getUserPoint(long id) {
-        return userPointTable.selectById(id);
+        VersionedUserPoint versioned = pointWriteEngine.read(id);
+        return versioned != null ? versioned.userPoint() : userPointRepository.selectById(id);
+    }
+
+    /**
+     * 잔고와 스냅샷 게시 버전을 함께 조회한다. 처리 방식이 잔고를 보관하는 경우(OPTIMISTIC) 그 버전을, 스냅샷도 사용하지 않으면 UNVERSIONED 를 반환한다.
+     * 스냅샷은 충전/사용 응답 전에 게시되므로, 응답을 받은 뒤의 조회는 그 변경 이후의 버전을 읽는다.
+     */
+    public VersionedUserPoint getVersionedUserPoint(long id) {
+        VersionedUserPoint versioned = pointWriteEngine.read(id);
+        if (versioned != null) {
+            return versioned;
+        }
+        if (userPointSnapshot.isEnabled()) {
+            return userPointSnapshot.read(id, userPointRepository::selectById);
+        }
+        return new VersionedUserPoint(getUserPoint(id), VersionedUserPoint.UNVERSIONED);
     }
 
     public List<PointHistory> getPointHistories(long id) {
-        return pointHistoryTable.selectAllByUserId(id);
+        return pointHistoryRepository.selectAllByUserId(id);
+    }
+
+    public PointHistoryPage getPointHistories(long id, long after, long from, long to, int limit) {
+        // 다음 페이지 존재 여부를 알기 위해 한 건 더 조회한다.
+        List<PointHistory> histories = pointHistoryRepository.selectByUserId(id, after, from, to, limit + 1);
+        if (histories.size() <= limit) {
+            return new PointHistoryPage(histories, null);
+        }
+
+        List<PointHistory> page = histories.subList(0, limit);
+        return new PointHistoryPage(page, page.get(limit - 1).id());
+    }
+
+    /**
+     * 내역 저장 시 갱신되는 회원별 요약을 조회한다. 내역을 읽지 않는다.
+     */
+    public PointSummary getPointSummary(long id) {
+        return pointSummaryIndex.findByUserId(id);
+    }
+
+    /**
+     * 잔고가 많은 순서로 최대 limit 명의 순위를 조회한다. 잔고 저장 시 갱신되는 순위 색인에서 읽는다.
+     */
+    public List<PointRank> getPointRanking(int limit) {
+        return rankingIndex().top(limit);
+    }
+
+    /**
+     * 회원의 잔고 순위를 조회한다. 잔고가 저장된 적 없는 회원은 순위 0, 잔고 0 으로 응답한다.
+     */
+    public PointRank getPointRank(long id) {
+        PointRank pointRank = rankingIndex().findByUserId(id);
+        return pointRank != null ? pointRank : new PointRank(0L, id, 0L);
+    }
+
+    /**
+     * 저장된 전체 내역으로 회원별 요약을 다시 계산해, 유지 중인 요약과 다른 회원을 반환한다.
+     * 다시 계산하는 사이 변경된 회원일 수 있으므로, 차이가 있는 회원은 충전/사용과 겹치지 않게 한 번 더 비교한다.
+     */
+    public List<PointSummaryDrift> verifyPointSummaries() {
+        Map<Long, PointSummary> rebuilt = PointSummaryIndex.rebuild(pointHistoryRepository);
+        Set<Long> userIds = new TreeSet<>(rebuilt.keySet());
+        userIds.addAll(pointSummaryIndex.userIds());
+
+        List<PointSummaryDrift> drifts = new ArrayList<>();
+        for (long userId : userIds) {
+            PointSummary expected = rebuilt.getOrDefault(userId, PointSummary.empty(userId));
+            if (expected.equals(pointSummaryIndex.findByUserId(userId))) {
+                continue;
+            }
+
+            PointSummaryDrift drift = pointWriteEngine.withUserExclusive(userId, repository -> {
+                PointSummary recalculated = PointSummaryIndex.rebuild(pointHistoryRepository, userId);
+                PointSummary actual = pointSummaryIndex.findByUserId(userId);
+                return recalculated.equals(actual) ? null : new PointSummaryDrift(userId, recalculated, actual);
+            });
+            if (drift != null) {
+                drifts.add(drift);
+            }
+        }
+        return drifts;
+    }
+
+    public void exportPointHistories(long id, long after, Consumer<PointHistory> action) {
+        pointHistoryRepository.forEachByUserId(id, after, action);
+    }
+
+    public void exportAllPointHistories(long after, Consumer<PointHistory> action) {
+        pointHistoryRepository.forEach(after, action);
     }
 
     public UserPoint chargePoint(long id, long amount) {
-        Lock lock = getLock(id);
-        lock.lock();
-        try {
-            if (amount < MIN_CHARGE_AMOUNT) {
-                throw new UserPointException("포인트 충전은 1,000원 이상부터 가능합니다.");
+        return pointWriteEngine.charge(id, amount);
+    }
+
+    public UserPoint usePoint(long id, long amount) {
+        return pointWriteEngine.use(id, amount);
+    }
+
+    /**
+     * 보내는 회원의 포인트를 사용하고 받는 회원의 포인트를 충전해, 두 잔고와 두 내역을 하나의 작업 단위로 반영한다.
+     * 처리 방식(PointWriteEngine)이 두 회원을 정해진 순서로 배제하므로 반대 방향의 이체가 동시에 들어와도 교착 상태가 생기지 않으며, 전역 락은 사용하지 않는다.
+     * 받는 회원의 내역 저장에 실패하면, 이미 저장된 사용 내역만큼 보내는 회원에게 되돌려 포인트가 사라지지 않게 한다.
+     * 만료를 사용하면(point.expiry.ttl-days > 0) 옮겨진 포인트는 보낸 회원에게서 차감된 lot 의 만료 시각을 그대로 가지므로, 이체로 유효 기간이 늘어나지 않는다.
+     */
+    public PointTransferResult transferPoint(long fromUserId, long toUserId, long amount) {
+        return pointWriteEngine.withUsersExclusive(fromUserId, toUserId, repository -> {
+            PointUnitOfWork unitOfWork = new PointUnitOfWork(repository, pointHistoryRepository);
+
+            validateUse(pointHoldStore.available(unitOfWork.current(fromUserId)), amount);
+
+            // 사용 내역이 저장되면 차감될 lot 을 미리 읽어 둔다.
+            long[] carriedLots = pointLotIndex.isEnabled() ? pointLotIndex.oldestLots(fromUserId, amount) : null;
+            unitOfWork.stage(fromUserId, TransactionType.USE, amount);
+            unitOfWork.stage(toUserId, TransactionType.CHARGE, amount);
+            try {
+                unitOfWork.commit();
+            } catch (RuntimeException e) {
+                // 사용 내역만 저장된 경우, 작업 단위는 보내는 회원의 잔고를 사용한 상태로 남긴다.
+                if (unitOfWork.committedCount() == 1 && refund(repository, fromUserId, amount) && carriedLots != null) {
+                    pointLotIndex.carryOver(fromUserId, amount, carriedLots);
+                }
+                throw e;
             }
 
-            UserPoint userPoint = userPointTable.selectById(id);
+            if (carriedLots != null) {
+                pointLotIndex.carryOver(toUserId, amount, carriedLots);
+            }
+            return new PointTransferResult(unitOfWork.committed(fromUserId), unitOfWork.committed(toUserId));
+        });
+    }
 
-            pointHistoryTable.insert(id, amount, TransactionType.CHARGE, System.currentTimeMillis());
+    public CompletableFuture<PointTransferResult> transferPointAsync(long fromUserId, long toUserId, long amount) {
+        return CompletableFuture.supplyAsync(() -> transferPoint(fromUserId, toUserId, amount), pointAsyncExecutor);
+    }
 
-            return userPointTable.insertOrUpdate(id, userPoint.addPoint(amount));
-        } finally {
-            lock.unlock();
+    /**
+     * 저장된 사용 내역은 삭제할 수 없으므로, 같은 금액의 충전 내역과 잔고를 함께 저장해 되돌린다.
+     * 실패한 작업 단위는 스스로 잔고를 되돌리므로, 정해진 횟수만큼 다시 시도한다. 되돌렸으면 true 를 반환한다.
+     */
+    private boolean refund(UserPointRepository repository, long userId, long amount) {
+        for (int attempt = 1; attempt <= MAX_REFUND_ATTEMPTS; attempt++) {
+            try {
+                PointUnitOfWork unitOfWork = new PointUnitOfWork(repository, pointHistoryRepository);
+                unitOfWork.stage(userId, TransactionType.CHARGE, amount);
+                unitOfWork.commit();
+                return true;
+            } catch (RuntimeException e) {
+                log.warn("포인트 이체 환불 실패. id={}, amount={}, attempt={}", userId, amount, attempt, e);
+            }
         }
+        log.error("포인트 이체 환불을 포기합니다. id={}, amount={}", userId, amount);
+        return false;
     }
 
-    public UserPoint usePoint(long id, long amount) {
-        Lock lock = getLock(id);
-        lock.lock();
-        try {
-            UserPoint userPoint = userPointTable.selectById(id);
+    /**
+     * 사용 가능 잔고(잔고 - 예약 금액 합계) 안에서 포인트를 예약한다. 잔고와 내역은 바뀌지 않는다.
+     * 예약은 point.hold.ttl-seconds 안에 capture 로 확정하거나 release 로 해제해야 하며, 그렇지 않으면 자동으로 해제된다.
+     * 외부 결제 등 오래 걸리는 작업은 예약과 확정 사이에 회원 배제 없이 실행하므로, 같은 회원의 다른 요청이 그동안 기다리지 않는다.
+     */
+    public PointHold holdPoint(long id, long amount) {
+        return pointWriteEngine.withUserExclusive(id, repository -> {
+            validateUse(pointHoldStore.available(repository.selectById(id)), amount);
+            return pointHoldStore.add(id, amount, System.currentTimeMillis());
+        });
+    }
+
+    /**
+     * 예약한 금액만큼 포인트를 사용한다. 사용 내역이 저장되며, 저장에 실패하면 예약이 그대로 남아 다시 확정할 수 있다.
+     */
+    public UserPoint capturePoint(long holdId) {
+        PointHold hold = findHold(holdId);
+        return pointWriteEngine.withUserExclusive(hold.userId(), repository -> {
+            PointHold removed = removeHold(holdId);
+            try {
+                PointUnitOfWork unitOfWork = new PointUnitOfWork(repository, pointHistoryRepository);
+                // 이 예약은 이미 제거되었으므로, 사용 가능 잔고는 잔고에서 회원의 다른 예약 금액만 뺀 값이다.
+                validateUse(pointHoldStore.available(unitOfWork.current(removed.userId())), removed.amount());
+                unitOfWork.stage(removed.userId(), TransactionType.USE, removed.amount());
+                unitOfWork.commit();
+                return unitOfWork.committed(removed.userId());
+            } catch (RuntimeException e) {
+                pointHoldStore.restore(removed);
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * 예약을 해제해 사용 가능 잔고로 되돌리고, 해제한 예약을 반환한다.
+     */
+    public PointHold releasePoint(long holdId) {
+        PointHold hold = findHold(holdId);
+        return pointWriteEngine.withUserExclusive(hold.userId(), repository -> removeHold(holdId));
+    }
+
+    public CompletableFuture<PointHold> holdPointAsync(long id, long amount) {
+        return CompletableFuture.supplyAsync(() -> holdPoint(id, amount), pointAsyncExecutor);
+    }
+
+    public CompletableFuture<UserPoint> capturePointAsync(long holdId) {
+        return CompletableFuture.supplyAsync(() -> capturePoint(holdId), pointAsyncExecutor);
+    }
+
+    public CompletableFuture<PointHold> releasePointAsync(long holdId) {
+        return CompletableFuture.supplyAsync(() -> releasePoint(holdId), pointAsyncExecutor);
+    }
+
+    private PointHold findHold(long holdId) {
+        PointHold hold = pointHoldStore.find(holdId);
+        if (hold == null) {
+            throw new UserPointException(UserPointException.Reason.HOLD_NOT_FOUND, "포인트 예약이 없거나 만료되었습니다.");
+        }
+        return hold;
+    }
+
+    /**
+     * 회원을 배제한 상태에서 예약을 제거한다. 기다리는 사이 확정/해제/만료되었을 수 있으므로 다시 확인한다.
+     */
+    private PointHold removeHold(long holdId) {
+        PointHold removed = pointHoldStore.remove(holdId, System.currentTimeMillis());
+        if (removed == null) {
+            throw new UserPointException(UserPointException.Reason.HOLD_NOT_FOUND, "포인트 예약이 없거나 만료되었습니다.");
+        }
+        return removed;
+    }
 
-            if (userPoint.point() < amount) {
-                throw new UserPointException("잔고 부족");
+    private PointRankingIndex rankingIndex() {
+        if (!pointRankingIndex.isEnabled()) {
+            throw new UserPointException(UserPointException.Reason.UNSUPPORTED, "잔고 순위 조회가 비활성화되어 있습니다.");
+        }
+        return pointRankingIndex;
+    }
+
+    public CompletableFuture<UserPoint> getUserPointAsync(long id) {
+        return getVersionedUserPointAsync(id).thenApply(VersionedUserPoint::userPoint);
+    }
+
+    /**
+     * 스냅샷 조회는 락을 잡거나 Table 을 기다리지 않으므로, 스냅샷에 게시된 회원은 호출 스레드에서 바로 응답한다.
+     */
+    public CompletableFuture<VersionedUserPoint> getVersionedUserPointAsync(long id) {
+        if (userPointSnapshot.isEnabled() && userPointSnapshot.isPublished(id)) {
+            return CompletableFuture.completedFuture(getVersionedUserPoint(id));
+        }
+        return CompletableFuture.supplyAsync(() -> getVersionedUserPoint(id), pointAsyncExecutor);
+    }
+
+    public CompletableFuture<List<PointHistory>> getPointHistoriesAsync(long id) {
+        return CompletableFuture.supplyAsync(() -> getPointHistories(id), pointAsyncExecutor);
+    }
+
+    public CompletableFuture<PointHistoryPage> getPointHistoriesAsync(long id, long after, long from, long to, int limit) {
+        return CompletableFuture.supplyAsync(() -> getPointHistories(id, after, from, to, limit), pointAsyncExecutor);
+    }
+
+    /**
+     * 충전 요청을 등록하고 바로 반환한다. 같은 회원의 요청은 등록 순서대로 하나씩 실행된다.
+     */
+    public CompletableFuture<UserPoint> chargePointAsync(long id, long amount) {
+        return pointWriteEngine.chargeAsync(id, amount);
+    }
+
+    /**
+     * 사용 요청을 등록하고 바로 반환한다. 같은 회원의 요청은 등록 순서대로 하나씩 실행된다.
+     */
+    public CompletableFuture<UserPoint> usePointAsync(long id, long amount) {
+        return pointWriteEngine.useAsync(id, amount);
+    }
+
+    /**
+     * 여러 회원의 충전/사용 요청을 회원별로 묶어, 회원 간에는 병렬로, 같은 회원 안에서는 요청 순서대로 처리한다.
+     * 각 항목은 단건 충전/사용과 같은 규칙으로 검증되며, 실패한 항목이 있어도 나머지 항목은 계속 처리된다.
+     */
+    public List<PointBatchResult> applyBatch(List<PointBatchItem> items) {
+        Map<Long, List<Integer>> indexesByUser = new LinkedHashMap<>();
+        for (int index = 0; index < items.size(); index++) {
+            indexesByUser.computeIfAbsent(items.get(index).userId(), userId -> new ArrayList<>()).add(index);
+        }
+
+        PointBatchResult[] results = new PointBatchResult[items.size()];
+        CompletableFuture.allOf(indexesByUser.values().stream()
+                .map(indexes -> CompletableFuture.runAsync(
+                        () -> indexes.forEach(index -> results[index] = applyBatchItem(items.get(index))),
+                        pointBatchExecutor
+                ))
+                .toArray(CompletableFuture[]::new)
+        ).join();
+
+        return Arrays.asList(results);
+    }
+
+    private PointBatchResult applyBatchItem(PointBatchItem item) {
+        try {
+            UserPointValidator.withIdAndAmount(item.userId(), item.amount());
+            if (item.type() == null) {
+                throw new UserPointException("잘못된 거래 유형 입니다.");
             }
 
-            pointHistoryTable.insert(id, amount, TransactionType.USE, System.currentTimeMillis());
+            UserPoint userPoint = switch (item.type()) {
+                case CHARGE -> chargePoint(item.userId(), item.amount());
+                case USE -> usePoint(item.userId(), item.amount());
+                // 만료는 스케줄러만 기록한다.
+                case EXPIRE -> throw new UserPointException("잘못된 거래 유형 입니다.");
+            };
+            return PointBatchResult.success(item, userPoint);
+        } catch (UserPointException e) {
+            pointMetrics.rejected(e);
+            return PointBatchResult.failure(item, e.getMessage());
+        }
+    }
+
+    static void validateCharge(long amount) {
+        if (amount < MIN_CHARGE_AMOUNT) {
+            throw new UserPointException(UserPointException.Reason.MIN_CHARGE, "포인트 충전은 1,000원 이상부터 가능합니다.");
+        }
+    }
 
-            return userPointTable.insertOrUpdate(id, userPoint.reducePoint(amount));
-        } finally {
-            lock.unlock();
+    static void validateUse(UserPoint userPoint, long amount) {
+        if (userPoint.point() < amount) {
+            throw new UserPointException(UserPointException.Reason.INSUFFICIENT_BALANCE, "잔고 부족");
         }
     }
 }
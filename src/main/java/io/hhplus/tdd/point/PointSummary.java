@@ -0,0 +1,32 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 회원별 포인트 거래 요약
+ * - totalCharged / totalUsed / totalExpired : 누적 충전/사용/만료 금액
+ * - transactionCount : 거래 건수
+ * - lastActivityMillis : 마지막 거래 시각 (거래가 없으면 0)
+ */
+public record PointSummary(
+        long userId,
+        long totalCharged,
+        long totalUsed,
+        long totalExpired,
+        long transactionCount,
+        long lastActivityMillis
+) {
+
+    public static PointSummary empty(long userId) {
+        return new PointSummary(userId, 0, 0, 0, 0, 0);
+    }
+
+    public PointSummary apply(PointHistory pointHistory) {
+        return new PointSummary(
+                userId,
+                pointHistory.type() == TransactionType.CHARGE ? totalCharged + pointHistory.amount() : totalCharged,
+                pointHistory.type() == TransactionType.USE ? totalUsed + pointHistory.amount() : totalUsed,
+                pointHistory.type() == TransactionType.EXPIRE ? totalExpired + pointHistory.amount() : totalExpired,
+                transactionCount + 1,
+                Math.max(lastActivityMillis, pointHistory.updateMillis())
+        );
+    }
+}
@@ -0,0 +1,11 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 저장된 내역으로 다시 계산한 요약(expected)과 유지 중인 요약(actual)이 다른 회원
+ */
+public record PointSummaryDrift(
+        long userId,
+        PointSummary expected,
+        PointSummary actual
+) {
+}
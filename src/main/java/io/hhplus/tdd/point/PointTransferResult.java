@@ -0,0 +1,10 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 포인트 이체 결과. 이체가 반영된 보내는 회원과 받는 회원의 잔고가 담긴다.
+ */
+public record PointTransferResult(
+        UserPoint from,
+        UserPoint to
+) {
+}
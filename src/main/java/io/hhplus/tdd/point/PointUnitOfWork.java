@@ -0,0 +1,147 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.UserPointRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 잔고 변경과 포인트 내역 저장을 하나의 작업 단위로 묶습니다.
+ * - stage 는 메모리에만 기록하고, commit 시점에 회원별 잔고 쓰기 1회와 내역 쓰기를 한 번에 반영한다.
+ * - 잔고는 덮어쓰기로 되돌릴 수 있지만 내역은 삭제할 수 없으므로, 잔고를 먼저 쓰고 내역을 나중에 쓴다.
+ * - 잔고 쓰기에 실패하면 이미 쓴 잔고를 이전 값으로 되돌린다.
+ * - 내역 쓰기에 실패하면 잔고를 저장에 성공한 내역까지만 반영된 값으로 되돌린다. (성공한 내역 수는 committedCount)
+ * 호출자는 회원별 락 등으로 같은 회원에 대한 작업 단위가 동시에 commit 되지 않도록 보장해야 합니다.
+ */
+class PointUnitOfWork {
+
+    private static final Logger log = LoggerFactory.getLogger(PointUnitOfWork.class);
+    private static final int MAX_COMPENSATION_ATTEMPTS = 10;
+
+    private final UserPointRepository userPointRepository;
+    private final PointHistoryRepository pointHistoryRepository;
+    private final Map<Long, Balance> balances = new LinkedHashMap<>();
+    private final List<StagedHistory> histories = new ArrayList<>();
+    private final Map<Long, UserPoint> committed = new LinkedHashMap<>();
+    private int committedCount;
+
+    PointUnitOfWork(UserPointRepository userPointRepository, PointHistoryRepository pointHistoryRepository) {
+        this.userPointRepository = userPointRepository;
+        this.pointHistoryRepository = pointHistoryRepository;
+    }
+
+    /**
+     * 지금까지 stage 된 변경이 반영된 회원의 잔고. 처음 접근할 때 저장소에서 읽는다.
+     */
+    UserPoint current(long userId) {
+        Balance balance = balance(userId);
+        return new UserPoint(userId, balance.point, balance.before.updateMillis());
+    }
+
+    /**
+     * 잔고 변경과 내역을 stage 하고, 변경이 반영된 잔고를 반환한다. 검증은 호출자가 먼저 수행한다.
+     */
+    UserPoint stage(long userId, TransactionType type, long amount) {
+        Balance balance = balance(userId);
+        balance.point = apply(current(userId), type, amount);
+        histories.add(new StagedHistory(userId, amount, type, System.currentTimeMillis()));
+        return current(userId);
+    }
+
+    /**
+     * stage 된 잔고와 내역을 저장소에 반영한다. 실패하면 보상 처리 후 원인 예외를 그대로 던진다.
+     */
+    void commit() {
+        List<Balance> written = new ArrayList<>(balances.size());
+        try {
+            for (Balance balance : balances.values()) {
+                committed.put(balance.before.id(), userPointRepository.insertOrUpdate(balance.before.id(), balance.point));
+                written.add(balance);
+            }
+        } catch (RuntimeException e) {
+            written.forEach(balance -> compensate(balance.before.id(), balance.before.point()));
+            committed.clear();
+            throw e;
+        }
+
+        for (StagedHistory history : histories) {
+            try {
+                pointHistoryRepository.insert(history.userId(), history.amount(), history.type(), history.updateMillis());
+                committedCount++;
+            } catch (RuntimeException e) {
+                compensateUncommittedHistories();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * commit 중 저장에 성공한 내역 수. stage 순서대로 앞에서부터 반영된다.
+     */
+    int committedCount() {
+        return committedCount;
+    }
+
+    /**
+     * commit 으로 저장된 회원의 잔고. commit 에 실패한 경우 null 을 반환한다.
+     */
+    UserPoint committed(long userId) {
+        return committed.get(userId);
+    }
+
+    private Balance balance(long userId) {
+        return balances.computeIfAbsent(userId, id -> new Balance(userPointRepository.selectById(id)));
+    }
+
+    private void compensateUncommittedHistories() {
+        Map<Long, Long> restored = new LinkedHashMap<>();
+        balances.forEach((userId, balance) -> restored.put(userId, balance.before.point()));
+        for (StagedHistory history : histories.subList(0, committedCount)) {
+            UserPoint current = new UserPoint(history.userId(), restored.get(history.userId()), history.updateMillis());
+            restored.put(history.userId(), apply(current, history.type(), history.amount()));
+        }
+
+        committed.clear();
+        restored.forEach(this::compensate);
+    }
+
+    /**
+     * 잔고를 지정한 값으로 되돌린다. 보상 쓰기 자체가 실패할 수 있으므로 정해진 횟수만큼 재시도한다.
+     */
+    private void compensate(long userId, long point) {
+        for (int attempt = 1; attempt <= MAX_COMPENSATION_ATTEMPTS; attempt++) {
+            try {
+                userPointRepository.insertOrUpdate(userId, point);
+                return;
+            } catch (RuntimeException e) {
+                log.warn("포인트 잔고 보상 실패. id={}, point={}, attempt={}", userId, point, attempt, e);
+            }
+        }
+        log.error("포인트 잔고 보상을 포기합니다. id={}, point={}", userId, point);
+    }
+
+    private static long apply(UserPoint userPoint, TransactionType type, long amount) {
+        return switch (type) {
+            case CHARGE -> userPoint.addPoint(amount);
+            case USE, EXPIRE -> userPoint.reducePoint(amount);
+        };
+    }
+
+    private static class Balance {
+        private final UserPoint before;
+        private long point;
+
+        private Balance(UserPoint before) {
+            this.before = before;
+            this.point = before.point();
+        }
+    }
+
+    private record StagedHistory(long userId, long amount, TransactionType type, long updateMillis) {
+    }
+}
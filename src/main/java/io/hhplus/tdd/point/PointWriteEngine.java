@@ -0,0 +1,46 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.UserPointRepository;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * 포인트 충전/사용을 반영하는 처리 방식(point.write-mode)입니다. PointWriteEngineConfig 에서 하나만 생성됩니다.
+ * - charge/use : 같은 회원의 다른 변경과 겹치지 않게 잔고와 내역을 반영한다. 사용은 예약 금액을 뺀 사용 가능 잔고 안에서만 허용한다.
+ * - withUserExclusive/withUsersExclusive : 이체, 예약, 만료처럼 여러 저장소 호출을 묶는 작업을 해당 회원의 충전/사용과 겹치지 않게 실행한다.
+ *   action 은 인자로 받은 저장소로 잔고를 읽고 써야 하며, 그 결과는 action 이 끝난 뒤 이 처리 방식의 충전/사용에 반영된다.
+ */
+public interface PointWriteEngine {
+
+    UserPoint charge(long id, long amount);
+
+    UserPoint use(long id, long amount);
+
+    /**
+     * 충전 요청을 등록하고 바로 반환한다. 같은 회원의 요청은 등록 순서대로 반영된다.
+     */
+    CompletableFuture<UserPoint> chargeAsync(long id, long amount);
+
+    /**
+     * 사용 요청을 등록하고 바로 반환한다. 같은 회원의 요청은 등록 순서대로 반영된다.
+     */
+    CompletableFuture<UserPoint> useAsync(long id, long amount);
+
+    /**
+     * 회원의 충전/사용과 겹치지 않게 action 을 실행한다.
+     */
+    <T> T withUserExclusive(long userId, Function<UserPointRepository, T> action);
+
+    /**
+     * 두 회원의 충전/사용과 겹치지 않게 action 을 실행한다. 두 회원을 정해진 순서로 배제하므로, 반대 방향의 호출이 동시에 들어와도 교착 상태가 생기지 않는다.
+     */
+    <T> T withUsersExclusive(long firstUserId, long secondUserId, Function<UserPointRepository, T> action);
+
+    /**
+     * 처리 방식이 잔고를 직접 보관하는 경우 버전과 함께 반환한다. 저장소에서 읽으면 되는 경우 null 을 반환한다.
+     */
+    default VersionedUserPoint read(long id) {
+        return null;
+    }
+}
@@ -0,0 +1,49 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.UserPointRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executor;
+
+@Configuration
+public class PointWriteEngineConfig {
+
+    /**
+     * point.write-mode 에 따라 포인트 충전/사용을 반영할 처리 방식을 하나만 생성한다.
+     * SHARDED 의 샤드 스레드는 AutoCloseable 이므로 컨텍스트 종료 시 close() 가 호출되어 남은 요청을 처리한 뒤 종료된다.
+     */
+    @Bean
+    public PointWriteEngine pointWriteEngine(
+            UserPointRepository userPointRepository,
+            PointHistoryRepository pointHistoryRepository,
+            UserLockProvider userLockProvider,
+            PointMetrics pointMetrics,
+            PointHoldStore pointHoldStore,
+            @Qualifier("pointMailboxExecutor") Executor pointMailboxExecutor,
+            @Qualifier("pointAsyncExecutor") Executor pointAsyncExecutor,
+            @Value("${point.write-mode:LOCK}") PointWriteMode writeMode,
+            @Value("${point.mailbox.max-batch-size:100}") int mailboxMaxBatchSize,
+            @Value("${point.shard.count:0}") int shardCount,
+            @Value("${point.shard.ring-size:65536}") int shardRingSize,
+            @Value("${point.shard.max-batch-size:100}") int shardMaxBatchSize,
+            @Value("${point.shard.max-cached-users:100000}") int shardMaxCachedUsers,
+            @Value("${point.optimistic.max-attempts:8}") int optimisticMaxAttempts,
+            @Value("${point.optimistic.max-backoff-micros:1000}") long optimisticMaxBackoffMicros,
+            @Value("${point.optimistic.max-cached-users:100000}") int optimisticMaxCachedUsers
+    ) {
+        return switch (writeMode) {
+            case LOCK -> new LockPointWriteEngine(userPointRepository, pointHistoryRepository, userLockProvider, pointMetrics,
+                    pointHoldStore, pointAsyncExecutor);
+            case QUEUE -> new UserPointMailbox(userPointRepository, pointHistoryRepository, userLockProvider, pointHoldStore,
+                    mailboxMaxBatchSize, pointMailboxExecutor, pointMetrics);
+            case SHARDED -> new ShardedPointEngine(userPointRepository, pointHistoryRepository, pointHoldStore,
+                    shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors(), shardRingSize, shardMaxBatchSize, shardMaxCachedUsers);
+            case OPTIMISTIC -> new OptimisticPointEngine(userPointRepository, pointHistoryRepository, userLockProvider, pointMetrics,
+                    pointHoldStore, optimisticMaxAttempts, optimisticMaxBackoffMicros, optimisticMaxCachedUsers, pointAsyncExecutor);
+        };
+    }
+}
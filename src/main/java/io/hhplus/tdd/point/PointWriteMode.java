@@ -0,0 +1,13 @@
+package io.hhplus.tdd.point;
+
+
+/**
+ * 포인트 충전/사용 처리 방식
+ * - LOCK : 회원별 공정락(ReentrantLock)을 획득한 스레드가 직접 처리
+ * - QUEUE : 회원별 큐에 요청을 쌓고, 회원당 하나의 drainer 가 모아서 처리 (group commit)
+ * - SHARDED : 회원 id 로 나눈 샤드마다 하나의 스레드가 락 없이 처리 (ShardedPointEngine)
+ * - OPTIMISTIC : 호출 스레드가 버전 비교(compare-and-set)로 처리하고, 충돌이 반복되면 회원별 락으로 전환 (OptimisticPointEngine)
+ */
+public enum PointWriteMode {
+    LOCK, QUEUE, SHARDED, OPTIMISTIC
+}
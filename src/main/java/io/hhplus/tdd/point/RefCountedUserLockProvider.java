@@ -0,0 +1,64 @@
+package io.hhplus.tdd.point;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 회원마다 공정락을 만들되, 락을 보유하거나 대기하는 스레드가 없어지면 제거합니다.
+ * - 참조 수는 ConcurrentHashMap.compute 안에서만 변경되므로 같은 회원에 대해 원자적으로 증감한다.
+ * - 참조 수가 0 이 되는 순간 맵에서 제거되므로, 이후 요청은 새로운 락을 만든다.
+ * - 메모리 사용량은 동시에 처리 중인 회원 수에만 비례한다.
+ */
+public class RefCountedUserLockProvider implements UserLockProvider {
+
+    private final ConcurrentHashMap<Long, CountedLock> locks = new ConcurrentHashMap<>();
+    private final UserLockLimits limits;
+
+    public RefCountedUserLockProvider() {
+        this(UserLockLimits.UNBOUNDED);
+    }
+
+    public RefCountedUserLockProvider(UserLockLimits limits) {
+        this.limits = limits;
+    }
+
+    @Override
+    public <T> T withLock(long userId, Supplier<T> action) {
+        CountedLock lock = locks.compute(userId, (id, current) -> {
+            CountedLock counted = current == null ? new CountedLock() : current;
+            counted.references++;
+            return counted;
+        });
+
+        try {
+            limits.acquire(lock);
+            try {
+                return action.get();
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            // 락 획득이 거절된 경우에도 참조 수를 되돌린다.
+            locks.computeIfPresent(userId, (id, current) -> --current.references == 0 ? null : current);
+        }
+    }
+
+    @Override
+    public UserLockLimits limits() {
+        return limits;
+    }
+
+    @Override
+    public int lockCount() {
+        return locks.size();
+    }
+
+    private static final class CountedLock extends ReentrantLock {
+        private int references;
+
+        private CountedLock() {
+            super(true);
+        }
+    }
+}
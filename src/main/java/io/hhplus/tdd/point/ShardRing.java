@@ -0,0 +1,82 @@
+package io.hhplus.tdd.point;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 여러 생산자, 하나의 소비자가 사용하는 고정 크기 링 버퍼입니다.
+ * - 슬롯마다 시퀀스 번호를 두어, 생산자는 쓰기 위치를 CAS 로 확보한 뒤 슬롯에 쓰고 시퀀스를 갱신해 게시한다.
+ * - 소비자는 시퀀스로 게시 여부를 확인하고 읽으므로, 생산자와 소비자 모두 락을 사용하지 않는다.
+ * - 슬롯 배열은 미리 할당되어 재사용되며, 가득 차면 offer 가 false 를 반환한다.
+ * poll 과 isEmpty 는 소비자 스레드에서만 호출해야 합니다.
+ */
+final class ShardRing<E> {
+
+    private final Object[] slots;
+    // 슬롯 i 의 시퀀스가 pos 이면 pos 번째 쓰기를, pos + 1 이면 pos 번째 읽기를 기다린다.
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    /**
+     * @param capacity 슬롯 수. 2의 거듭제곱으로 올림한다.
+     */
+    ShardRing(int capacity) {
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+
+        this.slots = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = element;
+                    // volatile 쓰기로 게시해, 이후 소비자의 대기 여부 확인이 게시보다 앞서지 않도록 한다.
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // 한 바퀴 앞의 슬롯을 소비자가 아직 읽지 않았다.
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    E poll() {
+        int index = (int) head & mask;
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+
+        E element = (E) slots[index];
+        slots[index] = null;
+        sequences.set(index, head + slots.length);
+        head++;
+        return element;
+    }
+
+    boolean isEmpty() {
+        return sequences.get((int) head & mask) != head + 1;
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+}
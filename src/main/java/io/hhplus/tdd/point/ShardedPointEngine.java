@@ -0,0 +1,374 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.UserPointException;
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.UserPointRepository;
+import io.hhplus.tdd.util.NamedThreadFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * 회원 id 로 나눈 샤드마다 하나의 스레드가 포인트 충전/사용을 처리합니다. (point.write-mode=SHARDED)
+ * - 샤드 수는 기본적으로 CPU 코어 수이며, 회원은 항상 같은 샤드에서만 처리되므로 회원별 락을 사용하지 않는다.
+ * - 요청은 샤드의 링 버퍼(ShardRing)에 넣고 바로 반환하며, 샤드 스레드가 꺼내 처리한 뒤 future 를 완료한다.
+ * - 샤드는 담당 회원의 잔고를 스레드 전용 맵에 보관해, 처음 처리하는 회원만 저장소에서 읽는다.
+ * - 샤드 스레드는 쌓인 요청을 최대 maxBatchSize 건씩 꺼내, 하나의 PointUnitOfWork 로 회원별 잔고 쓰기 1회와 내역을 함께 반영한다.
+ * - 이체/예약/만료(withUserExclusive)는 회원을 담당하는 샤드에 멈춤 요청을 넣어, 앞선 요청을 반영한 샤드 스레드가 멈춘 동안 호출 스레드에서 실행한다.
+ *   두 샤드를 멈추는 경우 샤드 번호 순서로 멈추므로 교착 상태가 생기지 않으며, 샤드는 다시 진행할 때 해당 회원의 잔고 캐시를 비운다.
+ * 잔고와 내역은 공용 저장소에 저장되므로, 저장소 호출이 느린 경우(Table 의 임의 지연 등) 샤드당 처리량은 저장소 지연에 묶입니다.
+ */
+class ShardedPointEngine implements PointWriteEngine, AutoCloseable {
+
+    private static final int SPINS_BEFORE_PARK = 100;
+
+    private final UserPointRepository userPointRepository;
+    private final PointHistoryRepository pointHistoryRepository;
+    private final PointHoldStore pointHoldStore;
+    private final int maxBatchSize;
+    private final Shard[] shards;
+
+    ShardedPointEngine(
+            UserPointRepository userPointRepository,
+            PointHistoryRepository pointHistoryRepository,
+            PointHoldStore pointHoldStore,
+            int shardCount,
+            int ringSize,
+            int maxBatchSize,
+            int maxCachedUsers
+    ) {
+        this.userPointRepository = userPointRepository;
+        this.pointHistoryRepository = pointHistoryRepository;
+        this.pointHoldStore = pointHoldStore;
+        this.maxBatchSize = maxBatchSize;
+        this.shards = new Shard[shardCount];
+
+        NamedThreadFactory threadFactory = new NamedThreadFactory("point-shard-");
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard(ringSize, maxCachedUsers);
+            shards[i].thread = threadFactory.newThread(shards[i]::run);
+            shards[i].thread.start();
+        }
+    }
+
+    @Override
+    public UserPoint charge(long id, long amount) {
+        return join(chargeAsync(id, amount));
+    }
+
+    @Override
+    public UserPoint use(long id, long amount) {
+        return join(useAsync(id, amount));
+    }
+
+    @Override
+    public CompletableFuture<UserPoint> chargeAsync(long id, long amount) {
+        // 잔고와 무관한 검증은 샤드에 넣기 전에 한다.
+        PointService.validateCharge(amount);
+        return submit(id, new PointChange(id, TransactionType.CHARGE, amount));
+    }
+
+    @Override
+    public CompletableFuture<UserPoint> useAsync(long id, long amount) {
+        return submit(id, new PointChange(id, TransactionType.USE, amount));
+    }
+
+    /**
+     * 회원을 담당하는 샤드를 멈춘 동안 호출 스레드에서 action 을 실행한다. 샤드 스레드에서 호출하면 교착 상태가 되므로 호출하지 않는다.
+     */
+    @Override
+    public <T> T withUserExclusive(long userId, Function<UserPointRepository, T> action) {
+        return withShardsPaused(new long[]{userId}, action);
+    }
+
+    @Override
+    public <T> T withUsersExclusive(long firstUserId, long secondUserId, Function<UserPointRepository, T> action) {
+        return withShardsPaused(new long[]{firstUserId, secondUserId}, action);
+    }
+
+    /**
+     * 회원들을 담당하는 샤드를 번호 순서로 하나씩 멈춘 뒤 action 을 실행하고, 실행이 끝나면(실패해도) 멈춘 샤드를 모두 다시 진행시킨다.
+     * 멈춘 샤드는 앞선 요청을 모두 반영한 상태이므로, action 은 공용 저장소에서 최신 잔고를 읽는다.
+     */
+    private <T> T withShardsPaused(long[] userIds, Function<UserPointRepository, T> action) {
+        int[] shardIndexes = new int[userIds.length];
+        for (int i = 0; i < userIds.length; i++) {
+            shardIndexes[i] = shardIndex(userIds[i]);
+        }
+
+        List<ShardPause> pauses = new ArrayList<>(userIds.length);
+        try {
+            for (int shardIndex : IntStream.of(shardIndexes).sorted().distinct().toArray()) {
+                ShardPause pause = new ShardPause(userIds);
+                pauses.add(pause);
+                join(submitTo(shards[shardIndex], pause));
+            }
+            return action.apply(userPointRepository);
+        } finally {
+            pauses.forEach(ShardPause::resume);
+        }
+    }
+
+    int shardIndex(long userId) {
+        // 연속된 id 가 인접한 샤드에 몰리지 않도록 비트를 섞는다.
+        long mixed = userId * 0x9E3779B97F4A7C15L;
+        return (int) Long.remainderUnsigned(mixed ^ (mixed >>> 32), shards.length);
+    }
+
+    int shardCount() {
+        return shards.length;
+    }
+
+    /**
+     * 샤드에 남은 요청을 처리한 뒤 샤드 스레드를 종료한다. 종료 이후 들어온 요청은 실패로 완료한다.
+     */
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            shard.running = false;
+            LockSupport.unpark(shard.thread);
+        }
+        for (Shard shard : shards) {
+            try {
+                shard.thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            ShardCommand<?> command;
+            while (!shard.thread.isAlive() && (command = shard.ring.poll()) != null) {
+                command.result.completeExceptionally(new IllegalStateException("포인트 처리가 종료되었습니다."));
+            }
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(long id, ShardCommand<T> command) {
+        return submitTo(shards[shardIndex(id)], command);
+    }
+
+    private <T> CompletableFuture<T> submitTo(Shard shard, ShardCommand<T> command) {
+        if (!shard.running) {
+            throw new IllegalStateException("포인트 처리가 종료되었습니다.");
+        }
+        if (!shard.ring.offer(command)) {
+            throw new UserPointException(UserPointException.Reason.TOO_MANY_WAITERS, "처리 중인 요청이 많습니다. 잠시 후 다시 시도해주세요.");
+        }
+        if (shard.parked) {
+            LockSupport.unpark(shard.thread);
+        }
+
+        // 호출자가 future 를 직접 완료시켜 샤드의 결과를 덮어쓰지 않도록 복사본을 반환한다.
+        return command.result.copy();
+    }
+
+    private static <T> T join(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private abstract static class ShardCommand<T> {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+    }
+
+    private static final class PointChange extends ShardCommand<UserPoint> {
+        private final long userId;
+        private final TransactionType type;
+        private final long amount;
+        // stage 후의 잔고. commit 에 성공하면 이 값으로 완료한다.
+        private long point;
+
+        private PointChange(long userId, TransactionType type, long amount) {
+            this.userId = userId;
+            this.type = type;
+            this.amount = amount;
+        }
+    }
+
+    /**
+     * 샤드 스레드를 멈추는 요청. 샤드 스레드는 result 를 완료해 멈췄음을 알리고, resume 이 호출될 때까지 기다린다.
+     */
+    private static final class ShardPause extends ShardCommand<Void> {
+        private final long[] userIds;
+        private final CountDownLatch resumed = new CountDownLatch(1);
+
+        private ShardPause(long[] userIds) {
+            this.userIds = userIds;
+        }
+
+        private void resume() {
+            resumed.countDown();
+        }
+    }
+
+    private final class Shard {
+        private final ShardRing<ShardCommand<?>> ring;
+        private final ShardBalances balances;
+        private final List<PointChange> accepted = new ArrayList<>();
+        private Thread thread;
+        private volatile boolean running = true;
+        private volatile boolean parked;
+
+        private Shard(int ringSize, int maxCachedUsers) {
+            this.ring = new ShardRing<>(ringSize);
+            this.balances = new ShardBalances(userPointRepository, maxCachedUsers);
+        }
+
+        private void run() {
+            int idleSpins = 0;
+            while (running || !ring.isEmpty()) {
+                ShardCommand<?> command = ring.poll();
+                if (command == null) {
+                    idleSpins = idle(idleSpins);
+                    continue;
+                }
+
+                idleSpins = 0;
+                PointUnitOfWork unitOfWork = new PointUnitOfWork(balances, pointHistoryRepository);
+                int processed = 0;
+                do {
+                    if (command instanceof PointChange change) {
+                        stage(unitOfWork, change);
+                    } else {
+                        // 앞서 stage 된 변경을 먼저 반영해, 멈춘 동안 실행되는 작업이 반영된 상태를 보도록 한다.
+                        commit(unitOfWork);
+                        unitOfWork = new PointUnitOfWork(balances, pointHistoryRepository);
+                        pause((ShardPause) command);
+                    }
+                } while (++processed < maxBatchSize && (command = ring.poll()) != null);
+                commit(unitOfWork);
+            }
+        }
+
+        private int idle(int idleSpins) {
+            if (idleSpins < SPINS_BEFORE_PARK) {
+                Thread.onSpinWait();
+                return idleSpins + 1;
+            }
+
+            parked = true;
+            // 생산자는 게시 후 parked 를 확인하므로, parked 를 기록한 뒤 한 번 더 확인하면 깨우는 신호를 놓치지 않는다.
+            if (running && ring.isEmpty()) {
+                LockSupport.park(this);
+            }
+            parked = false;
+            return 0;
+        }
+
+        private void stage(PointUnitOfWork unitOfWork, PointChange change) {
+            try {
+                if (change.type == TransactionType.USE) {
+                    PointService.validateUse(pointHoldStore.available(unitOfWork.current(change.userId)), change.amount);
+                }
+                change.point = unitOfWork.stage(change.userId, change.type, change.amount).point();
+                accepted.add(change);
+            } catch (RuntimeException e) {
+                // 거절 건수는 예외를 전달받는 호출자에서 집계한다.
+                change.result.completeExceptionally(e);
+            }
+        }
+
+        private void commit(PointUnitOfWork unitOfWork) {
+            if (accepted.isEmpty()) {
+                return;
+            }
+
+            try {
+                unitOfWork.commit();
+                for (PointChange change : accepted) {
+                    change.result.complete(new UserPoint(change.userId, change.point, unitOfWork.committed(change.userId).updateMillis()));
+                }
+            } catch (RuntimeException e) {
+                // 내역 저장에 성공한 앞쪽 요청은 잔고에도 반영되어 있으므로 성공으로 완료한다.
+                long updateMillis = System.currentTimeMillis();
+                for (int i = 0; i < accepted.size(); i++) {
+                    PointChange change = accepted.get(i);
+                    if (i < unitOfWork.committedCount()) {
+                        change.result.complete(new UserPoint(change.userId, change.point, updateMillis));
+                    } else {
+                        change.result.completeExceptionally(e);
+                    }
+                    balances.invalidate(change.userId);
+                }
+            } finally {
+                accepted.clear();
+            }
+        }
+
+        /**
+         * 호출 스레드가 resume 할 때까지 멈춘다. 그동안 호출 스레드가 저장소의 잔고를 바꿀 수 있으므로, 다시 진행하기 전에 해당 회원의 캐시를 비운다.
+         */
+        private void pause(ShardPause pause) {
+            pause.result.complete(null);
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    pause.resumed.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            for (long userId : pause.userIds) {
+                balances.invalidate(userId);
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 샤드 스레드 전용 잔고 캐시. 샤드의 회원은 이 샤드에서만 변경되므로, 저장소에 쓴 값을 그대로 보관하면 저장소와 같다.
+     * 저장에 실패한 회원은 제거해 다음 요청에서 저장소에서 다시 읽는다. 보관 회원 수가 maxSize 를 넘으면 가장 오래 사용하지 않은 회원부터 제거한다.
+     */
+    private static final class ShardBalances implements UserPointRepository {
+
+        private final UserPointRepository delegate;
+        private final Map<Long, UserPoint> balances;
+
+        private ShardBalances(UserPointRepository delegate, int maxSize) {
+            this.delegate = delegate;
+            this.balances = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, UserPoint> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+
+        @Override
+        public UserPoint selectById(long id) {
+            UserPoint userPoint = balances.get(id);
+            if (userPoint == null) {
+                userPoint = delegate.selectById(id);
+                balances.put(id, userPoint);
+            }
+            return userPoint;
+        }
+
+        @Override
+        public UserPoint insertOrUpdate(long id, long amount) {
+            UserPoint userPoint = delegate.insertOrUpdate(id, amount);
+            balances.put(id, userPoint);
+            return userPoint;
+        }
+
+        private void invalidate(long id) {
+            balances.remove(id);
+        }
+    }
+}
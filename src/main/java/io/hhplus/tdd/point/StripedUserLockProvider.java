@@ -0,0 +1,89 @@
+package io.hhplus.tdd.point;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 고정된 개수의 공정락을 회원 id 해시로 나눠 사용합니다.
+ * 메모리 사용량은 회원 수와 무관하게 일정하지만, 같은 락을 공유하는 서로 다른 회원끼리는 경합이 생길 수 있습니다.
+ * 대기 수 제한도 락 단위로 적용되므로, 같은 락을 공유하는 회원의 대기 요청이 함께 집계됩니다.
+ */
+public class StripedUserLockProvider implements UserLockProvider {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final UserLockLimits limits;
+
+    public StripedUserLockProvider(int stripes) {
+        this(stripes, UserLockLimits.UNBOUNDED);
+    }
+
+    /**
+     * @param stripes 락 개수. 2의 거듭제곱으로 올림한다.
+     */
+    public StripedUserLockProvider(int stripes, UserLockLimits limits) {
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+
+        this.stripes = new ReentrantLock[size];
+        this.mask = size - 1;
+        this.limits = limits;
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock(true);
+        }
+    }
+
+    @Override
+    public <T> T withLock(long userId, Supplier<T> action) {
+        ReentrantLock lock = stripes[stripeIndex(userId)];
+        limits.acquire(lock);
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 서로 다른 회원이 같은 락을 공유하므로 회원 id 가 아닌 락 번호 순서로 획득한다. 같은 락을 쓰는 두 회원은 락을 한 번만 획득한다.
+     */
+    @Override
+    public <T> T withLocks(long firstUserId, long secondUserId, Supplier<T> action) {
+        int first = stripeIndex(firstUserId);
+        int second = stripeIndex(secondUserId);
+        ReentrantLock lower = stripes[Math.min(first, second)];
+        ReentrantLock higher = stripes[Math.max(first, second)];
+        limits.acquire(lower);
+        try {
+            if (higher == lower) {
+                return action.get();
+            }
+            limits.acquire(higher);
+            try {
+                return action.get();
+            } finally {
+                higher.unlock();
+            }
+        } finally {
+            lower.unlock();
+        }
+    }
+
+    @Override
+    public UserLockLimits limits() {
+        return limits;
+    }
+
+    @Override
+    public int lockCount() {
+        return stripes.length;
+    }
+
+    int stripeIndex(long userId) {
+        // 연속된 id 가 인접한 락에 몰리지 않도록 비트를 섞는다.
+        long mixed = userId * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32)) & mask;
+    }
+}
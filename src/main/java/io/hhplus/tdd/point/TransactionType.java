@@ -5,7 +5,9 @@ package io.hhplus.tdd.point;
  * 포인트 트랜잭션 종류
  * - CHARGE : 충전
  * - USE : 사용
+ * - EXPIRE : 유효 기간이 지나 소멸된 충전 포인트
+ * 포인트 로그와 off-heap 저장소는 순서(ordinal)로 기록하므로, 새 값은 항상 뒤에 추가합니다.
  */
 public enum TransactionType {
-    CHARGE, USE
+    CHARGE, USE, EXPIRE
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.UserPointException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 회원별 락 획득 제한
+ * - maxWaiters : 락을 기다리는 스레드가 이 수 이상이면 기다리지 않고 바로 거절한다. (0 이면 제한 없음)
+ *   대기 수는 ReentrantLock.getQueueLength 의 추정치이므로, 동시에 도착한 요청은 잠시 제한을 넘을 수 있다.
+ * - timeoutMillis : 이 시간 안에 락을 얻지 못하면 거절한다. (0 이면 얻을 때까지 기다림)
+ *   비동기 요청(UserTaskChain)은 요청이 등록된 시각부터 세므로, 앞선 요청을 기다린 시간도 포함된다.
+ * 이미 락을 보유한 스레드의 중첩 획득은 제한하지 않는다.
+ */
+public record UserLockLimits(
+        int maxWaiters,
+        long timeoutMillis
+) {
+
+    public static final UserLockLimits UNBOUNDED = new UserLockLimits(0, 0L);
+
+    // withDeadline 으로 실행 중인 작업의 락 대기 마감 시각(System.nanoTime)
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    /**
+     * startedAtNanos 부터 timeoutMillis 가 지나기 전에만 action 을 실행하고, action 안의 락 획득은 남은 시간만 기다린다.
+     * 이미 마감 시각이 지났으면 실행하지 않고 거절한다.
+     */
+    <T> T withDeadline(long startedAtNanos, Supplier<T> action) {
+        if (timeoutMillis <= 0) {
+            return action.get();
+        }
+
+        long deadline = startedAtNanos + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        if (deadline - System.nanoTime() <= 0) {
+            throw lockTimeout();
+        }
+
+        Long previous = DEADLINE.get();
+        DEADLINE.set(previous == null ? deadline : Math.min(previous, deadline));
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                DEADLINE.remove();
+            } else {
+                DEADLINE.set(previous);
+            }
+        }
+    }
+
+    void acquire(ReentrantLock lock) {
+        if (lock.isHeldByCurrentThread()) {
+            lock.lock();
+            return;
+        }
+        if (maxWaiters > 0 && lock.isLocked() && lock.getQueueLength() >= maxWaiters) {
+            throw tooManyWaiters();
+        }
+        if (timeoutMillis <= 0) {
+            lock.lock();
+            return;
+        }
+
+        long waitNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        Long deadline = DEADLINE.get();
+        if (deadline != null) {
+            waitNanos = Math.min(waitNanos, deadline - System.nanoTime());
+        }
+
+        boolean acquired;
+        try {
+            acquired = lock.tryLock(waitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            throw lockTimeout();
+        }
+    }
+
+    static UserPointException tooManyWaiters() {
+        return new UserPointException(UserPointException.Reason.TOO_MANY_WAITERS, "처리 중인 요청이 많습니다. 잠시 후 다시 시도해주세요.");
+    }
+
+    private static UserPointException lockTimeout() {
+        return new UserPointException(UserPointException.Reason.LOCK_TIMEOUT, "요청 처리 대기 시간을 초과했습니다. 잠시 후 다시 시도해주세요.");
+    }
+}
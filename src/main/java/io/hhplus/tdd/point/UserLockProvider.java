@@ -0,0 +1,34 @@
+package io.hhplus.tdd.point;
+
+import java.util.function.Supplier;
+
+/**
+ * 회원 단위의 상호 배제를 제공합니다.
+ * 같은 회원에 대한 action 은 동시에 실행되지 않으며, 같은 스레드에서 중첩해 호출할 수 있습니다.
+ */
+public interface UserLockProvider {
+
+    <T> T withLock(long userId, Supplier<T> action);
+
+    /**
+     * 두 회원의 락을 모두 획득해 action 을 실행한다.
+     * 모든 호출이 같은 순서(회원 id 오름차순)로 락을 획득하므로, 서로 반대 방향으로 요청해도 교착 상태가 생기지 않는다.
+     */
+    default <T> T withLocks(long firstUserId, long secondUserId, Supplier<T> action) {
+        long lower = Math.min(firstUserId, secondUserId);
+        long higher = Math.max(firstUserId, secondUserId);
+        return withLock(lower, () -> withLock(higher, action));
+    }
+
+    /**
+     * 락 획득 제한. 비동기 요청을 회원별로 이어 실행하는 UserTaskChain 도 같은 제한을 적용한다.
+     */
+    default UserLockLimits limits() {
+        return UserLockLimits.UNBOUNDED;
+    }
+
+    /**
+     * 현재 메모리에 유지 중인 락의 수
+     */
+    int lockCount();
+}
@@ -0,0 +1,28 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class UserLockProviderConfig {
+
+    /**
+     * point.lock.type 에 따라 LOCK 모드에서 사용할 회원별 락 관리 방식을 선택한다.
+     * point.admission 의 대기 수 제한과 락 대기 제한 시간은 모든 방식에 같이 적용된다.
+     */
+    @Bean
+    public UserLockProvider userLockProvider(
+            @Value("${point.lock.type:MAP}") PointLockType lockType,
+            @Value("${point.lock.stripes:4096}") int stripes,
+            @Value("${point.admission.max-waiters-per-user:0}") int maxWaiters,
+            @Value("${point.admission.lock-timeout-millis:0}") long lockTimeoutMillis
+    ) {
+        UserLockLimits limits = new UserLockLimits(maxWaiters, lockTimeoutMillis);
+        return switch (lockType) {
+            case MAP -> new ConcurrentMapUserLockProvider(limits);
+            case STRIPED -> new StripedUserLockProvider(stripes, limits);
+            case REF_COUNTED -> new RefCountedUserLockProvider(limits);
+        };
+    }
+}
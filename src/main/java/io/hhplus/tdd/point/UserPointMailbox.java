@@ -0,0 +1,225 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.UserPointException;
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.UserPointRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 회원별 단일 작성자(mailbox) 방식으로 포인트 충전/사용 요청을 처리합니다. (point.write-mode=QUEUE)
+ * - 요청은 회원별 큐에 쌓이고, 회원당 하나의 drainer 만 큐를 비운다.
+ * - drainer 는 한 번 비울 때마다 회원별 락을 잡으므로, 같은 락을 잡는 이체/예약/만료와 겹치지 않는다. 락 경합은 drainer 와 이들 작업 사이에서만 생긴다.
+ * - drainer 는 쌓인 요청을 selectById 1회로 읽은 잔고에 순서대로 적용하고, 하나의 PointUnitOfWork 로 잔고 쓰기 1회와 내역을 함께 반영한다.
+ * - 잔고 부족 등으로 거절된 요청은 큐 순서대로 해당 요청만 실패 처리된다.
+ * - 큐를 모두 비운 mailbox 는 map 에서 제거하므로, 보관하는 mailbox 수는 요청이 남아 있는 회원 수를 넘지 않는다.
+ */
+class UserPointMailbox implements PointWriteEngine {
+
+    private final UserPointRepository userPointRepository;
+    private final PointHistoryRepository pointHistoryRepository;
+    private final UserLockProvider userLockProvider;
+    private final PointHoldStore pointHoldStore;
+    private final int maxBatchSize;
+    private final Executor drainExecutor;
+    private final PointMetrics pointMetrics;
+    private final ConcurrentHashMap<Long, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    UserPointMailbox(
+            UserPointRepository userPointRepository,
+            PointHistoryRepository pointHistoryRepository,
+            UserLockProvider userLockProvider,
+            PointHoldStore pointHoldStore,
+            int maxBatchSize,
+            Executor drainExecutor,
+            PointMetrics pointMetrics
+    ) {
+        this.userPointRepository = userPointRepository;
+        this.pointHistoryRepository = pointHistoryRepository;
+        this.userLockProvider = userLockProvider;
+        this.pointHoldStore = pointHoldStore;
+        this.maxBatchSize = maxBatchSize;
+        this.drainExecutor = drainExecutor;
+        this.pointMetrics = pointMetrics;
+    }
+
+    @Override
+    public UserPoint charge(long id, long amount) {
+        return join(chargeAsync(id, amount));
+    }
+
+    @Override
+    public UserPoint use(long id, long amount) {
+        return join(useAsync(id, amount));
+    }
+
+    /**
+     * 요청을 회원별 큐에 넣고 바로 반환한다. drainer 가 요청을 반영하면 future 가 완료된다.
+     */
+    @Override
+    public CompletableFuture<UserPoint> chargeAsync(long id, long amount) {
+        return submit(id, TransactionType.CHARGE, amount);
+    }
+
+    @Override
+    public CompletableFuture<UserPoint> useAsync(long id, long amount) {
+        return submit(id, TransactionType.USE, amount);
+    }
+
+    @Override
+    public <T> T withUserExclusive(long userId, Function<UserPointRepository, T> action) {
+        return userLockProvider.withLock(userId, () -> action.apply(userPointRepository));
+    }
+
+    @Override
+    public <T> T withUsersExclusive(long firstUserId, long secondUserId, Function<UserPointRepository, T> action) {
+        return userLockProvider.withLocks(firstUserId, secondUserId, () -> action.apply(userPointRepository));
+    }
+
+    int pendingCount(long id) {
+        Mailbox mailbox = mailboxes.get(id);
+        return mailbox == null ? 0 : mailbox.pending.get();
+    }
+
+    int mailboxCount() {
+        return mailboxes.size();
+    }
+
+    private CompletableFuture<UserPoint> submit(long id, TransactionType type, long amount) {
+        PointCommand command = new PointCommand(type, amount, new CompletableFuture<>());
+        // 요청은 compute 안에서 넣으므로, drainer 가 비어 있는 mailbox 를 제거하는 것과 겹치지 않는다.
+        int[] depth = new int[1];
+        Mailbox mailbox = mailboxes.compute(id, (key, current) -> {
+            Mailbox target = current != null ? current : new Mailbox(key);
+            target.queue.offer(command);
+            depth[0] = target.pending.incrementAndGet();
+            return target;
+        });
+        pointMetrics.mailboxEnqueued(depth[0]);
+        schedule(mailbox);
+
+        // 호출자가 future 를 직접 완료시켜 drainer 의 결과를 덮어쓰지 않도록 복사본을 반환한다.
+        return command.result().copy();
+    }
+
+    private UserPoint join(CompletableFuture<UserPoint> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void schedule(Mailbox mailbox) {
+        if (mailbox.scheduled.compareAndSet(false, true)) {
+            drainExecutor.execute(() -> drain(mailbox));
+        }
+    }
+
+    private void drain(Mailbox mailbox) {
+        try {
+            List<PointCommand> batch = new ArrayList<>();
+            PointCommand command;
+            while (batch.size() < maxBatchSize && (command = mailbox.queue.poll()) != null) {
+                batch.add(command);
+            }
+
+            if (!batch.isEmpty()) {
+                pointMetrics.mailboxDrained(batch.size(), mailbox.pending.addAndGet(-batch.size()));
+                applyBatchLocked(mailbox.userId, batch);
+            }
+        } finally {
+            // drainer 가 실행 중인 동안 제거해야, 같은 회원의 새 mailbox 가 이 drainer 와 동시에 반영되지 않는다.
+            boolean removed = mailbox.queue.isEmpty() && mailboxes.computeIfPresent(mailbox.userId,
+                    (key, current) -> current == mailbox && current.queue.isEmpty() ? null : current) == null;
+            mailbox.scheduled.set(false);
+            // drainer 가 빠져나가는 사이에 들어온 요청이 있다면 다시 예약한다.
+            if (!removed && !mailbox.queue.isEmpty()) {
+                schedule(mailbox);
+            }
+        }
+    }
+
+    /**
+     * 회원별 락 안에서 batch 를 반영한다. 락을 얻지 못하면(대기 제한 초과 등) batch 의 요청을 모두 실패로 완료한다.
+     */
+    private void applyBatchLocked(long userId, List<PointCommand> batch) {
+        try {
+            userLockProvider.withLock(userId, () -> {
+                applyBatch(userId, batch);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            batch.forEach(command -> command.result().completeExceptionally(e));
+        }
+    }
+
+    private void applyBatch(long userId, List<PointCommand> batch) {
+        List<PointCommand> accepted = new ArrayList<>(batch.size());
+        List<Long> balances = new ArrayList<>(batch.size());
+        PointUnitOfWork unitOfWork = new PointUnitOfWork(userPointRepository, pointHistoryRepository);
+
+        try {
+            for (PointCommand command : batch) {
+                try {
+                    balances.add(apply(userId, unitOfWork, command));
+                    accepted.add(command);
+                } catch (UserPointException e) {
+                    // 거절 건수는 예외를 전달받는 호출자에서 집계한다.
+                    command.result().completeExceptionally(e);
+                }
+            }
+
+            if (accepted.isEmpty()) {
+                return;
+            }
+
+            unitOfWork.commit();
+            long updateMillis = unitOfWork.committed(userId).updateMillis();
+            for (int i = 0; i < accepted.size(); i++) {
+                accepted.get(i).result().complete(new UserPoint(userId, balances.get(i), updateMillis));
+            }
+        } catch (RuntimeException e) {
+            // 내역 저장에 성공한 앞쪽 요청은 잔고에도 반영되어 있으므로 성공으로 완료한다.
+            long updateMillis = System.currentTimeMillis();
+            for (int i = 0; i < unitOfWork.committedCount(); i++) {
+                accepted.get(i).result().complete(new UserPoint(userId, balances.get(i), updateMillis));
+            }
+            batch.forEach(command -> command.result().completeExceptionally(e));
+        }
+    }
+
+    private long apply(long userId, PointUnitOfWork unitOfWork, PointCommand command) {
+        if (command.type() == TransactionType.CHARGE) {
+            PointService.validateCharge(command.amount());
+            return unitOfWork.stage(userId, TransactionType.CHARGE, command.amount()).point();
+        }
+
+        PointService.validateUse(pointHoldStore.available(unitOfWork.current(userId)), command.amount());
+        return unitOfWork.stage(userId, TransactionType.USE, command.amount()).point();
+    }
+
+    private record PointCommand(TransactionType type, long amount, CompletableFuture<UserPoint> result) {
+    }
+
+    private static class Mailbox {
+        private final long userId;
+        private final Queue<PointCommand> queue = new ConcurrentLinkedQueue<>();
+        // queue 의 길이. ConcurrentLinkedQueue.size() 는 큐를 훑으므로 따로 센다.
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+        private Mailbox(long userId) {
+            this.userId = userId;
+        }
+    }
+}
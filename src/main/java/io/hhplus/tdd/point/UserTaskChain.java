@@ -0,0 +1,57 @@
+package io.hhplus.tdd.point;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * 회원별 비동기 변경 작업을 등록 순서대로 하나씩 실행합니다.
+ * - 회원의 마지막 작업 future 뒤에 새 작업을 이어 붙이며, 앞선 작업이 끝나야 다음 작업이 executor 에 제출되므로 대기 중인 요청이 스레드를 점유하지 않는다.
+ * - 작업이 모두 끝난 회원은 map 에서 제거되므로, 보관하는 future 수는 작업이 남아 있는 회원 수를 넘지 않는다.
+ * - 비동기 요청끼리는 회원별 락에서 기다리지 않고 이 체인에서 기다리므로, 락 획득 제한(UserLockLimits)을 체인에도 적용한다.
+ *   실행 중인 작업 뒤에 기다리는 작업이 maxWaiters 개 이상이면 등록하지 않고 거절하며,
+ *   락 대기 제한 시간은 요청이 등록된 시각부터 세어, 앞선 작업을 기다리다 시간이 지나면 실행하지 않고 거절한다.
+ * 작업 안에서 잡는 회원별 락은 비동기 요청끼리는 경합하지 않고, 동기 API 와의 상호 배제만 보장합니다.
+ */
+class UserTaskChain {
+
+    private final Executor executor;
+    private final UserLockLimits limits;
+    // 회원별로 마지막에 등록된 비동기 변경 작업과 끝나지 않은 작업 수. 다음 작업은 이 future 가 끝난 뒤에 실행된다.
+    private final ConcurrentHashMap<Long, Tail> tails = new ConcurrentHashMap<>();
+
+    UserTaskChain(Executor executor) {
+        this(executor, UserLockLimits.UNBOUNDED);
+    }
+
+    UserTaskChain(Executor executor, UserLockLimits limits) {
+        this.executor = executor;
+        this.limits = limits;
+    }
+
+    CompletableFuture<UserPoint> enqueue(long id, Supplier<UserPoint> task) {
+        long enqueuedAt = System.nanoTime();
+        Supplier<UserPoint> deadlined = () -> limits.withDeadline(enqueuedAt, task);
+
+        Tail next = tails.compute(id, (key, tail) -> {
+            if (tail == null) {
+                return new Tail(CompletableFuture.supplyAsync(deadlined, executor), 1);
+            }
+            // 실행 중인 작업 하나를 뺀 나머지가 기다리는 작업이다.
+            if (limits.maxWaiters() > 0 && tail.pending() - 1 >= limits.maxWaiters()) {
+                throw UserLockLimits.tooManyWaiters();
+            }
+            // 앞선 작업의 실패와 관계없이 다음 작업을 실행한다.
+            return new Tail(tail.future().handleAsync((result, e) -> deadlined.get(), executor), tail.pending() + 1);
+        });
+        next.future().whenComplete((result, e) ->
+                tails.computeIfPresent(id, (key, tail) -> tail.pending() == 1 ? null : new Tail(tail.future(), tail.pending() - 1)));
+
+        // 호출자가 future 를 직접 완료시켜 체인이 끊기지 않도록 복사본을 반환한다.
+        return next.future().copy();
+    }
+
+    private record Tail(CompletableFuture<UserPoint> future, int pending) {
+    }
+}
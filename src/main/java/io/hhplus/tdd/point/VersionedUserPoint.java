@@ -0,0 +1,18 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 스냅샷(또는 OPTIMISTIC 모드의 CasUserPointStore)에 보관된 회원 포인트와 버전
+ * - version 은 회원별로 잔고가 저장될 때마다 1씩 증가한다. 저장 전에 조회해 채운 값은 0 이다.
+ * - 버전을 관리하지 않는 경우 UNVERSIONED 이다.
+ */
+public record VersionedUserPoint(
+        UserPoint userPoint,
+        long version
+) {
+
+    public static final long UNVERSIONED = -1L;
+
+    public boolean isVersioned() {
+        return version != UNVERSIONED;
+    }
+}
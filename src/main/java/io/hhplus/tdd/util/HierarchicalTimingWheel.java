@@ -0,0 +1,149 @@
+package io.hhplus.tdd.util;
+
+import java.util.Arrays;
+
+/**
+ * 만료 시각이 된 id 를 tick 단위로 꺼내는 계층형 타이밍 휠입니다.
+ * - 가장 아래 단계는 64개의 칸이 각각 tick 하나를, 위 단계의 칸은 바로 아래 단계 한 바퀴(64 tick)를 담당한다.
+ *   단계 수는 maxDelayMillis 까지 담을 수 있도록 정하며, 그보다 먼 항목은 가장 위 단계에 두었다가 다시 나눠 담는다.
+ * - 등록은 남은 tick 수로 단계와 칸을 정하므로 O(1) 이다. tick 이 지나면 해당 칸만 비우고,
+ *   위 단계의 칸은 아래 단계가 한 바퀴 돌 때마다 하나씩 아래 단계로 나눠 담으므로, tick 당 비용은 꺼내는 항목 수에 비례한다.
+ * - 칸에는 (id, 만료 tick) 쌍을 long 배열로 담고 비운 칸의 배열은 해제하므로, 메모리는 등록된 항목 수에 비례한다.
+ * 등록한 항목은 취소할 수 없으므로, 호출자는 꺼낸 id 가 여전히 유효한지 확인해야 합니다. 항목은 만료 시각보다 일찍 꺼내지지 않습니다.
+ */
+public class HierarchicalTimingWheel {
+
+    private static final int BITS = 6;
+    private static final int WHEEL_SIZE = 1 << BITS;
+    private static final int MASK = WHEEL_SIZE - 1;
+    private static final int MAX_LEVELS = 10;
+    private static final long[] EMPTY = new long[0];
+
+    private final long tickMillis;
+    private final Slot[][] levels;
+    private long currentTick;
+    private long size;
+
+    public HierarchicalTimingWheel(long tickMillis, long maxDelayMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis 는 0보다 커야 합니다.");
+        }
+
+        long maxDelayTicks = maxDelayMillis / tickMillis + 1;
+        int levelCount = 1;
+        while (levelCount < MAX_LEVELS && (1L << (BITS * levelCount)) <= maxDelayTicks) {
+            levelCount++;
+        }
+
+        this.tickMillis = tickMillis;
+        this.levels = new Slot[levelCount][WHEEL_SIZE];
+        for (Slot[] level : levels) {
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                level[i] = new Slot();
+            }
+        }
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /**
+     * expiresAtMillis 가 지난 뒤의 첫 advance 에서 id 를 꺼내도록 등록한다. 이미 지난 시각이면 다음 tick 에 꺼낸다.
+     */
+    public synchronized void schedule(long id, long expiresAtMillis) {
+        long expiryTick = Math.max(Math.ceilDiv(expiresAtMillis, tickMillis), currentTick + 1);
+        place(id, expiryTick);
+        size++;
+    }
+
+    /**
+     * nowMillis 까지 tick 을 진행하고, 그 사이 만료된 id 를 반환한다.
+     */
+    public synchronized long[] advance(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        if (size == 0) {
+            currentTick = Math.max(currentTick, targetTick);
+            return EMPTY;
+        }
+
+        LongBuffer expired = new LongBuffer();
+        while (currentTick < targetTick && size > 0) {
+            currentTick++;
+            // 위 단계부터 나눠 담아야, 위 단계에서 내려온 항목이 같은 tick 에 아래 단계에서 다시 나눠 담긴다.
+            for (int level = levels.length - 1; level >= 1; level--) {
+                if ((currentTick & ((1L << (BITS * level)) - 1)) == 0) {
+                    cascade(levels[level][(int) ((currentTick >>> (BITS * level)) & MASK)], expired);
+                }
+            }
+            cascade(levels[0][(int) (currentTick & MASK)], expired);
+        }
+        currentTick = Math.max(currentTick, targetTick);
+        return expired.toArray();
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    private void place(long id, long expiryTick) {
+        long delta = expiryTick - currentTick;
+        int level = 0;
+        while (level < levels.length - 1 && delta >= (1L << (BITS * (level + 1)))) {
+            level++;
+        }
+        // 가장 위 단계보다 먼 항목은 지금 칸에 두면, 한 바퀴 뒤 그 칸을 나눠 담을 때 다시 자리를 찾는다.
+        long window = delta >= (1L << (BITS * levels.length)) ? currentTick >>> (BITS * level) : expiryTick >>> (BITS * level);
+        levels[level][(int) (window & MASK)].add(id, expiryTick);
+    }
+
+    private void cascade(Slot slot, LongBuffer expired) {
+        if (slot.size == 0) {
+            return;
+        }
+
+        long[] entries = slot.entries;
+        int count = slot.size;
+        slot.entries = null;
+        slot.size = 0;
+        for (int i = 0; i < count; i += 2) {
+            if (entries[i + 1] <= currentTick) {
+                expired.add(entries[i]);
+                size--;
+            } else {
+                place(entries[i], entries[i + 1]);
+            }
+        }
+    }
+
+    /**
+     * (id, 만료 tick) 쌍을 차례로 담는다.
+     */
+    private static final class Slot {
+        private long[] entries;
+        private int size;
+
+        private void add(long id, long expiryTick) {
+            if (entries == null) {
+                entries = new long[4];
+            } else if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            entries[size++] = id;
+            entries[size++] = expiryTick;
+        }
+    }
+
+    private static final class LongBuffer {
+        private long[] values = new long[16];
+        private int size;
+
+        private void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package io.hhplus.tdd.util;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * prefix-1, prefix-2 ... 이름의 daemon 스레드를 생성합니다.
+ */
+public class NamedThreadFactory implements ThreadFactory {
+
+    private final String prefix;
+    private final AtomicInteger sequence = new AtomicInteger(1);
+
+    public NamedThreadFactory(String prefix) {
+        this.prefix = prefix;
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, prefix + sequence.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
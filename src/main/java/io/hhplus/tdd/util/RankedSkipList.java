@@ -0,0 +1,197 @@
+package io.hhplus.tdd.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * (score, id) 를 score 내림차순, 같은 score 는 id 오름차순으로 정렬해 보관하는 skip list 입니다.
+ * - 각 단계의 링크마다 건너뛰는 항목 수(span)를 함께 두어, 추가/변경/삭제와 순위 조회가 모두 O(log n) 이다.
+ * - 상위 항목 조회는 가장 아래 단계를 앞에서부터 따라가므로 O(limit) 이다.
+ * 동기화하지 않으므로, 호출자가 하나의 락 안에서 사용해야 합니다.
+ */
+public class RankedSkipList {
+
+    private static final int MAX_LEVEL = 32;
+
+    private final Node head = new Node(0L, 0L, MAX_LEVEL);
+    // 추가/삭제 시 단계별로 지나온 노드와 순위. 호출자가 락 안에서만 사용하므로 재사용한다.
+    private final Node[] update = new Node[MAX_LEVEL];
+    private final int[] rank = new int[MAX_LEVEL];
+    private int level = 1;
+    private int size;
+
+    public void add(long score, long id) {
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (node.next[i] != null && node.next[i].precedes(score, id)) {
+                rank[i] += node.span[i];
+                node = node.next[i];
+            }
+            update[i] = node;
+        }
+
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = size;
+            }
+            level = nodeLevel;
+        }
+
+        Node added = new Node(score, id, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            added.next[i] = update[i].next[i];
+            update[i].next[i] = added;
+            // 앞 노드가 건너뛰던 항목 중, 새 노드 뒤에 남는 만큼을 새 노드가 건너뛴다.
+            added.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        size++;
+    }
+
+    /**
+     * 항목을 삭제하고, 삭제했는지 여부를 반환한다.
+     */
+    public boolean remove(long score, long id) {
+        Node removed = find(score, id);
+        if (removed == null) {
+            return false;
+        }
+        unlink(removed);
+        return true;
+    }
+
+    /**
+     * 항목의 score 를 바꾸고, 항목이 있었는지 여부를 반환한다.
+     * 바뀐 score 로도 앞뒤 항목 사이에 그대로 정렬되면 노드를 옮기지 않으므로, 한 번의 탐색으로 끝난다.
+     */
+    public boolean update(long score, long id, long newScore) {
+        Node node = find(score, id);
+        if (node == null) {
+            return false;
+        }
+        Node previous = update[0];
+        Node next = node.next[0];
+        if ((previous == head || previous.precedes(newScore, id)) && (next == null || next.follows(newScore, id))) {
+            node.score = newScore;
+            return true;
+        }
+        unlink(node);
+        add(newScore, id);
+        return true;
+    }
+
+    /**
+     * 항목의 순위(1부터 시작)를 반환한다. 없으면 0 을 반환한다.
+     */
+    public long rank(long score, long id) {
+        long rank = 0;
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && !node.next[i].follows(score, id)) {
+                rank += node.span[i];
+                node = node.next[i];
+            }
+            if (node != head && node.score == score && node.id == id) {
+                return rank;
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * 앞에서부터 최대 limit 개의 항목을 순서대로 전달한다.
+     */
+    public void forEach(int limit, EntryConsumer action) {
+        Node node = head.next[0];
+        for (int i = 0; i < limit && node != null; i++, node = node.next[0]) {
+            action.accept(node.score, node.id);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long score, long id);
+    }
+
+    /**
+     * 항목을 찾아 반환하고, 단계별로 항목 바로 앞의 노드를 update 에 남긴다. 없으면 null 을 반환한다.
+     */
+    private Node find(long score, long id) {
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && node.next[i].precedes(score, id)) {
+                node = node.next[i];
+            }
+            update[i] = node;
+        }
+
+        Node found = node.next[0];
+        return found != null && found.score == score && found.id == id ? found : null;
+    }
+
+    /**
+     * find 로 찾은 노드를 연결에서 제거한다.
+     */
+    private void unlink(Node removed) {
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == removed) {
+                update[i].span[i] += removed.span[i] - 1;
+                update[i].next[i] = removed.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+    }
+
+    private static int randomLevel() {
+        // 단계마다 1/4 확률로 올라간다.
+        int nodeLevel = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (nodeLevel < MAX_LEVEL && (random.nextInt() & 3) == 0) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+
+    private static final class Node {
+        private long score;
+        private final long id;
+        private final Node[] next;
+        private final int[] span;
+
+        private Node(long score, long id, int level) {
+            this.score = score;
+            this.id = id;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+
+        /**
+         * 이 노드가 (score, id) 보다 앞에 정렬되는지 여부
+         */
+        private boolean precedes(long score, long id) {
+            return this.score != score ? this.score > score : this.id < id;
+        }
+
+        /**
+         * 이 노드가 (score, id) 보다 뒤에 정렬되는지 여부
+         */
+        private boolean follows(long score, long id) {
+            return this.score != score ? this.score < score : this.id > id;
+        }
+    }
+}
@@ -2,8 +2,14 @@ package io.hhplus.tdd.util;
 
 import io.hhplus.tdd.UserPointException;
 
+import java.util.List;
+
 public class UserPointValidator {
 
+    public static final int MAX_PAGE_LIMIT = 1000;
+    public static final int MAX_BATCH_SIZE = 10_000;
+    public static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     public static void withId(long id) {
         if (id <= 0) {
             throw new UserPointException("잘못된 id 입니다.");
@@ -20,4 +26,49 @@ public class UserPointValidator {
         }
     }
 
+    public static void withTransfer(long fromUserId, long toUserId, long amount) {
+        withIdAndAmount(fromUserId, amount);
+        withId(toUserId);
+
+        if (fromUserId == toUserId) {
+            throw new UserPointException("자기 자신에게는 이체할 수 없습니다.");
+        }
+    }
+
+    public static void withCursor(long after) {
+        if (after < 0) {
+            throw new UserPointException("잘못된 커서 입니다.");
+        }
+    }
+
+    public static void withPage(long after, int limit, long from, long to) {
+        withCursor(after);
+        withLimit(limit);
+
+        if (from > to) {
+            throw new UserPointException("조회 시작 시간은 종료 시간보다 늦을 수 없습니다.");
+        }
+    }
+
+    public static void withLimit(int limit) {
+        if (limit <= 0 || limit > MAX_PAGE_LIMIT) {
+            throw new UserPointException("조회 건수는 1 이상 1,000 이하만 가능합니다.");
+        }
+    }
+
+    public static void withBatch(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new UserPointException("일괄 처리할 요청이 없습니다.");
+        }
+
+        if (items.size() > MAX_BATCH_SIZE) {
+            throw new UserPointException("일괄 처리는 한 번에 10,000건까지 가능합니다.");
+        }
+    }
+
+    public static void withIdempotencyKey(String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new UserPointException("Idempotency-Key 는 1자 이상 255자 이하만 가능합니다.");
+        }
+    }
 }
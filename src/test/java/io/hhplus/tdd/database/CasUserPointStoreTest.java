@@ -0,0 +1,216 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.VersionedUserPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CasUserPointStoreTest {
+
+    private static final int MAX_SLOTS = 2;
+
+    private MemoryUserPointRepository delegate;
+    private ControlledPointHistoryRepository histories;
+    private CasUserPointStore casUserPointStore;
+
+    @BeforeEach
+    void setUp() {
+        delegate = new MemoryUserPointRepository();
+        histories = new ControlledPointHistoryRepository();
+        casUserPointStore = new CasUserPointStore(delegate, histories, MAX_SLOTS);
+    }
+
+    @DisplayName("확정 대기 중인 변경이 있으면 다른 변경은 실패하고, 조회는 확정된 값을 반환한다.")
+    @Test
+    void compareAndSet_whilePending_shouldRejectOtherChanges() {
+        // given
+        long userId = 1L;
+        VersionedUserPoint loaded = casUserPointStore.read(userId);
+        VersionedUserPoint pending = casUserPointStore.compareAndSet(loaded, 1000L);
+
+        // when // then
+        assertThat(casUserPointStore.compareAndSet(loaded, 2000L)).isNull();
+        assertThat(casUserPointStore.read(userId)).isSameAs(loaded);
+
+        casUserPointStore.confirm(pending, TransactionType.CHARGE, 1000L);
+        assertThat(casUserPointStore.read(userId)).isSameAs(pending);
+        assertThat(casUserPointStore.compareAndSet(pending, 2000L)).isNotNull();
+    }
+
+    @DisplayName("내역을 저장하는 동안에도 같은 회원의 다음 변경은 성공하고, 다음 변경은 앞선 내역과 잔고가 저장된 뒤에 돌아온다.")
+    @Test
+    void confirm_whileHistoryInsertBlocks_shouldAcceptNextChangeAndWaitForPersistence() throws Exception {
+        // given
+        long userId = 1L;
+        histories.block();
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> change(userId, 1000L));
+        histories.awaitBlocked();
+
+        // when
+        VersionedUserPoint second = casUserPointStore.compareAndSet(casUserPointStore.read(userId), 3000L);
+        CompletableFuture<Void> confirmed = CompletableFuture.runAsync(() -> casUserPointStore.confirm(second, TransactionType.CHARGE, 2000L));
+        Thread.sleep(100L);
+
+        // then
+        assertThat(second).isNotNull();
+        assertThat(confirmed).isNotDone();
+
+        histories.unblock();
+        first.join();
+        confirmed.join();
+        assertThat(histories.selectAllByUserId(userId))
+                .extracting(PointHistory::amount)
+                .containsExactly(1000L, 2000L);
+        assertThat(delegate.selectById(userId).point()).isEqualTo(3000L);
+    }
+
+    @DisplayName("내역 저장에 실패하면, 예외를 던지고 잔고를 변경 전 값으로 되돌린다. 이후 변경은 되돌린 값에서 이어진다.")
+    @Test
+    void confirm_whenHistoryInsertFails_shouldRestorePreviousValue() {
+        // given
+        long userId = 1L;
+        change(userId, 1000L);
+        VersionedUserPoint pending = casUserPointStore.compareAndSet(casUserPointStore.read(userId), 3000L);
+        histories.failNext();
+
+        // when // then
+        assertThatThrownBy(() -> casUserPointStore.confirm(pending, TransactionType.CHARGE, 2000L))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(casUserPointStore.read(userId).userPoint().point()).isEqualTo(1000L);
+        assertThat(delegate.selectById(userId).point()).isEqualTo(1000L);
+        assertThat(casUserPointStore.compareAndSet(pending, 5000L)).isNull();
+
+        assertThat(change(userId, 1500L).userPoint().point()).isEqualTo(1500L);
+        assertThat(histories.selectAllByUserId(userId))
+                .extracting(PointHistory::amount)
+                .containsExactly(1000L, 500L);
+    }
+
+    @DisplayName("보관 중인 회원 수가 상한을 넘으면 변경 중이 아닌 회원만 제거하고, 제거된 회원은 저장소에서 다시 읽는다.")
+    @Test
+    void read_whenSlotsExceedMax_shouldEvictOnlyIdleUsers() {
+        // given
+        long changingUserId = 1L;
+        long idleUserId = 2L;
+        VersionedUserPoint pending = casUserPointStore.compareAndSet(casUserPointStore.read(changingUserId), 1000L);
+        change(idleUserId, 2000L);
+
+        // when
+        casUserPointStore.read(3L);
+
+        // then
+        assertThat(casUserPointStore.slotCount()).isEqualTo(2);
+        casUserPointStore.confirm(pending, TransactionType.CHARGE, 1000L);
+        assertThat(casUserPointStore.read(changingUserId)).isSameAs(pending);
+
+        VersionedUserPoint reloaded = casUserPointStore.read(idleUserId);
+        assertThat(reloaded.userPoint().point()).isEqualTo(2000L);
+        assertThat(reloaded.version()).isZero();
+    }
+
+    @DisplayName("보관 중인 회원 수가 상한을 넘으면, 제거할 수 있는 회원이 더 있어도 상한만큼은 남긴다.")
+    @Test
+    void read_whenSlotsExceedMax_shouldEvictOnlyOverflow() {
+        // given
+        change(1L, 1000L);
+        change(2L, 2000L);
+
+        // when
+        casUserPointStore.read(3L);
+
+        // then
+        assertThat(casUserPointStore.slotCount()).isEqualTo(MAX_SLOTS);
+    }
+
+    @DisplayName("제거되기 전에 읽은 값으로는 변경할 수 없고, 다시 읽은 값으로 변경한다.")
+    @Test
+    void compareAndSet_withValueReadBeforeEviction_shouldFail() {
+        // given
+        long userId = 1L;
+        VersionedUserPoint stale = casUserPointStore.read(userId);
+        casUserPointStore.read(2L);
+        casUserPointStore.read(3L);
+
+        // when // then
+        assertThat(casUserPointStore.compareAndSet(stale, 1000L)).isNull();
+        assertThat(change(userId, 1000L).userPoint().point()).isEqualTo(1000L);
+    }
+
+    private VersionedUserPoint change(long userId, long point) {
+        VersionedUserPoint current = casUserPointStore.read(userId);
+        VersionedUserPoint pending = casUserPointStore.compareAndSet(current, point);
+        casUserPointStore.confirm(pending, TransactionType.CHARGE, point - current.userPoint().point());
+        return pending;
+    }
+
+    /**
+     * 내역 저장을 멈춰 두거나 한 번 실패시킬 수 있는 내역 저장소
+     */
+    private static class ControlledPointHistoryRepository extends OffHeapPointHistoryRepository {
+
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+        private volatile boolean blocking;
+        private volatile boolean failNext;
+
+        void block() {
+            blocking = true;
+        }
+
+        void awaitBlocked() throws InterruptedException {
+            blocked.await();
+        }
+
+        void unblock() {
+            blocking = false;
+            released.countDown();
+        }
+
+        void failNext() {
+            failNext = true;
+        }
+
+        @Override
+        public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+            if (failNext) {
+                failNext = false;
+                throw new IllegalStateException("내역 저장 실패");
+            }
+            if (blocking) {
+                blocked.countDown();
+                try {
+                    released.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.insert(userId, amount, type, updateMillis);
+        }
+    }
+
+    private static class MemoryUserPointRepository implements UserPointRepository {
+
+        private final ConcurrentHashMap<Long, UserPoint> points = new ConcurrentHashMap<>();
+
+        @Override
+        public UserPoint selectById(long id) {
+            return points.getOrDefault(id, UserPoint.empty(id));
+        }
+
+        @Override
+        public UserPoint insertOrUpdate(long id, long amount) {
+            UserPoint userPoint = new UserPoint(id, amount, System.currentTimeMillis());
+            points.put(id, userPoint);
+            return userPoint;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+
+class OffHeapPointHistoryRepositoryTest {
+
+    private OffHeapPointHistoryRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new OffHeapPointHistoryRepository();
+    }
+
+    @DisplayName("내역을 저장하면 id 가 1부터 순서대로 발급되고, 회원별 내역을 저장된 순서대로 조회한다.")
+    @Test
+    void insert_shouldAssignIdsAndReturnUserHistoriesInOrder() {
+        // given
+        repository.insert(1L, 1000L, TransactionType.CHARGE, 10L);
+        repository.insert(2L, 2000L, TransactionType.CHARGE, 20L);
+        repository.insert(1L, 500L, TransactionType.USE, 30L);
+
+        // when
+        List<PointHistory> pointHistories = repository.selectAllByUserId(1L);
+
+        // then
+        assertThat(pointHistories)
+                .extracting("id", "userId", "amount", "type", "updateMillis")
+                .containsExactly(
+                        tuple(1L, 1L, 1000L, TransactionType.CHARGE, 10L),
+                        tuple(3L, 1L, 500L, TransactionType.USE, 30L)
+                );
+        assertThat(repository.selectAllByUserId(3L)).isEmpty();
+    }
+
+    @DisplayName("커서 이후의 내역 중 기간에 해당하는 내역만 최대 건수까지 조회한다.")
+    @Test
+    void selectByUserId_shouldFilterByCursorAndPeriod() {
+        // given
+        for (long millis = 1; millis <= 10; millis++) {
+            repository.insert(1L, millis * 100, TransactionType.CHARGE, millis);
+        }
+
+        // when
+        List<PointHistory> pointHistories = repository.selectByUserId(1L, 3L, 5L, 9L, 3);
+
+        // then
+        assertThat(pointHistories).extracting("id").containsExactly(5L, 6L, 7L);
+    }
+
+    @DisplayName("블록 경계를 넘어 저장된 내역도 전체 내역을 id 순서대로 조회한다.")
+    @Test
+    void forEach_shouldReadAcrossBlocksInIdOrder() {
+        // given
+        int count = OffHeapPointHistoryRepository.BLOCK_ROWS + 10;
+        for (int i = 0; i < count; i++) {
+            repository.insert(i % 2 + 1, 1000L, TransactionType.CHARGE, i);
+        }
+
+        // when
+        List<PointHistory> pointHistories = new ArrayList<>();
+        repository.forEach(count - 5, pointHistories::add);
+
+        // then
+        assertThat(pointHistories).extracting("id")
+                .containsExactly((long) count - 4, (long) count - 3, (long) count - 2, (long) count - 1, (long) count);
+        assertThat(repository.selectAllByUserId(1L)).hasSize(count / 2);
+    }
+
+    @DisplayName("저장하는 동안 블록 경계를 넘어도, 동시에 조회하는 스레드는 이미 저장된 내역을 빠짐없이 읽는다.")
+    @Test
+    void select_whileInsertingAcrossBlockBoundary_shouldReadStoredHistories() throws Exception {
+        // given
+        int count = OffHeapPointHistoryRepository.BLOCK_ROWS + 10_000;
+        AtomicBoolean done = new AtomicBoolean();
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread reader = new Thread(() -> {
+                while (!done.get()) {
+                    try {
+                        // 가장 최근에 저장된 내역만 읽어, 새 블록이 할당되는 순간과 자주 겹치게 한다.
+                        long afterId = repository.size() - 2L;
+                        assertContiguous(afterId, collect(action -> repository.forEach(afterId, action)));
+                        assertContiguous(afterId, collect(action -> repository.forEachByUserId(1L, afterId, action)));
+                        assertContiguous(afterId, repository.selectByUserId(1L, afterId, Long.MIN_VALUE, Long.MAX_VALUE, 10));
+                    } catch (Throwable e) {
+                        failures.add(e);
+                        return;
+                    }
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        // when
+        for (int i = 0; i < count; i++) {
+            repository.insert(1L, 1000L, TransactionType.CHARGE, i);
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        // then
+        assertThat(failures).isEmpty();
+        assertThat(repository.selectAllByUserId(1L)).hasSize(count);
+    }
+
+    @DisplayName("복구된 내역 이후에 저장하는 내역의 id 는 복구된 마지막 id 다음부터 발급된다.")
+    @Test
+    void insert_afterRestore_shouldContinueIds() {
+        // given
+        repository.restore(new PointHistory(7L, 1L, 1000L, TransactionType.CHARGE, 1L));
+
+        // when
+        PointHistory inserted = repository.insert(1L, 500L, TransactionType.USE, 2L);
+
+        // then
+        assertThat(inserted.id()).isEqualTo(8L);
+        List<PointHistory> exported = new ArrayList<>();
+        repository.forEachByUserId(1L, 0L, exported::add);
+        assertThat(exported).extracting("id").containsExactly(7L, 8L);
+    }
+
+    private static List<PointHistory> collect(Consumer<Consumer<PointHistory>> reader) {
+        List<PointHistory> pointHistories = new ArrayList<>();
+        reader.accept(pointHistories::add);
+        return pointHistories;
+    }
+
+    private static void assertContiguous(long afterId, List<PointHistory> pointHistories) {
+        for (int i = 0; i < pointHistories.size(); i++) {
+            assertThat(pointHistories.get(i).id()).isEqualTo(afterId + 1 + i);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PointHistoryIndexTest {
+
+    private PointHistoryIndex pointHistoryIndex;
+
+    @BeforeEach
+    void setUp() {
+        pointHistoryIndex = new PointHistoryIndex();
+    }
+
+    @DisplayName("회원별 내역을 저장된 순서대로 조회하고, 다른 회원의 내역은 포함하지 않는다.")
+    @Test
+    void findAllByUserId_shouldReturnOnlyUserHistories_inInsertOrder() {
+        // given
+        long updateMillis = System.currentTimeMillis();
+        pointHistoryIndex.add(new PointHistory(1L, 1L, 1000L, TransactionType.CHARGE, updateMillis));
+        pointHistoryIndex.add(new PointHistory(2L, 2L, 2000L, TransactionType.CHARGE, updateMillis));
+        pointHistoryIndex.add(new PointHistory(3L, 1L, 500L, TransactionType.USE, updateMillis));
+
+        // when
+        List<PointHistory> pointHistories = pointHistoryIndex.findAllByUserId(1L);
+
+        // then
+        assertThat(pointHistories)
+                .extracting("id", "userId", "amount", "type", "updateMillis")
+                .containsExactly(
+                        tuple(1L, 1L, 1000L, TransactionType.CHARGE, updateMillis),
+                        tuple(3L, 1L, 500L, TransactionType.USE, updateMillis)
+                );
+        assertThat(pointHistoryIndex.findAllByUserId(3L)).isEmpty();
+    }
+
+    @DisplayName("청크 경계를 넘어 저장된 내역도 순서대로 조회된다.")
+    @Test
+    void findAllByUserId_shouldReadAcrossChunks() {
+        // given
+        long userId = 1L;
+        int count = 1_000;
+        LongStream.rangeClosed(1, count)
+                .forEach(id -> pointHistoryIndex.add(new PointHistory(id, userId, id * 10, TransactionType.CHARGE, id)));
+
+        // when
+        List<PointHistory> pointHistories = pointHistoryIndex.findAllByUserId(userId);
+
+        // then
+        assertThat(pointHistories).hasSize(count);
+        assertThat(pointHistories).extracting("id")
+                .containsExactlyElementsOf(LongStream.rangeClosed(1, count).boxed().toList());
+        assertThat(pointHistoryIndex.countByUserId(userId)).isEqualTo(count);
+    }
+
+    @DisplayName("여러 회원의 내역이 동시에 저장되어도 회원별로 누락 없이 색인된다.")
+    @Test
+    void add_shouldIndexConcurrently_fromMultipleUsers() {
+        // given
+        int users = 8;
+        int perUser = 500;
+
+        // when
+        CompletableFuture.allOf(LongStream.rangeClosed(1, users)
+                .mapToObj(userId -> CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < perUser; i++) {
+                        pointHistoryIndex.add(new PointHistory(userId * perUser + i, userId, 1000L, TransactionType.CHARGE, i));
+                    }
+                }))
+                .toArray(CompletableFuture[]::new)
+        ).join();
+
+        // then
+        LongStream.rangeClosed(1, users)
+                .forEach(userId -> assertThat(pointHistoryIndex.findAllByUserId(userId)).hasSize(perUser));
+    }
+
+    @DisplayName("커서 이후의 내역 중 시간 범위에 포함되는 내역을 최대 limit 건 조회한다.")
+    @Test
+    void findByUserId_shouldReturnHistoriesAfterCursor_withinTimeRange() {
+        // given
+        long userId = 1L;
+        LongStream.rangeClosed(1, 100)
+                .forEach(id -> pointHistoryIndex.add(new PointHistory(id, userId, 1000L, TransactionType.CHARGE, id * 10)));
+
+        // when
+        List<PointHistory> afterCursor = pointHistoryIndex.findByUserId(userId, 40L, 0L, Long.MAX_VALUE, 3);
+        List<PointHistory> withinRange = pointHistoryIndex.findByUserId(userId, 0L, 505L, 550L, 10);
+
+        // then
+        assertThat(afterCursor).extracting("id").containsExactly(41L, 42L, 43L);
+        assertThat(withinRange).extracting("id").containsExactly(51L, 52L, 53L, 54L, 55L);
+    }
+
+    @DisplayName("전체 회원의 내역을 커서 이후부터 id 순서대로 하나씩 전달한다.")
+    @Test
+    void forEach_shouldVisitAllUsers_inIdOrder_afterCursor() {
+        // given
+        long updateMillis = System.currentTimeMillis();
+        LongStream.rangeClosed(1, 30)
+                .forEach(id -> pointHistoryIndex.add(new PointHistory(id, id % 3 + 1, 1000L, TransactionType.CHARGE, updateMillis)));
+        List<PointHistory> visited = new ArrayList<>();
+
+        // when
+        pointHistoryIndex.forEach(10L, visited::add);
+
+        // then
+        assertThat(visited).extracting("id")
+                .containsExactlyElementsOf(LongStream.rangeClosed(11, 30).boxed().toList());
+    }
+}
@@ -0,0 +1,197 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PointLotIndexTest {
+
+    private static final long TTL_MILLIS = 10_000L;
+    private static final long RESOLUTION_MILLIS = 1_000L;
+
+    private PointLotIndex pointLotIndex;
+
+    @BeforeEach
+    void setUp() {
+        pointLotIndex = new PointLotIndex(TTL_MILLIS, RESOLUTION_MILLIS, 0L);
+    }
+
+    @DisplayName("사용한 포인트는 먼저 만료되는 lot 부터 차감된다.")
+    @Test
+    void add_whenUse_shouldConsumeOldestLotFirst() {
+        // given
+        long userId = 1L;
+        pointLotIndex.add(new PointHistory(1L, userId, 1000L, TransactionType.CHARGE, 0L));
+        pointLotIndex.add(new PointHistory(2L, userId, 2000L, TransactionType.CHARGE, 5_000L));
+
+        // when
+        pointLotIndex.add(new PointHistory(3L, userId, 1500L, TransactionType.USE, 6_000L));
+
+        // then
+        assertThat(pointLotIndex.lotCount()).isEqualTo(1);
+        assertThat(pointLotIndex.remaining(userId)).isEqualTo(1500L);
+        assertThat(pointLotIndex.expirable(userId, TTL_MILLIS)).isZero();
+        assertThat(pointLotIndex.expirable(userId, 5_000L + TTL_MILLIS)).isEqualTo(1500L);
+    }
+
+    @DisplayName("같은 resolution 안에서 충전된 포인트는 하나의 lot 으로 합쳐진다.")
+    @Test
+    void add_whenChargedWithinResolution_shouldMergeLots() {
+        // given
+        long userId = 1L;
+
+        // when
+        pointLotIndex.add(new PointHistory(1L, userId, 1000L, TransactionType.CHARGE, 1L));
+        pointLotIndex.add(new PointHistory(2L, userId, 500L, TransactionType.CHARGE, 999L));
+        pointLotIndex.add(new PointHistory(3L, userId, 300L, TransactionType.CHARGE, 1_001L));
+
+        // then
+        assertThat(pointLotIndex.lotCount()).isEqualTo(2);
+        assertThat(pointLotIndex.expirable(userId, 1_000L + TTL_MILLIS)).isEqualTo(1500L);
+        assertThat(pointLotIndex.remaining(userId)).isEqualTo(1800L);
+    }
+
+    @DisplayName("lot 보다 많이 사용하면 남은 금액은 만료되지 않는 잔고에서 차감된 것으로 본다.")
+    @Test
+    void add_whenUseExceedsLots_shouldClearLots() {
+        // given
+        long userId = 1L;
+        pointLotIndex.add(new PointHistory(1L, userId, 1000L, TransactionType.CHARGE, 0L));
+
+        // when
+        pointLotIndex.add(new PointHistory(2L, userId, 3000L, TransactionType.USE, 0L));
+
+        // then
+        assertThat(pointLotIndex.remaining(userId)).isZero();
+        assertThat(pointLotIndex.lotCount()).isZero();
+    }
+
+    @DisplayName("회원은 가장 먼저 만료되는 lot 의 시각에 꺼내지고, reschedule 하면 다음 lot 의 시각에 다시 꺼내진다.")
+    @Test
+    void advance_shouldReturnUserAtHeadExpiry_andRescheduleToNextLot() {
+        // given
+        long userId = 1L;
+        pointLotIndex.add(new PointHistory(1L, userId, 1000L, TransactionType.CHARGE, 0L));
+        pointLotIndex.add(new PointHistory(2L, userId, 2000L, TransactionType.CHARGE, 3_000L));
+
+        // when // then
+        assertThat(pointLotIndex.advance(TTL_MILLIS - 1)).isEmpty();
+        assertThat(pointLotIndex.advance(TTL_MILLIS)).containsExactly(userId);
+
+        pointLotIndex.discardExpired(userId, TTL_MILLIS, 0L);
+        pointLotIndex.reschedule(userId);
+        assertThat(pointLotIndex.advance(3_000L + TTL_MILLIS - 1)).isEmpty();
+        assertThat(pointLotIndex.advance(3_000L + TTL_MILLIS)).containsExactly(userId);
+
+        pointLotIndex.discardExpired(userId, 3_000L + TTL_MILLIS, 0L);
+        pointLotIndex.reschedule(userId);
+        assertThat(pointLotIndex.lotCount()).isZero();
+        assertThat(pointLotIndex.advance(10 * TTL_MILLIS)).isEmpty();
+    }
+
+    @DisplayName("lot 이 모두 제거된 회원도 다시 충전하면 새 lot 으로 등록된다.")
+    @Test
+    void add_afterLotsRemoved_shouldScheduleAgain() {
+        // given
+        long userId = 1L;
+        pointLotIndex.add(new PointHistory(1L, userId, 1000L, TransactionType.CHARGE, 0L));
+        pointLotIndex.advance(TTL_MILLIS);
+        pointLotIndex.discardExpired(userId, TTL_MILLIS, 0L);
+        pointLotIndex.reschedule(userId);
+
+        // when
+        pointLotIndex.add(new PointHistory(2L, userId, 500L, TransactionType.CHARGE, TTL_MILLIS));
+
+        // then
+        assertThat(pointLotIndex.remaining(userId)).isEqualTo(500L);
+        assertThat(pointLotIndex.advance(2 * TTL_MILLIS)).containsExactly(userId);
+    }
+
+    @DisplayName("많은 회원의 lot 도 만료 시각에 모두 꺼내지고, 정리 후에는 lot 이 남지 않는다.")
+    @Test
+    void advance_withManyUsers_shouldReturnEveryUserOnce() {
+        // given
+        int users = 100_000;
+        for (long userId = 1; userId <= users; userId++) {
+            pointLotIndex.add(new PointHistory(userId, userId, 100L, TransactionType.CHARGE, userId % TTL_MILLIS));
+        }
+
+        // when
+        long[] expired = pointLotIndex.advance(2 * TTL_MILLIS);
+        for (long userId : expired) {
+            pointLotIndex.discardExpired(userId, 2 * TTL_MILLIS, 0L);
+            pointLotIndex.reschedule(userId);
+        }
+
+        // then
+        assertThat(expired).hasSize(users).doesNotHaveDuplicates();
+        assertThat(pointLotIndex.lotCount()).isZero();
+    }
+
+    @DisplayName("만료된 lot 을 버릴 때 keepAmount 만큼은 남기고, 다시 등록하면 다음 tick 에 꺼내진다.")
+    @Test
+    void discardExpired_withKeepAmount_shouldKeepExpiredRemainder() {
+        // given
+        long userId = 1L;
+        pointLotIndex.add(new PointHistory(1L, userId, 1000L, TransactionType.CHARGE, 0L));
+        pointLotIndex.add(new PointHistory(2L, userId, 2000L, TransactionType.CHARGE, 3_000L));
+        pointLotIndex.advance(TTL_MILLIS);
+
+        // when
+        pointLotIndex.discardExpired(userId, TTL_MILLIS, 300L);
+        pointLotIndex.reschedule(userId);
+
+        // then
+        assertThat(pointLotIndex.expirable(userId, TTL_MILLIS)).isEqualTo(300L);
+        assertThat(pointLotIndex.remaining(userId)).isEqualTo(2300L);
+        assertThat(pointLotIndex.lotCount()).isEqualTo(2);
+        assertThat(pointLotIndex.advance(TTL_MILLIS + RESOLUTION_MILLIS)).containsExactly(userId);
+    }
+
+    @DisplayName("이체로 옮긴 lot 은 충전으로 추가된 lot 을 대신해 보낸 회원의 만료 시각에 꺼내진다.")
+    @Test
+    void carryOver_shouldReplaceChargedLotWithSenderLots() {
+        // given
+        long fromUserId = 1L;
+        long toUserId = 2L;
+        pointLotIndex.add(new PointHistory(1L, fromUserId, 1000L, TransactionType.CHARGE, 0L));
+        pointLotIndex.add(new PointHistory(2L, toUserId, 500L, TransactionType.CHARGE, 5_000L));
+
+        // when
+        long[] carriedLots = pointLotIndex.oldestLots(fromUserId, 600L);
+        pointLotIndex.add(new PointHistory(3L, fromUserId, 600L, TransactionType.USE, 6_000L));
+        pointLotIndex.add(new PointHistory(4L, toUserId, 600L, TransactionType.CHARGE, 6_000L));
+        pointLotIndex.carryOver(toUserId, 600L, carriedLots);
+
+        // then
+        assertThat(carriedLots).containsExactly(TTL_MILLIS, 600L);
+        assertThat(pointLotIndex.remaining(toUserId)).isEqualTo(1100L);
+        assertThat(pointLotIndex.expirable(toUserId, TTL_MILLIS)).isEqualTo(600L);
+        assertThat(pointLotIndex.advance(TTL_MILLIS)).containsExactlyInAnyOrder(fromUserId, toUserId);
+    }
+
+    @DisplayName("더 이른 시각으로 다시 등록된 회원의 이전 항목은 꺼내지 않는다.")
+    @Test
+    void advance_shouldSkipStaleEntries() {
+        // given
+        long userId = 1L;
+        pointLotIndex.add(new PointHistory(1L, userId, 500L, TransactionType.CHARGE, 5_000L));
+        pointLotIndex.carryOver(userId, 0L, new long[]{TTL_MILLIS, 300L});
+        pointLotIndex.advance(TTL_MILLIS);
+        pointLotIndex.discardExpired(userId, TTL_MILLIS, 0L);
+        pointLotIndex.reschedule(userId);
+
+        // when
+        long[] due = pointLotIndex.advance(5_000L + TTL_MILLIS);
+
+        // then
+        assertThat(due).containsExactly(userId);
+        pointLotIndex.discardExpired(userId, 5_000L + TTL_MILLIS, 0L);
+        pointLotIndex.reschedule(userId);
+        assertThat(pointLotIndex.advance(10 * TTL_MILLIS)).isEmpty();
+    }
+}
@@ -0,0 +1,73 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointRank;
+import io.hhplus.tdd.point.UserPoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PointRankingIndexTest {
+
+    @DisplayName("잔고가 바뀌면 회원의 순위가 이동하고, 잔고가 같으면 id 가 작은 회원이 앞선다.")
+    @Test
+    void update_shouldMoveUserToNewRank() {
+        // given
+        PointRankingIndex pointRankingIndex = new PointRankingIndex(true);
+        pointRankingIndex.update(new UserPoint(1L, 1000L, 0L));
+        pointRankingIndex.update(new UserPoint(2L, 500L, 0L));
+        pointRankingIndex.update(new UserPoint(3L, 500L, 0L));
+
+        // when
+        pointRankingIndex.update(new UserPoint(1L, 100L, 0L));
+
+        // then
+        assertThat(pointRankingIndex.top(10)).containsExactly(
+                new PointRank(1L, 2L, 500L),
+                new PointRank(2L, 3L, 500L),
+                new PointRank(3L, 1L, 100L)
+        );
+        assertThat(pointRankingIndex.findByUserId(1L)).isEqualTo(new PointRank(3L, 1L, 100L));
+        assertThat(pointRankingIndex.findByUserId(4L)).isNull();
+        assertThat(pointRankingIndex.size()).isEqualTo(3);
+    }
+
+    @DisplayName("여러 스레드가 동시에 잔고를 반영해도, 회원별 마지막 잔고로 순위가 매겨진다.")
+    @Test
+    void update_concurrently_shouldKeepLatestPointPerUser() throws Exception {
+        // given
+        PointRankingIndex pointRankingIndex = new PointRankingIndex(true);
+        int users = 1_000;
+        int updatesPerUser = 50;
+        List<Callable<Void>> updaters = new ArrayList<>();
+        for (long userId = 1; userId <= users; userId++) {
+            long id = userId;
+            // 회원별 변경은 순서대로 반영하고, 마지막 잔고는 id * 10 이다.
+            updaters.add(() -> {
+                for (int i = 1; i <= updatesPerUser; i++) {
+                    pointRankingIndex.update(new UserPoint(id, i == updatesPerUser ? id * 10 : i, 0L));
+                }
+                return null;
+            });
+        }
+
+        // when
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            executor.invokeAll(updaters);
+        }
+
+        // then
+        assertThat(pointRankingIndex.size()).isEqualTo(users);
+        List<PointRank> top = pointRankingIndex.top(users);
+        for (int i = 0; i < users; i++) {
+            long userId = users - i;
+            assertThat(top.get(i)).isEqualTo(new PointRank(i + 1, userId, userId * 10));
+        }
+    }
+}
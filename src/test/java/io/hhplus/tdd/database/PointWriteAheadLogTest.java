@@ -0,0 +1,319 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PointWriteAheadLogTest {
+
+    private static final long SEGMENT_SIZE = PointWriteAheadLog.RECORD_SIZE * 4L;
+    private static final long NO_SCHEDULED_SNAPSHOT = 0L;
+
+    @TempDir
+    Path directory;
+
+    @DisplayName("종료 후 다시 열면, 기록된 내역과 회원별 최신 잔고가 복구된다.")
+    @Test
+    void reopen_shouldRecoverHistoriesAndBalances() throws IOException {
+        // given
+        PointWriteAheadLog wal = new PointWriteAheadLog(directory, SEGMENT_SIZE, NO_SCHEDULED_SNAPSHOT);
+        wal.appendHistory(new PointHistory(1L, 1L, 1000L, TransactionType.CHARGE, 1L));
+        wal.appendHistory(new PointHistory(2L, 2L, 2000L, TransactionType.CHARGE, 2L));
+        wal.awaitDurable(wal.appendHistory(new PointHistory(3L, 1L, 300L, TransactionType.USE, 3L)));
+        wal.close();
+
+        // when
+        PointWriteAheadLog reopened = new PointWriteAheadLog(directory, SEGMENT_SIZE, NO_SCHEDULED_SNAPSHOT);
+        List<PointHistory> histories = new ArrayList<>();
+        reopened.forEachHistory(histories::add);
+
+        // then
+        assertThat(histories)
+                .extracting("id", "userId", "amount", "type")
+                .containsExactly(
+                        tuple(1L, 1L, 1000L, TransactionType.CHARGE),
+                        tuple(2L, 2L, 2000L, TransactionType.CHARGE),
+                        tuple(3L, 1L, 300L, TransactionType.USE)
+                );
+        assertThat(reopened.balances().get(1L).point()).isEqualTo(700L);
+        assertThat(reopened.balances().get(2L).point()).isEqualTo(2000L);
+        reopened.close();
+    }
+
+    @DisplayName("정상 종료 없이 다시 열어도, 디스크에 반영된 기록은 스냅샷 이후의 로그로 복구된다.")
+    @Test
+    void reopen_withoutClose_shouldReplayLogAfterSnapshot() throws IOException {
+        // given
+        PointWriteAheadLog wal = new PointWriteAheadLog(directory, SEGMENT_SIZE, NO_SCHEDULED_SNAPSHOT);
+        wal.appendHistory(new PointHistory(1L, 1L, 1000L, TransactionType.CHARGE, 1L));
+        wal.snapshot();
+        wal.appendHistory(new PointHistory(2L, 1L, 2000L, TransactionType.CHARGE, 2L));
+        wal.awaitDurable(wal.appendHistory(new PointHistory(3L, 2L, 500L, TransactionType.CHARGE, 3L)));
+
+        // when
+        PointWriteAheadLog reopened = new PointWriteAheadLog(directory, SEGMENT_SIZE, NO_SCHEDULED_SNAPSHOT);
+
+        // then
+        assertThat(reopened.balances().get(1L).point()).isEqualTo(3000L);
+        assertThat(reopened.balances().get(2L).point()).isEqualTo(500L);
+        reopened.close();
+    }
+
+    @DisplayName("기록 도중 손상된 레코드가 있으면, 마지막으로 온전한 레코드까지만 복구하고 그 위치부터 이어서 기록한다.")
+    @Test
+    void reopen_withTornRecord_shouldRecoverUntilLastValidRecord() throws IOException {
+        // given
+        PointWriteAheadLog wal = new PointWriteAheadLog(directory, SEGMENT_SIZE, NO_SCHEDULED_SNAPSHOT);
+        wal.appendHistory(new PointHistory(1L, 1L, 1000L, TransactionType.CHARGE, 1L));
+        wal.awaitDurable(wal.appendHistory(new PointHistory(2L, 1L, 2000L, TransactionType.CHARGE, 2L)));
+        corrupt(segment(), PointWriteAheadLog.RECORD_SIZE + 20);
+
+        // when
+        PointWriteAheadLog reopened = new PointWriteAheadLog(directory, SEGMENT_SIZE, NO_SCHEDULED_SNAPSHOT);
+        reopened.awaitDurable(reopened.appendHistory(new PointHistory(3L, 1L, 3000L, TransactionType.CHARGE, 3L)));
+        List<PointHistory> histories = new ArrayList<>();
+        reopened.forEachHistory(histories::add);
+
+        // then
+        assertThat(histories).extracting("id").containsExactly(1L, 3L);
+        assertThat(reopened.balances().get(1L).point()).isEqualTo(4000L);
+        reopened.close();
+    }
+
+    @DisplayName("세그먼트가 가득 차면 다음 세그먼트에 이어서 기록한다.")
+    @Test
+    void append_shouldRollOverToNextSegment() throws IOException {
+        // given
+        PointWriteAheadLog wal = new PointWriteAheadLog(directory, SEGMENT_SIZE, NO_SCHEDULED_SNAPSHOT);
+
+        // when
+        long last = 0;
+        for (long id = 1; id <= 10; id++) {
+            last = wal.appendHistory(new PointHistory(id, 1L, 1000L, TransactionType.CHARGE, id));
+        }
+        wal.awaitDurable(last);
+
+        // then
+        assertThat(segmentCount()).isEqualTo(3);
+        wal.close();
+
+        PointWriteAheadLog reopened = new PointWriteAheadLog(directory, SEGMENT_SIZE, NO_SCHEDULED_SNAPSHOT);
+        List<PointHistory> histories = new ArrayList<>();
+        reopened.forEachHistory(histories::add);
+        assertThat(histories).hasSize(10);
+        reopened.close();
+    }
+
+    @DisplayName("스냅샷 이전의 기록만 담긴 세그먼트는 삭제되고, 그 안의 내역은 보관 파일로 옮겨져 다시 열어도 중복 없이 복구된다.")
+    @Test
+    void snapshot_shouldDeleteCoveredSegmentsAndKeepHistories() throws IOException {
+        // given
+        PointWriteAheadLog wal = new PointWriteAheadLog(directory, SEGMENT_SIZE, NO_SCHEDULED_SNAPSHOT);
+        for (long id = 1; id <= 5; id++) {
+            wal.appendHistory(new PointHistory(id, 1L, 1000L, TransactionType.CHARGE, id));
+        }
+        wal.awaitDurable(wal.appendHistory(new PointHistory(6L, 2L, 500L, TransactionType.CHARGE, 6L)));
+        assertThat(segmentCount()).isEqualTo(2);
+
+        // when
+        wal.snapshot();
+
+        // then
+        assertThat(segmentCount()).isEqualTo(1);
+        assertThat(directory.resolve("history.archive")).exists();
+
+        wal.awaitDurable(wal.appendHistory(new PointHistory(7L, 1L, 1000L, TransactionType.CHARGE, 7L)));
+
+        // 정상 종료 없이 다시 열고, 다시 한 번 스냅샷을 저장해도 이미 옮긴 내역은 중복되지 않는다.
+        PointWriteAheadLog reopened = new PointWriteAheadLog(directory, SEGMENT_SIZE, NO_SCHEDULED_SNAPSHOT);
+        for (long id = 8; id <= 10; id++) {
+            reopened.appendHistory(new PointHistory(id, 1L, 1000L, TransactionType.CHARGE, id + 1));
+        }
+        reopened.close();
+
+        PointWriteAheadLog recovered = new PointWriteAheadLog(directory, SEGMENT_SIZE, NO_SCHEDULED_SNAPSHOT);
+        List<PointHistory> histories = new ArrayList<>();
+        recovered.forEachHistory(histories::add);
+        assertThat(histories).extracting("id").containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+        assertThat(recovered.balances().get(1L).point()).isEqualTo(9000L);
+        assertThat(recovered.balances().get(2L).point()).isEqualTo(500L);
+        recovered.close();
+    }
+
+    @DisplayName("보관 파일 끝에 옮기다 중단된 레코드가 있으면, 온전한 내역까지만 복구하고 잘라낸다.")
+    @Test
+    void reopen_withTornArchive_shouldTruncateArchive() throws IOException {
+        // given
+        PointWriteAheadLog wal = new PointWriteAheadLog(directory, SEGMENT_SIZE, NO_SCHEDULED_SNAPSHOT);
+        long last = 0;
+        for (long id = 1; id <= 9; id++) {
+            last = wal.appendHistory(new PointHistory(id, 1L, 1000L, TransactionType.CHARGE, id));
+        }
+        wal.awaitDurable(last);
+        wal.close();
+        Path archive = directory.resolve("history.archive");
+        try (RandomAccessFile raf = new RandomAccessFile(archive.toFile(), "rw")) {
+            raf.setLength(raf.length() + PointWriteAheadLog.RECORD_SIZE / 2);
+        }
+
+        // when
+        PointWriteAheadLog reopened = new PointWriteAheadLog(directory, SEGMENT_SIZE, NO_SCHEDULED_SNAPSHOT);
+        List<PointHistory> histories = new ArrayList<>();
+        reopened.forEachHistory(histories::add);
+
+        // then
+        assertThat(histories).extracting("id").containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L);
+        assertThat(Files.size(archive) % PointWriteAheadLog.RECORD_SIZE).isZero();
+        reopened.close();
+    }
+
+    @DisplayName("재시작 후 저장소는 로그에서 복구한 잔고와 내역으로 응답하고, 새 내역의 id 는 복구된 id 다음부터 이어진다.")
+    @Test
+    void repositories_afterRestart_shouldServeRecoveredData() throws Exception {
+        // given
+        PointWriteAheadLog wal = new PointWriteAheadLog(directory, SEGMENT_SIZE, NO_SCHEDULED_SNAPSHOT);
+        WalPointHistoryRepository historyRepository = new WalPointHistoryRepository(new IndexedPointHistoryRepository(new PointHistoryTable()), wal);
+        WalUserPointRepository userPointRepository = new WalUserPointRepository(new UserPointTableRepository(new UserPointTable()), wal);
+        historyRepository.insert(1L, 1000L, TransactionType.CHARGE, 1L);
+        historyRepository.insert(1L, 2000L, TransactionType.CHARGE, 2L);
+        userPointRepository.insertOrUpdate(1L, 3000L);
+        wal.close();
+
+        // when
+        PointWriteAheadLog reopened = new PointWriteAheadLog(directory, SEGMENT_SIZE, NO_SCHEDULED_SNAPSHOT);
+        IndexedPointHistoryRepository restored = new IndexedPointHistoryRepository(new PointHistoryTable());
+        reopened.forEachHistory(restored::restore);
+        WalPointHistoryRepository reopenedHistoryRepository = new WalPointHistoryRepository(restored, reopened);
+        WalUserPointRepository reopenedUserPointRepository = new WalUserPointRepository(new UserPointTableRepository(new UserPointTable()), reopened);
+        PointHistory inserted = reopenedHistoryRepository.insert(1L, 500L, TransactionType.USE, 3L);
+
+        // then
+        assertThat(reopenedUserPointRepository.selectById(1L).point()).isEqualTo(3000L);
+        assertThat(inserted.id()).isEqualTo(3L);
+        assertThat(reopenedHistoryRepository.selectAllByUserId(1L))
+                .extracting("id", "amount", "type")
+                .containsExactly(
+                        tuple(1L, 1000L, TransactionType.CHARGE),
+                        tuple(2L, 2000L, TransactionType.CHARGE),
+                        tuple(3L, 500L, TransactionType.USE)
+                );
+        reopened.close();
+    }
+
+    @DisplayName("잔고를 먼저 쓰고 내역을 쓴 뒤 디스크에 반영되지 않은 기록을 잃고 재시작해도, 복구된 잔고와 내역이 일치한다.")
+    @Test
+    void repositories_afterCrash_shouldRecoverConsistentBalanceAndHistories() throws Exception {
+        // given
+        Path live = Files.createDirectory(directory.resolve("live"));
+        PointWriteAheadLog wal = new PointWriteAheadLog(live, SEGMENT_SIZE, NO_SCHEDULED_SNAPSHOT);
+        WalPointHistoryRepository historyRepository = new WalPointHistoryRepository(new IndexedPointHistoryRepository(new PointHistoryTable()), wal);
+        WalUserPointRepository userPointRepository = new WalUserPointRepository(new UserPointTableRepository(new UserPointTable()), wal);
+
+        // PointUnitOfWork.commit 과 같은 순서로 잔고를 먼저 쓰고 내역을 쓴다.
+        for (long point = 1000L; point <= 5000L; point += 1000L) {
+            userPointRepository.insertOrUpdate(1L, point);
+            historyRepository.insert(1L, 1000L, TransactionType.CHARGE, point);
+        }
+
+        // when
+        Path crashed = crashImage(live, wal.durableSequence());
+        PointWriteAheadLog reopened = new PointWriteAheadLog(crashed, SEGMENT_SIZE, NO_SCHEDULED_SNAPSHOT);
+        List<PointHistory> histories = new ArrayList<>();
+        reopened.forEachHistory(histories::add);
+
+        // then
+        assertThat(histories).hasSize(5);
+        assertThat(reopened.balances().get(1L).point())
+                .isEqualTo(histories.stream().mapToLong(PointHistory::amount).sum());
+        reopened.close();
+        wal.close();
+    }
+
+    @DisplayName("잔고를 쓴 뒤 내역을 기록하기 전에 중단된 작업 단위는, 재시작 후 잔고도 복구되지 않아 잔고와 내역이 일치한다.")
+    @Test
+    void repositories_afterCrashWithinUnit_shouldDiscardTornUnit() throws Exception {
+        // given
+        Path live = Files.createDirectory(directory.resolve("live"));
+        PointWriteAheadLog wal = new PointWriteAheadLog(live, SEGMENT_SIZE, NO_SCHEDULED_SNAPSHOT);
+        WalPointHistoryRepository historyRepository = new WalPointHistoryRepository(new IndexedPointHistoryRepository(new PointHistoryTable()), wal);
+        WalUserPointRepository userPointRepository = new WalUserPointRepository(new UserPointTableRepository(new UserPointTable()), wal);
+        for (long point = 1000L; point <= 3000L; point += 1000L) {
+            userPointRepository.insertOrUpdate(1L, point);
+            historyRepository.insert(1L, 1000L, TransactionType.CHARGE, point);
+        }
+        long durableSequence = wal.durableSequence();
+
+        // 네 번째 작업 단위는 잔고만 쓰고, 내역을 쓰기 전에 중단된다.
+        userPointRepository.insertOrUpdate(1L, 4000L);
+
+        // when
+        Path crashed = crashImage(live, wal.durableSequence());
+        PointWriteAheadLog reopened = new PointWriteAheadLog(crashed, SEGMENT_SIZE, NO_SCHEDULED_SNAPSHOT);
+        List<PointHistory> histories = new ArrayList<>();
+        reopened.forEachHistory(histories::add);
+
+        // then
+        assertThat(wal.durableSequence()).isEqualTo(durableSequence);
+        assertThat(histories).hasSize(3);
+        assertThat(reopened.balances().get(1L).point()).isEqualTo(3000L);
+        reopened.close();
+        wal.close();
+    }
+
+    /**
+     * 디스크에 반영된 sequence 까지의 레코드만 남긴 로그 복사본을 만든다. 반영되지 않은 레코드는 기록되지 않은 영역으로 지운다.
+     */
+    private Path crashImage(Path source, long durableSequence) throws IOException {
+        Path target = Files.createDirectory(directory.resolve("crashed"));
+        try (Stream<Path> files = Files.list(source)) {
+            for (Path file : files.toList()) {
+                Path copy = Files.copy(file, target.resolve(file.getFileName()));
+                String name = file.getFileName().toString();
+                if (!name.startsWith("wal-") || !name.endsWith(".log")) {
+                    continue;
+                }
+
+                long firstSequence = Long.parseLong(name.substring("wal-".length(), name.length() - ".log".length()));
+                try (RandomAccessFile raf = new RandomAccessFile(copy.toFile(), "rw")) {
+                    long from = Math.max(0, durableSequence + 1 - firstSequence) * PointWriteAheadLog.RECORD_SIZE;
+                    if (from < raf.length()) {
+                        raf.seek(from);
+                        raf.write(new byte[(int) (raf.length() - from)]);
+                    }
+                }
+            }
+        }
+        return target;
+    }
+
+    private Path segment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".log")).findFirst().orElseThrow();
+        }
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".log")).count();
+        }
+    }
+
+    private void corrupt(Path file, long position) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(position);
+            raf.writeByte(raf.readByte() ^ 0xFF);
+        }
+    }
+}
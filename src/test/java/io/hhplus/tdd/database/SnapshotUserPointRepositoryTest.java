@@ -0,0 +1,111 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.VersionedUserPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SnapshotUserPointRepositoryTest {
+
+    private UserPointRepository delegate;
+    private UserPointSnapshot userPointSnapshot;
+    private SnapshotUserPointRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(UserPointRepository.class);
+        userPointSnapshot = new UserPointSnapshot(true);
+        repository = new SnapshotUserPointRepository(delegate, userPointSnapshot);
+    }
+
+    @DisplayName("게시되지 않은 회원은 저장소에서 읽어 버전 0 으로 채우고, 이후 조회는 스냅샷에서 응답한다.")
+    @Test
+    void selectById_shouldLoadOnce_thenReadSnapshot() {
+        // given
+        long userId = 1L;
+        when(delegate.selectById(userId)).thenReturn(new UserPoint(userId, 1000L, 1L));
+
+        // when
+        repository.selectById(userId);
+        VersionedUserPoint versioned = userPointSnapshot.read(userId, delegate::selectById);
+
+        // then
+        assertThat(versioned.userPoint().point()).isEqualTo(1000L);
+        assertThat(versioned.version()).isZero();
+        verify(delegate, times(1)).selectById(userId);
+    }
+
+    @DisplayName("잔고를 저장할 때마다, 저장된 잔고가 다음 버전으로 게시된다.")
+    @Test
+    void insertOrUpdate_shouldPublishNextVersion() {
+        // given
+        long userId = 1L;
+        when(delegate.insertOrUpdate(userId, 1000L)).thenReturn(new UserPoint(userId, 1000L, 1L));
+        when(delegate.insertOrUpdate(userId, 3000L)).thenReturn(new UserPoint(userId, 3000L, 2L));
+
+        // when
+        repository.insertOrUpdate(userId, 1000L);
+        repository.insertOrUpdate(userId, 3000L);
+
+        // then
+        VersionedUserPoint versioned = userPointSnapshot.read(userId, delegate::selectById);
+        assertThat(versioned.userPoint())
+                .extracting("point", "updateMillis")
+                .containsExactly(3000L, 2L);
+        assertThat(versioned.version()).isEqualTo(2L);
+        verify(delegate, never()).selectById(userId);
+    }
+
+    @DisplayName("잔고 저장이 끝나지 않은 동안에도, 조회는 기다리지 않고 이전에 게시된 잔고를 반환한다.")
+    @Test
+    void selectById_whileWriting_shouldReturnPublishedPoint() throws Exception {
+        // given
+        long userId = 1L;
+        when(delegate.insertOrUpdate(userId, 1000L)).thenReturn(new UserPoint(userId, 1000L, 1L));
+        repository.insertOrUpdate(userId, 1000L);
+
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.insertOrUpdate(userId, 2000L)).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return new UserPoint(userId, 2000L, 2L);
+        });
+        CompletableFuture<UserPoint> write = CompletableFuture.supplyAsync(() -> repository.insertOrUpdate(userId, 2000L));
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // when
+        UserPoint duringWrite = repository.selectById(userId);
+        release.countDown();
+        write.get(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(duringWrite.point()).isEqualTo(1000L);
+        assertThat(repository.selectById(userId).point()).isEqualTo(2000L);
+    }
+
+    @DisplayName("저장소에서 읽는 사이 새 잔고가 게시되면, 읽어온 이전 값으로 덮어쓰지 않는다.")
+    @Test
+    void read_whenPublishedWhileLoading_shouldKeepPublishedPoint() {
+        // given
+        long userId = 1L;
+
+        // when
+        VersionedUserPoint versioned = userPointSnapshot.read(userId, id -> {
+            userPointSnapshot.publish(new UserPoint(id, 2000L, 2L));
+            return new UserPoint(id, 1000L, 1L);
+        });
+
+        // then
+        assertThat(versioned.userPoint().point()).isEqualTo(2000L);
+        assertThat(versioned.version()).isEqualTo(1L);
+    }
+}
@@ -0,0 +1,202 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class WriteBehindUserPointRepositoryTest {
+
+    private static final long NO_SCHEDULED_FLUSH = 60 * 60 * 1000L;
+
+    private UserPointRepository delegate;
+    private WriteBehindUserPointRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(UserPointRepository.class);
+        repository = new WriteBehindUserPointRepository(delegate, 100, NO_SCHEDULED_FLUSH, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    @DisplayName("캐시에 없는 회원은 저장소에서 읽어오고, 이후 조회는 메모리에서 응답한다.")
+    @Test
+    void selectById_shouldReadThrough_thenHitCache() {
+        // given
+        long userId = 1L;
+        when(delegate.selectById(userId)).thenReturn(new UserPoint(userId, 1000L, System.currentTimeMillis()));
+
+        // when
+        repository.selectById(userId);
+        UserPoint userPoint = repository.selectById(userId);
+
+        // then
+        assertThat(userPoint.point()).isEqualTo(1000L);
+        verify(delegate, times(1)).selectById(userId);
+        assertThat(repository.stats())
+                .extracting("hitCount", "missCount", "hitRate")
+                .containsExactly(1L, 1L, 0.5);
+    }
+
+    @DisplayName("같은 회원에 대한 여러 번의 변경은 마지막 값 한 번의 쓰기로 합쳐진다.")
+    @Test
+    void flush_shouldCoalesceUpdates_withSameId() {
+        // given
+        long userId = 1L;
+        repository.insertOrUpdate(userId, 1000L);
+        repository.insertOrUpdate(userId, 2000L);
+        repository.insertOrUpdate(userId, 3000L);
+
+        // when
+        repository.flush(0);
+
+        // then
+        verify(delegate, times(1)).insertOrUpdate(anyLong(), anyLong());
+        verify(delegate).insertOrUpdate(userId, 3000L);
+        assertThat(repository.selectById(userId).point()).isEqualTo(3000L);
+        assertThat(repository.stats().dirtyCount()).isZero();
+    }
+
+    @DisplayName("종료 시, 아직 반영되지 않은 변경분을 저장소에 기록한다.")
+    @Test
+    void close_shouldFlushDirtyEntries() {
+        // given
+        repository.insertOrUpdate(1L, 1000L);
+        repository.insertOrUpdate(2L, 2000L);
+
+        // when
+        repository.close();
+
+        // then
+        verify(delegate).insertOrUpdate(1L, 1000L);
+        verify(delegate).insertOrUpdate(2L, 2000L);
+    }
+
+    @DisplayName("최대 크기를 넘으면 반영이 끝난 항목만 제거하고, 반영 전 항목은 유지한다.")
+    @Test
+    void evict_shouldRemoveOnlyCleanEntries() {
+        // given
+        WriteBehindUserPointRepository smallRepository = new WriteBehindUserPointRepository(delegate, 2, NO_SCHEDULED_FLUSH, 1);
+        when(delegate.selectById(anyLong())).thenAnswer(invocation -> UserPoint.empty(invocation.getArgument(0)));
+
+        // when
+        smallRepository.insertOrUpdate(1L, 1000L);
+        smallRepository.insertOrUpdate(2L, 2000L);
+        smallRepository.selectById(3L);
+        smallRepository.selectById(4L);
+
+        // then
+        assertThat(smallRepository.stats().size()).isEqualTo(2);
+        assertThat(smallRepository.selectById(1L).point()).isEqualTo(1000L);
+        assertThat(smallRepository.selectById(2L).point()).isEqualTo(2000L);
+        verify(delegate, never()).selectById(1L);
+        verify(delegate, never()).selectById(2L);
+        smallRepository.close();
+    }
+
+    @DisplayName("모든 항목이 반영 전이면 최대 크기를 넘어도 제거하지 않고, 반영이 끝난 뒤의 쓰기에서 최대 크기까지만 제거한다.")
+    @Test
+    void evict_whenAllEntriesDirty_shouldWaitForFlush() {
+        // given
+        WriteBehindUserPointRepository smallRepository = new WriteBehindUserPointRepository(delegate, 2, NO_SCHEDULED_FLUSH, 1);
+        smallRepository.insertOrUpdate(1L, 1000L);
+        smallRepository.insertOrUpdate(2L, 2000L);
+        smallRepository.insertOrUpdate(3L, 3000L);
+        assertThat(smallRepository.stats().size()).isEqualTo(3);
+
+        // when
+        smallRepository.flush(0);
+        smallRepository.insertOrUpdate(4L, 4000L);
+
+        // then
+        assertThat(smallRepository.stats().size()).isEqualTo(2);
+        assertThat(smallRepository.selectById(4L).point()).isEqualTo(4000L);
+        verify(delegate, never()).selectById(4L);
+        smallRepository.close();
+    }
+
+    @DisplayName("저장소에서 읽는 사이 변경이 flush 후 제거되면, 오래된 값을 캐시에 넣지 않고 다시 읽는다.")
+    @Test
+    void selectById_whenEvictedDuringLoad_shouldReload() throws Exception {
+        // given
+        long userId = 1L;
+        WriteBehindUserPointRepository smallRepository = new WriteBehindUserPointRepository(delegate, 1, NO_SCHEDULED_FLUSH, 1);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.selectById(userId))
+                .thenAnswer(invocation -> {
+                    loading.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return new UserPoint(userId, 1000L, 0L);
+                })
+                .thenReturn(new UserPoint(userId, 2000L, 0L));
+        CompletableFuture<UserPoint> read = CompletableFuture.supplyAsync(() -> smallRepository.selectById(userId));
+        loading.await(5, TimeUnit.SECONDS);
+
+        // when
+        // 조회가 끝나기 전에 변경이 flush 되고, 다른 회원의 변경으로 최대 크기를 넘어 제거된다.
+        smallRepository.insertOrUpdate(userId, 2000L);
+        smallRepository.flush(0);
+        smallRepository.insertOrUpdate(2L, 500L);
+        release.countDown();
+
+        // then
+        assertThat(read.get(5, TimeUnit.SECONDS).point()).isEqualTo(2000L);
+        assertThat(smallRepository.selectById(userId).point()).isEqualTo(2000L);
+        smallRepository.close();
+    }
+
+    @DisplayName("flush 에 실패한 변경은 이번 flush 를 끝낸 뒤, 다음 flush 에서 다시 기록한다.")
+    @Test
+    void flush_whenDelegateFails_shouldRetryOnNextFlush() {
+        // given
+        long userId = 1L;
+        when(delegate.insertOrUpdate(userId, 1000L))
+                .thenThrow(new IllegalStateException("저장 실패"))
+                .thenReturn(new UserPoint(userId, 1000L, 0L));
+        repository.insertOrUpdate(userId, 1000L);
+
+        // when
+        repository.flush(0);
+
+        // then
+        verify(delegate, times(1)).insertOrUpdate(userId, 1000L);
+        assertThat(repository.stats().dirtyCount()).isEqualTo(1);
+
+        repository.flush(0);
+        verify(delegate, times(2)).insertOrUpdate(userId, 1000L);
+        assertThat(repository.stats().dirtyCount()).isZero();
+    }
+
+    @DisplayName("적중률과 flush 지연을 gauge 로 등록한다.")
+    @Test
+    void bindTo_shouldRegisterCacheGauges() {
+        // given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        when(delegate.selectById(1L)).thenReturn(UserPoint.empty(1L));
+        repository.bindTo(meterRegistry);
+
+        // when
+        repository.selectById(1L);
+        repository.selectById(1L);
+        repository.insertOrUpdate(2L, 1000L);
+
+        // then
+        assertThat(meterRegistry.get("point.cache.hit.ratio").gauge().value()).isEqualTo(0.5);
+        assertThat(meterRegistry.get("point.cache.dirty").gauge().value()).isEqualTo(1.0);
+        assertThat(meterRegistry.find("point.cache.flush.lag").gauge()).isNotNull();
+    }
+}
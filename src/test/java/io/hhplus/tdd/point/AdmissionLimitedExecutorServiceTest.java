@@ -0,0 +1,52 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.UserPointException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AdmissionLimitedExecutorServiceTest {
+
+    @DisplayName("실행 중인 작업이 허용량만큼 있으면, 다음 작업은 기다리지 않고 503 으로 거절되고 작업이 끝나면 다시 받는다.")
+    @Test
+    void execute_whenInFlightExceeded_thenRejectUntilCompleted() throws Exception {
+        // given
+        AdmissionLimitedExecutorService executor = new AdmissionLimitedExecutorService(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().factory()), 2);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> await(release), executor);
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> await(release), executor);
+
+        // when // then
+        assertThat(executor.inFlight()).isEqualTo(2);
+        assertThatThrownBy(() -> CompletableFuture.runAsync(() -> {
+        }, executor))
+                .isInstanceOf(UserPointException.class)
+                .extracting("reason")
+                .isEqualTo(UserPointException.Reason.OVERLOADED);
+
+        release.countDown();
+        CompletableFuture.allOf(first, second).join();
+        // future 는 작업 안에서 완료되므로, 허용량은 작업이 끝난 직후에 반납된다.
+        long deadline = System.currentTimeMillis() + 5_000L;
+        while (executor.inFlight() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5L);
+        }
+        assertThat(executor.inFlight()).isZero();
+        assertThat(CompletableFuture.supplyAsync(() -> 1L, executor).join()).isEqualTo(1L);
+        executor.shutdown();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
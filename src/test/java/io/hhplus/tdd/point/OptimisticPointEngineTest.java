@@ -0,0 +1,240 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.UserPointException;
+import io.hhplus.tdd.database.IndexedPointHistoryRepository;
+import io.hhplus.tdd.database.OffHeapPointHistoryRepository;
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.UserPointTableRepository;
+import io.hhplus.tdd.point.PointTransferTest.InMemoryUserPointRepository;
+import io.hhplus.tdd.point.PointUnitOfWorkTest.FaultInjector;
+import io.hhplus.tdd.point.PointUnitOfWorkTest.FaultyPointHistoryTable;
+import io.hhplus.tdd.point.PointUnitOfWorkTest.FaultyUserPointTable;
+import io.hhplus.tdd.point.PointUnitOfWorkTest.InjectedFaultException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+
+class OptimisticPointEngineTest {
+
+    private FaultInjector faultInjector;
+    private FaultyUserPointTable userPointTable;
+    private PointHistoryRepository pointHistoryRepository;
+    private OptimisticPointEngine optimisticPointEngine;
+
+    @BeforeEach
+    void setUp() {
+        faultInjector = new FaultInjector();
+        userPointTable = new FaultyUserPointTable(faultInjector);
+        pointHistoryRepository = new IndexedPointHistoryRepository(new FaultyPointHistoryTable(faultInjector));
+        UserLockProvider userLockProvider = new RefCountedUserLockProvider();
+        PointMetrics pointMetrics = new PointMetrics(new SimpleMeterRegistry(), userLockProvider);
+        // 충돌이 한 번만 나도 회원별 락으로 전환되도록 해, 락 밖의 시도와 락 안의 시도가 함께 경합하게 한다.
+        optimisticPointEngine = new OptimisticPointEngine(new UserPointTableRepository(userPointTable), pointHistoryRepository, userLockProvider, pointMetrics,
+                new PointHoldStore(userLockProvider, 600_000L, 1_000L, false), 1, 100, 100_000, Runnable::run);
+    }
+
+    @DisplayName("한 회원에게 충전/사용이 동시에 몰려도, 잔고는 저장된 내역의 합과 같고 Table 에는 최신 잔고가 기록된다.")
+    @Test
+    void chargeAndUse_withSameUser_thenKeepBalanceConsistentWithHistories() throws Exception {
+        // given
+        long userId = 1L;
+        List<Callable<Void>> requests = new ArrayList<>();
+        for (int request = 0; request < 60; request++) {
+            boolean charge = request % 3 != 2;
+            requests.add(() -> {
+                try {
+                    if (charge) {
+                        optimisticPointEngine.charge(userId, 1000L);
+                    } else {
+                        optimisticPointEngine.use(userId, 1500L);
+                    }
+                } catch (UserPointException ignored) {
+                    // 잔고 부족은 요청 실패로만 처리된다.
+                }
+                return null;
+            });
+        }
+
+        // when
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            executor.invokeAll(requests);
+        }
+
+        // then
+        long expected = pointHistoryRepository.selectAllByUserId(userId).stream()
+                .mapToLong(history -> history.type() == TransactionType.CHARGE ? history.amount() : -history.amount())
+                .sum();
+        VersionedUserPoint current = optimisticPointEngine.read(userId);
+        assertThat(current.userPoint().point()).isEqualTo(expected);
+        assertThat(current.version()).isEqualTo(pointHistoryRepository.selectAllByUserId(userId).size());
+        assertThat(userPointTable.selectById(userId).point()).isEqualTo(expected);
+    }
+
+    @DisplayName("보관 회원 수 상한을 넘어 회원이 계속 제거되고 다시 적재되어도, 회원별 잔고는 저장된 내역의 합과 같다.")
+    @Test
+    void chargeAndUse_whileEvictingUsers_thenKeepBalanceConsistentWithHistories() throws Exception {
+        // given
+        int users = 12;
+        InMemoryUserPointRepository userPointRepository = new InMemoryUserPointRepository();
+        PointHistoryRepository histories = new OffHeapPointHistoryRepository();
+        UserLockProvider userLockProvider = new RefCountedUserLockProvider();
+        OptimisticPointEngine engine = new OptimisticPointEngine(userPointRepository, histories, userLockProvider,
+                new PointMetrics(new SimpleMeterRegistry(), userLockProvider), new PointHoldStore(userLockProvider, 600_000L, 1_000L, false),
+                2, 100, 4, Runnable::run);
+        List<Callable<Void>> requests = new ArrayList<>();
+        for (int request = 0; request < 20_000; request++) {
+            long userId = request % users + 1;
+            boolean charge = request % 3 != 2;
+            requests.add(() -> {
+                try {
+                    if (charge) {
+                        engine.charge(userId, 1000L);
+                    } else {
+                        engine.use(userId, 1500L);
+                    }
+                } catch (UserPointException ignored) {
+                    // 잔고 부족은 요청 실패로만 처리된다.
+                }
+                return null;
+            });
+        }
+
+        // when
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            executor.invokeAll(requests);
+        }
+
+        // then
+        for (long userId = 1; userId <= users; userId++) {
+            long expected = histories.selectAllByUserId(userId).stream()
+                    .mapToLong(history -> history.type() == TransactionType.CHARGE ? history.amount() : -history.amount())
+                    .sum();
+            assertThat(engine.read(userId).userPoint().point()).as("userId=%d", userId).isEqualTo(expected);
+            assertThat(userPointRepository.selectById(userId).point()).as("userId=%d", userId).isEqualTo(expected);
+        }
+    }
+
+    @DisplayName("잔고보다 많이 사용하면, 잔고와 내역이 바뀌지 않고 거절된다.")
+    @Test
+    void use_withInsufficientBalance_thenReject() {
+        // given
+        long userId = 1L;
+        optimisticPointEngine.charge(userId, 1000L);
+
+        // when // then
+        assertThatThrownBy(() -> optimisticPointEngine.use(userId, 1500L))
+                .isInstanceOf(UserPointException.class)
+                .hasMessageContaining("잔고 부족");
+        assertThat(optimisticPointEngine.read(userId).userPoint().point()).isEqualTo(1000L);
+        assertThat(pointHistoryRepository.selectAllByUserId(userId)).hasSize(1);
+    }
+
+    @DisplayName("사용 내역 저장에 실패하면, 사용한 만큼 잔고를 되돌린다.")
+    @Test
+    void use_whenHistoryInsertFails_shouldRestoreBalance() {
+        // given
+        long userId = 1L;
+        optimisticPointEngine.charge(userId, 2000L);
+        faultInjector.failNext("point_history.insert");
+
+        // when // then
+        assertThatThrownBy(() -> optimisticPointEngine.use(userId, 500L)).isInstanceOf(InjectedFaultException.class);
+        assertThat(optimisticPointEngine.read(userId).userPoint().point()).isEqualTo(2000L);
+        assertThat(userPointTable.selectById(userId).point()).isEqualTo(2000L);
+        assertThat(pointHistoryRepository.selectAllByUserId(userId))
+                .extracting("amount", "type")
+                .containsExactly(tuple(2000L, TransactionType.CHARGE));
+    }
+
+    @DisplayName("충전 내역 저장에 실패하면, 잔고가 바뀌지 않고 이후 충전은 이전 잔고에서 이어진다.")
+    @Test
+    void charge_whenHistoryInsertFails_shouldKeepBalance() {
+        // given
+        long userId = 1L;
+        optimisticPointEngine.charge(userId, 2000L);
+        faultInjector.failNext("point_history.insert");
+
+        // when // then
+        assertThatThrownBy(() -> optimisticPointEngine.charge(userId, 1000L)).isInstanceOf(InjectedFaultException.class);
+        assertThat(optimisticPointEngine.read(userId).userPoint().point()).isEqualTo(2000L);
+        assertThat(userPointTable.selectById(userId).point()).isEqualTo(2000L);
+
+        assertThat(optimisticPointEngine.charge(userId, 500L).point()).isEqualTo(2500L);
+        assertThat(pointHistoryRepository.selectAllByUserId(userId))
+                .extracting("amount", "type")
+                .containsExactly(tuple(2000L, TransactionType.CHARGE), tuple(500L, TransactionType.CHARGE));
+    }
+
+    @DisplayName("충전/사용이 동시에 몰리는 동안 내역을 페이지로 조회해도, 내역은 잔고 변경 순서대로 빠짐없이 조회되고 누적 잔고가 음수가 되지 않는다.")
+    @Test
+    void getPointHistories_pagedDuringConcurrentWrites_shouldFollowBalanceOrder() throws Exception {
+        // given
+        long userId = 1L;
+        PointService pointService = new PointServiceFixture()
+                .userPointRepository(new InMemoryUserPointRepository())
+                .pointHistoryRepository(new OffHeapPointHistoryRepository())
+                .writeMode(PointWriteMode.OPTIMISTIC)
+                .build();
+        List<Callable<Void>> requests = new ArrayList<>();
+        for (int request = 0; request < 3_000; request++) {
+            boolean charge = request % 3 != 2;
+            requests.add(() -> {
+                try {
+                    if (charge) {
+                        pointService.chargePoint(userId, 1000L);
+                    } else {
+                        pointService.usePoint(userId, 1500L);
+                    }
+                } catch (UserPointException ignored) {
+                    // 잔고 부족은 요청 실패로만 처리된다.
+                }
+                return null;
+            });
+        }
+
+        AtomicBoolean writesDone = new AtomicBoolean(false);
+        List<PointHistory> paged = new ArrayList<>();
+        CompletableFuture<Void> pager = CompletableFuture.runAsync(() -> {
+            long after = 0L;
+            while (true) {
+                // 쓰기가 모두 끝난 뒤 시작한 조회에서 다음 페이지가 없으면 끝낸다.
+                boolean finished = writesDone.get();
+                PointHistoryPage page = pointService.getPointHistories(userId, after, 0L, Long.MAX_VALUE, 10);
+                paged.addAll(page.histories());
+                if (!page.histories().isEmpty()) {
+                    after = page.histories().get(page.histories().size() - 1).id();
+                }
+                if (finished && page.nextCursor() == null) {
+                    return;
+                }
+            }
+        });
+
+        // when
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            executor.invokeAll(requests);
+        }
+        writesDone.set(true);
+        pager.join();
+
+        // then
+        assertThat(paged).containsExactlyElementsOf(pointService.getPointHistories(userId));
+        long balance = 0L;
+        for (PointHistory history : paged) {
+            balance += history.type() == TransactionType.CHARGE ? history.amount() : -history.amount();
+            assertThat(balance).as("historyId=%d", history.id()).isNotNegative();
+        }
+        assertThat(pointService.getUserPoint(userId).point()).isEqualTo(balance);
+    }
+}
@@ -0,0 +1,119 @@
+package io.hhplus.tdd.point;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * 같은 회원의 비동기 충전/사용 요청이 쌓일 때, 회원별 대기 수 제한과 락 대기 제한 시간이 HTTP 응답(429/503)으로 적용되는지 검증합니다.
+ * 테스트가 회원별 락을 먼저 잡아, 첫 요청이 락을 기다리는 동안 뒤의 요청이 회원별 대기열에 쌓이게 한다.
+ */
+@SpringBootTest(properties = {
+        "point.admission.max-waiters-per-user=1",
+        "point.admission.lock-timeout-millis=300"
+})
+@AutoConfigureMockMvc
+class PointAdmissionControllerTest {
+
+    private static final long LOCK_TIMEOUT_MILLIS = 300L;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    UserLockProvider userLockProvider;
+
+    @Autowired
+    PointService pointService;
+
+    @DisplayName("같은 회원의 요청이 대기 수 제한만큼 쌓이면, 이후 요청은 기다리지 않고 429 를 응답한다.")
+    @Test
+    void chargePoint_whenSameUserRequestsPileUp_thenTooManyRequests() throws Exception {
+        // given
+        long userId = 101L;
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = holdLock(userId, release);
+        MvcResult running = charge(userId).andExpect(request().asyncStarted()).andReturn();
+        MvcResult waiting = charge(userId).andExpect(request().asyncStarted()).andReturn();
+
+        // when // then
+        mockMvc.perform(
+                        patch("/point/{id}/charge", userId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(String.valueOf(1000L)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.code").value("429"))
+                .andDo(print());
+
+        release.countDown();
+        holder.join();
+        mockMvc.perform(asyncDispatch(running)).andExpect(status().isOk());
+        mockMvc.perform(asyncDispatch(waiting)).andExpect(status().isOk());
+        assertThat(pointService.getUserPoint(userId).point()).isEqualTo(2000L);
+    }
+
+    @DisplayName("락 대기 제한 시간은 요청이 등록된 시각부터 세므로, 앞선 요청을 기다리다 시간이 지난 요청은 다시 기다리지 않고 503 을 응답한다.")
+    @Test
+    void chargePoint_whenDeadlinePassesWhileQueued_thenServiceUnavailable() throws Exception {
+        // given
+        long userId = 102L;
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = holdLock(userId, release);
+        long startedAt = System.nanoTime();
+        MvcResult first = charge(userId).andExpect(request().asyncStarted()).andReturn();
+        MvcResult second = charge(userId).andExpect(request().asyncStarted()).andReturn();
+
+        // when // then
+        mockMvc.perform(asyncDispatch(first))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.code").value("503"));
+        mockMvc.perform(asyncDispatch(second))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.code").value("503"));
+        long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000L;
+
+        release.countDown();
+        holder.join();
+        assertThat(elapsedMillis).isLessThan(2 * LOCK_TIMEOUT_MILLIS);
+        assertThat(pointService.getUserPoint(userId).point()).isZero();
+    }
+
+    private ResultActions charge(long userId) throws Exception {
+        return mockMvc.perform(
+                patch("/point/{id}/charge", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.valueOf(1000L)));
+    }
+
+    /**
+     * release 가 열릴 때까지 회원별 락을 보유하는 스레드를 시작하고, 락을 잡은 뒤 반환한다.
+     */
+    private Thread holdLock(long userId, CountDownLatch release) throws InterruptedException {
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread holder = new Thread(() -> userLockProvider.withLock(userId, () -> {
+            acquired.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        holder.start();
+        acquired.await();
+        return holder;
+    }
+}
@@ -7,7 +7,11 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 
+import static org.assertj.core.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -31,7 +35,7 @@ class PointControllerTest {
 
         // when //then
 
-        mockMvc.perform(
+        performAsync(
                         get("/point/{id}", userId)
                                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
@@ -49,7 +53,7 @@ class PointControllerTest {
         pointService.usePoint(userId, 1000L);
 
         // when //then
-        mockMvc.perform(
+        performAsync(
                         get("/point/{id}/histories", userId)
                                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
@@ -64,13 +68,120 @@ class PointControllerTest {
                 .andDo(print());
     }
 
+    @DisplayName("특정 회원의 포인트 요약을 조회한다.")
+    @Test
+    void getUserPointSummary_thenSuccessful() throws Exception {
+        long userId = 11L;
+        pointService.chargePoint(userId, 2000L);
+        pointService.usePoint(userId, 500L);
+
+        // when //then
+        mockMvc.perform(
+                        get("/point/{id}/summary", userId)
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value(userId))
+                .andExpect(jsonPath("$.totalCharged").value(2000L))
+                .andExpect(jsonPath("$.totalUsed").value(500L))
+                .andExpect(jsonPath("$.transactionCount").value(2))
+                .andDo(print());
+    }
+
+    @DisplayName("순위 색인이 비활성화된 기본 설정에서는 순위를 조회하면 501 을 응답한다.")
+    @Test
+    void getPointRanking_whenRankingDisabled_thenNotImplemented() throws Exception {
+        // when //then
+        mockMvc.perform(
+                        get("/point/ranking"))
+                .andExpect(status().isNotImplemented())
+                .andDo(print());
+    }
+
+    @DisplayName("특정 회원의 포인트 내역을 커서 기반으로 나누어 조회한다.")
+    @Test
+    void getUserHistoriesWithCursor_thenSuccessful() throws Exception {
+        long userId = 5L;
+        pointService.chargePoint(userId, 1000L);
+        pointService.chargePoint(userId, 2000L);
+        pointService.chargePoint(userId, 3000L);
+
+        // when
+        MvcResult firstPage = performAsync(
+                        get("/point/{id}/histories", userId)
+                                .param("limit", "2")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].amount").value(1000L))
+                .andExpect(jsonPath("$[1].amount").value(2000L))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn();
+
+        // then
+        performAsync(
+                        get("/point/{id}/histories", userId)
+                                .param("after", firstPage.getResponse().getHeader("X-Next-Cursor"))
+                                .param("limit", "2")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].amount").value(3000L))
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andDo(print());
+    }
+
+    @DisplayName("특정 회원의 포인트 내역을 NDJSON 으로 내보낸다.")
+    @Test
+    void exportUserHistories_thenWriteNdjson() throws Exception {
+        long userId = 6L;
+        pointService.chargePoint(userId, 1000L);
+        pointService.usePoint(userId, 500L);
+
+        // when
+        MvcResult result = mockMvc.perform(get("/point/{id}/histories/export", userId))
+                .andExpect(request().asyncStarted())
+                .andDo(MvcResult::getAsyncResult)
+                .andReturn();
+
+        // then
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"userId\":6", "\"amount\":1000", "\"type\":\"CHARGE\"");
+        assertThat(lines[1]).contains("\"userId\":6", "\"amount\":500", "\"type\":\"USE\"");
+    }
+
+    @DisplayName("여러 회원의 포인트를 일괄 충전/사용하고 항목별 결과를 반환한다.")
+    @Test
+    void applyBatch_thenReturnResultPerItem() throws Exception {
+        // when //then
+        mockMvc.perform(
+                        post("/point/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("""
+                                        [
+                                          {"userId": 7, "type": "CHARGE", "amount": 2000},
+                                          {"userId": 8, "type": "CHARGE", "amount": 500},
+                                          {"userId": 7, "type": "USE", "amount": 1500}
+                                        ]
+                                        """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].success").value(true))
+                .andExpect(jsonPath("$[0].point").value(2000L))
+                .andExpect(jsonPath("$[1].success").value(false))
+                .andExpect(jsonPath("$[1].message").value("포인트 충전은 1,000원 이상부터 가능합니다."))
+                .andExpect(jsonPath("$[2].success").value(true))
+                .andExpect(jsonPath("$[2].point").value(500L))
+                .andDo(print());
+    }
+
     @DisplayName("포인트 충전에 성공한다.")
     @Test
     void chargePoint_thenSuccessful() throws Exception {
         long userId = 3L;
 
         // when //then
-        mockMvc.perform(
+        performAsync(
                         patch("/point/{id}/charge", userId)
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(String.valueOf(1500L)))
@@ -88,7 +199,7 @@ class PointControllerTest {
         UserPoint initialPoint = pointService.chargePoint(userId, 5000L);
 
         // when //then
-        mockMvc.perform(
+        performAsync(
                         patch("/point/{id}/use", userId)
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(String.valueOf(useAmount)))
@@ -98,4 +209,48 @@ class PointControllerTest {
                 .andDo(print());
     }
 
-}
\ No newline at end of file
+    @DisplayName("잔고보다 많은 포인트를 사용하면, 비동기 작업의 예외가 400 응답으로 변환된다.")
+    @Test
+    void usePoint_withInsufficientPoint_thenBadRequest() throws Exception {
+        long userId = 9L;
+
+        // when //then
+        performAsync(
+                        patch("/point/{id}/use", userId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(String.valueOf(1000L)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("400"))
+                .andExpect(jsonPath("$.message").value("잔고 부족"))
+                .andDo(print());
+    }
+
+    @DisplayName("같은 Idempotency-Key 로 재시도한 충전 요청은 다시 충전하지 않고 처음 요청의 결과를 응답한다.")
+    @Test
+    void chargePoint_withSameIdempotencyKey_thenChargeOnce() throws Exception {
+        long userId = 10L;
+
+        // when
+        for (int attempt = 0; attempt < 2; attempt++) {
+            performAsync(
+                            patch("/point/{id}/charge", userId)
+                                    .header("Idempotency-Key", "charge-10-1")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(String.valueOf(1500L)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(userId))
+                    .andExpect(jsonPath("$.point").value(1500L));
+        }
+
+        // then
+        assertThat(pointService.getUserPoint(userId).point()).isEqualTo(1500L);
+        assertThat(pointService.getPointHistories(userId)).hasSize(1);
+    }
+
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
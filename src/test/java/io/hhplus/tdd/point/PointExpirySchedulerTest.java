@@ -0,0 +1,184 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.IndexedPointHistoryRepository;
+import io.hhplus.tdd.database.LotTrackingPointHistoryRepository;
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.PointLotIndex;
+import io.hhplus.tdd.database.UserPointRepository;
+import io.hhplus.tdd.database.UserPointTableRepository;
+import io.hhplus.tdd.point.PointUnitOfWorkTest.FaultInjector;
+import io.hhplus.tdd.point.PointUnitOfWorkTest.FaultyPointHistoryTable;
+import io.hhplus.tdd.point.PointUnitOfWorkTest.FaultyUserPointTable;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PointExpirySchedulerTest {
+
+    private static final long TTL_MILLIS = 60_000L;
+    private static final long RESOLUTION_MILLIS = 1_000L;
+
+    private FaultInjector faultInjector;
+    private UserPointRepository userPointRepository;
+    private PointHistoryRepository pointHistoryRepository;
+    private PointLotIndex pointLotIndex;
+    private PointHoldStore pointHoldStore;
+    private PointExpiryScheduler pointExpiryScheduler;
+
+    @BeforeEach
+    void setUp() {
+        faultInjector = new FaultInjector();
+        userPointRepository = new UserPointTableRepository(new FaultyUserPointTable(faultInjector));
+        pointLotIndex = new PointLotIndex(TTL_MILLIS, RESOLUTION_MILLIS, System.currentTimeMillis());
+        pointHistoryRepository = new LotTrackingPointHistoryRepository(
+                new IndexedPointHistoryRepository(new FaultyPointHistoryTable(faultInjector)), pointLotIndex);
+        UserLockProvider userLockProvider = new RefCountedUserLockProvider();
+        pointHoldStore = new PointHoldStore(userLockProvider, 600_000L, 1_000L, false);
+        PointWriteEngine pointWriteEngine = new LockPointWriteEngine(userPointRepository, pointHistoryRepository, userLockProvider,
+                new PointMetrics(new SimpleMeterRegistry(), userLockProvider), pointHoldStore, Runnable::run);
+        pointExpiryScheduler = new PointExpiryScheduler(pointWriteEngine, pointHistoryRepository, pointLotIndex, pointHoldStore, 0L);
+    }
+
+    @DisplayName("유효 기간이 지나면, 사용하고 남은 충전 포인트만 만료되고 EXPIRE 내역이 남는다.")
+    @Test
+    void expire_shouldReduceUnusedRemainder_andRecordExpireHistory() {
+        // given
+        long userId = 1L;
+        commit(userId, TransactionType.CHARGE, 1000L);
+        commit(userId, TransactionType.USE, 300L);
+
+        // when
+        int expiredUsers = pointExpiryScheduler.expire(afterExpiry());
+
+        // then
+        assertThat(expiredUsers).isEqualTo(1);
+        assertThat(userPointRepository.selectById(userId).point()).isZero();
+        assertThat(pointHistoryRepository.selectAllByUserId(userId))
+                .extracting("amount", "type")
+                .containsExactly(
+                        tuple(1000L, TransactionType.CHARGE),
+                        tuple(300L, TransactionType.USE),
+                        tuple(700L, TransactionType.EXPIRE)
+                );
+        assertThat(pointLotIndex.lotCount()).isZero();
+    }
+
+    @DisplayName("유효 기간 전에는 만료되지 않고, 만료 lot 이 없던 잔고는 만료 후에도 남는다.")
+    @Test
+    void expire_shouldKeepBalanceWithoutExpiredLots() {
+        // given
+        long userId = 1L;
+        userPointRepository.insertOrUpdate(userId, 500L);
+        commit(userId, TransactionType.CHARGE, 1000L);
+
+        // when // then
+        assertThat(pointExpiryScheduler.expire(System.currentTimeMillis())).isZero();
+        assertThat(userPointRepository.selectById(userId).point()).isEqualTo(1500L);
+
+        assertThat(pointExpiryScheduler.expire(afterExpiry())).isEqualTo(1);
+        assertThat(userPointRepository.selectById(userId).point()).isEqualTo(500L);
+    }
+
+    @DisplayName("만료 내역 저장에 실패하면 잔고를 되돌리고, 다음 주기에 다시 만료시킨다.")
+    @Test
+    void expire_whenHistoryInsertFails_shouldRetryOnNextTick() {
+        // given
+        long userId = 1L;
+        commit(userId, TransactionType.CHARGE, 1000L);
+        long now = afterExpiry();
+        faultInjector.failNext("point_history.insert");
+
+        // when
+        int failed = pointExpiryScheduler.expire(now);
+        int retried = pointExpiryScheduler.expire(now + RESOLUTION_MILLIS);
+
+        // then
+        assertThat(failed).isZero();
+        assertThat(retried).isEqualTo(1);
+        assertThat(userPointRepository.selectById(userId).point()).isZero();
+        assertThat(pointHistoryRepository.selectAllByUserId(userId))
+                .extracting("amount", "type")
+                .containsExactly(
+                        tuple(1000L, TransactionType.CHARGE),
+                        tuple(1000L, TransactionType.EXPIRE)
+                );
+    }
+
+    @DisplayName("예약된 포인트는 만료되지 않고 만료 lot 으로 남아, 예약이 해제된 뒤 다음 주기에 만료된다.")
+    @Test
+    void expire_withHeldPoints_shouldKeepHeldLot_andExpireAfterRelease() {
+        // given
+        long userId = 1L;
+        commit(userId, TransactionType.CHARGE, 1000L);
+        commit(userId, TransactionType.USE, 500L);
+        long now = afterExpiry();
+        PointHold hold = pointHoldStore.add(userId, 300L, System.currentTimeMillis());
+
+        // when
+        int expiredWhileHeld = pointExpiryScheduler.expire(now);
+
+        // then
+        assertThat(expiredWhileHeld).isEqualTo(1);
+        assertThat(userPointRepository.selectById(userId).point()).isEqualTo(300L);
+        assertThat(pointLotIndex.remaining(userId)).isEqualTo(300L);
+
+        // when
+        pointHoldStore.remove(hold.holdId(), System.currentTimeMillis());
+        int expiredAfterRelease = pointExpiryScheduler.expire(now + RESOLUTION_MILLIS);
+
+        // then
+        assertThat(expiredAfterRelease).isEqualTo(1);
+        assertThat(userPointRepository.selectById(userId).point()).isZero();
+        assertThat(pointHistoryRepository.selectAllByUserId(userId))
+                .extracting("amount", "type")
+                .containsExactly(
+                        tuple(1000L, TransactionType.CHARGE),
+                        tuple(500L, TransactionType.USE),
+                        tuple(200L, TransactionType.EXPIRE),
+                        tuple(300L, TransactionType.EXPIRE)
+                );
+        assertThat(pointLotIndex.lotCount()).isZero();
+    }
+
+    @DisplayName("이체로 받은 포인트는 보낸 회원의 충전 시각 기준으로 만료되고, 받은 회원이 직접 충전한 포인트는 남는다.")
+    @Test
+    void expire_afterTransfer_shouldKeepSenderLotExpiry() {
+        // given
+        long fromUserId = 1L;
+        long toUserId = 2L;
+        long chargedAt = System.currentTimeMillis() - TTL_MILLIS / 2;
+        // 보낸 회원은 유효 기간의 절반이 지난 포인트를 가지고 있다.
+        userPointRepository.insertOrUpdate(fromUserId, 1000L);
+        pointHistoryRepository.insert(fromUserId, 1000L, TransactionType.CHARGE, chargedAt);
+        commit(toUserId, TransactionType.CHARGE, 500L);
+        PointService pointService = new PointServiceFixture()
+                .userPointRepository(userPointRepository)
+                .pointHistoryRepository(pointHistoryRepository)
+                .pointLotIndex(pointLotIndex)
+                .pointHoldStore(pointHoldStore)
+                .build();
+
+        // when
+        pointService.transferPoint(fromUserId, toUserId, 600L);
+        int expiredUsers = pointExpiryScheduler.expire(chargedAt + TTL_MILLIS + RESOLUTION_MILLIS);
+
+        // then
+        assertThat(expiredUsers).isEqualTo(2);
+        assertThat(userPointRepository.selectById(fromUserId).point()).isZero();
+        assertThat(userPointRepository.selectById(toUserId).point()).isEqualTo(500L);
+        assertThat(pointLotIndex.remaining(toUserId)).isEqualTo(500L);
+    }
+
+    private void commit(long userId, TransactionType type, long amount) {
+        PointUnitOfWork unitOfWork = new PointUnitOfWork(userPointRepository, pointHistoryRepository);
+        unitOfWork.stage(userId, type, amount);
+        unitOfWork.commit();
+    }
+
+    private static long afterExpiry() {
+        return System.currentTimeMillis() + TTL_MILLIS + RESOLUTION_MILLIS;
+    }
+}
@@ -0,0 +1,268 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.UserPointException;
+import io.hhplus.tdd.database.IndexedPointHistoryRepository;
+import io.hhplus.tdd.database.OffHeapPointHistoryRepository;
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.UserPointRepository;
+import io.hhplus.tdd.point.PointTransferTest.InMemoryUserPointRepository;
+import io.hhplus.tdd.point.PointUnitOfWorkTest.FaultInjector;
+import io.hhplus.tdd.point.PointUnitOfWorkTest.FaultyPointHistoryTable;
+import io.hhplus.tdd.point.PointUnitOfWorkTest.InjectedFaultException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PointHoldTest {
+
+    private static final long TTL_MILLIS = 60_000L;
+
+    private FaultInjector faultInjector;
+    private UserPointRepository userPointRepository;
+    private PointHistoryRepository pointHistoryRepository;
+    private PointHoldStore pointHoldStore;
+    private PointService pointService;
+
+    @BeforeEach
+    void setUp() {
+        faultInjector = new FaultInjector();
+        userPointRepository = new InMemoryUserPointRepository();
+        pointHistoryRepository = new IndexedPointHistoryRepository(new FaultyPointHistoryTable(faultInjector));
+        UserLockProvider userLockProvider = new RefCountedUserLockProvider();
+        pointHoldStore = new PointHoldStore(userLockProvider, TTL_MILLIS, 1_000L, false);
+        pointService = pointService(userLockProvider, userPointRepository, pointHistoryRepository, pointHoldStore);
+    }
+
+    @DisplayName("예약한 포인트는 사용 가능 잔고에서 빠지므로, 예약 후 남은 잔고보다 많이 사용할 수 없다.")
+    @Test
+    void holdPoint_shouldReduceAvailableBalance() {
+        // given
+        long userId = 1L;
+        pointService.chargePoint(userId, 1000L);
+
+        // when
+        PointHold hold = pointService.holdPoint(userId, 700L);
+
+        // then
+        assertThat(hold).extracting("userId", "amount").containsExactly(userId, 700L);
+        assertThatThrownBy(() -> pointService.usePoint(userId, 500L))
+                .isInstanceOf(UserPointException.class)
+                .hasMessage("잔고 부족");
+        assertThatThrownBy(() -> pointService.holdPoint(userId, 500L))
+                .isInstanceOf(UserPointException.class)
+                .hasMessage("잔고 부족");
+        assertThat(pointService.usePoint(userId, 300L).point()).isEqualTo(700L);
+    }
+
+    @DisplayName("예약을 확정하면 예약 금액만큼 사용 내역이 저장되고, 같은 예약은 다시 확정할 수 없다.")
+    @Test
+    void capturePoint_shouldUseHeldAmountOnce() {
+        // given
+        long userId = 1L;
+        pointService.chargePoint(userId, 1000L);
+        PointHold hold = pointService.holdPoint(userId, 700L);
+
+        // when
+        UserPoint captured = pointService.capturePoint(hold.holdId());
+
+        // then
+        assertThat(captured.point()).isEqualTo(300L);
+        assertThat(pointHistoryRepository.selectAllByUserId(userId))
+                .extracting("amount", "type")
+                .containsExactly(
+                        tuple(1000L, TransactionType.CHARGE),
+                        tuple(700L, TransactionType.USE)
+                );
+        assertThatThrownBy(() -> pointService.capturePoint(hold.holdId()))
+                .isInstanceOf(UserPointException.class)
+                .extracting("reason")
+                .isEqualTo(UserPointException.Reason.HOLD_NOT_FOUND);
+        assertThat(pointService.usePoint(userId, 300L).point()).isZero();
+    }
+
+    @DisplayName("예약을 확정할 때는 회원의 다른 예약 금액을 뺀 잔고로 검증하므로, 다른 예약을 확정할 잔고를 남기지 못하면 실패한다.")
+    @Test
+    void capturePoint_shouldKeepBalanceForOtherHolds() {
+        // given
+        long userId = 1L;
+        pointService.chargePoint(userId, 1000L);
+        PointHold first = pointService.holdPoint(userId, 700L);
+        PointHold second = pointService.holdPoint(userId, 300L);
+        userPointRepository.insertOrUpdate(userId, 800L);
+
+        // when // then
+        assertThatThrownBy(() -> pointService.capturePoint(first.holdId()))
+                .isInstanceOf(UserPointException.class)
+                .hasMessage("잔고 부족");
+        assertThat(pointHoldStore.heldAmount(userId)).isEqualTo(1000L);
+        assertThat(pointService.capturePoint(second.holdId()).point()).isEqualTo(500L);
+    }
+
+    @DisplayName("예약을 해제하면 잔고와 내역은 그대로이고, 예약 금액이 사용 가능 잔고로 돌아온다.")
+    @Test
+    void releasePoint_shouldRestoreAvailableBalance() {
+        // given
+        long userId = 1L;
+        pointService.chargePoint(userId, 1000L);
+        PointHold hold = pointService.holdPoint(userId, 700L);
+
+        // when
+        PointHold released = pointService.releasePoint(hold.holdId());
+
+        // then
+        assertThat(released).isEqualTo(hold);
+        assertThat(pointHistoryRepository.selectAllByUserId(userId)).hasSize(1);
+        assertThat(pointService.usePoint(userId, 1000L).point()).isZero();
+        assertThatThrownBy(() -> pointService.capturePoint(hold.holdId()))
+                .isInstanceOf(UserPointException.class)
+                .extracting("reason")
+                .isEqualTo(UserPointException.Reason.HOLD_NOT_FOUND);
+    }
+
+    @DisplayName("유효 기간이 지난 예약만 sweeper 가 해제하고, 이미 확정된 예약은 건너뛴다. 해제된 예약은 확정할 수 없고 사용 가능 잔고로 돌아온다.")
+    @Test
+    void sweep_shouldReleaseExpiredHolds() {
+        // given
+        long userId = 1L;
+        pointService.chargePoint(userId, 1000L);
+        PointHold expiring = pointService.holdPoint(userId, 700L);
+        PointHold captured = pointService.holdPoint(userId, 100L);
+        pointService.capturePoint(captured.holdId());
+
+        // when
+        int notYet = pointHoldStore.sweep(System.currentTimeMillis());
+        int released = pointHoldStore.sweep(expiring.expiresAtMillis() + 1_000L);
+
+        // then
+        assertThat(notYet).isZero();
+        assertThat(released).isEqualTo(1);
+        assertThat(pointHoldStore.holdCount()).isZero();
+        assertThatThrownBy(() -> pointService.capturePoint(expiring.holdId()))
+                .isInstanceOf(UserPointException.class)
+                .extracting("reason")
+                .isEqualTo(UserPointException.Reason.HOLD_NOT_FOUND);
+        assertThat(pointService.usePoint(userId, 900L).point()).isZero();
+    }
+
+    @DisplayName("확정 중 내역 저장에 실패하면 잔고가 되돌려지고, 예약이 남아 다시 확정할 수 있다.")
+    @Test
+    void capturePoint_whenHistoryInsertFails_shouldKeepHold() {
+        // given
+        long userId = 1L;
+        pointService.chargePoint(userId, 1000L);
+        PointHold hold = pointService.holdPoint(userId, 700L);
+        faultInjector.failNext("point_history.insert");
+
+        // when // then
+        assertThatThrownBy(() -> pointService.capturePoint(hold.holdId())).isInstanceOf(InjectedFaultException.class);
+        assertThat(userPointRepository.selectById(userId).point()).isEqualTo(1000L);
+        assertThatThrownBy(() -> pointService.usePoint(userId, 500L))
+                .isInstanceOf(UserPointException.class)
+                .hasMessage("잔고 부족");
+
+        assertThat(pointService.capturePoint(hold.holdId()).point()).isEqualTo(300L);
+    }
+
+    @DisplayName("모든 처리 방식에서 한 회원에게 예약/확정/해제와 사용이 동시에 몰려도, 예약한 금액은 항상 확정되고 잔고가 음수가 되지 않는다.")
+    @Test
+    void holdAndCapture_onHotUser_shouldNeverOverspend() {
+        for (PointWriteMode writeMode : PointWriteMode.values()) {
+            // given
+            long userId = 1L;
+            long initialPoint = 100_000L;
+            int checkouts = 2_000;
+            UserLockProvider userLockProvider = new RefCountedUserLockProvider();
+            try (PointServiceFixture fixture = new PointServiceFixture()
+                    .userLockProvider(userLockProvider)
+                    .userPointRepository(new InMemoryUserPointRepository())
+                    .pointHistoryRepository(new OffHeapPointHistoryRepository())
+                    .pointHoldStore(new PointHoldStore(userLockProvider, TTL_MILLIS, 1_000L, false))
+                    .writeMode(writeMode)
+                    .shardCount(2)) {
+                PointService pointService = fixture.build();
+                pointService.chargePoint(userId, initialPoint);
+
+                LongAdder spent = new LongAdder();
+                LongAdder failedCaptures = new LongAdder();
+                List<Callable<Void>> requests = new ArrayList<>();
+                for (int i = 0; i < checkouts; i++) {
+                    boolean direct = i % 5 == 0;
+                    requests.add(() -> {
+                        long amount = ThreadLocalRandom.current().nextLong(1, 200);
+                        // 예약 없이 바로 사용하는 요청도 예약된 금액을 넘어 사용하지 못한다.
+                        if (direct) {
+                            try {
+                                pointService.usePoint(userId, amount);
+                                spent.add(amount);
+                            } catch (UserPointException ignored) {
+                                // 사용 가능 잔고가 부족한 사용은 거절된다.
+                            }
+                            return null;
+                        }
+
+                        PointHold hold;
+                        try {
+                            hold = pointService.holdPoint(userId, amount);
+                        } catch (UserPointException e) {
+                            // 사용 가능 잔고가 부족한 예약은 거절된다.
+                            return null;
+                        }
+                        // 외부 결제 결과에 따라 확정하거나 해제한다.
+                        if (ThreadLocalRandom.current().nextInt(4) == 0) {
+                            pointService.releasePoint(hold.holdId());
+                        } else {
+                            try {
+                                pointService.capturePoint(hold.holdId());
+                                spent.add(amount);
+                            } catch (RuntimeException e) {
+                                failedCaptures.increment();
+                            }
+                        }
+                        return null;
+                    });
+                }
+
+                // when
+                try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+                    executor.invokeAll(requests);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                // then
+                assertThat(failedCaptures.sum()).as(writeMode.name()).isZero();
+                assertThat(pointService.getUserPoint(userId).point()).as(writeMode.name())
+                        .isEqualTo(initialPoint - spent.sum())
+                        .isNotNegative();
+                assertThat(pointService.getPointHistories(userId).stream()
+                        .filter(history -> history.type() == TransactionType.USE)
+                        .mapToLong(PointHistory::amount)
+                        .sum()).as(writeMode.name()).isEqualTo(spent.sum());
+            }
+        }
+    }
+
+    private static PointService pointService(
+            UserLockProvider userLockProvider,
+            UserPointRepository userPointRepository,
+            PointHistoryRepository pointHistoryRepository,
+            PointHoldStore pointHoldStore
+    ) {
+        return new PointServiceFixture()
+                .userLockProvider(userLockProvider)
+                .userPointRepository(userPointRepository)
+                .pointHistoryRepository(pointHistoryRepository)
+                .pointHoldStore(pointHoldStore)
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.UserPointException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PointIdempotencyStoreTest {
+
+    private static final long TTL_SECONDS = 60L;
+
+    @DisplayName("같은 키로 다시 요청하면, 작업을 실행하지 않고 처음 요청의 결과를 반환한다.")
+    @Test
+    void execute_withSameKey_shouldReturnFirstResult() {
+        // given
+        PointIdempotencyStore store = new PointIdempotencyStore(TTL_SECONDS, 100);
+        AtomicInteger executions = new AtomicInteger();
+        UserPoint charged = new UserPoint(1L, 1000L, System.currentTimeMillis());
+
+        // when
+        UserPoint first = store.execute("key-1", 1L, TransactionType.CHARGE, 1000L, () -> {
+            executions.incrementAndGet();
+            return CompletableFuture.completedFuture(charged);
+        }).join();
+        UserPoint retried = store.execute("key-1", 1L, TransactionType.CHARGE, 1000L, () -> {
+            executions.incrementAndGet();
+            return CompletableFuture.completedFuture(new UserPoint(1L, 2000L, System.currentTimeMillis()));
+        }).join();
+
+        // then
+        assertThat(executions).hasValue(1);
+        assertThat(first).isEqualTo(charged);
+        assertThat(retried).isEqualTo(charged);
+    }
+
+    @DisplayName("처음 요청이 처리 중일 때 같은 키로 요청하면, 다시 실행하지 않고 처음 요청이 끝나기를 기다린다.")
+    @Test
+    void execute_whileInFlight_shouldWaitForOriginal() {
+        // given
+        PointIdempotencyStore store = new PointIdempotencyStore(TTL_SECONDS, 100);
+        AtomicInteger executions = new AtomicInteger();
+        CompletableFuture<UserPoint> inFlight = new CompletableFuture<>();
+        CompletableFuture<UserPoint> original = store.execute("key-1", 1L, TransactionType.CHARGE, 1000L, () -> {
+            executions.incrementAndGet();
+            return inFlight;
+        });
+
+        // when
+        CompletableFuture<UserPoint> duplicate = store.execute("key-1", 1L, TransactionType.CHARGE, 1000L, () -> {
+            executions.incrementAndGet();
+            return CompletableFuture.completedFuture(new UserPoint(1L, 2000L, System.currentTimeMillis()));
+        });
+
+        // then
+        assertThat(duplicate).isNotDone();
+        UserPoint charged = new UserPoint(1L, 1000L, System.currentTimeMillis());
+        inFlight.complete(charged);
+        assertThat(original.join()).isEqualTo(charged);
+        assertThat(duplicate.join()).isEqualTo(charged);
+        assertThat(executions).hasValue(1);
+    }
+
+    @DisplayName("처음 요청이 실패하면 결과를 보관하지 않아, 같은 키로 다시 시도할 수 있다.")
+    @Test
+    void execute_afterFailure_shouldRunAgain() {
+        // given
+        PointIdempotencyStore store = new PointIdempotencyStore(TTL_SECONDS, 100);
+        CompletableFuture<UserPoint> failed = store.execute("key-1", 1L, TransactionType.USE, 1000L,
+                () -> CompletableFuture.failedFuture(new UserPointException(UserPointException.Reason.INSUFFICIENT_BALANCE, "잔고 부족")));
+        assertThatThrownBy(failed::join).hasCauseInstanceOf(UserPointException.class);
+
+        // when
+        UserPoint retried = store.execute("key-1", 1L, TransactionType.USE, 1000L,
+                () -> CompletableFuture.completedFuture(new UserPoint(1L, 0L, System.currentTimeMillis()))).join();
+
+        // then
+        assertThat(retried.point()).isZero();
+    }
+
+    @DisplayName("같은 키를 다른 요청에 사용하면, 예외가 발생한다.")
+    @Test
+    void execute_withSameKeyForDifferentRequest_shouldThrowException() {
+        // given
+        PointIdempotencyStore store = new PointIdempotencyStore(TTL_SECONDS, 100);
+        store.execute("key-1", 1L, TransactionType.CHARGE, 1000L,
+                () -> CompletableFuture.completedFuture(new UserPoint(1L, 1000L, System.currentTimeMillis())));
+
+        // when // then
+        assertThatThrownBy(() -> store.execute("key-1", 1L, TransactionType.CHARGE, 2000L,
+                () -> CompletableFuture.completedFuture(new UserPoint(1L, 3000L, System.currentTimeMillis()))))
+                .isInstanceOf(UserPointException.class)
+                .hasMessage("이미 다른 요청에 사용된 Idempotency-Key 입니다.");
+    }
+
+    @DisplayName("보관 건수가 최대 크기를 넘으면, 오래된 결과부터 제거한다.")
+    @Test
+    void execute_overMaxSize_shouldEvictOldestResults() {
+        // given
+        int maxSize = 10;
+        PointIdempotencyStore store = new PointIdempotencyStore(TTL_SECONDS, maxSize);
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            store.execute("key-" + i, 1L, TransactionType.CHARGE, 1000L,
+                    () -> CompletableFuture.completedFuture(new UserPoint(1L, 1000L, System.currentTimeMillis())));
+        }
+
+        // then
+        assertThat(store.size()).isEqualTo(maxSize);
+    }
+
+    @DisplayName("ttl 이 지난 결과는 보관하지 않아, 같은 키로 요청하면 다시 실행한다.")
+    @Test
+    void execute_afterTtl_shouldRunAgain() {
+        // given
+        PointIdempotencyStore store = new PointIdempotencyStore(0L, 100);
+        store.execute("key-1", 1L, TransactionType.CHARGE, 1000L,
+                () -> CompletableFuture.completedFuture(new UserPoint(1L, 1000L, System.currentTimeMillis())));
+
+        // when
+        UserPoint retried = store.execute("key-1", 1L, TransactionType.CHARGE, 1000L,
+                () -> CompletableFuture.completedFuture(new UserPoint(1L, 2000L, System.currentTimeMillis()))).join();
+
+        // then
+        assertThat(retried.point()).isEqualTo(2000L);
+    }
+}
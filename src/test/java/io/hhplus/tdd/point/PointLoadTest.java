@@ -0,0 +1,325 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.TddApplication;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 애플리케이션을 임의 포트로 띄우고, 충전/사용/조회/내역 조회 요청을 설정한 비율로 섞어 부하를 줍니다.
+ * - 회원 id 는 Zipf 분포로 뽑아, 일부 회원에게 요청이 몰리는 트래픽을 만든다.
+ * - API 별 지연 시간을 HdrHistogram 으로 기록해 처리량, p50/p99/p999, 거절(4xx) 비율과 오류(5xx, 연결 실패) 비율을 출력하고,
+ *   분포 전체는 report-directory 에 API 별 .hgrm 파일로 남긴다.
+ * - rate 를 지정하면 요청을 정해진 간격으로 보내고(open loop), 예정된 전송 시각부터 지연 시간을 잰다.
+ *   응답이 늦어 밀린 요청의 대기 시간도 지연 시간에 포함되므로, 지연이 생겼을 때 측정값이 낙관적으로 치우치지 않는다.
+ * ./gradlew loadTest 로 실행하며, 설정은 -Pload.<이름>=값 으로 바꾼다. -Pload.app.<속성>=값 은 애플리케이션 속성으로 전달된다.
+ * 예) ./gradlew loadTest -Pload.mix=charge:30,use:10,read:50,history:10 -Pload.app.point.write-mode=QUEUE
+ */
+@Tag("load")
+class PointLoadTest {
+
+    private static final String APPLICATION_PROPERTY_PREFIX = "load.app.";
+
+    @DisplayName("설정한 트래픽 구성으로 포인트 API 에 부하를 주고, API 별 처리량과 지연 시간 분포를 출력한다.")
+    @Test
+    void runLoad() throws Exception {
+        LoadSettings settings = LoadSettings.fromSystemProperties();
+        System.out.println(settings);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TddApplication.class)
+                .properties(settings.applicationProperties().toArray(String[]::new))
+                .run()) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            LoadReport report = new LoadGenerator(settings, "http://localhost:" + port).run();
+
+            report.print(System.out);
+            report.writeHistograms(Path.of(settings.reportDirectory()));
+            assertThat(report.errorRate()).isLessThanOrEqualTo(settings.maxErrorRate());
+        }
+    }
+
+    enum Endpoint {
+        CHARGE, USE, READ, HISTORY;
+
+        HttpRequest request(String baseUrl, long userId) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return switch (this) {
+                case CHARGE -> patch(baseUrl + "/point/" + userId + "/charge", 1_000L * random.nextInt(1, 6));
+                case USE -> patch(baseUrl + "/point/" + userId + "/use", 100L * random.nextInt(1, 31));
+                case READ -> HttpRequest.newBuilder(URI.create(baseUrl + "/point/" + userId)).GET().build();
+                case HISTORY -> HttpRequest.newBuilder(URI.create(baseUrl + "/point/" + userId + "/histories?limit=20")).GET().build();
+            };
+        }
+
+        private static HttpRequest patch(String url, long amount) {
+            return HttpRequest.newBuilder(URI.create(url))
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString(String.valueOf(amount)))
+                    .build();
+        }
+    }
+
+    /**
+     * @param mix          API 별 요청 비율 (예: charge:20,use:10,read:60,history:10)
+     * @param users        회원 수
+     * @param zipfExponent Zipf 분포의 exponent. 0 이면 모든 회원에게 고르게 요청한다.
+     * @param concurrency  동시에 요청을 보내는 클라이언트 수
+     * @param rate         전체 초당 요청 수. 0 이면 응답을 받는 즉시 다음 요청을 보낸다. (closed loop)
+     */
+    record LoadSettings(
+            Map<Endpoint, Integer> mix,
+            int users,
+            double zipfExponent,
+            int concurrency,
+            double rate,
+            long warmupSeconds,
+            long durationSeconds,
+            double maxErrorRate,
+            String reportDirectory,
+            List<String> applicationProperties
+    ) {
+
+        static LoadSettings fromSystemProperties() {
+            List<String> applicationProperties = new ArrayList<>(List.of("server.port=0", "spring.main.banner-mode=off"));
+            System.getProperties().stringPropertyNames().stream()
+                    .filter(name -> name.startsWith(APPLICATION_PROPERTY_PREFIX))
+                    .sorted()
+                    .forEach(name -> applicationProperties.add(name.substring(APPLICATION_PROPERTY_PREFIX.length()) + "=" + System.getProperty(name)));
+
+            return new LoadSettings(
+                    parseMix(System.getProperty("load.mix", "charge:20,use:10,read:60,history:10")),
+                    Integer.getInteger("load.users", 100_000),
+                    Double.parseDouble(System.getProperty("load.zipf-exponent", "1.0")),
+                    Integer.getInteger("load.concurrency", 200),
+                    Double.parseDouble(System.getProperty("load.rate", "0")),
+                    Long.getLong("load.warmup-seconds", 5L),
+                    Long.getLong("load.duration-seconds", 30L),
+                    Double.parseDouble(System.getProperty("load.max-error-rate", "0")),
+                    System.getProperty("load.report-directory", "build/reports/load"),
+                    applicationProperties
+            );
+        }
+
+        private static Map<Endpoint, Integer> parseMix(String value) {
+            Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+            for (String entry : value.split(",")) {
+                String[] pair = entry.trim().split(":");
+                mix.put(Endpoint.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(pair[1].trim()));
+            }
+            if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+                throw new IllegalArgumentException("요청 비율의 합은 0 보다 커야 합니다. mix=" + value);
+            }
+            return mix;
+        }
+    }
+
+    /**
+     * 요청마다 mix 비율에 따라 API 를 고르고, Zipf 분포로 회원을 골라 보낸다.
+     * 워밍업 구간의 결과는 버리고, 측정 구간의 결과만 API 별 Recorder 에 기록한다.
+     */
+    static class LoadGenerator {
+
+        private final LoadSettings settings;
+        private final String baseUrl;
+        private final ZipfDistribution userIds;
+        private final Endpoint[] endpointByWeight;
+        private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        private final HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        private volatile boolean measuring;
+
+        LoadGenerator(LoadSettings settings, String baseUrl) {
+            this.settings = settings;
+            this.baseUrl = baseUrl;
+            this.userIds = new ZipfDistribution(settings.users(), settings.zipfExponent());
+
+            List<Endpoint> weighted = new ArrayList<>();
+            settings.mix().forEach((endpoint, weight) -> {
+                for (int i = 0; i < weight; i++) {
+                    weighted.add(endpoint);
+                }
+            });
+            this.endpointByWeight = weighted.toArray(Endpoint[]::new);
+            for (Endpoint endpoint : Endpoint.values()) {
+                stats.put(endpoint, new EndpointStats());
+            }
+        }
+
+        LoadReport run() throws InterruptedException {
+            long start = System.nanoTime();
+            long measureFrom = start + TimeUnit.SECONDS.toNanos(settings.warmupSeconds());
+            long end = measureFrom + TimeUnit.SECONDS.toNanos(settings.durationSeconds());
+            // 클라이언트마다 같은 간격으로 보내, 전체 요청 수가 rate 가 되도록 한다.
+            long intervalNanos = settings.rate() > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) * settings.concurrency() / settings.rate()) : 0L;
+
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < settings.concurrency(); i++) {
+                    long offset = intervalNanos * i / settings.concurrency();
+                    clients.submit(() -> drive(start + offset, intervalNanos, end));
+                }
+
+                LockSupport.parkNanos(measureFrom - System.nanoTime());
+                stats.values().forEach(EndpointStats::reset);
+                measuring = true;
+            }
+
+            return new LoadReport(stats, System.nanoTime() - measureFrom);
+        }
+
+        private void drive(long firstSendAt, long intervalNanos, long end) {
+            long scheduledAt = firstSendAt;
+            while (true) {
+                long sendAt = intervalNanos > 0 ? scheduledAt : System.nanoTime();
+                if (sendAt >= end) {
+                    return;
+                }
+                long waitNanos = sendAt - System.nanoTime();
+                if (waitNanos > 0) {
+                    LockSupport.parkNanos(waitNanos);
+                }
+
+                Endpoint endpoint = endpointByWeight[ThreadLocalRandom.current().nextInt(endpointByWeight.length)];
+                int status = send(endpoint.request(baseUrl, userIds.sample()));
+                if (measuring) {
+                    stats.get(endpoint).record(System.nanoTime() - sendAt, status);
+                }
+                scheduledAt += intervalNanos;
+            }
+        }
+
+        /**
+         * 응답 상태 코드를 반환한다. 연결 실패 등으로 응답을 받지 못하면 0 을 반환한다.
+         */
+        private int send(HttpRequest request) {
+            try {
+                return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                return 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * API 별 지연 시간과 응답 결과. Recorder 는 여러 클라이언트 스레드가 락 없이 기록할 수 있다.
+     */
+    static class EndpointStats {
+
+        private final Recorder latencies = new Recorder(3);
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        void record(long latencyNanos, int status) {
+            latencies.recordValue(latencyNanos);
+            if (status >= 400 && status < 500) {
+                // 잔고 부족, 요청 수 제한 등 의도된 거절
+                rejected.increment();
+            } else if (status < 200 || status >= 500) {
+                errors.increment();
+            }
+        }
+
+        void reset() {
+            latencies.reset();
+            rejected.reset();
+            errors.reset();
+        }
+    }
+
+    static class LoadReport {
+
+        private final Map<Endpoint, Histogram> histograms = new EnumMap<>(Endpoint.class);
+        private final Map<Endpoint, long[]> outcomes = new EnumMap<>(Endpoint.class);
+        private final long elapsedNanos;
+
+        LoadReport(Map<Endpoint, EndpointStats> stats, long elapsedNanos) {
+            this.elapsedNanos = elapsedNanos;
+            stats.forEach((endpoint, endpointStats) -> {
+                histograms.put(endpoint, endpointStats.latencies.getIntervalHistogram());
+                outcomes.put(endpoint, new long[]{endpointStats.rejected.sum(), endpointStats.errors.sum()});
+            });
+        }
+
+        double errorRate() {
+            long requests = histograms.values().stream().mapToLong(Histogram::getTotalCount).sum();
+            long errors = outcomes.values().stream().mapToLong(outcome -> outcome[1]).sum();
+            return requests == 0 ? 1.0 : (double) errors / requests;
+        }
+
+        void print(PrintStream out) {
+            out.printf("%-8s %10s %14s %10s %10s %10s %10s %10s %10s%n",
+                    "api", "requests", "throughput/s", "p50 (ms)", "p99 (ms)", "p999 (ms)", "max (ms)", "rejected", "errors");
+            Histogram total = new Histogram(3);
+            long rejected = 0;
+            long errors = 0;
+            for (Endpoint endpoint : Endpoint.values()) {
+                Histogram histogram = histograms.get(endpoint);
+                long[] outcome = outcomes.get(endpoint);
+                total.add(histogram);
+                rejected += outcome[0];
+                errors += outcome[1];
+                print(out, endpoint.name().toLowerCase(Locale.ROOT), histogram, outcome[0], outcome[1]);
+            }
+            print(out, "total", total, rejected, errors);
+            out.printf("error rate : %.4f%%%n", errorRate() * 100);
+        }
+
+        void writeHistograms(Path directory) throws IOException {
+            Files.createDirectories(directory);
+            for (Map.Entry<Endpoint, Histogram> entry : histograms.entrySet()) {
+                Path file = directory.resolve(entry.getKey().name().toLowerCase(Locale.ROOT) + ".hgrm");
+                try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                    // 나노초 단위로 기록했으므로 밀리초로 환산해 출력한다.
+                    entry.getValue().outputPercentileDistribution(out, 1_000_000.0);
+                }
+            }
+        }
+
+        private void print(PrintStream out, String name, Histogram histogram, long rejected, long errors) {
+            long requests = histogram.getTotalCount();
+            out.printf("%-8s %10d %14.1f %10.2f %10.2f %10.2f %10.2f %10d %10d%n",
+                    name,
+                    requests,
+                    requests * 1_000_000_000.0 / elapsedNanos,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()),
+                    rejected,
+                    errors);
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package io.hhplus.tdd.point;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * 순위 색인은 기본값이 비활성화이므로, 순위 API 는 point.ranking.enabled=true 로 띄운 컨텍스트에서 검증합니다.
+ */
+@SpringBootTest(properties = "point.ranking.enabled=true")
+@AutoConfigureMockMvc
+class PointRankingControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    PointService pointService;
+
+    @DisplayName("잔고 순위 상위 목록과 특정 회원의 순위를 조회한다.")
+    @Test
+    void getPointRanking_thenSuccessful() throws Exception {
+        // given
+        pointService.chargePoint(31L, 2_000_000_000_000L);
+        pointService.chargePoint(32L, 1_000_000_000_000L);
+
+        // when //then
+        mockMvc.perform(
+                        get("/point/ranking")
+                                .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].rank").value(1))
+                .andExpect(jsonPath("$[0].userId").value(31L))
+                .andExpect(jsonPath("$[1].rank").value(2))
+                .andExpect(jsonPath("$[1].userId").value(32L))
+                .andDo(print());
+
+        mockMvc.perform(
+                        get("/point/{id}/rank", 32L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rank").value(2))
+                .andExpect(jsonPath("$.point").value(1_000_000_000_000L))
+                .andDo(print());
+    }
+}
@@ -0,0 +1,70 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.UserPointException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PointRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @DisplayName("회원별 순간 허용량을 넘는 요청은 거절되고, 시간이 지나 토큰이 채워지면 다시 허용된다.")
+    @Test
+    void acquire_whenUserBurstExceeded_thenRejectUntilRefilled() {
+        // given
+        PointRateLimiter rateLimiter = new PointRateLimiter(10, 3, 0, 0, 100, now::get);
+        long userId = 1L;
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.acquire(userId);
+        }
+
+        // when // then
+        assertThatThrownBy(() -> rateLimiter.acquire(userId))
+                .isInstanceOf(UserPointException.class)
+                .extracting("reason")
+                .isEqualTo(UserPointException.Reason.RATE_LIMITED);
+        assertThatCode(() -> rateLimiter.acquire(2L)).doesNotThrowAnyException();
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThatCode(() -> rateLimiter.acquire(userId)).doesNotThrowAnyException();
+        assertThatThrownBy(() -> rateLimiter.acquire(userId)).isInstanceOf(UserPointException.class);
+    }
+
+    @DisplayName("전체 허용량을 넘으면, 서로 다른 회원의 요청도 거절된다.")
+    @Test
+    void acquire_whenGlobalBurstExceeded_thenRejectOtherUsers() {
+        // given
+        PointRateLimiter rateLimiter = new PointRateLimiter(0, 0, 100, 5, 100, now::get);
+        for (long userId = 1; userId <= 5; userId++) {
+            rateLimiter.acquire(userId);
+        }
+
+        // when // then
+        assertThatThrownBy(() -> rateLimiter.acquire(6L))
+                .isInstanceOf(UserPointException.class)
+                .extracting("reason")
+                .isEqualTo(UserPointException.Reason.RATE_LIMITED);
+    }
+
+    @DisplayName("회원 수가 최대치를 넘으면, 토큰이 가득 찬 회원의 버킷을 제거한다.")
+    @Test
+    void acquire_whenUsersExceedMax_thenSweepFullBuckets() {
+        // given
+        PointRateLimiter rateLimiter = new PointRateLimiter(10, 1, 0, 0, 2, now::get);
+        for (long userId = 1; userId <= 3; userId++) {
+            rateLimiter.acquire(userId);
+        }
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+
+        // when
+        rateLimiter.acquire(4L);
+
+        // then
+        assertThat(rateLimiter.userBucketCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,134 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.IndexedPointHistoryRepository;
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.PointLotIndex;
+import io.hhplus.tdd.database.PointRankingIndex;
+import io.hhplus.tdd.database.PointSummaryIndex;
+import io.hhplus.tdd.database.UserPointRepository;
+import io.hhplus.tdd.database.UserPointSnapshot;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.database.UserPointTableRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 테스트와 JMH 벤치마크에서 PointService 를 조립합니다.
+ * 지정하지 않은 의존성은 기본값(LOCK 모드, RefCountedUserLockProvider, 스냅샷/순위 비활성화, 만료 sweeper 없는 PointHoldStore, ForkJoinPool.commonPool())으로 채우며,
+ * 처리 방식은 애플리케이션과 같이 PointWriteEngineConfig 로 생성합니다. SHARDED 모드의 샤드 스레드는 close 로 종료합니다.
+ */
+class PointServiceFixture implements AutoCloseable {
+
+    private UserPointRepository userPointRepository;
+    private PointHistoryRepository pointHistoryRepository;
+    private UserLockProvider userLockProvider = new RefCountedUserLockProvider();
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PointWriteMode writeMode = PointWriteMode.LOCK;
+    private int shardCount;
+    private PointSummaryIndex pointSummaryIndex = new PointSummaryIndex();
+    private UserPointSnapshot userPointSnapshot = new UserPointSnapshot(false);
+    private PointHoldStore pointHoldStore;
+    private PointLotIndex pointLotIndex = new PointLotIndex(0L, 1_000L, 0L);
+    private PointRankingIndex pointRankingIndex = new PointRankingIndex(false);
+    private Executor executor = ForkJoinPool.commonPool();
+    private PointWriteEngine pointWriteEngine;
+
+    PointServiceFixture userPointRepository(UserPointRepository userPointRepository) {
+        this.userPointRepository = userPointRepository;
+        return this;
+    }
+
+    PointServiceFixture pointHistoryRepository(PointHistoryRepository pointHistoryRepository) {
+        this.pointHistoryRepository = pointHistoryRepository;
+        return this;
+    }
+
+    PointServiceFixture userLockProvider(UserLockProvider userLockProvider) {
+        this.userLockProvider = userLockProvider;
+        return this;
+    }
+
+    PointServiceFixture meterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        return this;
+    }
+
+    PointServiceFixture writeMode(PointWriteMode writeMode) {
+        this.writeMode = writeMode;
+        return this;
+    }
+
+    /**
+     * SHARDED 모드의 샤드 수. 0(기본값)이면 CPU 코어 수
+     */
+    PointServiceFixture shardCount(int shardCount) {
+        this.shardCount = shardCount;
+        return this;
+    }
+
+    PointServiceFixture pointSummaryIndex(PointSummaryIndex pointSummaryIndex) {
+        this.pointSummaryIndex = pointSummaryIndex;
+        return this;
+    }
+
+    PointServiceFixture userPointSnapshot(UserPointSnapshot userPointSnapshot) {
+        this.userPointSnapshot = userPointSnapshot;
+        return this;
+    }
+
+    PointServiceFixture pointHoldStore(PointHoldStore pointHoldStore) {
+        this.pointHoldStore = pointHoldStore;
+        return this;
+    }
+
+    /**
+     * 만료 lot 색인. 기본값은 만료를 사용하지 않는 색인이다.
+     */
+    PointServiceFixture pointLotIndex(PointLotIndex pointLotIndex) {
+        this.pointLotIndex = pointLotIndex;
+        return this;
+    }
+
+    PointServiceFixture pointRankingIndex(PointRankingIndex pointRankingIndex) {
+        this.pointRankingIndex = pointRankingIndex;
+        return this;
+    }
+
+    /**
+     * 일괄 처리, 비동기 API, mailbox drainer 를 실행할 executor. 벤치마크에서는 Runnable::run 으로 호출 스레드에서 실행한다.
+     */
+    PointServiceFixture executor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    PointService build() {
+        UserPointRepository users = userPointRepository != null ? userPointRepository : new UserPointTableRepository(new UserPointTable());
+        PointHistoryRepository histories = pointHistoryRepository != null ? pointHistoryRepository : new IndexedPointHistoryRepository(new PointHistoryTable());
+        PointHoldStore holds = pointHoldStore != null ? pointHoldStore : new PointHoldStore(userLockProvider, 600_000L, 1_000L, false);
+        PointMetrics pointMetrics = new PointMetrics(meterRegistry, userLockProvider);
+
+        pointWriteEngine = new PointWriteEngineConfig().pointWriteEngine(users, histories, userLockProvider, pointMetrics, holds,
+                executor, executor, writeMode, 100, shardCount, 65536, 100, 100_000, 8, 1000L, 100_000);
+        return new PointService(users, histories, pointWriteEngine, pointMetrics, pointSummaryIndex, userPointSnapshot, holds,
+                pointLotIndex, pointRankingIndex, executor, executor);
+    }
+
+    /**
+     * build 로 만든 처리 방식. 처리 방식의 배제(withUserExclusive)를 직접 사용하는 테스트에서 쓴다.
+     */
+    PointWriteEngine pointWriteEngine() {
+        return pointWriteEngine;
+    }
+
+    @Override
+    public void close() {
+        if (pointWriteEngine instanceof ShardedPointEngine shardedPointEngine) {
+            shardedPointEngine.close();
+        }
+    }
+}
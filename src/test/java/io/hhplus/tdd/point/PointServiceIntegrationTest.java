@@ -1,7 +1,17 @@
 package io.hhplus.tdd.point;
 
+import io.hhplus.tdd.UserPointException;
+import io.hhplus.tdd.database.IndexedPointHistoryRepository;
+import io.hhplus.tdd.database.PointHistoryRepository;
 import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.PointSummaryIndex;
+import io.hhplus.tdd.database.SnapshotUserPointRepository;
+import io.hhplus.tdd.database.SummarizingPointHistoryRepository;
+import io.hhplus.tdd.database.UserPointRepository;
+import io.hhplus.tdd.database.UserPointSnapshot;
 import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.database.UserPointTableRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,12 +28,23 @@ class PointServiceIntegrationTest {
     private PointService pointService;
     private UserPointTable userPointTable;
     private PointHistoryTable pointHistoryTable;
+    private SimpleMeterRegistry meterRegistry;
+    private PointSummaryIndex pointSummaryIndex;
 
     @BeforeEach
     void setUp() {
         userPointTable = new UserPointTable();
         pointHistoryTable = new PointHistoryTable();
-        pointService = new PointService(userPointTable, pointHistoryTable);
+        UserPointRepository userPointRepository = new UserPointTableRepository(userPointTable);
+        pointSummaryIndex = new PointSummaryIndex();
+        PointHistoryRepository pointHistoryRepository = new SummarizingPointHistoryRepository(new IndexedPointHistoryRepository(pointHistoryTable), pointSummaryIndex);
+        meterRegistry = new SimpleMeterRegistry();
+        pointService = new PointServiceFixture()
+                .userPointRepository(userPointRepository)
+                .pointHistoryRepository(pointHistoryRepository)
+                .meterRegistry(meterRegistry)
+                .pointSummaryIndex(pointSummaryIndex)
+                .build();
     }
 
     @DisplayName("포인트 충전 시, 보유 포인트가 증가하고 내역이 저장된다.")
@@ -116,6 +137,150 @@ class PointServiceIntegrationTest {
         assertThat(pointService.getUserPoint(userId3).point()).isEqualTo(chargeAmount3);
     }
 
+    @DisplayName("일괄 처리 시, 같은 회원의 요청은 순서대로 처리되고 항목별 결과가 요청 순서대로 반환된다.")
+    @Test
+    void applyBatch_shouldKeepOrderPerUser_andReturnResultPerItem() {
+        // given
+        List<PointBatchItem> items = List.of(
+                new PointBatchItem(1L, TransactionType.CHARGE, 1000L),
+                new PointBatchItem(2L, TransactionType.CHARGE, 2000L),
+                new PointBatchItem(1L, TransactionType.USE, 700L),
+                new PointBatchItem(1L, TransactionType.USE, 700L),
+                new PointBatchItem(2L, TransactionType.CHARGE, 500L)
+        );
+
+        // when
+        List<PointBatchResult> results = pointService.applyBatch(items);
+
+        // then
+        assertThat(results)
+                .extracting("userId", "success", "point", "message")
+                .containsExactly(
+                        tuple(1L, true, 1000L, null),
+                        tuple(2L, true, 2000L, null),
+                        tuple(1L, true, 300L, null),
+                        tuple(1L, false, null, "잔고 부족"),
+                        tuple(2L, false, null, "포인트 충전은 1,000원 이상부터 가능합니다.")
+                );
+        assertThat(pointService.getUserPoint(1L).point()).isEqualTo(300L);
+        assertThat(pointService.getUserPoint(2L).point()).isEqualTo(2000L);
+    }
+
+    @DisplayName("비동기 요청은 바로 반환되고, 같은 회원의 요청은 등록 순서대로 처리된다.")
+    @Test
+    void chargeAndUseAsync_withSameUser_thenExecuteInOrder() {
+        // given
+        long userId = 1L;
+
+        // when
+        CompletableFuture<UserPoint> charge = pointService.chargePointAsync(userId, 1000L);
+        CompletableFuture<UserPoint> firstUse = pointService.usePointAsync(userId, 700L);
+        CompletableFuture<UserPoint> secondUse = pointService.usePointAsync(userId, 700L);
+        CompletableFuture<UserPoint> secondCharge = pointService.chargePointAsync(userId, 2000L);
+
+        // then
+        assertThat(charge.join().point()).isEqualTo(1000L);
+        assertThat(firstUse.join().point()).isEqualTo(300L);
+        assertThatThrownBy(secondUse::join)
+                .hasCauseInstanceOf(UserPointException.class)
+                .hasMessageContaining("잔고 부족");
+        assertThat(secondCharge.join().point()).isEqualTo(2300L);
+        assertThat(pointService.getUserPointAsync(userId).join().point()).isEqualTo(2300L);
+        assertThat(pointService.getPointHistoriesAsync(userId).join())
+                .extracting("type", "amount")
+                .containsExactly(
+                        tuple(TransactionType.CHARGE, 1000L),
+                        tuple(TransactionType.USE, 700L),
+                        tuple(TransactionType.CHARGE, 2000L)
+                );
+    }
+
+    @DisplayName("포인트 충전/사용 시, 락 대기/보유 시간과 거절 사유별 건수가 기록된다.")
+    @Test
+    void chargeAndUsePoint_shouldRecordLockTimesAndRejections() {
+        // given
+        long userId = 1L;
+        List<PointBatchItem> items = List.of(
+                new PointBatchItem(userId, TransactionType.CHARGE, 1000L),
+                new PointBatchItem(userId, TransactionType.CHARGE, 500L),
+                new PointBatchItem(userId, TransactionType.USE, 2000L)
+        );
+
+        // when
+        pointService.applyBatch(items);
+
+        // then
+        assertThat(meterRegistry.get("point.lock.wait").tag("operation", "charge").timer().count()).isEqualTo(2L);
+        assertThat(meterRegistry.get("point.lock.hold").tag("operation", "use").timer().count()).isEqualTo(1L);
+        assertThat(meterRegistry.get("point.rejected").tag("reason", "min_charge").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("point.rejected").tag("reason", "insufficient_balance").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("point.lock.count").gauge().value()).isZero();
+    }
+
+    @DisplayName("포인트 충전/사용 시, 회원별 요약이 함께 갱신된다.")
+    @Test
+    void chargeAndUsePoint_shouldUpdateSummary() {
+        // given
+        long userId = 1L;
+
+        // when
+        pointService.chargePoint(userId, 3000L);
+        pointService.usePoint(userId, 1200L);
+        assertThatThrownBy(() -> pointService.usePoint(userId, 5000L)).isInstanceOf(UserPointException.class);
+
+        // then
+        PointSummary summary = pointService.getPointSummary(userId);
+        List<PointHistory> pointHistories = pointService.getPointHistories(userId);
+        assertThat(summary)
+                .extracting("userId", "totalCharged", "totalUsed", "transactionCount", "lastActivityMillis")
+                .containsExactly(userId, 3000L, 1200L, 2L, pointHistories.get(1).updateMillis());
+        assertThat(pointService.getPointSummary(2L)).isEqualTo(PointSummary.empty(2L));
+    }
+
+    @DisplayName("요약 검증 시, 저장된 내역으로 다시 계산한 요약과 다른 회원만 반환한다.")
+    @Test
+    void verifyPointSummaries_shouldReportDriftedUsers() {
+        // given
+        pointService.chargePoint(1L, 1000L);
+        pointService.chargePoint(2L, 2000L);
+        pointSummaryIndex.add(new PointHistory(99L, 2L, 500L, TransactionType.USE, System.currentTimeMillis()));
+
+        // when
+        List<PointSummaryDrift> drifts = pointService.verifyPointSummaries();
+
+        // then
+        assertThat(drifts).hasSize(1);
+        assertThat(drifts.get(0).userId()).isEqualTo(2L);
+        assertThat(drifts.get(0).expected().totalUsed()).isZero();
+        assertThat(drifts.get(0).actual().totalUsed()).isEqualTo(500L);
+    }
+
+    @DisplayName("스냅샷 조회 시, 충전/사용이 반영된 잔고와 변경 횟수만큼 증가한 버전을 반환한다.")
+    @Test
+    void getVersionedUserPoint_withSnapshot_thenReturnPublishedVersion() {
+        // given
+        long userId = 1L;
+        UserPointSnapshot userPointSnapshot = new UserPointSnapshot(true);
+        UserPointRepository userPointRepository = new SnapshotUserPointRepository(new UserPointTableRepository(userPointTable), userPointSnapshot);
+        PointService snapshotPointService = new PointServiceFixture()
+                .userPointRepository(userPointRepository)
+                .pointHistoryRepository(new IndexedPointHistoryRepository(pointHistoryTable))
+                .userPointSnapshot(userPointSnapshot)
+                .build();
+        VersionedUserPoint initial = snapshotPointService.getVersionedUserPoint(userId);
+
+        // when
+        UserPoint charged = snapshotPointService.chargePoint(userId, 2000L);
+        snapshotPointService.usePoint(userId, 500L);
+        VersionedUserPoint versioned = snapshotPointService.getVersionedUserPointAsync(userId).join();
+
+        // then
+        assertThat(initial.version()).isZero();
+        assertThat(versioned.version()).isEqualTo(2L);
+        assertThat(versioned.userPoint().point()).isEqualTo(1500L);
+        assertThat(versioned.userPoint().updateMillis()).isGreaterThanOrEqualTo(charged.updateMillis());
+    }
+
     private void executeChargePoint(long userId, long chargeAmount) {
         System.out.printf("%s : %d start charge at %d%n", Thread.currentThread().getName(), userId, System.nanoTime());
         pointService.chargePoint(userId, chargeAmount);
@@ -1,28 +1,54 @@
 package io.hhplus.tdd.point;
 
 import io.hhplus.tdd.UserPointException;
-import io.hhplus.tdd.database.PointHistoryTable;
-import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.PointLotIndex;
+import io.hhplus.tdd.database.PointRankingIndex;
+import io.hhplus.tdd.database.PointSummaryIndex;
+import io.hhplus.tdd.database.UserPointRepository;
+import io.hhplus.tdd.database.UserPointSnapshot;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class PointServiceUnitTest {
 
-    @InjectMocks
     private PointService pointService;
     @Mock
-    private UserPointTable userPointTable;
+    private UserPointRepository userPointRepository;
+    @Mock
+    private PointHistoryRepository pointHistoryRepository;
+    @Spy
+    private UserLockProvider userLockProvider = new RefCountedUserLockProvider();
+    @Mock
+    private PointMetrics pointMetrics;
+    @Mock
+    private PointSummaryIndex pointSummaryIndex;
     @Mock
-    private PointHistoryTable pointHistoryTable;
+    private UserPointSnapshot userPointSnapshot;
+    @Mock
+    private PointRankingIndex pointRankingIndex;
+    private final PointHoldStore pointHoldStore = new PointHoldStore(new RefCountedUserLockProvider(), 600_000L, 1_000L, false);
+
+    @BeforeEach
+    void setUp() {
+        PointWriteEngine pointWriteEngine = new LockPointWriteEngine(userPointRepository, pointHistoryRepository, userLockProvider,
+                pointMetrics, pointHoldStore, Runnable::run);
+        pointService = pointService(pointWriteEngine);
+    }
 
     @DisplayName("포인트 충전 시, 포인트가 증가하고 내역이 저장된다.")
     @Test
@@ -33,8 +59,8 @@ class PointServiceUnitTest {
         long chargePoint = 1000L;
         long currentTime = System.currentTimeMillis();
 
-        when(userPointTable.selectById(userId)).thenReturn(new UserPoint(userId, originalPoint, currentTime));
-        when(userPointTable.insertOrUpdate(userId, originalPoint + chargePoint)).thenReturn(new UserPoint(userId, originalPoint + chargePoint, currentTime));
+        when(userPointRepository.selectById(userId)).thenReturn(new UserPoint(userId, originalPoint, currentTime));
+        when(userPointRepository.insertOrUpdate(userId, originalPoint + chargePoint)).thenReturn(new UserPoint(userId, originalPoint + chargePoint, currentTime));
 
         // when
         UserPoint userPoint = pointService.chargePoint(userId, chargePoint);
@@ -45,7 +71,7 @@ class PointServiceUnitTest {
                 .containsExactly(userId, originalPoint + chargePoint, currentTime);
 
         ArgumentCaptor<Long> timeCaptor = ArgumentCaptor.forClass(Long.class);
-        verify(pointHistoryTable, times(1)).insert(eq(userId), eq(chargePoint), eq(TransactionType.CHARGE), timeCaptor.capture());
+        verify(pointHistoryRepository, times(1)).insert(eq(userId), eq(chargePoint), eq(TransactionType.CHARGE), timeCaptor.capture());
     }
 
     @DisplayName("포인트 충전 시, 입력된 값이 1000 미만인 경우 예외가 발생한다.")
@@ -70,8 +96,8 @@ class PointServiceUnitTest {
         long usePoint = 900L;
         long currentTime = System.currentTimeMillis();
 
-        when(userPointTable.selectById(userId)).thenReturn(new UserPoint(userId, originalPoint, currentTime));
-        when(userPointTable.insertOrUpdate(userId, originalPoint - usePoint)).thenReturn(new UserPoint(userId, originalPoint - usePoint, currentTime));
+        when(userPointRepository.selectById(userId)).thenReturn(new UserPoint(userId, originalPoint, currentTime));
+        when(userPointRepository.insertOrUpdate(userId, originalPoint - usePoint)).thenReturn(new UserPoint(userId, originalPoint - usePoint, currentTime));
 
         // when
         UserPoint remainingUserPoint = pointService.usePoint(userId, usePoint);
@@ -82,7 +108,7 @@ class PointServiceUnitTest {
                 .containsExactly(userId, originalPoint - usePoint, currentTime);
 
         ArgumentCaptor<Long> timeCaptor = ArgumentCaptor.forClass(Long.class);
-        verify(pointHistoryTable, times(1)).insert(eq(userId), eq(usePoint), eq(TransactionType.USE), timeCaptor.capture());
+        verify(pointHistoryRepository, times(1)).insert(eq(userId), eq(usePoint), eq(TransactionType.USE), timeCaptor.capture());
     }
 
     @DisplayName("포인트 사용 시, 입력된 값이 회원의 보유 포인트보다 큰 경우 예외가 발생한다.")
@@ -94,12 +120,60 @@ class PointServiceUnitTest {
         long initialPoint = 1000L;
 
         UserPoint mockUserPoint = new UserPoint(userId, initialPoint, System.currentTimeMillis());
-        when(userPointTable.selectById(userId)).thenReturn(mockUserPoint);
+        when(userPointRepository.selectById(userId)).thenReturn(mockUserPoint);
 
         // when //then
         assertThatThrownBy(() -> pointService.usePoint(userId, amount))
                 .isInstanceOf(UserPointException.class)
                 .hasMessage("잔고 부족");
-        verify(userPointTable).selectById(userId);
+        verify(userPointRepository).selectById(userId);
+    }
+
+    @DisplayName("포인트 충전 시, 설정된 처리 방식(PointWriteEngine)에 충전을 위임한다.")
+    @Test
+    void chargePoint_shouldDelegateToPointWriteEngine() {
+        // given
+        long userId = 1L;
+        long amount = 1000L;
+        UserPoint expected = new UserPoint(userId, amount, System.currentTimeMillis());
+
+        PointWriteEngine pointWriteEngine = mock(PointWriteEngine.class);
+        when(pointWriteEngine.charge(userId, amount)).thenReturn(expected);
+        PointService pointService = pointService(pointWriteEngine);
+
+        // when
+        UserPoint userPoint = pointService.chargePoint(userId, amount);
+
+        // then
+        assertThat(userPoint).isEqualTo(expected);
+        verifyNoInteractions(userPointRepository, pointHistoryRepository);
+    }
+
+    @DisplayName("포인트 내역을 페이지로 비동기 조회하면, 호출 스레드가 아닌 비동기 실행기에서 내역을 읽는다.")
+    @Test
+    void getPointHistoriesAsync_withPage_shouldReadOnAsyncExecutor() {
+        // given
+        long userId = 1L;
+        PointHistory history = new PointHistory(1L, userId, 1000L, TransactionType.CHARGE, System.currentTimeMillis());
+        when(pointHistoryRepository.selectByUserId(userId, 0L, 0L, Long.MAX_VALUE, 3)).thenReturn(List.of(history));
+        List<Runnable> submitted = new ArrayList<>();
+        PointService pointService = new PointService(userPointRepository, pointHistoryRepository, mock(PointWriteEngine.class), pointMetrics,
+                pointSummaryIndex, userPointSnapshot, pointHoldStore, new PointLotIndex(0L, 1_000L, 0L), pointRankingIndex, Runnable::run, submitted::add);
+
+        // when
+        CompletableFuture<PointHistoryPage> page = pointService.getPointHistoriesAsync(userId, 0L, 0L, Long.MAX_VALUE, 2);
+
+        // then
+        assertThat(page).isNotDone();
+        verifyNoInteractions(pointHistoryRepository);
+
+        submitted.forEach(Runnable::run);
+        assertThat(page.join().histories()).containsExactly(history);
+        assertThat(page.join().nextCursor()).isNull();
+    }
+
+    private PointService pointService(PointWriteEngine pointWriteEngine) {
+        return new PointService(userPointRepository, pointHistoryRepository, pointWriteEngine, pointMetrics, pointSummaryIndex,
+                userPointSnapshot, pointHoldStore, new PointLotIndex(0L, 1_000L, 0L), pointRankingIndex, Runnable::run, Runnable::run);
     }
-}
\ No newline at end of file
+}
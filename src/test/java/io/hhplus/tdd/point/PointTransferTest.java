@@ -0,0 +1,258 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.UserPointException;
+import io.hhplus.tdd.database.IndexedPointHistoryRepository;
+import io.hhplus.tdd.database.OffHeapPointHistoryRepository;
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.UserPointRepository;
+import io.hhplus.tdd.database.UserPointTableRepository;
+import io.hhplus.tdd.point.PointUnitOfWorkTest.FaultInjector;
+import io.hhplus.tdd.point.PointUnitOfWorkTest.FaultyPointHistoryTable;
+import io.hhplus.tdd.point.PointUnitOfWorkTest.FaultyUserPointTable;
+import io.hhplus.tdd.point.PointUnitOfWorkTest.InjectedFaultException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PointTransferTest {
+
+    @DisplayName("모든 락 구현에서 임의의 회원 사이 이체가 동시에 몰려도, 교착 상태 없이 끝나고 전체 포인트는 보존된다.")
+    @Test
+    void transferPoint_withRandomTransferGraph_shouldNotDeadlockAndConservePoints() throws Exception {
+        List<UserLockProvider> userLockProviders = List.of(
+                new ConcurrentMapUserLockProvider(),
+                // 락 수가 회원 수보다 적어, 회원 id 순서와 락 순서가 다른 이체 쌍이 생긴다.
+                new StripedUserLockProvider(16),
+                new RefCountedUserLockProvider()
+        );
+        for (UserLockProvider userLockProvider : userLockProviders) {
+            // given
+            String name = userLockProvider.getClass().getSimpleName();
+            int users = 100;
+            long initialPoint = 10_000L;
+            UserPointRepository userPointRepository = new InMemoryUserPointRepository();
+            PointHistoryRepository pointHistoryRepository = new OffHeapPointHistoryRepository();
+            PointService pointService = pointService(userLockProvider, userPointRepository, pointHistoryRepository);
+            for (long userId = 1; userId <= users; userId++) {
+                pointService.chargePoint(userId, initialPoint);
+            }
+
+            Random random = new Random(42L);
+            LongAdder rejected = new LongAdder();
+            List<Callable<Void>> transfers = new ArrayList<>();
+            for (int i = 0; i < 20_000; i++) {
+                long from = random.nextInt(users) + 1;
+                long to = (from + random.nextInt(users - 1)) % users + 1;
+                long amount = random.nextInt(5_000) + 1;
+                transfers.add(() -> {
+                    try {
+                        pointService.transferPoint(from, to, amount);
+                    } catch (UserPointException e) {
+                        rejected.increment();
+                    }
+                    return null;
+                });
+            }
+
+            // when
+            // 교착 상태가 생기면 작업이 제한 시간 안에 끝나지 않아 취소된다.
+            ExecutorService executor = Executors.newFixedThreadPool(16);
+            List<Future<Void>> results = executor.invokeAll(transfers, 30, TimeUnit.SECONDS);
+            executor.shutdownNow();
+
+            // then
+            assertThat(results).as(name).noneMatch(Future::isCancelled);
+            long total = 0;
+            for (long userId = 1; userId <= users; userId++) {
+                long point = userPointRepository.selectById(userId).point();
+                long expected = pointHistoryRepository.selectAllByUserId(userId).stream()
+                        .mapToLong(history -> history.type() == TransactionType.CHARGE ? history.amount() : -history.amount())
+                        .sum();
+                assertThat(point).as("%s userId=%d", name, userId).isEqualTo(expected).isNotNegative();
+                total += point;
+            }
+            assertThat(total).as(name).isEqualTo(users * initialPoint);
+            assertThat(rejected.sum()).as(name).isLessThan(transfers.size());
+        }
+    }
+
+    @DisplayName("이체하면, 두 회원의 잔고와 사용/충전 내역이 함께 저장된다.")
+    @Test
+    void transferPoint_shouldMovePointAndSaveBothHistories() {
+        // given
+        UserPointRepository userPointRepository = new InMemoryUserPointRepository();
+        PointHistoryRepository pointHistoryRepository = new OffHeapPointHistoryRepository();
+        PointService pointService = pointService(new RefCountedUserLockProvider(), userPointRepository, pointHistoryRepository);
+        pointService.chargePoint(1L, 3000L);
+
+        // when
+        PointTransferResult result = pointService.transferPoint(1L, 2L, 1200L);
+
+        // then
+        assertThat(result.from().point()).isEqualTo(1800L);
+        assertThat(result.to().point()).isEqualTo(1200L);
+        assertThat(pointHistoryRepository.selectAllByUserId(1L))
+                .extracting("type", "amount")
+                .containsExactly(tuple(TransactionType.CHARGE, 3000L), tuple(TransactionType.USE, 1200L));
+        assertThat(pointHistoryRepository.selectAllByUserId(2L))
+                .extracting("type", "amount")
+                .containsExactly(tuple(TransactionType.CHARGE, 1200L));
+    }
+
+    @DisplayName("보내는 회원의 잔고보다 많이 이체하면, 두 회원의 잔고와 내역이 바뀌지 않고 거절된다.")
+    @Test
+    void transferPoint_withInsufficientBalance_thenReject() {
+        // given
+        UserPointRepository userPointRepository = new InMemoryUserPointRepository();
+        PointHistoryRepository pointHistoryRepository = new OffHeapPointHistoryRepository();
+        PointService pointService = pointService(new RefCountedUserLockProvider(), userPointRepository, pointHistoryRepository);
+        pointService.chargePoint(1L, 1000L);
+
+        // when // then
+        assertThatThrownBy(() -> pointService.transferPoint(1L, 2L, 1500L))
+                .isInstanceOf(UserPointException.class)
+                .hasMessageContaining("잔고 부족");
+        assertThat(userPointRepository.selectById(1L).point()).isEqualTo(1000L);
+        assertThat(userPointRepository.selectById(2L).point()).isZero();
+        assertThat(pointHistoryRepository.selectAllByUserId(2L)).isEmpty();
+    }
+
+    @DisplayName("받는 회원의 내역 저장에 실패하면, 사용한 포인트를 충전 내역과 함께 보내는 회원에게 되돌린다.")
+    @Test
+    void transferPoint_whenReceiverHistoryFails_shouldRefundSender() {
+        // given
+        FaultInjector faultInjector = new FaultInjector();
+        FaultyUserPointTable userPointTable = new FaultyUserPointTable(faultInjector);
+        PointHistoryRepository pointHistoryRepository = new IndexedPointHistoryRepository(new FaultyPointHistoryTable(faultInjector));
+        PointService pointService = pointService(new RefCountedUserLockProvider(), new UserPointTableRepository(userPointTable), pointHistoryRepository);
+        pointService.chargePoint(1L, 3000L);
+        // 보내는 회원의 사용 내역은 저장하고, 받는 회원의 충전 내역에서 실패한다.
+        faultInjector.failNext("point_history.insert", 1);
+
+        // when // then
+        assertThatThrownBy(() -> pointService.transferPoint(1L, 2L, 1000L)).isInstanceOf(InjectedFaultException.class);
+        assertThat(userPointTable.selectById(1L).point()).isEqualTo(3000L);
+        assertThat(userPointTable.selectById(2L).point()).isZero();
+        assertThat(pointHistoryRepository.selectAllByUserId(1L))
+                .extracting("type", "amount")
+                .containsExactly(
+                        tuple(TransactionType.CHARGE, 3000L),
+                        tuple(TransactionType.USE, 1000L),
+                        tuple(TransactionType.CHARGE, 1000L)
+                );
+        assertThat(pointHistoryRepository.selectAllByUserId(2L)).isEmpty();
+    }
+
+    @DisplayName("모든 처리 방식에서 이체와 충전/사용이 동시에 몰려도, 잔고는 내역의 합과 같고 전체 포인트는 성공한 충전/사용만큼만 바뀐다.")
+    @Test
+    void transferPoint_withEveryWriteMode_shouldConservePointsAgainstConcurrentChargeAndUse() throws Exception {
+        for (PointWriteMode writeMode : PointWriteMode.values()) {
+            // given
+            int users = 10;
+            long initialPoint = 10_000L;
+            UserPointRepository userPointRepository = new InMemoryUserPointRepository();
+            PointHistoryRepository pointHistoryRepository = new OffHeapPointHistoryRepository();
+            try (PointServiceFixture fixture = new PointServiceFixture()
+                    .userPointRepository(userPointRepository)
+                    .pointHistoryRepository(pointHistoryRepository)
+                    .writeMode(writeMode)
+                    .shardCount(4)) {
+                PointService pointService = fixture.build();
+                for (long userId = 1; userId <= users; userId++) {
+                    pointService.chargePoint(userId, initialPoint);
+                }
+
+                Random random = new Random(42L);
+                LongAdder charged = new LongAdder();
+                LongAdder used = new LongAdder();
+                List<Callable<Void>> requests = new ArrayList<>();
+                for (int i = 0; i < 3_000; i++) {
+                    long from = random.nextInt(users) + 1;
+                    long to = (from + random.nextInt(users - 1)) % users + 1;
+                    long amount = random.nextInt(3_000) + 1_000;
+                    int kind = i % 3;
+                    requests.add(() -> {
+                        try {
+                            switch (kind) {
+                                case 0 -> pointService.transferPoint(from, to, amount);
+                                case 1 -> {
+                                    pointService.chargePoint(from, amount);
+                                    charged.add(amount);
+                                }
+                                default -> {
+                                    pointService.usePoint(from, amount);
+                                    used.add(amount);
+                                }
+                            }
+                        } catch (UserPointException ignored) {
+                            // 잔고 부족은 요청 실패로만 처리된다.
+                        }
+                        return null;
+                    });
+                }
+
+                // when
+                ExecutorService executor = Executors.newFixedThreadPool(16);
+                List<Future<Void>> results = executor.invokeAll(requests, 30, TimeUnit.SECONDS);
+                executor.shutdownNow();
+
+                // then
+                assertThat(results).as(writeMode.name()).noneMatch(Future::isCancelled);
+                long total = 0;
+                for (long userId = 1; userId <= users; userId++) {
+                    long point = pointService.getUserPoint(userId).point();
+                    long expected = pointHistoryRepository.selectAllByUserId(userId).stream()
+                            .mapToLong(history -> history.type() == TransactionType.CHARGE ? history.amount() : -history.amount())
+                            .sum();
+                    assertThat(point).as("%s userId=%d", writeMode, userId).isEqualTo(expected).isNotNegative();
+                    total += point;
+                }
+                assertThat(total).as(writeMode.name()).isEqualTo(users * initialPoint + charged.sum() - used.sum());
+            }
+        }
+    }
+
+    private static PointService pointService(
+            UserLockProvider userLockProvider,
+            UserPointRepository userPointRepository,
+            PointHistoryRepository pointHistoryRepository
+    ) {
+        return new PointServiceFixture()
+                .userLockProvider(userLockProvider)
+                .userPointRepository(userPointRepository)
+                .pointHistoryRepository(pointHistoryRepository)
+                .build();
+    }
+
+    /**
+     * 지연 없이 잔고를 보관하는 저장소. 많은 회원 사이의 이체를 짧은 시간에 재현하기 위해 UserPointTable 대신 사용한다.
+     */
+    static class InMemoryUserPointRepository implements UserPointRepository {
+
+        private final ConcurrentHashMap<Long, UserPoint> points = new ConcurrentHashMap<>();
+
+        @Override
+        public UserPoint selectById(long id) {
+            return points.getOrDefault(id, UserPoint.empty(id));
+        }
+
+        @Override
+        public UserPoint insertOrUpdate(long id, long amount) {
+            UserPoint userPoint = new UserPoint(id, amount, System.currentTimeMillis());
+            points.put(id, userPoint);
+            return userPoint;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.IndexedPointHistoryRepository;
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointRepository;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.database.UserPointTableRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PointUnitOfWorkTest {
+
+    private FaultInjector faultInjector;
+    private FaultyUserPointTable userPointTable;
+    private UserPointRepository userPointRepository;
+    private PointHistoryRepository pointHistoryRepository;
+
+    @BeforeEach
+    void setUp() {
+        faultInjector = new FaultInjector();
+        userPointTable = new FaultyUserPointTable(faultInjector);
+        userPointRepository = new UserPointTableRepository(userPointTable);
+        pointHistoryRepository = new IndexedPointHistoryRepository(new FaultyPointHistoryTable(faultInjector));
+    }
+
+    @DisplayName("commit 시, stage 된 잔고와 내역이 함께 저장된다.")
+    @Test
+    void commit_shouldSaveBalanceAndHistories() {
+        // given
+        long userId = 1L;
+        PointUnitOfWork unitOfWork = new PointUnitOfWork(userPointRepository, pointHistoryRepository);
+        unitOfWork.stage(userId, TransactionType.CHARGE, 2000L);
+        unitOfWork.stage(userId, TransactionType.USE, 500L);
+
+        // when
+        unitOfWork.commit();
+
+        // then
+        assertThat(unitOfWork.committed(userId).point()).isEqualTo(1500L);
+        assertThat(unitOfWork.committedCount()).isEqualTo(2);
+        assertThat(pointHistoryRepository.selectAllByUserId(userId))
+                .extracting("amount", "type")
+                .containsExactly(
+                        tuple(2000L, TransactionType.CHARGE),
+                        tuple(500L, TransactionType.USE)
+                );
+    }
+
+    @DisplayName("잔고 저장에 실패하면, 내역이 저장되지 않는다.")
+    @Test
+    void commit_whenBalanceUpdateFails_shouldNotSaveHistory() {
+        // given
+        long userId = 1L;
+        PointUnitOfWork unitOfWork = new PointUnitOfWork(userPointRepository, pointHistoryRepository);
+        unitOfWork.stage(userId, TransactionType.CHARGE, 1000L);
+        faultInjector.failNext("user_point.insertOrUpdate");
+
+        // when // then
+        assertThatThrownBy(unitOfWork::commit).isInstanceOf(InjectedFaultException.class);
+        assertThat(userPointTable.selectById(userId).point()).isZero();
+        assertThat(pointHistoryRepository.selectAllByUserId(userId)).isEmpty();
+    }
+
+    @DisplayName("내역 저장에 실패하면, 저장에 성공한 내역까지만 반영된 잔고로 되돌린다.")
+    @Test
+    void commit_whenHistoryInsertFails_shouldCompensateBalance() {
+        // given
+        long userId = 1L;
+        userPointTable.insertOrUpdate(userId, 1000L);
+        PointUnitOfWork unitOfWork = new PointUnitOfWork(userPointRepository, pointHistoryRepository);
+        unitOfWork.stage(userId, TransactionType.CHARGE, 2000L);
+        unitOfWork.stage(userId, TransactionType.USE, 500L);
+        faultInjector.failNext("point_history.insert", 1);
+
+        // when // then
+        assertThatThrownBy(unitOfWork::commit).isInstanceOf(InjectedFaultException.class);
+        assertThat(unitOfWork.committedCount()).isEqualTo(1);
+        assertThat(userPointTable.selectById(userId).point()).isEqualTo(3000L);
+        assertThat(pointHistoryRepository.selectAllByUserId(userId))
+                .extracting("amount", "type")
+                .containsExactly(tuple(2000L, TransactionType.CHARGE));
+    }
+
+    @DisplayName("모든 Table 호출이 임의로 실패하는 동시 부하에서도, 회원별 잔고는 저장된 내역의 합과 같다.")
+    @Test
+    void chargeAndUse_underRandomFaults_shouldKeepBalanceConsistentWithHistories() {
+        // given
+        // UserPointTable 의 HashMap 이 동시 쓰기 중 resize 되지 않도록 회원 수를 기본 용량 이하로 둔다.
+        int users = 10;
+        int requestsPerUser = 9;
+        faultInjector.failureRate = 0.2;
+
+        PointService pointService = new PointServiceFixture()
+                .userPointRepository(userPointRepository)
+                .pointHistoryRepository(pointHistoryRepository)
+                .build();
+
+        LongAdder succeeded = new LongAdder();
+        List<Callable<Void>> requests = new ArrayList<>();
+        for (long userId = 1; userId <= users; userId++) {
+            long id = userId;
+            for (int request = 0; request < requestsPerUser; request++) {
+                boolean charge = request % 3 != 2;
+                requests.add(() -> {
+                    try {
+                        if (charge) {
+                            pointService.chargePoint(id, 1000L);
+                        } else {
+                            pointService.usePoint(id, 700L);
+                        }
+                        succeeded.increment();
+                    } catch (RuntimeException ignored) {
+                        // 주입된 장애와 잔고 부족은 요청 실패로만 처리된다.
+                    }
+                    return null;
+                });
+            }
+        }
+
+        // when
+        try (ExecutorService executor = Executors.newFixedThreadPool(32)) {
+            executor.invokeAll(requests);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        faultInjector.failureRate = 0;
+
+        // then
+        assertThat(faultInjector.injectedCount()).isPositive();
+        long histories = 0;
+        for (long userId = 1; userId <= users; userId++) {
+            List<PointHistory> userHistories = pointHistoryRepository.selectAllByUserId(userId);
+            long expected = userHistories.stream()
+                    .mapToLong(history -> history.type() == TransactionType.CHARGE ? history.amount() : -history.amount())
+                    .sum();
+            assertThat(userPointTable.selectById(userId).point()).as("userId=%d", userId).isEqualTo(expected);
+            histories += userHistories.size();
+        }
+        assertThat(histories).isEqualTo(succeeded.sum());
+    }
+
+    /**
+     * Table 호출마다 정해진 확률로, 또는 지정한 호출에서 예외를 발생시킵니다.
+     */
+    static class FaultInjector {
+
+        volatile double failureRate;
+        private final ConcurrentHashMap<String, AtomicInteger> scheduled = new ConcurrentHashMap<>();
+        private final LongAdder injected = new LongAdder();
+
+        void failNext(String call) {
+            failNext(call, 0);
+        }
+
+        /**
+         * skip 번의 호출은 통과시키고, 그 다음 호출을 실패시킨다.
+         */
+        void failNext(String call, int skip) {
+            scheduled.put(call, new AtomicInteger(skip));
+        }
+
+        void maybeFail(String call) {
+            AtomicInteger remaining = scheduled.get(call);
+            boolean scheduledFailure = remaining != null && remaining.getAndDecrement() == 0;
+            if (scheduledFailure || ThreadLocalRandom.current().nextDouble() < failureRate) {
+                injected.increment();
+                throw new InjectedFaultException(call);
+            }
+        }
+
+        long injectedCount() {
+            return injected.sum();
+        }
+    }
+
+    static class InjectedFaultException extends RuntimeException {
+
+        InjectedFaultException(String call) {
+            super("injected fault: " + call);
+        }
+    }
+
+    static class FaultyUserPointTable extends UserPointTable {
+
+        private final FaultInjector faultInjector;
+
+        FaultyUserPointTable(FaultInjector faultInjector) {
+            this.faultInjector = faultInjector;
+        }
+
+        @Override
+        public UserPoint selectById(Long id) {
+            faultInjector.maybeFail("user_point.selectById");
+            return super.selectById(id);
+        }
+
+        @Override
+        public UserPoint insertOrUpdate(long id, long amount) {
+            faultInjector.maybeFail("user_point.insertOrUpdate");
+            return super.insertOrUpdate(id, amount);
+        }
+    }
+
+    static class FaultyPointHistoryTable extends PointHistoryTable {
+
+        private final FaultInjector faultInjector;
+
+        FaultyPointHistoryTable(FaultInjector faultInjector) {
+            this.faultInjector = faultInjector;
+        }
+
+        @Override
+        public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+            faultInjector.maybeFail("point_history.insert");
+            return super.insert(userId, amount, type, updateMillis);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.UserPointException;
+import io.hhplus.tdd.database.IndexedPointHistoryRepository;
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointRepository;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.database.UserPointTableRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ShardedPointEngineTest {
+
+    private UserPointTable userPointTable;
+    private PointHistoryRepository pointHistoryRepository;
+    private ShardedPointEngine shardedPointEngine;
+
+    @BeforeEach
+    void setUp() {
+        userPointTable = new UserPointTable();
+        UserPointRepository userPointRepository = new UserPointTableRepository(userPointTable);
+        pointHistoryRepository = new IndexedPointHistoryRepository(new PointHistoryTable());
+        shardedPointEngine = new ShardedPointEngine(userPointRepository, pointHistoryRepository,
+                new PointHoldStore(new RefCountedUserLockProvider(), 600_000L, 1_000L, false), 4, 1024, 100, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        shardedPointEngine.close();
+    }
+
+    @DisplayName("같은 회원의 요청은 들어온 순서대로 처리되고, 잔고 부족인 요청만 거절된다.")
+    @Test
+    void chargeAndUseAsync_withSameUser_thenApplyInOrder() {
+        // given
+        long userId = 1L;
+
+        // when
+        CompletableFuture<UserPoint> charge = shardedPointEngine.chargeAsync(userId, 1000L);
+        CompletableFuture<UserPoint> firstUse = shardedPointEngine.useAsync(userId, 700L);
+        CompletableFuture<UserPoint> secondUse = shardedPointEngine.useAsync(userId, 700L);
+        CompletableFuture<UserPoint> secondCharge = shardedPointEngine.chargeAsync(userId, 2000L);
+
+        // then
+        assertThat(charge.join().point()).isEqualTo(1000L);
+        assertThat(firstUse.join().point()).isEqualTo(300L);
+        assertThatThrownBy(secondUse::join)
+                .hasCauseInstanceOf(UserPointException.class)
+                .hasMessageContaining("잔고 부족");
+        assertThat(secondCharge.join().point()).isEqualTo(2300L);
+        assertThat(userPointTable.selectById(userId).point()).isEqualTo(2300L);
+        assertThat(pointHistoryRepository.selectAllByUserId(userId))
+                .extracting("type", "amount")
+                .containsExactly(
+                        tuple(TransactionType.CHARGE, 1000L),
+                        tuple(TransactionType.USE, 700L),
+                        tuple(TransactionType.CHARGE, 2000L)
+                );
+    }
+
+    @DisplayName("여러 샤드에 나뉜 회원의 요청이 동시에 들어와도, 회원별 잔고는 저장된 내역의 합과 같다.")
+    @Test
+    void chargeAsync_withManyUsers_thenKeepBalanceConsistentWithHistories() {
+        // given
+        // UserPointTable 의 HashMap 이 동시 쓰기 중 resize 되지 않도록 회원 수를 기본 용량 이하로 둔다.
+        int users = 10;
+        int requestsPerUser = 5;
+
+        // when
+        List<CompletableFuture<UserPoint>> results = new ArrayList<>();
+        for (int request = 0; request < requestsPerUser; request++) {
+            for (long userId = 1; userId <= users; userId++) {
+                results.add(shardedPointEngine.chargeAsync(userId, 1000L));
+            }
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+
+        // then
+        for (long userId = 1; userId <= users; userId++) {
+            assertThat(userPointTable.selectById(userId).point()).as("userId=%d", userId).isEqualTo(1000L * requestsPerUser);
+            assertThat(pointHistoryRepository.selectAllByUserId(userId)).hasSize(requestsPerUser);
+        }
+    }
+
+    @DisplayName("배제 구간의 작업은 앞서 들어온 요청이 모두 반영된 상태를 보고, 작업이 바꾼 잔고는 이후 요청에 반영된다.")
+    @Test
+    void withUserExclusive_shouldSeePreviouslySubmittedChanges_andInvalidateCachedBalance() {
+        // given
+        long userId = 1L;
+        shardedPointEngine.chargeAsync(userId, 1000L);
+        shardedPointEngine.chargeAsync(userId, 2000L);
+
+        // when
+        long point = shardedPointEngine.withUserExclusive(userId, repository -> {
+            long current = repository.selectById(userId).point();
+            repository.insertOrUpdate(userId, current - 500L);
+            return current;
+        });
+        UserPoint charged = shardedPointEngine.charge(userId, 1000L);
+
+        // then
+        assertThat(point).isEqualTo(3000L);
+        assertThat(charged.point()).isEqualTo(3500L);
+    }
+}
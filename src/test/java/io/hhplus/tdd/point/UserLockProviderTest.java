@@ -0,0 +1,203 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.UserPointException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class UserLockProviderTest {
+
+    @DisplayName("모든 구현에서 같은 회원에 대한 작업은 동시에 실행되지 않는다.")
+    @Test
+    void withLock_shouldExcludeConcurrentActions_withSameUser() throws InterruptedException {
+        for (UserLockProvider provider : providers()) {
+            // given
+            long userId = 1L;
+            long[] counter = {0L};
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+
+            // when
+            for (int i = 0; i < 10_000; i++) {
+                executor.execute(() -> provider.withLock(userId, () -> counter[0]++));
+            }
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+
+            // then
+            assertThat(counter[0]).as(provider.getClass().getSimpleName()).isEqualTo(10_000L);
+        }
+    }
+
+    @DisplayName("같은 스레드에서 같은 회원의 락을 중첩해 획득할 수 있다.")
+    @Test
+    void withLock_shouldBeReentrant() {
+        for (UserLockProvider provider : providers()) {
+            // when
+            long result = provider.withLock(1L, () -> provider.withLock(1L, () -> 1000L));
+
+            // then
+            assertThat(result).isEqualTo(1000L);
+        }
+    }
+
+    @DisplayName("모든 구현에서 두 회원의 락을 서로 반대 순서로 요청해도, 교착 상태 없이 모두 실행된다.")
+    @Test
+    void withLocks_shouldNotDeadlock_whenRequestedInOppositeOrder() throws InterruptedException {
+        for (UserLockProvider provider : providers()) {
+            // given
+            // 16개의 락을 공유하는 STRIPED 구현에서 회원 id 순서와 락 순서가 다른 쌍이 생기도록 여러 회원을 사용한다.
+            AtomicInteger completed = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+
+            // when
+            for (int i = 0; i < 10_000; i++) {
+                long first = i % 40 + 1;
+                long second = (i * 7) % 40 + 1;
+                executor.execute(() -> provider.withLocks(first, second, completed::incrementAndGet));
+                executor.execute(() -> provider.withLocks(second, first, completed::incrementAndGet));
+            }
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+
+            // then
+            assertThat(completed.get()).as(provider.getClass().getSimpleName()).isEqualTo(20_000);
+        }
+    }
+
+    @DisplayName("참조 카운트 방식은 락을 보유하거나 대기하는 스레드가 없으면 락을 제거한다.")
+    @Test
+    void refCounted_shouldRemoveLock_whenNoThreadHoldsOrWaits() throws InterruptedException {
+        // given
+        RefCountedUserLockProvider provider = new RefCountedUserLockProvider();
+        CountDownLatch acquired = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread holder = new Thread(() -> provider.withLock(1L, () -> {
+            acquired.countDown();
+            awaitQuietly(release);
+            return null;
+        }));
+        holder.start();
+        acquired.await();
+
+        // when
+        for (long userId = 2L; userId <= 1_000L; userId++) {
+            provider.withLock(userId, () -> null);
+        }
+
+        // then
+        assertThat(provider.lockCount()).isEqualTo(1);
+
+        release.countDown();
+        holder.join();
+        assertThat(provider.lockCount()).isZero();
+    }
+
+    @DisplayName("스트라이프 방식은 회원 수와 관계없이 락 개수가 일정하다.")
+    @Test
+    void striped_shouldKeepFixedLockCount() {
+        // given
+        StripedUserLockProvider provider = new StripedUserLockProvider(1000);
+
+        // when
+        for (long userId = 1L; userId <= 100_000L; userId++) {
+            provider.withLock(userId, () -> null);
+        }
+
+        // then
+        assertThat(provider.lockCount()).isEqualTo(1024);
+    }
+
+    @DisplayName("모든 구현에서 락을 기다리는 요청이 제한 수에 도달하면, 이후 요청은 기다리지 않고 거절된다.")
+    @Test
+    void withLock_whenWaitersExceedLimit_thenRejectImmediately() throws InterruptedException {
+        for (UserLockProvider provider : providers(new UserLockLimits(1, 0L))) {
+            // given
+            long userId = 1L;
+            CountDownLatch acquired = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            Thread holder = new Thread(() -> provider.withLock(userId, () -> {
+                acquired.countDown();
+                awaitQuietly(release);
+                return null;
+            }));
+            holder.start();
+            acquired.await();
+            Thread waiter = new Thread(() -> provider.withLock(userId, () -> null));
+            waiter.start();
+            while (waiter.getState() != Thread.State.WAITING) {
+                Thread.onSpinWait();
+            }
+
+            // when // then
+            assertThatThrownBy(() -> provider.withLock(userId, () -> null))
+                    .as(provider.getClass().getSimpleName())
+                    .isInstanceOf(UserPointException.class)
+                    .extracting("reason")
+                    .isEqualTo(UserPointException.Reason.TOO_MANY_WAITERS);
+
+            release.countDown();
+            holder.join();
+            waiter.join();
+            assertThat(provider.withLock(userId, () -> 1000L)).isEqualTo(1000L);
+        }
+    }
+
+    @DisplayName("모든 구현에서 제한 시간 안에 락을 얻지 못하면, 작업을 실행하지 않고 거절된다.")
+    @Test
+    void withLock_whenTimeoutElapsed_thenReject() throws InterruptedException {
+        for (UserLockProvider provider : providers(new UserLockLimits(0, 50L))) {
+            // given
+            long userId = 1L;
+            boolean[] executed = {false};
+            CountDownLatch acquired = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            Thread holder = new Thread(() -> provider.withLock(userId, () -> {
+                acquired.countDown();
+                awaitQuietly(release);
+                return null;
+            }));
+            holder.start();
+            acquired.await();
+
+            // when // then
+            assertThatThrownBy(() -> provider.withLock(userId, () -> executed[0] = true))
+                    .as(provider.getClass().getSimpleName())
+                    .isInstanceOf(UserPointException.class)
+                    .extracting("reason")
+                    .isEqualTo(UserPointException.Reason.LOCK_TIMEOUT);
+            assertThat(executed[0]).isFalse();
+
+            release.countDown();
+            holder.join();
+        }
+    }
+
+    private static Iterable<UserLockProvider> providers() {
+        return providers(UserLockLimits.UNBOUNDED);
+    }
+
+    private static Iterable<UserLockProvider> providers(UserLockLimits limits) {
+        return Stream.<UserLockProvider>of(
+                new ConcurrentMapUserLockProvider(limits),
+                new StripedUserLockProvider(16, limits),
+                new RefCountedUserLockProvider(limits)
+        ).toList();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
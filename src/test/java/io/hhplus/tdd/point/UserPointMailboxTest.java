@@ -0,0 +1,211 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.UserPointException;
+import io.hhplus.tdd.database.IndexedPointHistoryRepository;
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.database.UserPointTableRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserPointMailboxTest {
+
+    private final UserLockProvider userLockProvider = new RefCountedUserLockProvider();
+    private UserPointTable userPointTable;
+    private PointHistoryTable pointHistoryTable;
+    private Queue<Runnable> drainTasks;
+    private UserPointMailbox userPointMailbox;
+
+    @BeforeEach
+    void setUp() {
+        userPointTable = spy(new UserPointTable());
+        pointHistoryTable = new PointHistoryTable();
+        drainTasks = new ConcurrentLinkedQueue<>();
+        userPointMailbox = new UserPointMailbox(new UserPointTableRepository(userPointTable), new IndexedPointHistoryRepository(pointHistoryTable),
+                userLockProvider, new PointHoldStore(userLockProvider, 600_000L, 1_000L, false), 100, drainTasks::add, pointMetrics());
+    }
+
+    @DisplayName("큐에 쌓인 요청들을 한 번의 조회와 한 번의 저장으로 처리한다.")
+    @Test
+    void drain_shouldApplyPendingCommands_withSingleSelectAndUpdate() throws Exception {
+        // given
+        long userId = 1L;
+        long amount = 1000L;
+
+        List<CompletableFuture<UserPoint>> results = List.of(
+                submitAndWait(() -> userPointMailbox.charge(userId, amount), userId, 1),
+                submitAndWait(() -> userPointMailbox.charge(userId, amount), userId, 2),
+                submitAndWait(() -> userPointMailbox.charge(userId, amount), userId, 3)
+        );
+
+        // when
+        runDrainTasks();
+
+        // then
+        assertThat(results).extracting(result -> result.join().point())
+                .containsExactly(1000L, 2000L, 3000L);
+        assertThat(pointHistoryTable.selectAllByUserId(userId)).hasSize(3);
+        verify(userPointTable, times(1)).selectById(userId);
+        verify(userPointTable, times(1)).insertOrUpdate(userId, 3000L);
+    }
+
+    @DisplayName("잔고가 부족한 요청은 큐 순서대로 해당 요청만 실패한다.")
+    @Test
+    void drain_shouldRejectOnlyInsufficientCommand_inQueueOrder() throws Exception {
+        // given
+        long userId = 1L;
+        userPointTable.insertOrUpdate(userId, 1000L);
+
+        CompletableFuture<UserPoint> firstUse = submitAndWait(() -> userPointMailbox.use(userId, 700L), userId, 1);
+        CompletableFuture<UserPoint> secondUse = submitAndWait(() -> userPointMailbox.use(userId, 700L), userId, 2);
+        CompletableFuture<UserPoint> charge = submitAndWait(() -> userPointMailbox.charge(userId, 1000L), userId, 3);
+
+        // when
+        runDrainTasks();
+
+        // then
+        assertThat(firstUse.get(5, TimeUnit.SECONDS).point()).isEqualTo(300L);
+        assertThatThrownBy(() -> secondUse.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(UserPointException.class)
+                .hasMessageContaining("잔고 부족");
+        assertThat(charge.get(5, TimeUnit.SECONDS).point()).isEqualTo(1300L);
+
+        assertThat(pointHistoryTable.selectAllByUserId(userId))
+                .extracting("amount", "type")
+                .containsExactly(
+                        tuple(700L, TransactionType.USE),
+                        tuple(1000L, TransactionType.CHARGE)
+                );
+    }
+
+    @DisplayName("비동기 요청은 큐에 등록된 뒤 바로 반환되고, drainer 가 반영하면 완료된다.")
+    @Test
+    void chargeAsync_shouldReturnImmediately_thenCompleteAfterDrain() {
+        // given
+        long userId = 1L;
+
+        // when
+        CompletableFuture<UserPoint> first = userPointMailbox.chargeAsync(userId, 1000L);
+        CompletableFuture<UserPoint> second = userPointMailbox.chargeAsync(userId, 2000L);
+
+        // then
+        assertThat(first).isNotDone();
+        assertThat(second).isNotDone();
+        assertThat(userPointMailbox.pendingCount(userId)).isEqualTo(2);
+
+        runDrainTasks();
+
+        assertThat(first.join().point()).isEqualTo(1000L);
+        assertThat(second.join().point()).isEqualTo(3000L);
+    }
+
+    @DisplayName("동일한 회원에 대한 동시 요청이 mailbox 를 통해 순차적으로 반영된다.")
+    @Test
+    void concurrentRequests_withSameUser_thenApplySequentially() {
+        // given
+        long userId = 1L;
+        ExecutorService drainExecutor = Executors.newFixedThreadPool(2);
+        UserPointMailbox mailbox = new UserPointMailbox(new UserPointTableRepository(userPointTable), new IndexedPointHistoryRepository(pointHistoryTable),
+                userLockProvider, new PointHoldStore(userLockProvider, 600_000L, 1_000L, false), 100, drainExecutor, pointMetrics());
+
+        // when
+        CompletableFuture.allOf(
+                CompletableFuture.runAsync(() -> mailbox.charge(userId, 1000L)),
+                CompletableFuture.runAsync(() -> mailbox.charge(userId, 1000L)),
+                CompletableFuture.runAsync(() -> mailbox.charge(userId, 1000L)),
+                CompletableFuture.runAsync(() -> mailbox.charge(userId, 1000L)),
+                CompletableFuture.runAsync(() -> mailbox.charge(userId, 1000L))
+        ).join();
+        drainExecutor.shutdown();
+
+        // then
+        assertThat(userPointTable.selectById(userId).point()).isEqualTo(5000L);
+        assertThat(pointHistoryTable.selectAllByUserId(userId)).hasSize(5);
+    }
+
+    @DisplayName("큐를 모두 비운 mailbox 는 제거되고, 이후 요청은 새 mailbox 로 이어서 반영된다.")
+    @Test
+    void drain_whenQueueIsEmpty_shouldRemoveMailbox() {
+        // given
+        userPointMailbox.chargeAsync(1L, 1000L);
+        userPointMailbox.chargeAsync(2L, 1000L);
+        assertThat(userPointMailbox.mailboxCount()).isEqualTo(2);
+
+        // when
+        runDrainTasks();
+
+        // then
+        assertThat(userPointMailbox.mailboxCount()).isZero();
+
+        CompletableFuture<UserPoint> next = userPointMailbox.chargeAsync(1L, 2000L);
+        runDrainTasks();
+        assertThat(next.join().point()).isEqualTo(3000L);
+        assertThat(userPointMailbox.mailboxCount()).isZero();
+    }
+
+    @DisplayName("대기 요청 수는 회원별 대기열 길이로 기록되어, 한 회원에 몰린 대기열을 전체 합과 구분해 볼 수 있다.")
+    @Test
+    void submit_shouldRecordPerUserDepth() {
+        // given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UserPointMailbox mailbox = new UserPointMailbox(new UserPointTableRepository(userPointTable), new IndexedPointHistoryRepository(pointHistoryTable),
+                userLockProvider, new PointHoldStore(userLockProvider, 600_000L, 1_000L, false), 100, drainTasks::add,
+                new PointMetrics(meterRegistry, userLockProvider));
+
+        // when
+        mailbox.chargeAsync(1L, 1000L);
+        mailbox.chargeAsync(1L, 1000L);
+        mailbox.chargeAsync(1L, 1000L);
+        mailbox.chargeAsync(2L, 1000L);
+
+        // then
+        DistributionSummary depth = meterRegistry.get("point.mailbox.depth").summary();
+        assertThat(depth.count()).isEqualTo(4);
+        assertThat(depth.max()).isEqualTo(3.0);
+        assertThat(depth.totalAmount()).isEqualTo(1.0 + 2.0 + 3.0 + 1.0);
+
+        runDrainTasks();
+        assertThat(mailbox.pendingCount(1L)).isZero();
+        assertThat(depth.count()).isEqualTo(6);
+        assertThat(depth.totalAmount()).isEqualTo(7.0);
+    }
+
+    private PointMetrics pointMetrics() {
+        return new PointMetrics(new SimpleMeterRegistry(), userLockProvider);
+    }
+
+    private CompletableFuture<UserPoint> submitAndWait(Callable<UserPoint> request, long userId, int expectedPending) throws InterruptedException {
+        CompletableFuture<UserPoint> result = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                result.complete(request.call());
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+        });
+        thread.start();
+
+        long deadline = System.currentTimeMillis() + 5_000L;
+        while (userPointMailbox.pendingCount(userId) < expectedPending && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5L);
+        }
+        return result;
+    }
+
+    private void runDrainTasks() {
+        Runnable task;
+        while ((task = drainTasks.poll()) != null) {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package io.hhplus.tdd.point;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 1 ~ n 사이의 값을 Zipf 분포(순위 k 의 확률이 1 / k^exponent 에 비례)로 뽑습니다.
+ * 누적 분포를 미리 계산해 두고 이진 탐색하므로, n 개의 double(8n 바이트)을 사용하고 한 번 뽑는 데 O(log n) 이다.
+ * 부하 테스트에서 일부 회원에게 요청이 몰리는 트래픽을 만들 때 사용합니다.
+ */
+class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    ZipfDistribution(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n 은 1 이상이어야 합니다.");
+        }
+
+        cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            sum += 1.0 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    long sample() {
+        double u = ThreadLocalRandom.current().nextDouble();
+        int index = Arrays.binarySearch(cumulative, u);
+        // 찾지 못하면 u 보다 큰 첫 위치(-(insertion point) - 1)를 반환한다.
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1) + 1L;
+    }
+}
@@ -0,0 +1,48 @@
+package io.hhplus.tdd.point;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ZipfDistributionTest {
+
+    @DisplayName("뽑은 값은 1 ~ n 사이이고, 순위가 높은 값일수록 자주 뽑힌다.")
+    @Test
+    void sample_shouldFavorLowerRanks() {
+        // given
+        int n = 1_000;
+        ZipfDistribution distribution = new ZipfDistribution(n, 1.0);
+        long[] counts = new long[n + 1];
+
+        // when
+        for (int i = 0; i < 1_000_000; i++) {
+            long value = distribution.sample();
+            assertThat(value).isBetween(1L, (long) n);
+            counts[(int) value]++;
+        }
+
+        // then
+        // exponent 1 인 경우 순위 1 과 순위 2 의 빈도 비율은 약 2 이다.
+        assertThat((double) counts[1] / counts[2]).isCloseTo(2.0, within(0.1));
+        assertThat(counts[1]).isGreaterThan(counts[10]).isGreaterThan(counts[100]);
+    }
+
+    @DisplayName("exponent 가 0 이면, 모든 값이 고르게 뽑힌다.")
+    @Test
+    void sample_withZeroExponent_shouldBeUniform() {
+        // given
+        ZipfDistribution distribution = new ZipfDistribution(10, 0.0);
+        long[] counts = new long[11];
+
+        // when
+        for (int i = 0; i < 1_000_000; i++) {
+            counts[(int) distribution.sample()]++;
+        }
+
+        // then
+        for (int value = 1; value <= 10; value++) {
+            assertThat(counts[value]).isCloseTo(100_000L, within(3_000L));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package io.hhplus.tdd.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+
+    @DisplayName("등록한 id 는 만료 시각 전에는 꺼내지지 않고, 만료 시각이 지나면 한 번만 꺼내진다.")
+    @Test
+    void advance_shouldReturnIdOnlyOnce_afterExpiry() {
+        // given
+        HierarchicalTimingWheel timingWheel = new HierarchicalTimingWheel(10L, 1_000_000L, 0L);
+        timingWheel.schedule(1L, 100L);
+        timingWheel.schedule(2L, 50_000L);
+
+        // when // then
+        assertThat(timingWheel.advance(99L)).isEmpty();
+        assertThat(timingWheel.advance(100L)).containsExactly(1L);
+        assertThat(timingWheel.advance(49_999L)).isEmpty();
+        assertThat(timingWheel.advance(60_000L)).containsExactly(2L);
+        assertThat(timingWheel.advance(1_000_000L)).isEmpty();
+        assertThat(timingWheel.size()).isZero();
+    }
+
+    @DisplayName("이미 지난 시각으로 등록한 id 는 다음 tick 에 꺼내진다.")
+    @Test
+    void schedule_whenAlreadyExpired_shouldReturnOnNextTick() {
+        // given
+        HierarchicalTimingWheel timingWheel = new HierarchicalTimingWheel(10L, 1_000L, 1_000L);
+
+        // when
+        timingWheel.schedule(1L, 0L);
+
+        // then
+        assertThat(timingWheel.advance(1_000L)).isEmpty();
+        assertThat(timingWheel.advance(1_010L)).containsExactly(1L);
+    }
+
+    @DisplayName("여러 단계에 걸친 임의의 만료 시각도, 불규칙하게 진행할 때 만료 시각 이후에 정확히 한 번 꺼내진다.")
+    @Test
+    void advance_withRandomDelays_shouldReturnEveryIdOnceAndNeverEarly() {
+        // given
+        Random random = new Random(42);
+        long tickMillis = 7L;
+        // 가장 위 단계를 넘는 지연도 포함되도록 maxDelay 보다 긴 지연을 섞는다.
+        long maxDelayMillis = 100_000L;
+        HierarchicalTimingWheel timingWheel = new HierarchicalTimingWheel(tickMillis, maxDelayMillis, 0L);
+        Map<Long, Long> expiresAt = new HashMap<>();
+        for (long id = 0; id < 10_000; id++) {
+            long delay = random.nextInt(10) == 0 ? random.nextLong(maxDelayMillis * 50) : random.nextLong(maxDelayMillis);
+            expiresAt.put(id, delay);
+            timingWheel.schedule(id, delay);
+        }
+
+        // when
+        Map<Long, Long> returnedAt = new HashMap<>();
+        long now = 0L;
+        while (timingWheel.size() > 0) {
+            now += random.nextLong(5_000);
+            for (long id : timingWheel.advance(now)) {
+                assertThat(returnedAt.put(id, now)).as("id=%d", id).isNull();
+            }
+        }
+
+        // then
+        assertThat(returnedAt).hasSize(expiresAt.size());
+        returnedAt.forEach((id, returned) -> assertThat(returned).as("id=%d", id).isGreaterThanOrEqualTo(expiresAt.get(id)));
+    }
+}
@@ -0,0 +1,117 @@
+package io.hhplus.tdd.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RankedSkipListTest {
+
+    @DisplayName("score 가 큰 순서로, score 가 같으면 id 가 작은 순서로 순위가 매겨진다.")
+    @Test
+    void rank_shouldOrderByScoreDescThenIdAsc() {
+        // given
+        RankedSkipList rankedSkipList = new RankedSkipList();
+        rankedSkipList.add(100L, 3L);
+        rankedSkipList.add(300L, 1L);
+        rankedSkipList.add(100L, 2L);
+
+        // when
+        List<long[]> top = new ArrayList<>();
+        rankedSkipList.forEach(10, (score, id) -> top.add(new long[]{score, id}));
+
+        // then
+        assertThat(top).containsExactly(new long[]{300L, 1L}, new long[]{100L, 2L}, new long[]{100L, 3L});
+        assertThat(rankedSkipList.rank(300L, 1L)).isEqualTo(1L);
+        assertThat(rankedSkipList.rank(100L, 2L)).isEqualTo(2L);
+        assertThat(rankedSkipList.rank(100L, 3L)).isEqualTo(3L);
+        assertThat(rankedSkipList.rank(200L, 1L)).isZero();
+    }
+
+    @DisplayName("없는 항목은 삭제되지 않고, 삭제한 항목 뒤의 순위가 하나씩 앞당겨진다.")
+    @Test
+    void remove_shouldShiftFollowingRanks() {
+        // given
+        RankedSkipList rankedSkipList = new RankedSkipList();
+        rankedSkipList.add(300L, 1L);
+        rankedSkipList.add(200L, 2L);
+        rankedSkipList.add(100L, 3L);
+
+        // when // then
+        assertThat(rankedSkipList.remove(300L, 2L)).isFalse();
+        assertThat(rankedSkipList.remove(300L, 1L)).isTrue();
+        assertThat(rankedSkipList.rank(300L, 1L)).isZero();
+        assertThat(rankedSkipList.rank(200L, 2L)).isEqualTo(1L);
+        assertThat(rankedSkipList.rank(100L, 3L)).isEqualTo(2L);
+        assertThat(rankedSkipList.size()).isEqualTo(2);
+    }
+
+    @DisplayName("score 를 바꾸면 순서가 유지되는 경우 제자리에서, 아니면 새 위치로 옮겨진다.")
+    @Test
+    void update_shouldMoveOnlyWhenOrderChanges() {
+        // given
+        RankedSkipList rankedSkipList = new RankedSkipList();
+        rankedSkipList.add(300L, 1L);
+        rankedSkipList.add(200L, 2L);
+        rankedSkipList.add(100L, 3L);
+
+        // when // then
+        assertThat(rankedSkipList.update(200L, 2L, 250L)).isTrue();
+        assertThat(rankedSkipList.rank(250L, 2L)).isEqualTo(2L);
+        assertThat(rankedSkipList.update(250L, 2L, 50L)).isTrue();
+        assertThat(rankedSkipList.rank(50L, 2L)).isEqualTo(3L);
+        assertThat(rankedSkipList.rank(100L, 3L)).isEqualTo(2L);
+        assertThat(rankedSkipList.update(250L, 2L, 500L)).isFalse();
+        assertThat(rankedSkipList.size()).isEqualTo(3);
+    }
+
+    @DisplayName("임의의 추가/변경/삭제 후에도 순위와 상위 항목이 정렬된 집합과 같다.")
+    @Test
+    void randomOperations_shouldMatchSortedSet() {
+        // given
+        Comparator<long[]> order = Comparator.<long[]>comparingLong(entry -> -entry[0]).thenComparingLong(entry -> entry[1]);
+        TreeSet<long[]> expected = new TreeSet<>(order);
+        Map<Long, Long> scores = new HashMap<>();
+        RankedSkipList rankedSkipList = new RankedSkipList();
+        Random random = new Random(42L);
+
+        // when
+        for (int i = 0; i < 50_000; i++) {
+            long id = random.nextInt(2_000) + 1;
+            long score = random.nextInt(500);
+            Long previous = scores.put(id, score);
+            if (previous != null) {
+                expected.remove(new long[]{previous, id});
+            }
+            if (random.nextInt(10) == 0) {
+                scores.remove(id);
+                assertThat(rankedSkipList.remove(previous == null ? score : previous, id)).isEqualTo(previous != null);
+                continue;
+            }
+            if (previous == null) {
+                rankedSkipList.add(score, id);
+            } else {
+                assertThat(rankedSkipList.update(previous, id, score)).isTrue();
+            }
+            expected.add(new long[]{score, id});
+        }
+
+        // then
+        assertThat(rankedSkipList.size()).isEqualTo(expected.size());
+        long rank = 0;
+        for (long[] entry : expected) {
+            assertThat(rankedSkipList.rank(entry[0], entry[1])).isEqualTo(++rank);
+        }
+        List<long[]> top = new ArrayList<>();
+        rankedSkipList.forEach(100, (score, id) -> top.add(new long[]{score, id}));
+        assertThat(top).containsExactlyElementsOf(expected.stream().limit(100).toList());
+    }
+}
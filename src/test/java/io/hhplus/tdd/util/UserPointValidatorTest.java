@@ -34,4 +34,38 @@ class UserPointValidatorTest {
                 .hasMessage("포인트 사용 및 충전 금액은 0이 될 수 없습니다.");
 
     }
-}
\ No newline at end of file
+
+    @DisplayName("보내는 회원과 받는 회원이 같은 경우 예외가 발생한다.")
+    @Test
+    void validateWithTransfer_shouldThrowException_sameUser() {
+        // given
+        long userId = 1L;
+
+        // when // then
+        assertThatThrownBy(() -> UserPointValidator.withTransfer(userId, userId, 1000L))
+                .isInstanceOf(UserPointException.class)
+                .hasMessage("자기 자신에게는 이체할 수 없습니다.");
+
+    }
+
+    @DisplayName("조회 건수가 최대 조회 건수보다 큰 경우 예외가 발생한다.")
+    @Test
+    void validateWithPage_shouldThrowException_limitIsGreaterThanMax() {
+        // given
+        int invalidLimit = UserPointValidator.MAX_PAGE_LIMIT + 1;
+
+        // when // then
+        assertThatThrownBy(() -> UserPointValidator.withPage(0L, invalidLimit, 0L, Long.MAX_VALUE))
+                .isInstanceOf(UserPointException.class)
+                .hasMessage("조회 건수는 1 이상 1,000 이하만 가능합니다.");
+    }
+
+    @DisplayName("조회 시작 시간이 종료 시간보다 늦은 경우 예외가 발생한다.")
+    @Test
+    void validateWithPage_shouldThrowException_fromIsAfterTo() {
+        // when // then
+        assertThatThrownBy(() -> UserPointValidator.withPage(0L, 10, 2000L, 1000L))
+                .isInstanceOf(UserPointException.class)
+                .hasMessage("조회 시작 시간은 종료 시간보다 늦을 수 없습니다.");
+    }
+}